@@ -21,5 +21,6 @@ public enum ValidationError
     PARSE_ERROR,
     MISSING_REQUIRED_FIELD,
     UNKNOWN_FIELD,
-    UNKNOWN_MESSAGE_TYPE
+    UNKNOWN_MESSAGE_TYPE,
+    REPEATING_GROUP_OUT_OF_ORDER
 }
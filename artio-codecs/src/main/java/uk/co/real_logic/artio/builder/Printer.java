@@ -21,4 +21,22 @@ import uk.co.real_logic.artio.util.AsciiBuffer;
 public interface Printer
 {
     String toString(AsciiBuffer input, int offset, int length, long messageType);
+
+    /**
+     * Decode a message and append it to a builder in the same format as {@link #toString}. Generated printers decode
+     * into a reused decoder and append it without creating a String, so reusing the builder lets messages be printed
+     * without allocating once it has grown to fit them.
+     *
+     * @param builder the builder to append the message to.
+     * @param input the buffer containing the message.
+     * @param offset the offset of the message within the buffer.
+     * @param length the length of the message.
+     * @param messageType the packed message type of the message.
+     * @return the builder.
+     */
+    default StringBuilder appendTo(
+        StringBuilder builder, AsciiBuffer input, int offset, int length, long messageType)
+    {
+        return builder.append(toString(input, offset, length, messageType));
+    }
 }
@@ -187,6 +187,44 @@ public interface SessionHeaderEncoder
 
     void reset();
 
+    /**
+     * Pre-encodes the header fields that identify the session - the comp ids, sub ids and location ids - using
+     * their current values. Subsequent messages copy these bytes into the header with a single
+     * <code>putBytes</code> rather than encoding each field.
+     *
+     * The cached bytes are kept when the encoder is reset. They are discarded when one of the identifying
+     * fields is set or reset, or when {@link #clearConstantFieldsCache()} is called.
+     *
+     * Encoders that don't support caching ignore this call.
+     *
+     * @return this encoder.
+     */
+    default SessionHeaderEncoder cacheConstantFields()
+    {
+        return this;
+    }
+
+    /**
+     * Discards any bytes cached by {@link #cacheConstantFields()}, so that the identifying fields are encoded
+     * individually again.
+     *
+     * @return this encoder.
+     */
+    default SessionHeaderEncoder clearConstantFieldsCache()
+    {
+        return this;
+    }
+
+    /**
+     * Gets whether the identifying fields are currently encoded from bytes cached by {@link #cacheConstantFields()}.
+     *
+     * @return true if the identifying fields are cached, false otherwise.
+     */
+    default boolean hasCachedConstantFields()
+    {
+        return false;
+    }
+
     StringBuilder appendTo(StringBuilder builder);
 
     StringBuilder appendTo(StringBuilder builder, int level);
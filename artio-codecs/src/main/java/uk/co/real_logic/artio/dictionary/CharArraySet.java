@@ -26,12 +26,12 @@ public final class CharArraySet
     private final CharArrayWrapper wrapper = new CharArrayWrapper();
     private final Set<CharArrayWrapper> values;
 
-    public CharArraySet(final String... values)
+    public CharArraySet(final CharSequence... values)
     {
         this(Arrays.asList(values));
     }
 
-    public CharArraySet(final Collection<String> values)
+    public CharArraySet(final Collection<? extends CharSequence> values)
     {
         this.values = values
             .stream()
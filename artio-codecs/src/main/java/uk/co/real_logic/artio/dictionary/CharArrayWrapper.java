@@ -36,9 +36,9 @@ public final class CharArrayWrapper
         this.hashcode = other.hashcode;
     }
 
-    public CharArrayWrapper(final String string)
+    public CharArrayWrapper(final CharSequence value)
     {
-        final char[] values = string.toCharArray();
+        final char[] values = CodecUtil.toChars(value);
         wrap(values, values.length);
     }
 
@@ -72,6 +72,11 @@ public final class CharArrayWrapper
         return this.length == that.length && CodecUtil.equals(values, that.values, offset, that.offset, this.length);
     }
 
+    public boolean contentEquals(final char[] other)
+    {
+        return values != null && length == other.length && CodecUtil.equals(values, other, offset, 0, length);
+    }
+
     public String toString()
     {
         return new String(values, offset, length);
@@ -15,6 +15,7 @@
  */
 package uk.co.real_logic.artio.dictionary;
 
+import java.util.function.BiConsumer;
 import java.util.function.Predicate;
 
 import org.agrona.collections.IntHashSet;
@@ -100,4 +101,9 @@ public final class LongDictionary
         final IntHashSet fields = values(key);
         return fields != null && fields.contains(value);
     }
+
+    void forEach(final BiConsumer<Long, IntHashSet> consumer)
+    {
+        map.forEach(consumer);
+    }
 }
@@ -0,0 +1,251 @@
+/*
+ * Copyright 2015-2022 Real Logic Limited.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.dictionary;
+
+import org.agrona.CloseHelper;
+import org.agrona.IoUtil;
+import org.agrona.LangUtil;
+import org.agrona.generation.CharSequenceJavaFileObject;
+import org.agrona.generation.StringWriterOutputManager;
+import uk.co.real_logic.artio.dictionary.generation.CodecConfiguration;
+import uk.co.real_logic.artio.dictionary.generation.CodecGenerator;
+
+import javax.tools.*;
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Writer;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Loads the codecs for a FIX dictionary xml file at runtime, rather than requiring them to be generated and compiled
+ * as part of a build. This is intended for systems that add or alter dictionaries frequently, eg: when onboarding new
+ * venues, where the resulting {@link FixDictionary} class can be passed to the engine configuration on startup.
+ *
+ * The codecs are generated by the {@link CodecGenerator} and compiled using the JDK's compiler, so they're identical
+ * to codecs compiled at build time and have the same performance once loaded. The compiled classes are cached on
+ * disk in a directory per dictionary, keyed by a hash of the dictionary files, the parent package and the codec
+ * options, see {@link CodecGenerator#fingerprint(CodecConfiguration)}. So only the first load of a dictionary with
+ * a given set of options pays the cost of compilation, loading from the cache just reads the class files.
+ *
+ * Closing the loader closes the class loaders of the codecs that it has loaded, so their classes shouldn't be used
+ * afterwards.
+ *
+ * A JDK rather than a JRE is required to compile dictionaries that aren't already in the cache. The artio-codecs
+ * classes must be on the <code>java.class.path</code> for them to compile.
+ */
+public final class RuntimeCodecLoader implements AutoCloseable
+{
+    public static final String FIX_DICTIONARY_CLASS_NAME = "FixDictionaryImpl";
+
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+    private static final int CACHE_KEY_BYTES = 16;
+
+    private final List<URLClassLoader> classLoaders = new ArrayList<>();
+    private final File cacheDir;
+
+    /**
+     * Create the loader.
+     *
+     * @param cacheDir the directory that compiled codecs are cached in, created if it doesn't exist.
+     */
+    public RuntimeCodecLoader(final File cacheDir)
+    {
+        this.cacheDir = cacheDir;
+    }
+
+    /**
+     * Load the codecs for a dictionary with the default codec options, generating and compiling them if they're not
+     * already in the cache.
+     *
+     * @param parentPackage the parent package of the codecs, as per {@link CodecConfiguration#parentPackage(String)}.
+     * @param dictionaryFiles the dictionary xml files, as per {@link CodecConfiguration#fileNames(String...)}.
+     * @return the class of the dictionary's {@link FixDictionary}.
+     * @throws IOException if unable to read a dictionary file or write to the cache.
+     * @throws ClassNotFoundException if the codecs don't contain a FixDictionary implementation.
+     * @throws IllegalStateException if the codecs fail to compile.
+     */
+    public Class<? extends FixDictionary> load(final String parentPackage, final File... dictionaryFiles)
+        throws IOException, ClassNotFoundException
+    {
+        return load(new CodecConfiguration(), parentPackage, dictionaryFiles);
+    }
+
+    /**
+     * Load the codecs for a dictionary, generating and compiling them if they're not already in the cache.
+     *
+     * @param configuration the options of the codecs, eg: {@link CodecConfiguration#flyweightsEnabled(boolean)}. Its
+     *                      parent package, dictionary files, output path and output manager factory are set by this
+     *                      method.
+     * @param parentPackage the parent package of the codecs, as per {@link CodecConfiguration#parentPackage(String)}.
+     * @param dictionaryFiles the dictionary xml files, as per {@link CodecConfiguration#fileNames(String...)}.
+     * @return the class of the dictionary's {@link FixDictionary}.
+     * @throws IOException if unable to read a dictionary file or write to the cache.
+     * @throws ClassNotFoundException if the codecs don't contain a FixDictionary implementation.
+     * @throws IllegalStateException if the codecs fail to compile.
+     */
+    public Class<? extends FixDictionary> load(
+        final CodecConfiguration configuration, final String parentPackage, final File... dictionaryFiles)
+        throws IOException, ClassNotFoundException
+    {
+        final InputStream[] fileStreams = new InputStream[dictionaryFiles.length];
+        for (int i = 0; i < dictionaryFiles.length; i++)
+        {
+            fileStreams[i] = new ByteArrayInputStream(Files.readAllBytes(dictionaryFiles[i].toPath()));
+        }
+
+        // Output managers may be created concurrently when the configuration has more than one generation thread
+        final List<StringWriterOutputManager> outputManagers = Collections.synchronizedList(new ArrayList<>());
+        configuration
+            .outputPath(cacheDir.getAbsolutePath())
+            .parentPackage(parentPackage)
+            .fileStreams(fileStreams)
+            .skipUnchangedInputs(false)
+            .outputManagerFactory((outputPath, packageName) ->
+            {
+                final StringWriterOutputManager outputManager = new SynchronizedStringWriterOutputManager();
+                outputManager.setPackageName(packageName);
+                outputManagers.add(outputManager);
+                return outputManager;
+            });
+
+        final File classesDir = new File(cacheDir, cacheKey(CodecGenerator.fingerprint(configuration)));
+        if (!classesDir.exists())
+        {
+            compile(generate(configuration, outputManagers), classesDir);
+        }
+
+        final URLClassLoader classLoader = new URLClassLoader(
+            new URL[]{ classesDir.toURI().toURL() }, RuntimeCodecLoader.class.getClassLoader());
+        classLoaders.add(classLoader);
+        return classLoader
+            .loadClass(parentPackage + "." + FIX_DICTIONARY_CLASS_NAME)
+            .asSubclass(FixDictionary.class);
+    }
+
+    /**
+     * Close the class loaders of the codecs loaded by this loader. The cache on disk is kept.
+     */
+    public void close()
+    {
+        CloseHelper.closeAll(classLoaders);
+        classLoaders.clear();
+    }
+
+    private void compile(final List<JavaFileObject> sources, final File classesDir)
+        throws IOException
+    {
+        final JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        if (compiler == null)
+        {
+            throw new IllegalStateException("A JDK is required to compile the codecs for " + classesDir.getName());
+        }
+
+        // Compile to a temporary directory and then rename it so that a partially compiled dictionary is never cached
+        IoUtil.ensureDirectoryExists(cacheDir, cacheDir.getAbsolutePath());
+        final File tempDir = Files.createTempDirectory(cacheDir.toPath(), classesDir.getName()).toFile();
+        try
+        {
+            final DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+            final List<String> options = Arrays.asList(
+                "-d", tempDir.getAbsolutePath(),
+                "-classpath", System.getProperty("java.class.path"));
+            final Boolean success = compiler.getTask(null, null, diagnostics, options, null, sources).call();
+            if (!success)
+            {
+                throw new IllegalStateException(
+                    "Unable to compile the codecs for " + classesDir.getName() + ": " + diagnostics.getDiagnostics());
+            }
+
+            try
+            {
+                Files.move(tempDir.toPath(), classesDir.toPath(), StandardCopyOption.ATOMIC_MOVE);
+            }
+            catch (final IOException e)
+            {
+                // Another loader may have cached the same dictionary concurrently
+                if (!classesDir.exists())
+                {
+                    throw e;
+                }
+            }
+        }
+        finally
+        {
+            if (tempDir.exists())
+            {
+                IoUtil.delete(tempDir, true);
+            }
+        }
+    }
+
+    private static List<JavaFileObject> generate(
+        final CodecConfiguration configuration, final List<StringWriterOutputManager> outputManagers)
+    {
+        try
+        {
+            CodecGenerator.generate(configuration);
+        }
+        catch (final Exception e)
+        {
+            LangUtil.rethrowUnchecked(e);
+        }
+
+        final List<JavaFileObject> sources = new ArrayList<>();
+        for (final StringWriterOutputManager outputManager : outputManagers)
+        {
+            for (final Map.Entry<String, CharSequence> source : outputManager.getSources().entrySet())
+            {
+                sources.add(new CharSequenceJavaFileObject(source.getKey(), source.getValue()));
+            }
+        }
+        return sources;
+    }
+
+    private static String cacheKey(final byte[] fingerprint)
+    {
+        final char[] key = new char[CACHE_KEY_BYTES * 2];
+        for (int i = 0; i < CACHE_KEY_BYTES; i++)
+        {
+            key[i * 2] = HEX_DIGITS[(fingerprint[i] >> 4) & 0xF];
+            key[i * 2 + 1] = HEX_DIGITS[fingerprint[i] & 0xF];
+        }
+        return new String(key);
+    }
+
+    // Decoders, printers and acceptors share a package, so may be written to the same output manager concurrently
+    private static final class SynchronizedStringWriterOutputManager extends StringWriterOutputManager
+    {
+        public synchronized Writer createOutput(final String name)
+        {
+            return super.createOutput(name);
+        }
+
+        public synchronized Map<String, CharSequence> getSources()
+        {
+            return super.getSources();
+        }
+    }
+}
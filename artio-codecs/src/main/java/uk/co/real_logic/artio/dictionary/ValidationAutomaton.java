@@ -0,0 +1,395 @@
+/*
+ * Copyright 2015-2022 Real Logic Limited.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.dictionary;
+
+import org.agrona.collections.IntArrayList;
+import org.agrona.collections.IntHashSet;
+import org.agrona.collections.Long2LongHashMap;
+import uk.co.real_logic.artio.dictionary.ir.Aggregate;
+import uk.co.real_logic.artio.dictionary.ir.Component;
+import uk.co.real_logic.artio.dictionary.ir.Dictionary;
+import uk.co.real_logic.artio.dictionary.ir.Entry;
+import uk.co.real_logic.artio.dictionary.ir.Field;
+import uk.co.real_logic.artio.dictionary.ir.Group;
+import uk.co.real_logic.artio.dictionary.ir.Message;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * A dictionary compiled into a table of states for validating the structure of messages in one pass over their
+ * fields.
+ *
+ * Every message type and every repeating group within a message type is a state. A state knows which tags are
+ * allowed in it, which are required, which tag must start each of its group entries and which group states its
+ * NumInGroup tags lead to. Tags are numbered with dense bits that index into the allowed and required bit sets of
+ * each state, so checking a field is an array lookup and a bit test rather than a hash lookup.
+ */
+public final class ValidationAutomaton
+{
+    public static final int NO_STATE = -1;
+    public static final int UNKNOWN_TAG = -1;
+
+    private final int[] tagToBit;
+    private final int[] bitToTag;
+    private final int wordsPerState;
+    private final long[] allowedFields;
+    private final long[] requiredFields;
+    private final int[] firstTags;
+    private final int maxGroupDepth;
+    private final Long2LongHashMap messageTypeToState = new Long2LongHashMap(NO_STATE);
+    private final Long2LongHashMap groupTransitions = new Long2LongHashMap(NO_STATE);
+
+    /**
+     * Compile the validation automaton of a dictionary. The header and trailer of the dictionary, if it has them,
+     * are part of every message type.
+     *
+     * @param dictionary the dictionary to compile.
+     * @return the compiled automaton.
+     */
+    public static ValidationAutomaton of(final Dictionary dictionary)
+    {
+        final IntHashSet tags = new IntHashSet();
+        for (final Message message : dictionary.messages())
+        {
+            collectTags(message, tags);
+        }
+        collectTags(dictionary.header(), tags);
+        collectTags(dictionary.trailer(), tags);
+
+        return new ValidationAutomaton(tags, (builder) ->
+        {
+            for (final Message message : dictionary.messages())
+            {
+                final int state = builder.newMessageState(message.packedType());
+                builder.addEntries(state, dictionary.header(), true, 0);
+                builder.addEntries(state, message, true, 0);
+                builder.addEntries(state, dictionary.trailer(), true, 0);
+            }
+        });
+    }
+
+    /**
+     * Build a validation automaton from the allowed and required fields of each message type. The automaton has a
+     * state for each message type but none for its repeating groups, so the fields within groups aren't validated.
+     *
+     * @param allFields the fields that are allowed in each message type, see
+     *                  {@link LongDictionary#allFields(Dictionary)}.
+     * @param requiredFields the fields that are required in each message type, see
+     *                       {@link LongDictionary#requiredFields(Dictionary)}.
+     * @return the automaton of the message types in allFields.
+     */
+    public static ValidationAutomaton of(final LongDictionary allFields, final LongDictionary requiredFields)
+    {
+        final IntHashSet tags = new IntHashSet();
+        allFields.forEach((messageType, fields) -> tags.addAll(fields));
+        requiredFields.forEach((messageType, fields) -> tags.addAll(fields));
+
+        return new ValidationAutomaton(tags, (builder) -> allFields.forEach((messageType, fields) ->
+        {
+            final int state = builder.newMessageState(messageType);
+            for (final int tag : fields)
+            {
+                builder.addField(state, tag, false);
+            }
+
+            final IntHashSet required = requiredFields.values(messageType);
+            if (required != null)
+            {
+                for (final int tag : required)
+                {
+                    builder.addField(state, tag, true);
+                }
+            }
+        }));
+    }
+
+    private ValidationAutomaton(final IntHashSet tags, final Consumer<StateBuilder> messageStates)
+    {
+        bitToTag = new int[tags.size()];
+        int bit = 0;
+        int maxTag = 0;
+        for (final int tag : tags)
+        {
+            bitToTag[bit++] = tag;
+            maxTag = Math.max(maxTag, tag);
+        }
+        Arrays.sort(bitToTag);
+
+        tagToBit = new int[maxTag + 1];
+        Arrays.fill(tagToBit, UNKNOWN_TAG);
+        for (int i = 0; i < bitToTag.length; i++)
+        {
+            tagToBit[bitToTag[i]] = i;
+        }
+
+        wordsPerState = Math.max(1, (bitToTag.length + 63) >> 6);
+
+        final StateBuilder builder = new StateBuilder();
+        messageStates.accept(builder);
+
+        final int stateCount = builder.firstTags.size();
+        allowedFields = new long[stateCount * wordsPerState];
+        requiredFields = new long[stateCount * wordsPerState];
+        for (int state = 0; state < stateCount; state++)
+        {
+            System.arraycopy(builder.allowed.get(state), 0, allowedFields, state * wordsPerState, wordsPerState);
+            System.arraycopy(builder.required.get(state), 0, requiredFields, state * wordsPerState, wordsPerState);
+        }
+        firstTags = builder.firstTags.toIntArray();
+        maxGroupDepth = builder.maxGroupDepth;
+    }
+
+    /**
+     * Get the state that validates the top level of a message type.
+     *
+     * @param messageType the packed message type.
+     * @return the state of the message type or {@link #NO_STATE} if the message type isn't in the dictionary.
+     */
+    public int messageState(final long messageType)
+    {
+        return (int)messageTypeToState.get(messageType);
+    }
+
+    /**
+     * Get the state that validates the entries of a repeating group.
+     *
+     * @param state the state that the NumInGroup field of the group is in.
+     * @param groupTag the tag of the NumInGroup field of the group.
+     * @return the state of the group or {@link #NO_STATE} if the tag doesn't start a group in this state.
+     */
+    public int groupState(final int state, final int groupTag)
+    {
+        return (int)groupTransitions.get(transitionKey(state, groupTag));
+    }
+
+    /**
+     * Get the bit that represents a tag in the bit sets of the states.
+     *
+     * @param tag the tag of the field.
+     * @return the bit of the tag or {@link #UNKNOWN_TAG} if the tag isn't in the dictionary.
+     */
+    public int bit(final int tag)
+    {
+        return tag >= 0 && tag < tagToBit.length ? tagToBit[tag] : UNKNOWN_TAG;
+    }
+
+    /**
+     * Get the tag that a bit represents.
+     *
+     * @param bit the bit in the bit sets of the states.
+     * @return the tag that the bit represents.
+     */
+    public int tag(final int bit)
+    {
+        return bitToTag[bit];
+    }
+
+    /**
+     * Get the number of longs in the bit set of each state.
+     *
+     * @return the number of longs in the bit set of each state.
+     */
+    public int wordsPerState()
+    {
+        return wordsPerState;
+    }
+
+    /**
+     * Check whether a field is allowed in a state.
+     *
+     * @param state the state to check.
+     * @param bit the bit of the tag of the field, see {@link #bit(int)}.
+     * @return true if the field is allowed in the state, false otherwise.
+     */
+    public boolean isAllowed(final int state, final int bit)
+    {
+        return bit != UNKNOWN_TAG && (allowedFields[state * wordsPerState + (bit >> 6)] & (1L << bit)) != 0;
+    }
+
+    /**
+     * Get a word of the bit set of fields that are allowed in a state.
+     *
+     * @param state the state of the bit set.
+     * @param word the index of the word within the bit set.
+     * @return the word of the bit set.
+     */
+    public long allowedFields(final int state, final int word)
+    {
+        return allowedFields[state * wordsPerState + word];
+    }
+
+    /**
+     * Get a word of the bit set of fields that are required in a state.
+     *
+     * @param state the state of the bit set.
+     * @param word the index of the word within the bit set.
+     * @return the word of the bit set.
+     */
+    public long requiredFields(final int state, final int word)
+    {
+        return requiredFields[state * wordsPerState + word];
+    }
+
+    /**
+     * Get the tag that must start each entry of a repeating group.
+     *
+     * @param state the state of the group.
+     * @return the tag that starts each entry of the group or {@link #UNKNOWN_TAG} for the state of a message type.
+     */
+    public int firstTag(final int state)
+    {
+        return firstTags[state];
+    }
+
+    /**
+     * Get the deepest nesting of repeating groups in the dictionary.
+     *
+     * @return the deepest nesting of repeating groups in the dictionary.
+     */
+    public int maxGroupDepth()
+    {
+        return maxGroupDepth;
+    }
+
+    private static long transitionKey(final int state, final int groupTag)
+    {
+        return ((long)state << 32) | (groupTag & 0xFFFF_FFFFL);
+    }
+
+    private static void collectTags(final Aggregate aggregate, final IntHashSet tags)
+    {
+        if (aggregate == null)
+        {
+            return;
+        }
+
+        for (final Entry entry : aggregate.entries())
+        {
+            final Entry.Element element = entry.element();
+            if (element instanceof Field)
+            {
+                tags.add(((Field)element).number());
+            }
+            else if (element instanceof Group)
+            {
+                final Group group = (Group)element;
+                tags.add(group.numberField().number());
+                collectTags(group, tags);
+            }
+            else if (element instanceof Component)
+            {
+                collectTags((Component)element, tags);
+            }
+        }
+    }
+
+    // The tag that starts each entry of a group: its first field, looking through components and nested groups.
+    private static int firstTag(final Aggregate aggregate)
+    {
+        for (final Entry entry : aggregate.entries())
+        {
+            final Entry.Element element = entry.element();
+            if (element instanceof Field)
+            {
+                return ((Field)element).number();
+            }
+            else if (element instanceof Group)
+            {
+                return ((Group)element).numberField().number();
+            }
+            else if (element instanceof Component)
+            {
+                final int tag = firstTag((Component)element);
+                if (tag != UNKNOWN_TAG)
+                {
+                    return tag;
+                }
+            }
+        }
+
+        return UNKNOWN_TAG;
+    }
+
+    private final class StateBuilder
+    {
+        private final List<long[]> allowed = new ArrayList<>();
+        private final List<long[]> required = new ArrayList<>();
+        private final IntArrayList firstTags = new IntArrayList();
+        private int maxGroupDepth;
+
+        int newState(final int firstTag)
+        {
+            allowed.add(new long[wordsPerState]);
+            required.add(new long[wordsPerState]);
+            firstTags.addInt(firstTag);
+            return firstTags.size() - 1;
+        }
+
+        int newMessageState(final long messageType)
+        {
+            final int state = newState(UNKNOWN_TAG);
+            messageTypeToState.put(messageType, state);
+            return state;
+        }
+
+        void addEntries(final int state, final Aggregate aggregate, final boolean required, final int groupDepth)
+        {
+            if (aggregate == null)
+            {
+                return;
+            }
+
+            for (final Entry entry : aggregate.entries())
+            {
+                final Entry.Element element = entry.element();
+                final boolean entryRequired = required && entry.required();
+                if (element instanceof Field)
+                {
+                    addField(state, ((Field)element).number(), entryRequired);
+                }
+                else if (element instanceof Group)
+                {
+                    final Group group = (Group)element;
+                    final int groupTag = group.numberField().number();
+                    addField(state, groupTag, entryRequired);
+
+                    final int childDepth = groupDepth + 1;
+                    final int groupState = newState(firstTag(group));
+                    groupTransitions.put(transitionKey(state, groupTag), groupState);
+                    maxGroupDepth = Math.max(maxGroupDepth, childDepth);
+                    addEntries(groupState, group, true, childDepth);
+                }
+                else if (element instanceof Component)
+                {
+                    addEntries(state, (Component)element, entryRequired, groupDepth);
+                }
+            }
+        }
+
+        void addField(final int state, final int tag, final boolean isRequired)
+        {
+            final int bit = tagToBit[tag];
+            allowed.get(state)[bit >> 6] |= 1L << bit;
+            if (isRequired)
+            {
+                required.get(state)[bit >> 6] |= 1L << bit;
+            }
+        }
+    }
+}
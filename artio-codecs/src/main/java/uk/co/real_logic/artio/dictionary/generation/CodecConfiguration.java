@@ -16,7 +16,6 @@
 package uk.co.real_logic.artio.dictionary.generation;
 
 import org.agrona.generation.OutputManager;
-import org.agrona.generation.PackageOutputManager;
 
 import java.io.InputStream;
 import java.util.function.BiFunction;
@@ -56,21 +55,30 @@ public final class CodecConfiguration
     public static final String FLYWEIGHTS_ENABLED_PROPERTY = "fix.codecs.flyweight";
     public static final String REJECT_UNKNOWN_ENUM_VALUE_PROPERTY = "reject.unknown.enum.value";
     public static final String FIX_TAGS_IN_JAVADOC = "fix.codecs.tags_in_javadoc";
+    public static final String INDEXED_GROUPS_ENABLED_PROPERTY = "fix.codecs.indexed_groups";
+    public static final String GENERATION_THREADS_PROPERTY = "fix.codecs.generation_threads";
+    public static final String SKIP_UNCHANGED_INPUTS_PROPERTY = "fix.codecs.skip_unchanged_inputs";
+    public static final String SCALED_FLOAT_ACCESSORS_PROPERTY = "fix.codecs.scaled_float_accessors";
 
     public static final String DEFAULT_PARENT_PACKAGE = "uk.co.real_logic.artio";
     public static final String DEFAULT_FIX_TAGS_IN_JAVADOC = "true";
+    public static final int DEFAULT_GENERATION_THREADS = 1;
 
     private String parentPackage = System.getProperty(PARENT_PACKAGE_PROPERTY, DEFAULT_PARENT_PACKAGE);
     private boolean flyweightsEnabled = Boolean.getBoolean(FLYWEIGHTS_ENABLED_PROPERTY);
     private boolean wrapEmptyBuffer = Boolean.getBoolean(WRAP_EMPTY_BUFFER);
+    private boolean indexedGroupsEnabled = Boolean.getBoolean(INDEXED_GROUPS_ENABLED_PROPERTY);
+    private boolean scaledFloatAccessors = Boolean.getBoolean(SCALED_FLOAT_ACCESSORS_PROPERTY);
     private boolean fixTagsInJavadoc = Boolean.parseBoolean(System.getProperty(
         FIX_TAGS_IN_JAVADOC, DEFAULT_FIX_TAGS_IN_JAVADOC));
+    private int generationThreads = Integer.getInteger(GENERATION_THREADS_PROPERTY, DEFAULT_GENERATION_THREADS);
+    private boolean skipUnchangedInputs = Boolean.getBoolean(SKIP_UNCHANGED_INPUTS_PROPERTY);
     private SharedCodecConfiguration sharedCodecConfiguration;
 
     private String codecRejectUnknownEnumValueEnabled;
     private String outputPath;
 
-    private BiFunction<String, String, OutputManager> outputManagerFactory = PackageOutputManager::new;
+    private BiFunction<String, String, OutputManager> outputManagerFactory = IncrementalOutputManager::new;
     private final GeneratorDictionaryConfiguration nonSharedDictionary =
         new GeneratorDictionaryConfiguration(null, null, null,
         Boolean.getBoolean(FIX_CODECS_ALLOW_DUPLICATE_FIELDS_PROPERTY));
@@ -129,6 +137,46 @@ public final class CodecConfiguration
         return this;
     }
 
+    /**
+     * Generate decoders that record the offset of each repeating group entry as the message is decoded, and decode
+     * an entry on demand, by index, into a single reusable group decoder with <code>x(int index)</code>. The number
+     * of entries is read with <code>xEntryCount()</code>. This replaces the chain of linked group decoders, one per
+     * entry, that is grown for the largest group seen, so memory use is flat regardless of the group size. The
+     * decoder returned for an entry is only valid until the next call of <code>x(int index)</code> or until the
+     * message decoder decodes another message. Decoders that aren't flyweights copy each group's entries when
+     * decoding, so entries can still be read after the message's buffer has been reused. Group iterators,
+     * validation, <code>appendTo</code> and <code>toEncoder</code> use the indexed entries.
+     *
+     * Not supported with shared codecs, where it is ignored. Defaults to the value of
+     * {@link #INDEXED_GROUPS_ENABLED_PROPERTY} system property.
+     *
+     * @param indexedGroupsEnabled true to generate indexed repeating group access, false for linked group decoders.
+     * @return this
+     */
+    public CodecConfiguration indexedGroupsEnabled(final boolean indexedGroupsEnabled)
+    {
+        this.indexedGroupsEnabled = indexedGroupsEnabled;
+        return this;
+    }
+
+    /**
+     * Generate fixed point accessors for float fields, for systems that represent prices and quantities as longs with
+     * a fixed number of decimal places. Decoders get a <code>long priceAsScaledLong(int scale)</code> method for each
+     * float field, which flyweight decoders parse straight from the buffer. The encoders'
+     * <code>price(long value, int scale)</code> setters store the value without normalising it, so it's encoded
+     * with exactly scale decimal places.
+     *
+     * Defaults to the value of {@link #SCALED_FLOAT_ACCESSORS_PROPERTY} system property.
+     *
+     * @param scaledFloatAccessors true to generate fixed point accessors for float fields.
+     * @return this
+     */
+    public CodecConfiguration scaledFloatAccessors(final boolean scaledFloatAccessors)
+    {
+        this.scaledFloatAccessors = scaledFloatAccessors;
+        return this;
+    }
+
     /**
      * Allow duplicate fields. Executable documentation can be found in the test "DuplicateFieldsTest".
      *
@@ -181,7 +229,14 @@ public final class CodecConfiguration
         return this;
     }
 
-    CodecConfiguration outputManagerFactory(
+    /**
+     * Sets the factory for the outputs that generated codecs are written to, given the output path and the package
+     * of the codecs. Optional, defaults to writing each package to a directory under the output path.
+     *
+     * @param outputManagerFactory the factory for the outputs that generated codecs are written to.
+     * @return this
+     */
+    public CodecConfiguration outputManagerFactory(
         final BiFunction<String, String, OutputManager> outputManagerFactory)
     {
         this.outputManagerFactory = outputManagerFactory;
@@ -228,6 +283,42 @@ public final class CodecConfiguration
         return this;
     }
 
+    /**
+     * Sets the number of threads used to generate codecs. Each dictionary's encoders, decoders, enums and printers
+     * are generated as separate tasks, so multiple threads mainly speed up generating large or shared dictionaries.
+     * A custom {@link #outputManagerFactory(BiFunction)} must create thread safe output managers to use more than one
+     * thread.
+     *
+     * Defaults to the value of {@link #GENERATION_THREADS_PROPERTY} system property, or
+     * {@link #DEFAULT_GENERATION_THREADS} if that isn't set.
+     *
+     * @param generationThreads the number of threads used to generate codecs, 1 generates them on the caller's
+     *                          thread.
+     * @return this
+     */
+    public CodecConfiguration generationThreads(final int generationThreads)
+    {
+        this.generationThreads = generationThreads;
+        return this;
+    }
+
+    /**
+     * Skip generating codecs if the dictionaries, configuration options and Artio version are the same as the last
+     * time that codecs were generated into the output path. A fingerprint of these inputs is saved in the output path
+     * after generating the codecs. Deleting the output path forces the codecs to be regenerated.
+     *
+     * Regardless of this option, generated source files whose content hasn't changed aren't rewritten, so build tools
+     * don't recompile them. Defaults to the value of {@link #SKIP_UNCHANGED_INPUTS_PROPERTY} system property.
+     *
+     * @param skipUnchangedInputs true to skip generation when the inputs haven't changed, false to always generate.
+     * @return this
+     */
+    public CodecConfiguration skipUnchangedInputs(final boolean skipUnchangedInputs)
+    {
+        this.skipUnchangedInputs = skipUnchangedInputs;
+        return this;
+    }
+
     String outputPath()
     {
         return outputPath;
@@ -248,6 +339,26 @@ public final class CodecConfiguration
         return wrapEmptyBuffer;
     }
 
+    boolean indexedGroupsEnabled()
+    {
+        return indexedGroupsEnabled;
+    }
+
+    boolean scaledFloatAccessors()
+    {
+        return scaledFloatAccessors;
+    }
+
+    int generationThreads()
+    {
+        return generationThreads;
+    }
+
+    boolean skipUnchangedInputs()
+    {
+        return skipUnchangedInputs;
+    }
+
     String codecRejectUnknownEnumValueEnabled()
     {
         return codecRejectUnknownEnumValueEnabled;
@@ -280,6 +391,11 @@ public final class CodecConfiguration
             throw new IllegalArgumentException("Missing outputPath() configuration property");
         }
 
+        if (generationThreads < 1)
+        {
+            throw new IllegalArgumentException("generationThreads must be >= 1 but is " + generationThreads);
+        }
+
         if (codecRejectUnknownEnumValueEnabled == null)
         {
             final String rejectUnknownEnumPropertyValue = System.getProperty(REJECT_UNKNOWN_ENUM_VALUE_PROPERTY);
@@ -15,8 +15,8 @@
  */
 package uk.co.real_logic.artio.dictionary.generation;
 
+import org.agrona.LangUtil;
 import org.agrona.generation.OutputManager;
-import org.agrona.generation.PackageOutputManager;
 import uk.co.real_logic.artio.builder.RejectUnknownEnumValue;
 import uk.co.real_logic.artio.builder.RejectUnknownField;
 import uk.co.real_logic.artio.builder.Validation;
@@ -24,9 +24,15 @@ import uk.co.real_logic.artio.dictionary.DictionaryParser;
 import uk.co.real_logic.artio.dictionary.ir.Dictionary;
 
 import java.io.File;
+import java.io.IOException;
 import java.io.InputStream;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.function.BiFunction;
 
 public final class CodecGenerator
@@ -40,51 +46,138 @@ public final class CodecGenerator
         final String outputPath = configuration.outputPath();
         final String codecRejectUnknownEnumValueEnabled = configuration.codecRejectUnknownEnumValueEnabled();
 
-        final boolean hasSharedCodecs = configuration.sharedCodecConfiguration() != null;
-        if (hasSharedCodecs)
+        final GenerationFingerprint fingerprint = configuration.skipUnchangedInputs() ?
+            new GenerationFingerprint(configuration) : null;
+        if (fingerprint != null && fingerprint.matchesSaved())
         {
-            generateSharedDictionaries(
-                configuration, outputPath, codecRejectUnknownEnumValueEnabled);
+            return;
         }
-        else
+
+        final int generationThreads = configuration.generationThreads();
+        final ExecutorService executor = generationThreads > 1 ?
+            Executors.newFixedThreadPool(generationThreads) : null;
+        try
+        {
+            final boolean hasSharedCodecs = configuration.sharedCodecConfiguration() != null;
+            if (hasSharedCodecs)
+            {
+                generateSharedDictionaries(
+                    configuration, outputPath, codecRejectUnknownEnumValueEnabled, executor);
+            }
+            else
+            {
+                generateNormalDictionaries(
+                    configuration, outputPath, codecRejectUnknownEnumValueEnabled, executor);
+            }
+        }
+        finally
+        {
+            if (executor != null)
+            {
+                executor.shutdownNow();
+            }
+        }
+
+        if (fingerprint != null)
         {
-            generateNormalDictionaries(
-                configuration, outputPath, codecRejectUnknownEnumValueEnabled);
+            fingerprint.save();
         }
     }
 
+    /**
+     * Compute a hash of everything that determines the codecs generated for a configuration: its dictionaries, its
+     * options and the version of the generator. This is the hash that skipUnchangedInputs saves in the output
+     * directory. The configuration's dictionary streams are read and replaced with in memory copies, so it can still
+     * be passed to {@link #generate(CodecConfiguration)}.
+     *
+     * @param configuration the configuration to hash.
+     * @return the hash of the configuration.
+     * @throws IOException if unable to read the dictionaries.
+     */
+    public static byte[] fingerprint(final CodecConfiguration configuration) throws IOException
+    {
+        configuration.conclude();
+        return new GenerationFingerprint(configuration).fingerprint();
+    }
+
     private static void generateSharedDictionaries(
         final CodecConfiguration configuration,
         final String outputPath,
-        final String codecRejectUnknownEnumValueEnabled)
+        final String codecRejectUnknownEnumValueEnabled,
+        final ExecutorService executor)
     {
         final SharedCodecConfiguration sharedCodecs = configuration.sharedCodecConfiguration();
-        final List<Dictionary> inputDictionaries = new ArrayList<>();
-        for (final GeneratorDictionaryConfiguration dictionaryConfig : sharedCodecs.dictionaries())
+        final List<GeneratorDictionaryConfiguration> dictionaryConfigs = sharedCodecs.dictionaries();
+        final Dictionary[] parsedDictionaries = new Dictionary[dictionaryConfigs.size()];
+        final List<Runnable> parseTasks = new ArrayList<>();
+        for (int i = 0; i < parsedDictionaries.length; i++)
         {
-            final String name = normalise(dictionaryConfig.dictionaryName());
-            try
-            {
-                final DictionaryParser parser = new DictionaryParser(dictionaryConfig.allowDuplicateFields());
-                final Dictionary dictionary = parseStreams(parser, dictionaryConfig.toStreams());
-                dictionary.name(name);
-                inputDictionaries.add(dictionary);
-            }
-            catch (final Exception e)
+            final int index = i;
+            final GeneratorDictionaryConfiguration dictionaryConfig = dictionaryConfigs.get(i);
+            parseTasks.add(() ->
             {
-                throw new IllegalArgumentException("Unable to parse: " + name, e);
-            }
+                final String name = normalise(dictionaryConfig.dictionaryName());
+                try
+                {
+                    final DictionaryParser parser = new DictionaryParser(dictionaryConfig.allowDuplicateFields());
+                    final Dictionary dictionary = parseStreams(parser, dictionaryConfig.toStreams());
+                    dictionary.name(name);
+                    parsedDictionaries[index] = dictionary;
+                }
+                catch (final Exception e)
+                {
+                    throw new IllegalArgumentException("Unable to parse: " + name, e);
+                }
+            });
         }
+        runAll(parseTasks, executor);
 
+        final List<Dictionary> inputDictionaries = new ArrayList<>(Arrays.asList(parsedDictionaries));
         new CodecSharer(inputDictionaries).share();
 
         final boolean splitDirectories = sharedCodecs.splitDirectories();
+        final List<Runnable> generationTasks = new ArrayList<>();
         inputDictionaries.forEach(dictionary ->
         {
             final String suffixDir = dictionary.shared() ? SHARED_DIR_NAME : dictionary.name();
             final String dictOutputPath = outputPath + (splitDirectories ? File.separatorChar + suffixDir : "");
-            generateDictionary(configuration, dictOutputPath, codecRejectUnknownEnumValueEnabled, dictionary);
+            generateDictionary(
+                configuration, dictOutputPath, codecRejectUnknownEnumValueEnabled, dictionary, generationTasks);
         });
+        runAll(generationTasks, executor);
+    }
+
+    // Generators only read the dictionary, so the generators of each dictionary can run concurrently
+    private static void runAll(final List<Runnable> tasks, final ExecutorService executor)
+    {
+        if (executor == null)
+        {
+            tasks.forEach(Runnable::run);
+            return;
+        }
+
+        final List<Future<?>> futures = new ArrayList<>();
+        for (final Runnable task : tasks)
+        {
+            futures.add(executor.submit(task));
+        }
+
+        for (final Future<?> future : futures)
+        {
+            try
+            {
+                future.get();
+            }
+            catch (final ExecutionException e)
+            {
+                LangUtil.rethrowUnchecked(e.getCause());
+            }
+            catch (final InterruptedException e)
+            {
+                Thread.currentThread().interrupt();
+                LangUtil.rethrowUnchecked(e);
+            }
+        }
     }
 
     private static String normalise(final String dictionaryName)
@@ -95,7 +188,8 @@ public final class CodecGenerator
     private static void generateNormalDictionaries(
         final CodecConfiguration configuration,
         final String outputPath,
-        final String codecRejectUnknownEnumValueEnabled) throws Exception
+        final String codecRejectUnknownEnumValueEnabled,
+        final ExecutorService executor) throws Exception
     {
         final GeneratorDictionaryConfiguration nonSharedDictionary = configuration.nonSharedDictionary();
         final DictionaryParser parser = new DictionaryParser(nonSharedDictionary.allowDuplicateFields());
@@ -103,7 +197,10 @@ public final class CodecGenerator
         try
         {
             final Dictionary dictionary = parseStreams(parser, fileStreams);
-            generateDictionary(configuration, outputPath, codecRejectUnknownEnumValueEnabled, dictionary);
+            final List<Runnable> generationTasks = new ArrayList<>();
+            generateDictionary(
+                configuration, outputPath, codecRejectUnknownEnumValueEnabled, dictionary, generationTasks);
+            runAll(generationTasks, executor);
         }
         finally
         {
@@ -128,14 +225,12 @@ public final class CodecGenerator
         final CodecConfiguration configuration,
         final String outputPath,
         final String codecRejectUnknownEnumValueEnabled,
-        final Dictionary dictionary)
+        final Dictionary dictionary,
+        final List<Runnable> tasks)
     {
-        String parentPackage = configuration.parentPackage();
         final String name = dictionary.name();
-        if (name != null)
-        {
-            parentPackage += "." + name;
-        }
+        final String parentPackage = name != null ?
+            configuration.parentPackage() + "." + name : configuration.parentPackage();
 
         final String encoderPackage = parentPackage + ".builder";
         final String decoderPackage = parentPackage + ".decoder";
@@ -147,17 +242,18 @@ public final class CodecGenerator
         final OutputManager decoderOutput = outputManagerFactory.apply(outputPath, decoderPackage);
         final OutputManager encoderOutput = outputManagerFactory.apply(outputPath, encoderPackage);
 
-        new EnumGenerator(dictionary, parentPackage, parentOutput).generate();
-        new ConstantGenerator(dictionary, parentPackage, configuration.parentPackage(), parentOutput).generate();
+        tasks.add(() -> new EnumGenerator(dictionary, parentPackage, parentOutput).generate());
+        tasks.add(() -> new ConstantGenerator(
+            dictionary, parentPackage, configuration.parentPackage(), parentOutput).generate());
 
-        new FixDictionaryGenerator(
+        tasks.add(() -> new FixDictionaryGenerator(
             dictionary,
             parentOutput,
             encoderPackage,
             decoderPackage,
-            parentPackage).generate();
+            parentPackage).generate());
 
-        new EncoderGenerator(
+        tasks.add(() -> new EncoderGenerator(
             dictionary,
             encoderPackage,
             parentPackage,
@@ -166,9 +262,10 @@ public final class CodecGenerator
             RejectUnknownField.class,
             RejectUnknownEnumValue.class,
             codecRejectUnknownEnumValueEnabled,
-            configuration.fixTagsInJavadoc()).generate();
+            configuration.fixTagsInJavadoc(),
+            configuration.scaledFloatAccessors()).generate());
 
-        new DecoderGenerator(
+        tasks.add(() -> new DecoderGenerator(
             dictionary,
             1,
             decoderPackage,
@@ -181,17 +278,19 @@ public final class CodecGenerator
             false,
             configuration.wrapEmptyBuffer(),
             codecRejectUnknownEnumValueEnabled,
-            configuration.fixTagsInJavadoc()).generate();
+            configuration.fixTagsInJavadoc(),
+            configuration.indexedGroupsEnabled(),
+            configuration.scaledFloatAccessors()).generate());
 
-        new PrinterGenerator(dictionary, decoderPackage, decoderOutput).generate();
-        new AcceptorGenerator(dictionary, decoderPackage, decoderOutput).generate();
+        tasks.add(() -> new PrinterGenerator(dictionary, decoderPackage, decoderOutput).generate());
+        tasks.add(() -> new AcceptorGenerator(dictionary, decoderPackage, decoderOutput).generate());
 
         if (configuration.flyweightsEnabled())
         {
-            final PackageOutputManager flyweightDecoderOutput =
-                new PackageOutputManager(outputPath, decoderFlyweightPackage);
+            final OutputManager flyweightDecoderOutput =
+                new IncrementalOutputManager(outputPath, decoderFlyweightPackage);
 
-            new DecoderGenerator(
+            tasks.add(() -> new DecoderGenerator(
                 dictionary,
                 1,
                 decoderFlyweightPackage,
@@ -203,7 +302,9 @@ public final class CodecGenerator
                 true,
                 configuration.wrapEmptyBuffer(),
                 codecRejectUnknownEnumValueEnabled,
-                configuration.fixTagsInJavadoc()).generate();
+                configuration.fixTagsInJavadoc(),
+                configuration.indexedGroupsEnabled(),
+                configuration.scaledFloatAccessors()).generate());
         }
     }
 }
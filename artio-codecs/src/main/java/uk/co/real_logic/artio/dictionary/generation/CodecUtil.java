@@ -92,6 +92,18 @@ public final class CodecUtil
         return buffer;
     }
 
+    public static char[] toChars(final CharSequence value)
+    {
+        final int length = value.length();
+        final char[] chars = new char[length];
+        for (int i = 0; i < length; i++)
+        {
+            chars[i] = value.charAt(i);
+        }
+
+        return chars;
+    }
+
     // NB: only valid for ASCII bytes.
     public static char[] fromBytes(final byte[] value)
     {
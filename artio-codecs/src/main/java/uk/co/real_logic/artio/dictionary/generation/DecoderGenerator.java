@@ -119,6 +119,15 @@ class DecoderGenerator extends Generator
      * Wrap empty buffer instead of throwing an exception if an optional string is unset.
      */
     private final boolean wrapEmptyBuffer;
+    /**
+     * Record the offsets of repeating group entries and access them by index through a single reusable decoder,
+     * rather than decoding each entry into its own linked decoder.
+     */
+    private final boolean indexedGroups;
+    /**
+     * Generate accessors that parse float fields straight into longs with a fixed number of decimal places.
+     */
+    private final boolean scaledFloatAccessors;
 
     DecoderGenerator(
         final Dictionary dictionary,
@@ -134,12 +143,58 @@ class DecoderGenerator extends Generator
         final boolean wrapEmptyBuffer,
         final String codecRejectUnknownEnumValueEnabled,
         final boolean fixTagsInJavadoc)
+    {
+        this(dictionary, initialBufferSize, thisPackage, commonPackage, encoderPackage, outputManager,
+            validationClass, rejectUnknownFieldClass, rejectUnknownEnumValueClass, flyweightsEnabled, wrapEmptyBuffer,
+            codecRejectUnknownEnumValueEnabled, fixTagsInJavadoc, false);
+    }
+
+    DecoderGenerator(
+        final Dictionary dictionary,
+        final int initialBufferSize,
+        final String thisPackage,
+        final String commonPackage,
+        final String encoderPackage,
+        final OutputManager outputManager,
+        final Class<?> validationClass,
+        final Class<?> rejectUnknownFieldClass,
+        final Class<?> rejectUnknownEnumValueClass,
+        final boolean flyweightsEnabled,
+        final boolean wrapEmptyBuffer,
+        final String codecRejectUnknownEnumValueEnabled,
+        final boolean fixTagsInJavadoc,
+        final boolean indexedGroups)
+    {
+        this(dictionary, initialBufferSize, thisPackage, commonPackage, encoderPackage, outputManager,
+            validationClass, rejectUnknownFieldClass, rejectUnknownEnumValueClass, flyweightsEnabled, wrapEmptyBuffer,
+            codecRejectUnknownEnumValueEnabled, fixTagsInJavadoc, indexedGroups, false);
+    }
+
+    DecoderGenerator(
+        final Dictionary dictionary,
+        final int initialBufferSize,
+        final String thisPackage,
+        final String commonPackage,
+        final String encoderPackage,
+        final OutputManager outputManager,
+        final Class<?> validationClass,
+        final Class<?> rejectUnknownFieldClass,
+        final Class<?> rejectUnknownEnumValueClass,
+        final boolean flyweightsEnabled,
+        final boolean wrapEmptyBuffer,
+        final String codecRejectUnknownEnumValueEnabled,
+        final boolean fixTagsInJavadoc,
+        final boolean indexedGroups,
+        final boolean scaledFloatAccessors)
     {
         super(dictionary, thisPackage, commonPackage, outputManager, validationClass, rejectUnknownFieldClass,
             rejectUnknownEnumValueClass, flyweightsEnabled, codecRejectUnknownEnumValueEnabled, fixTagsInJavadoc);
         this.initialBufferSize = initialBufferSize;
         this.encoderPackage = encoderPackage;
         this.wrapEmptyBuffer = wrapEmptyBuffer;
+        // Shared codecs split group accessors across abstract parents and their children, so aren't supported.
+        this.indexedGroups = indexedGroups && !dictionary.shared() && !dictionary.hasSharedParent();
+        this.scaledFloatAccessors = scaledFloatAccessors;
     }
 
     public void generate()
@@ -408,6 +463,25 @@ class DecoderGenerator extends Generator
         {
             return String.format("    public abstract void %1$s();\n", resetMethod);
         }
+        else if (indexedGroups)
+        {
+            final Entry numberField = group.numberField();
+            return String.format(
+                "    public void %1$s()\n" +
+                "    {\n" +
+                "        if (%2$s != null)\n" +
+                "        {\n" +
+                "            %2$s.reset();\n" +
+                "        }\n" +
+                "        %2$sEntryCount = 0;\n" +
+                "        %3$s = MISSING_INT;\n" +
+                "        has%4$s = false;\n" +
+                "    }\n\n",
+                resetMethod,
+                formatPropertyName(name),
+                formatPropertyName(numberField.name()),
+                numberField.name());
+        }
         else
         {
             final Entry numberField = group.numberField();
@@ -858,6 +932,15 @@ class DecoderGenerator extends Generator
             "    public %1$s %2$s();\n",
             groupClassName(group),
             formatPropertyName(group.name())));
+
+        if (indexedGroups)
+        {
+            out.append(String.format(
+                "    public int %2$sEntryCount();\n" +
+                "    public %1$s %2$s(int index);\n",
+                groupClassName(group),
+                formatPropertyName(group.name())));
+        }
     }
 
     private void wrappedForEachEntry(
@@ -1144,9 +1227,62 @@ class DecoderGenerator extends Generator
                 prefix,
                 iteratorClassName(group, false),
                 iteratorFieldName(group)));
+
+            if (indexedGroups)
+            {
+                out.append(indexedGroupGetter(groupClassName, formatPropertyName(group.name())));
+            }
         }
     }
 
+    private String indexedGroupGetter(final String groupClassName, final String groupPropertyName)
+    {
+        // The offsets array holds the start of each entry followed by the end of the last one. Flyweight decoders
+        // already rely upon the message's buffer, other decoders copy the group's entries into their own buffer.
+        final String entriesBuffer = flyweightsEnabled ? "" : String.format(
+            "    private final MutableAsciiBuffer %1$sEntriesBuffer = new MutableAsciiBuffer(new byte[0]);\n",
+            groupPropertyName);
+        final String decodeEntry = flyweightsEnabled ?
+            "        cursor.decode(buffer, entryOffset, %2$sEntryOffsets[index + 1] - entryOffset);\n" :
+            "        cursor.decode(\n" +
+            "            %2$sEntriesBuffer,\n" +
+            "            entryOffset - %2$sEntryOffsets[0],\n" +
+            "            %2$sEntryOffsets[index + 1] - entryOffset);\n";
+
+        return String.format(
+            "    private int[] %2$sEntryOffsets = new int[1];\n" +
+            "    private int %2$sEntryCount = 0;\n" +
+            entriesBuffer +
+            "\n" +
+            "    public int %2$sEntryCount()\n" +
+            "    {\n" +
+            "        return %2$sEntryCount;\n" +
+            "    }\n\n" +
+            "    /**\n" +
+            "     * Decodes the repeating group entry at the given index into a decoder that is reused for every\n" +
+            "     * entry, so the returned decoder is only valid until the next call of this method or until this\n" +
+            "     * decoder decodes another message.\n" +
+            "     *\n" +
+            "     * @param index the index of the entry within the group.\n" +
+            "     * @return the decoder for the entry.\n" +
+            "     */\n" +
+            "    public %1$s %2$s(final int index)\n" +
+            "    {\n" +
+            "        if (index < 0 || index >= %2$sEntryCount)\n" +
+            "        {\n" +
+            "            throw new IndexOutOfBoundsException(\n" +
+            "                \"index=\" + index + \", entryCount=\" + %2$sEntryCount);\n" +
+            "        }\n" +
+            "        final int entryOffset = %2$sEntryOffsets[index];\n" +
+            "        final %1$s cursor = %2$s;\n" +
+            "        cursor.reset();\n" +
+            decodeEntry +
+            "        return cursor;\n" +
+            "    }\n\n",
+            groupClassName,
+            groupPropertyName);
+    }
+
     private void generateGroupIterator(final Writer out, final Group group) throws IOException
     {
         final String numberFieldName = group.numberField().name();
@@ -1226,6 +1362,11 @@ class DecoderGenerator extends Generator
                 parentDecoderName,
                 parentLocation));
         }
+        else if (indexedGroups)
+        {
+            generateIndexedGroupIterator(
+                out, numberFieldReset, iteratorClassName, groupDecoderName, groupPropertyName);
+        }
         else
         {
             generateNormalGroupIterator(
@@ -1233,6 +1374,56 @@ class DecoderGenerator extends Generator
         }
     }
 
+    private void generateIndexedGroupIterator(
+        final Writer out,
+        final String numberFieldReset,
+        final String iteratorClassName,
+        final String groupDecoderName,
+        final String groupPropertyName)
+        throws IOException
+    {
+        final String parentDecoderName = decoderClassName(currentAggregate());
+        out.append(String.format(
+            "    " + GENERATED_ANNOTATION +
+            "    public class %1$s implements Iterable<%2$s>, java.util.Iterator<%2$s>\n" +
+            "    {\n" +
+            "        private final %3$s parent;\n" +
+            "        private int index;\n" +
+            "        private int entryCount;\n\n" +
+            "        public %1$s(final %3$s parent)\n" +
+            "        {\n" +
+            "            this.parent = parent;\n" +
+            "        }\n\n" +
+            "        public boolean hasNext()\n" +
+            "        {\n" +
+            "            return index < entryCount;\n" +
+            "        }\n\n" +
+            "        public %2$s next()\n" +
+            "        {\n" +
+            "            return parent.%5$s(index++);\n" +
+            "        }\n\n" +
+            "        public int numberFieldValue()\n" +
+            "        {\n" +
+            "            return %4$s;\n" +
+            "        }\n\n" +
+            "        public void reset()\n" +
+            "        {\n" +
+            "            index = 0;\n" +
+            "            entryCount = parent.%5$sEntryCount();\n" +
+            "        }\n\n" +
+            "        public %1$s iterator()\n" +
+            "        {\n" +
+            "            reset();\n" +
+            "            return this;\n" +
+            "        }\n\n" +
+            "    }\n\n",
+            iteratorClassName,
+            groupDecoderName,
+            parentDecoderName,
+            numberFieldReset,
+            groupPropertyName));
+    }
+
     private void generateNormalGroupIterator(
         final Writer out,
         final String numberFieldReset,
@@ -1364,6 +1555,7 @@ class DecoderGenerator extends Generator
             "%9$s" +
             "        return %2$s;\n" +
             "    }\n\n" +
+            "%12$s" +
             "%6$s\n" +
             "%7$s\n" +
             "%8$s",
@@ -1377,6 +1569,31 @@ class DecoderGenerator extends Generator
             enumDecoder,
             flyweightsEnabled ? lazyInitialisation : "",
             scope,
+            javadoc,
+            scaledFloatGetter(type, fieldName, optionalCheck, javadoc));
+    }
+
+    private String scaledFloatGetter(
+        final Type type, final String fieldName, final String optionalCheck, final String javadoc)
+    {
+        if (!scaledFloatAccessors || !type.isFloatBased())
+        {
+            return "";
+        }
+
+        // Flyweights haven't parsed the field yet so can skip the DecimalFloat entirely
+        final String scaledValue = flyweightsEnabled ?
+            "buffer.getFloatAsScaledLong(%1$sOffset, %1$sLength, scale)" :
+            "%1$s.toScaledLong(scale)";
+
+        return String.format(
+            "    %3$spublic long %1$sAsScaledLong(final int scale)\n" +
+            "    {\n" +
+            "%2$s" +
+            "        return " + scaledValue + ";\n" +
+            "    }\n\n",
+            fieldName,
+            optionalCheck,
             javadoc);
     }
 
@@ -1797,7 +2014,16 @@ class DecoderGenerator extends Generator
     private String endGroupCheck(final Aggregate aggregate, final boolean isGroup)
     {
         final String endGroupCheck;
-        if (isGroup)
+        if (isGroup && indexedGroups)
+        {
+            // Entries are decoded by index into the same decoder, so there's no next decoder to link to.
+            endGroupCheck =
+                "            if (!seenFields.add(tag))\n" +
+                "            {\n" +
+                "                return position - offset;\n" +
+                "            }\n";
+        }
+        else if (isGroup)
         {
             endGroupCheck = String.format(
                 "            if (!seenFields.add(tag))\n" +
@@ -1889,14 +2115,31 @@ class DecoderGenerator extends Generator
             getNumberField = "this." + groupNumberField;
         }
 
-        final String parseGroup = String.format(
-            "                if (%1$s == null)\n" +
+        final String copyEntries = flyweightsEnabled ? "" :
+            "                final int %1$sEntriesLength = position - %1$sEntryOffsets[0];\n" +
+            "                if (%1$sEntriesBuffer.capacity() < %1$sEntriesLength)\n" +
             "                {\n" +
-            "                    %1$s = new %2$s(trailer, %5$s);\n" +
+            "                    %1$sEntriesBuffer.wrap(new byte[%1$sEntriesLength]);\n" +
+            "                }\n" +
+            "                %1$sEntriesBuffer.putBytes(0, buffer, %1$sEntryOffsets[0], %1$sEntriesLength);\n";
+
+        final String decodeEntries = indexedGroups ?
+            // Every entry takes at least 4 bytes, which bounds the offsets array for malformed group counts.
+            "                final int %1$sMaxEntries = Math.max(0, Math.min(%3$s, (end - position) >> 2));\n" +
+            "                if (%1$sEntryOffsets.length <= %1$sMaxEntries)\n" +
+            "                {\n" +
+            "                    %1$sEntryOffsets = new int[%1$sMaxEntries + 1];\n" +
+            "                }\n" +
+            "                %1$sEntryCount = 0;\n" +
+            "                for (int i = 0; i < %1$sMaxEntries && position < end; i++)\n" +
+            "                {\n" +
+            "                    %1$sEntryOffsets[i] = position;\n" +
+            "                    position += %1$s.decode(buffer, position, end - position);\n" +
+            "                    %1$sEntryCount++;\n" +
             "                }\n" +
+            "                %1$sEntryOffsets[%1$sEntryCount] = position;\n" +
+            copyEntries :
             "                %2$s %1$sCurrent = %1$s;\n" +
-            "                position = endOfField + 1;\n" +
-            "                final int %3$s = %4$s;\n" +
             "                for (int i = 0; i < %3$s && position < end; i++)\n" +
             "                {\n" +
             "                    if (%1$sCurrent != null)\n" +
@@ -1904,7 +2147,16 @@ class DecoderGenerator extends Generator
             "                        position += %1$sCurrent.decode(buffer, position, end - position);\n" +
             "                        %1$sCurrent = %1$sCurrent.next();\n" +
             "                    }\n" +
+            "                }\n";
+
+        final String parseGroup = String.format(
+            "                if (%1$s == null)\n" +
+            "                {\n" +
+            "                    %1$s = new %2$s(trailer, %5$s);\n" +
             "                }\n" +
+            "                position = endOfField + 1;\n" +
+            "                final int %3$s = %4$s;\n" +
+            decodeEntries +
             "                if (" + CODEC_VALIDATION_ENABLED + ")\n" +
             "                {\n" +
             "                    final int checkEqualsPosition = buffer.scan(position, end, '=');\n" +
@@ -2139,6 +2391,31 @@ class DecoderGenerator extends Generator
         }
 
         final String numberField = group.numberField().name();
+        if (indexedGroups)
+        {
+            return String.format(
+                "        if (has%2$s)\n" +
+                "        {\n" +
+                "            indent(builder, level);\n" +
+                "            builder.append(\"\\\"%1$s\\\": [\\n\");\n" +
+                "            for (int i = 0, size = this.%3$sEntryCount; i < size; i++)\n" +
+                "            {\n" +
+                "                indent(builder, level);\n" +
+                "                this.%3$s(i).appendTo(builder, level + 1);\n" +
+                "                if (i < size - 1)\n" +
+                "                {\n" +
+                "                    builder.append(',');\n" +
+                "                }\n" +
+                "                builder.append('\\n');\n" +
+                "            }\n" +
+                "            indent(builder, level);\n" +
+                "            builder.append(\"],\\n\");\n" +
+                "        }\n",
+                name,
+                numberField,
+                formatPropertyName(name));
+        }
+
         return String.format(
             "        if (has%2$s)\n" +
             "        {\n" +
@@ -2262,6 +2539,25 @@ class DecoderGenerator extends Generator
 
         final String numberField = group.numberField().name();
 
+        if (indexedGroups)
+        {
+            return String.format(
+                "        if (has%1$s)\n" +
+                "        {\n" +
+                "            final int size = this.%2$sEntryCount;\n" +
+                "            %4$s %2$sEncoder = %3$s.%2$s(size);\n" +
+                "            for (int i = 0; i < size; i++)\n" +
+                "            {\n" +
+                "                this.%2$s(i).toEncoder(%2$sEncoder);\n" +
+                "                %2$sEncoder = %2$sEncoder.next();\n" +
+                "            }\n" +
+                "        }\n",
+                numberField,
+                formatPropertyName(name),
+                encoderName,
+                encoderClassName(name));
+        }
+
         return String.format(
             "        if (has%1$s)\n" +
             "        {\n" +
@@ -61,6 +61,15 @@ class EncoderGenerator extends Generator
         "SequenceResetEncoder",
         "BusinessMessageRejectEncoder"));
 
+    // Header fields that identify a session and are the same on every message sent by it.
+    private static final Set<String> CONSTANT_HEADER_FIELDS = new HashSet<>(Arrays.asList(
+        "SenderCompID",
+        "TargetCompID",
+        "SenderSubID",
+        "SenderLocationID",
+        "TargetSubID",
+        "TargetLocationID"));
+
     private static final String TRAILER_ENCODE_PREFIX =
         "    long finishMessage(final MutableAsciiBuffer buffer, final int messageStart, final int offset)\n" +
         "    {\n" +
@@ -155,6 +164,8 @@ class EncoderGenerator extends Generator
     private final MutableAsciiBuffer string = new MutableAsciiBuffer(buffer);
 
     private final String beginString;  // e.g. "FIX.4.4"
+    // Set float fields from longs with a fixed number of decimal places without normalising them
+    private final boolean scaledFloatAccessors;
 
     EncoderGenerator(
         final Dictionary dictionary,
@@ -166,6 +177,23 @@ class EncoderGenerator extends Generator
         final Class<?> rejectUnknownEnumValueClass,
         final String codecRejectUnknownEnumValueEnabled,
         final boolean fixTagsInJavadoc)
+    {
+        this(dictionary, builderPackage, builderCommonPackage, outputManager, validationClass,
+            rejectUnknownFieldClass, rejectUnknownEnumValueClass, codecRejectUnknownEnumValueEnabled, fixTagsInJavadoc,
+            false);
+    }
+
+    EncoderGenerator(
+        final Dictionary dictionary,
+        final String builderPackage,
+        final String builderCommonPackage,
+        final OutputManager outputManager,
+        final Class<?> validationClass,
+        final Class<?> rejectUnknownFieldClass,
+        final Class<?> rejectUnknownEnumValueClass,
+        final String codecRejectUnknownEnumValueEnabled,
+        final boolean fixTagsInJavadoc,
+        final boolean scaledFloatAccessors)
     {
         super(dictionary, builderPackage, builderCommonPackage, outputManager, validationClass, rejectUnknownFieldClass,
             rejectUnknownEnumValueClass, false, codecRejectUnknownEnumValueEnabled, fixTagsInJavadoc);
@@ -175,6 +203,7 @@ class EncoderGenerator extends Generator
         validateHasField(header, BODY_LENGTH);
 
         beginString = dictionary.beginString();
+        this.scaledFloatAccessors = scaledFloatAccessors;
     }
 
     private void validateHasField(final Component header, final String fieldName)
@@ -305,11 +334,17 @@ class EncoderGenerator extends Generator
                 "\n\n",
                 beginString,
                 scope));
+
+            // setters in the shared parent discard the cache held by the child encoder
+            if (isSharedParent())
+            {
+                out.append("    protected int constantFieldsLength = 0;\n\n");
+            }
         }
 
         precomputedHeaders(out, aggregate.entries());
         generateSetters(out, className, aggregate.entries());
-        out.append(encodeMethod(aggregate.entries(), type));
+        out.append(encodeMethod(className, aggregate.entries(), type));
         final String resetMethod = completeResetMethod(aggregate, isMessage, type);
         out.append(resetMethod);
         out.append(generateAppendTo(aggregate, isMessage));
@@ -744,6 +779,7 @@ class EncoderGenerator extends Generator
             "        %1$s.wrap(value);\n" +
             "        %1$sOffset = offset;\n" +
             "        %1$sLength = length;\n" +
+            "%6$s" +
             "        return this;\n" +
             "    }\n\n" +
             "    %5$spublic %2$s %1$s(final DirectBuffer value, final int length)\n" +
@@ -759,6 +795,7 @@ class EncoderGenerator extends Generator
             "        %1$s.wrap(value);\n" +
             "        %1$sOffset = offset;\n" +
             "        %1$sLength = length;\n" +
+            "%6$s" +
             "        return this;\n" +
             "    }\n\n" +
             "    %5$spublic %2$s %1$sAsCopy(final byte[] value, final int offset, final int length)\n" +
@@ -766,6 +803,7 @@ class EncoderGenerator extends Generator
             "        copyInto(%1$s, value, offset, length);\n" +
             "        %1$sOffset = offset;\n" +
             "        %1$sLength = length;\n" +
+            "%6$s" +
             "        return this;\n" +
             "    }\n\n" +
             "    %5$spublic %2$s %1$s(final byte[] value, final int length)\n" +
@@ -792,7 +830,8 @@ class EncoderGenerator extends Generator
             className,
             name,
             scope,
-            javadoc);
+            javadoc,
+            clearConstantFieldsCache(name));
     }
 
     private String generateStringSetter(
@@ -809,6 +848,7 @@ class EncoderGenerator extends Generator
             "        toBytes(value, %1$s);\n" +
             "        %1$sOffset = 0;\n" +
             "        %1$sLength = value.length();\n" +
+            "%6$s" +
             "        return this;\n" +
             "    }\n\n" +
             "    %5$spublic %3$s %1$s(final AsciiSequenceView value)\n" +
@@ -819,6 +859,7 @@ class EncoderGenerator extends Generator
             "            %1$s.wrap(buffer);\n" +
             "            %1$sOffset = value.offset();\n" +
             "            %1$sLength = value.length();\n" +
+            "%6$s" +
             "        }\n" +
             "        return this;\n" +
             "    }\n\n" +
@@ -835,6 +876,7 @@ class EncoderGenerator extends Generator
             "        toBytes(value, %1$s, offset, length);\n" +
             "        %1$sOffset = 0;\n" +
             "        %1$sLength = length;\n" +
+            "%6$s" +
             "        return this;\n" +
             "    }\n\n" +
             "%4$s",
@@ -842,7 +884,14 @@ class EncoderGenerator extends Generator
             generateBytesSetter(className, fieldName, name, javadoc),
             className,
             enumSetter,
-            javadoc);
+            javadoc,
+            clearConstantFieldsCache(name));
+    }
+
+    // Setting or resetting a field whose bytes are cached by cacheConstantFields() discards the cache.
+    private String clearConstantFieldsCache(final String name)
+    {
+        return isConstantHeaderField(name) ? "        constantFieldsLength = 0;\n" : "";
     }
 
     private String generateSetter(
@@ -898,7 +947,7 @@ class EncoderGenerator extends Generator
             "    }\n\n" +
             "    %7$spublic %3$s %1$s(long value, int scale)\n" +
             "    {\n" +
-            "        %1$s.set(value, scale);\n" +
+            "        %1$s.%8$s(value, scale);\n" +
             "%4$s" +
             "        return this;\n" +
             "    }\n\n" +
@@ -913,7 +962,8 @@ class EncoderGenerator extends Generator
             optionalAssign,
             enumSetter,
             scope,
-            javadoc);
+            javadoc,
+            scaledFloatAccessors ? "setScaled" : "set");
     }
 
     private String enumSetter(
@@ -942,7 +992,7 @@ class EncoderGenerator extends Generator
         );
     }
 
-    private String encodeMethod(final List<Entry> entries, final AggregateType aggregateType)
+    private String encodeMethod(final String className, final List<Entry> entries, final AggregateType aggregateType)
     {
         if (isSharedParent())
         {
@@ -973,7 +1023,9 @@ class EncoderGenerator extends Generator
                 break;
         }
 
-        final String body = entries.stream()
+        final String body = aggregateType == HEADER ?
+            headerEncodeBody(entries) :
+            entries.stream()
             .map(this::encodeEntry)
             .collect(joining("\n"));
 
@@ -992,7 +1044,8 @@ class EncoderGenerator extends Generator
             suffix =
                 "\n" +
                 "        return Encoder.result(position - start, start);\n" +
-                "    }\n\n";
+                "    }\n\n" +
+                constantFieldsMethods(className, entries);
         }
         else if (aggregateType == AggregateType.TRAILER)
         {
@@ -1019,6 +1072,113 @@ class EncoderGenerator extends Generator
         return prefix + body + suffix;
     }
 
+    private String headerEncodeBody(final List<Entry> entries)
+    {
+        final List<String> encodedEntries = new ArrayList<>();
+        boolean constantFieldsCopied = false;
+        for (final Entry entry : entries)
+        {
+            if (isConstantHeaderField(entry))
+            {
+                String encodedEntry = "";
+                if (!constantFieldsCopied)
+                {
+                    encodedEntry =
+                        "        if (constantFieldsLength > 0)\n" +
+                        "        {\n" +
+                        "            buffer.putBytes(position, constantFields, 0, constantFieldsLength);\n" +
+                        "            position += constantFieldsLength;\n" +
+                        "        }\n";
+                    constantFieldsCopied = true;
+                }
+
+                encodedEntries.add(encodedEntry +
+                    "        if (constantFieldsLength == 0)\n" +
+                    "        {\n" +
+                    encodeEntry(entry).replaceAll("(?m)^(?=.)", "    ") +
+                    "        }\n");
+            }
+            else
+            {
+                encodedEntries.add(encodeEntry(entry));
+            }
+        }
+
+        return String.join("\n", encodedEntries);
+    }
+
+    private boolean isConstantHeaderField(final Entry entry)
+    {
+        final Element element = entry.element();
+        return element instanceof Field &&
+            ((Field)element).type().isStringBased() &&
+            isConstantHeaderField(element.name());
+    }
+
+    private boolean isConstantHeaderField(final String name)
+    {
+        return currentAggregate() == dictionary.header() && CONSTANT_HEADER_FIELDS.contains(name);
+    }
+
+    private String constantFieldsMethods(final String className, final List<Entry> entries)
+    {
+        final List<Entry> constantEntries = new ArrayList<>();
+        for (final Entry entry : entries)
+        {
+            if (isConstantHeaderField(entry))
+            {
+                constantEntries.add(entry);
+            }
+        }
+
+        final String lengths = constantEntries.stream()
+            .map(entry -> String.format(
+            "        if (%1$sLength > 0)\n" +
+            "        {\n" +
+            "            length += %1$sHeaderLength + %1$sLength + 1;\n" +
+            "        }\n",
+            formatPropertyName(entry.name())))
+            .collect(joining());
+
+        final String body = constantEntries.stream()
+            .map(this::encodeEntry)
+            .collect(joining("\n"));
+
+        return String.format(
+            "    private byte[] constantFields = new byte[0];\n" +
+            "    private final MutableAsciiBuffer constantFieldsBuffer = new MutableAsciiBuffer();\n" +
+            "%4$s\n" +
+            "    public %1$s cacheConstantFields()\n" +
+            "    {\n" +
+            "        constantFieldsLength = 0;\n" +
+            "        int length = 0;\n" +
+            "%2$s" +
+            "        if (constantFields.length < length)\n" +
+            "        {\n" +
+            "            constantFields = new byte[length];\n" +
+            "        }\n" +
+            "        final MutableAsciiBuffer buffer = constantFieldsBuffer;\n" +
+            "        buffer.wrap(constantFields);\n" +
+            "        int position = 0;\n\n" +
+            "%3$s" +
+            "        constantFieldsLength = position;\n" +
+            "        return this;\n" +
+            "    }\n\n" +
+            "    public %1$s clearConstantFieldsCache()\n" +
+            "    {\n" +
+            "        constantFieldsLength = 0;\n" +
+            "        return this;\n" +
+            "    }\n\n" +
+            "    public boolean hasCachedConstantFields()\n" +
+            "    {\n" +
+            "        return constantFieldsLength > 0;\n" +
+            "    }\n\n",
+            className,
+            lengths,
+            body,
+            currentAggregate().isInParent() ? "" : "    private int constantFieldsLength = 0;\n");
+    }
+
     private String encodeEntry(final Entry entry)
     {
         if (isBodyLength(entry) || isBeginString(entry) || isCheckSum(entry))
@@ -1371,6 +1531,39 @@ class EncoderGenerator extends Generator
         return resetLength(name);
     }
 
+    protected String resetLength(final String name)
+    {
+        if (!isConstantHeaderField(name))
+        {
+            return super.resetLength(name);
+        }
+
+        return String.format(
+            "    public void %1$s()\n" +
+            "    {\n" +
+            "        %2$sLength = 0;\n" +
+            "        constantFieldsLength = 0;\n" +
+            "    }\n\n",
+            nameOfResetMethod(name),
+            formatPropertyName(name));
+    }
+
+    // Resetting the header keeps the cached identifying fields, along with the values they were encoded from.
+    protected String callResetMethod(final Entry entry)
+    {
+        final String call = super.callResetMethod(entry);
+        if (call.isEmpty() || !isConstantHeaderField(entry))
+        {
+            return call;
+        }
+
+        return
+            "        if (constantFieldsLength == 0)\n" +
+            "        {\n" +
+            "    " + call +
+            "        }\n";
+    }
+
     protected String groupEntryAppendTo(final Group group, final String name)
     {
         // only append groups in the children
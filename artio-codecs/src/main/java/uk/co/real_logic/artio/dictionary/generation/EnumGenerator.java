@@ -15,6 +15,7 @@
  */
 package uk.co.real_logic.artio.dictionary.generation;
 
+import org.agrona.BitUtil;
 import org.agrona.LangUtil;
 import org.agrona.collections.IntHashSet;
 import org.agrona.generation.OutputManager;
@@ -53,6 +54,9 @@ final class EnumGenerator
     public static final String UNKNOWN_INT_AS_STRING = Integer.toString(ENUM_UNKNOWN_INT);
     public static final String UNKNOWN_STRING = ENUM_UNKNOWN_STRING;
 
+    // Upper bound on the number of slots in a generated decode lookup table.
+    static final int MAX_LOOKUP_TABLE_SIZE = 1024;
+
     private final Dictionary dictionary;
     private final String builderPackage;
     private final OutputManager outputManager;
@@ -215,6 +219,12 @@ final class EnumGenerator
             return "";
         }
 
+        final int lookupTableSize = lookupTableSize(allValues, type);
+        if (lookupTableSize > 0)
+        {
+            return lookupTableDecode(name, allValues, type, lookupTableSize);
+        }
+
         final String optionalCharArrayDecode = optionalCharArrayDecode(name, allValues, type);
         final String enumValidation = enumValidation(allValues, type);
 
@@ -245,6 +255,82 @@ final class EnumGenerator
             UNKNOWN_NAME);
     }
 
+    // Size of a dense array indexed by the representation, or 0 if the values don't fit into one.
+    private int lookupTableSize(final List<Value> allValues, final Type type)
+    {
+        switch (type)
+        {
+            case CHAR:
+            case INT:
+            case LENGTH:
+            case SEQNUM:
+            case NUMINGROUP:
+            case DAYOFMONTH:
+                int max = -1;
+                for (final Value value : allValues)
+                {
+                    final String representation = value.representation();
+                    final int key;
+                    if (type == Type.CHAR)
+                    {
+                        key = representation.length() == 1 ? representation.charAt(0) : -1;
+                    }
+                    else
+                    {
+                        key = Integer.parseInt(representation);
+                    }
+
+                    if (key < 0 || key >= MAX_LOOKUP_TABLE_SIZE)
+                    {
+                        return 0;
+                    }
+                    max = Math.max(max, key);
+                }
+                return max + 1;
+
+            default:
+                return 0;
+        }
+    }
+
+    private String lookupTableDecode(
+        final String typeName, final List<Value> allValues, final Type type, final int lookupTableSize)
+    {
+        final String entries = allValues
+            .stream()
+            .map((value) -> format("        LOOKUP[%s] = %s;\n", literal(value, type), value.description()))
+            .collect(joining());
+
+        return format(
+            "    private static final %1$s[] LOOKUP = new %1$s[%2$d];\n" +
+            "    static\n" +
+            "    {\n" +
+            "%3$s" +
+            "    }\n" +
+            "\n" +
+            "    public static boolean isValid(final int representation)\n" +
+            "    {\n" +
+            "        return representation >= 0 && representation < %2$d && LOOKUP[representation] != null;\n" +
+            "    }\n" +
+            "\n" +
+            "    public static %1$s decode(final int representation)\n" +
+            "    {\n" +
+            "        if (representation >= 0 && representation < %2$d)\n" +
+            "        {\n" +
+            "            final %1$s value = LOOKUP[representation];\n" +
+            "            if (value != null)\n" +
+            "            {\n" +
+            "                return value;\n" +
+            "            }\n" +
+            "        }\n" +
+            "        return %4$s;\n" +
+            "    }\n",
+            typeName,
+            lookupTableSize,
+            entries,
+            UNKNOWN_NAME);
+    }
+
     private String enumValidation(final List<Value> allValues, final Type type)
     {
         switch (type)
@@ -257,6 +343,11 @@ final class EnumGenerator
             case EXCHANGE:
             case COUNTRY:
             case LANGUAGE:
+                if (perfectHashTableSize(allValues) > 0)
+                {
+                    return "";
+                }
+
                 return "    public static boolean isValid(final CharArrayWrapper key)\n" +
                        "    {\n" +
                        "        return charMap.containsKey(key);\n" +
@@ -294,6 +385,12 @@ final class EnumGenerator
             case COUNTRY:
             case LANGUAGE:
 
+                final int hashTableSize = perfectHashTableSize(allValues);
+                if (hashTableSize > 0)
+                {
+                    return perfectHashCharArrayDecode(typeName, allValues, hashTableSize);
+                }
+
                 final String entries = allValues
                     .stream()
                     .map((v) -> format("        stringMap.put(%s, %s);\n", literal(v, type), v.description()))
@@ -326,6 +423,98 @@ final class EnumGenerator
         }
     }
 
+    // Smallest power of two table size where every value hashes to a distinct slot, or 0 if there isn't one
+    // within MAX_LOOKUP_TABLE_SIZE.
+    private int perfectHashTableSize(final List<Value> allValues)
+    {
+        final int[] hashes = new int[allValues.size()];
+        for (int i = 0; i < hashes.length; i++)
+        {
+            hashes[i] = representationHash(allValues.get(i).representation());
+        }
+
+        for (int size = BitUtil.findNextPositivePowerOfTwo(Math.max(2 * hashes.length, 2));
+            size <= MAX_LOOKUP_TABLE_SIZE;
+            size <<= 1)
+        {
+            final IntHashSet slots = new IntHashSet(hashes.length);
+            boolean collision = false;
+            for (final int hash : hashes)
+            {
+                if (!slots.add(hash & (size - 1)))
+                {
+                    collision = true;
+                    break;
+                }
+            }
+
+            if (!collision)
+            {
+                return size;
+            }
+        }
+
+        return 0;
+    }
+
+    // Must match the hash of a CharArrayWrapper, spread so that the low bits depend upon every character.
+    private static int representationHash(final String representation)
+    {
+        final int hash = CodecUtil.hashCode(representation.toCharArray(), 0, representation.length());
+        return hash ^ (hash >>> 16);
+    }
+
+    private String perfectHashCharArrayDecode(final String typeName, final List<Value> allValues, final int size)
+    {
+        final String entries = allValues
+            .stream()
+            .map((v) -> format(
+                "        LOOKUP_KEYS[%1$d] = \"%2$s\".toCharArray();\n" +
+                "        LOOKUP[%1$d] = %3$s;\n",
+                representationHash(v.representation()) & (size - 1),
+                v.representation(),
+                v.description()))
+            .collect(joining());
+
+        return format(
+            "    private static final int LOOKUP_MASK = %2$d;\n" +
+            "    private static final char[][] LOOKUP_KEYS = new char[%3$d][];\n" +
+            "    private static final %1$s[] LOOKUP = new %1$s[%3$d];\n" +
+            "    static\n" +
+            "    {\n" +
+            "%4$s" +
+            "    }\n" +
+            "\n" +
+            "    private static int lookupIndex(final CharArrayWrapper key)\n" +
+            "    {\n" +
+            "        final int hash = key.hashCode();\n" +
+            "        return (hash ^ (hash >>> 16)) & LOOKUP_MASK;\n" +
+            "    }\n" +
+            "\n" +
+            "    public static %1$s decode(final CharArrayWrapper key)\n" +
+            "    {\n" +
+            "        final int index = lookupIndex(key);\n" +
+            "        final %1$s value = LOOKUP[index];\n" +
+            "        if (value != null && key.contentEquals(LOOKUP_KEYS[index]))\n" +
+            "        {\n" +
+            "            return value;\n" +
+            "        }\n" +
+            "        return %5$s;\n" +
+            "    }\n" +
+            "\n" +
+            "    public static boolean isValid(final CharArrayWrapper key)\n" +
+            "    {\n" +
+            "        final int index = lookupIndex(key);\n" +
+            "        return LOOKUP[index] != null && key.contentEquals(LOOKUP_KEYS[index]);\n" +
+            "    }\n" +
+            "\n",
+            typeName,
+            size - 1,
+            size,
+            entries,
+            UNKNOWN_NAME);
+    }
+
     private boolean hasGeneratedValueOf(final Type type)
     {
         switch (type)
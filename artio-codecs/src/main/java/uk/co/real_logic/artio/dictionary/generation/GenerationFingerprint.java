@@ -0,0 +1,138 @@
+/*
+ * Copyright 2015-2022 Real Logic Limited.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.dictionary.generation;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * A hash of everything that determines the generated codecs: the dictionary files, the configuration options and the
+ * version of the generator. It's saved in the output directory after generating codecs so that a later generation
+ * with the same inputs can be skipped.
+ */
+final class GenerationFingerprint
+{
+    static final String FILE_NAME = ".codec-generation-fingerprint";
+
+    private final File file;
+    private final byte[] fingerprint;
+
+    /**
+     * Create the fingerprint of a configuration. This reads the dictionary streams of the configuration, so it
+     * replaces them with in memory copies for the generator to read.
+     *
+     * @param configuration the concluded configuration to fingerprint.
+     * @throws IOException if unable to read the dictionaries.
+     */
+    GenerationFingerprint(final CodecConfiguration configuration) throws IOException
+    {
+        file = new File(configuration.outputPath(), FILE_NAME);
+
+        final MessageDigest digest;
+        try
+        {
+            digest = MessageDigest.getInstance("SHA-256");
+        }
+        catch (final NoSuchAlgorithmException e)
+        {
+            throw new IllegalStateException(e);
+        }
+
+        final SharedCodecConfiguration sharedCodecs = configuration.sharedCodecConfiguration();
+        final List<GeneratorDictionaryConfiguration> dictionaries = sharedCodecs == null ?
+            Collections.singletonList(configuration.nonSharedDictionary()) : sharedCodecs.dictionaries();
+
+        update(digest, CodecGenerator.class.getPackage().getImplementationVersion());
+        update(digest, configuration.parentPackage());
+        update(digest, configuration.codecRejectUnknownEnumValueEnabled());
+        update(digest, configuration.flyweightsEnabled());
+        update(digest, configuration.wrapEmptyBuffer());
+        update(digest, configuration.indexedGroupsEnabled());
+        update(digest, configuration.scaledFloatAccessors());
+        update(digest, configuration.fixTagsInJavadoc());
+        update(digest, sharedCodecs != null && sharedCodecs.splitDirectories());
+
+        for (final GeneratorDictionaryConfiguration dictionary : dictionaries)
+        {
+            update(digest, dictionary.dictionaryName());
+            update(digest, dictionary.allowDuplicateFields());
+
+            final InputStream[] fileStreams = dictionary.toStreams();
+            final InputStream[] copiedStreams = new InputStream[fileStreams.length];
+            try
+            {
+                for (int i = 0; i < fileStreams.length; i++)
+                {
+                    final byte[] bytes = readAllBytes(fileStreams[i]);
+                    digest.update(bytes);
+                    copiedStreams[i] = new ByteArrayInputStream(bytes);
+                }
+            }
+            finally
+            {
+                Exceptions.closeAll(fileStreams);
+            }
+            dictionary.fileStreams(copiedStreams);
+        }
+
+        fingerprint = digest.digest();
+    }
+
+    byte[] fingerprint()
+    {
+        return fingerprint;
+    }
+
+    boolean matchesSaved() throws IOException
+    {
+        return file.exists() && Arrays.equals(fingerprint, Files.readAllBytes(file.toPath()));
+    }
+
+    void save() throws IOException
+    {
+        Files.createDirectories(file.getParentFile().toPath());
+        Files.write(file.toPath(), fingerprint);
+    }
+
+    private static void update(final MessageDigest digest, final Object value)
+    {
+        digest.update(String.valueOf(value).getBytes(UTF_8));
+        digest.update((byte)0);
+    }
+
+    private static byte[] readAllBytes(final InputStream stream) throws IOException
+    {
+        final byte[] buffer = new byte[8192];
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        int read;
+        while ((read = stream.read(buffer)) != -1)
+        {
+            out.write(buffer, 0, read);
+        }
+        return out.toByteArray();
+    }
+}
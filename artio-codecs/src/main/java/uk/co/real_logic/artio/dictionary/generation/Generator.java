@@ -382,7 +382,7 @@ public abstract class Generator
         return "reset" + name;
     }
 
-    private String callResetMethod(final Entry entry)
+    protected String callResetMethod(final Entry entry)
     {
         if (isNotResettableField(entry.name()))
         {
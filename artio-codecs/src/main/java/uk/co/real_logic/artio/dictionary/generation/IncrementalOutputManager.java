@@ -0,0 +1,78 @@
+/*
+ * Copyright 2015-2022 Real Logic Limited.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.dictionary.generation;
+
+import org.agrona.generation.OutputManager;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.util.Arrays;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Writes the sources of a package to a directory under the base directory, like a
+ * {@link org.agrona.generation.PackageOutputManager}, but leaves any source file whose content is unchanged alone.
+ * Regenerating codecs from a dictionary that hasn't changed doesn't update their modification times, so build
+ * tools don't recompile them.
+ */
+final class IncrementalOutputManager implements OutputManager
+{
+    private final File outputDir;
+
+    IncrementalOutputManager(final String baseDirName, final String packageName)
+    {
+        outputDir = new File(baseDirName, packageName.replace('.', File.separatorChar));
+        if (!outputDir.exists() && !outputDir.mkdirs())
+        {
+            throw new IllegalStateException("Unable to create directory: " + outputDir);
+        }
+    }
+
+    public Writer createOutput(final String name)
+    {
+        return new SourceWriter(new File(outputDir, name + ".java"));
+    }
+
+    private static final class SourceWriter extends StringWriter
+    {
+        private final File file;
+        private boolean closed;
+
+        SourceWriter(final File file)
+        {
+            this.file = file;
+        }
+
+        public void close() throws IOException
+        {
+            if (closed)
+            {
+                return;
+            }
+            closed = true;
+
+            final byte[] source = toString().getBytes(UTF_8);
+            if (!file.exists() || !Arrays.equals(source, Files.readAllBytes(file.toPath())))
+            {
+                Files.write(file.toPath(), source);
+            }
+        }
+    }
+}
@@ -70,6 +70,7 @@ class PrinterGenerator
                 out.append(CLASS_DECLARATION);
                 out.append(generateDecoderFields());
                 out.append(generateToString());
+                out.append(generateAppendTo());
                 out.append("}\n");
             });
     }
@@ -123,6 +124,32 @@ class PrinterGenerator
             "    }\n\n";
     }
 
+    private String generateAppendTo()
+    {
+        final Function<Message, String> mapper = (aggregate) -> String.format(
+            "        if (messageType == %sL)\n" +
+            "        {\n" +
+            "            %s.decode(input, offset, length);\n" +
+            "            return %2$s.appendTo(builder);\n" +
+            "        }\n\n",
+            aggregate.packedType(),
+            decoderFieldName(aggregate));
+
+        final String cases = messages().map(mapper).collect(joining());
+
+        return
+            "    public StringBuilder appendTo(\n" +
+            "        final StringBuilder builder,\n" +
+            "        final AsciiBuffer input,\n" +
+            "        final int offset,\n" +
+            "        final int length,\n" +
+            "        final long messageType)\n" +
+            "    {\n" +
+            cases +
+            "        throw new IllegalArgumentException(\"Unknown Message Type: \" + messageType);\n" +
+            "    }\n\n";
+    }
+
     private Stream<Message> messages()
     {
         return dictionary.messages().stream();
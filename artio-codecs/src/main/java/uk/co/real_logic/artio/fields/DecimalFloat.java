@@ -116,6 +116,28 @@ public final class DecimalFloat extends ReadOnlyDecimalFloat
         return this;
     }
 
+    /**
+     * Sets the value from a long with a fixed number of decimal places without normalising it, eg: 150000000 at a
+     * scale of 8 is 1.5 and is encoded as "1.50000000". This avoids the cost of normalising values that are
+     * already at a fixed scale, but two values set like this are only equal if they have the same scale.
+     *
+     * @param scaledValue the value multiplied by 10 to the power of scale.
+     * @param scale the number of decimal places of the value, from 0 to 18.
+     * @return this
+     * @throws ArithmeticException if the scale is out of range.
+     */
+    public DecimalFloat setScaled(final long scaledValue, final int scale)
+    {
+        if (scale < 0 || scale > HIGHEST_POWER_OF_TEN)
+        {
+            throw new ArithmeticException("Out of range: scale: " + scale);
+        }
+
+        this.value = scaledValue;
+        this.scale = scale;
+        return this;
+    }
+
     /*
      * Please use set(newValue, newScale) instead of value(newValue) and scale(newScale)
      */
@@ -118,6 +118,34 @@ public class ReadOnlyDecimalFloat implements Comparable<ReadOnlyDecimalFloat>
         return this.value;
     }
 
+    /**
+     * Get the value as a long with a fixed number of decimal places, eg: 1.5 at a scale of 8 is 150000000.
+     *
+     * @param scale the number of decimal places of the result, from 0 to 18.
+     * @return the value multiplied by 10 to the power of scale.
+     * @throws ArithmeticException if the value has non-zero digits beyond scale decimal places or overflows a long.
+     */
+    public long toScaledLong(final int scale)
+    {
+        if (scale < 0 || scale > HIGHEST_POWER_OF_TEN || isNaNValue())
+        {
+            throw new ArithmeticException("Unable to scale " + this + " to " + scale + " decimal places");
+        }
+
+        final int scaleDifference = scale - this.scale;
+        if (scaleDifference >= 0)
+        {
+            return Math.multiplyExact(value, PowerOf10.pow10(scaleDifference));
+        }
+
+        final long divisor = -scaleDifference > HIGHEST_POWER_OF_TEN ? 0 : PowerOf10.pow10(-scaleDifference);
+        if (divisor == 0 || value % divisor != 0)
+        {
+            throw new ArithmeticException("More than " + scale + " decimal places: " + this);
+        }
+        return value / divisor;
+    }
+
     /**
      * Get the number of digits to the right of the decimal point.
      *
@@ -0,0 +1,269 @@
+/*
+ * Copyright 2015-2022 Real Logic Limited.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.otf;
+
+import org.agrona.DirectBuffer;
+import uk.co.real_logic.artio.dictionary.LongDictionary;
+import uk.co.real_logic.artio.util.AsciiBuffer;
+import uk.co.real_logic.artio.util.MutableAsciiBuffer;
+
+import java.util.Arrays;
+
+import static uk.co.real_logic.artio.ValidationError.PARSE_ERROR;
+import static uk.co.real_logic.artio.dictionary.SessionConstants.START_OF_HEADER;
+import static uk.co.real_logic.artio.util.AsciiBuffer.UNKNOWN_INDEX;
+
+/**
+ * Zero allocation parser for a stream of fix messages, for example data read from a TCP connection, that can
+ * arrive split at any point. Each complete message is passed to an {@link OtfParser}.
+ *
+ * Messages that are complete within the data passed to {@link #onData(DirectBuffer, int, int)} are parsed in place.
+ * Only a message that is split across calls is copied, and then only once: the framing state of the incomplete
+ * message is kept between calls, so after its BodyLength has been read each call copies just the bytes the message
+ * still needs without scanning the message again.
+ *
+ * Framing relies on the BeginString, BodyLength and CheckSum fields being in their standard positions. If the
+ * stream can't be framed then the acceptor is notified of a {@link uk.co.real_logic.artio.ValidationError#PARSE_ERROR}
+ * and the rest of the data in that call is discarded, the next call is expected to start with a new message.
+ */
+public final class OtfStreamParser
+{
+    private static final int INCOMPLETE = 0;
+    private static final int INVALID = -1;
+    private static final int UNKNOWN = -1;
+
+    private static final int CHECKSUM_TAG_LENGTH = "10=".length();
+    private static final int MAX_CHECKSUM_VALUE_LENGTH = 3;
+    private static final int MAX_BODY_LENGTH_DIGITS = 9;
+    private static final int MAX_BEGIN_STRING_FIELD_LENGTH = 32;
+    private static final int INITIAL_PARTIAL_MESSAGE_CAPACITY = 1024;
+
+    private final MutableAsciiBuffer data = new MutableAsciiBuffer();
+    private final MutableAsciiBuffer partialMessage = new MutableAsciiBuffer();
+    private final OtfParser parser;
+    private final OtfMessageAcceptor acceptor;
+
+    private byte[] partialMessageBytes = new byte[INITIAL_PARTIAL_MESSAGE_CAPACITY];
+    private int partialMessageLength;
+    private int requiredLength;
+
+    public OtfStreamParser(final OtfMessageAcceptor acceptor, final LongDictionary groupToField)
+    {
+        this.acceptor = acceptor;
+        parser = new OtfParser(acceptor, groupToField);
+        partialMessage.wrap(partialMessageBytes);
+    }
+
+    /**
+     * Parse the next chunk of the stream. Any complete messages are passed to the acceptor before this method
+     * returns, any incomplete message at the end of the chunk is kept until the rest of it is passed in.
+     *
+     * @param buffer the buffer containing the data.
+     * @param offset the offset of the data within the buffer.
+     * @param length the length of the data.
+     */
+    public void onData(final DirectBuffer buffer, final int offset, final int length)
+    {
+        final MutableAsciiBuffer data = this.data;
+        data.wrap(buffer);
+
+        final int end = offset + length;
+        int position = offset;
+        if (partialMessageLength > 0)
+        {
+            position = completePartialMessage(position, end);
+            if (position == UNKNOWN || partialMessageLength > 0)
+            {
+                return;
+            }
+        }
+
+        while (position < end)
+        {
+            final int messageLength = frame(data, position, end);
+            if (messageLength > 0)
+            {
+                parser.onMessage(buffer, position, messageLength);
+                position += messageLength;
+            }
+            else if (messageLength == INCOMPLETE)
+            {
+                appendToPartialMessage(position, end - position);
+                return;
+            }
+            else
+            {
+                onInvalidData();
+                return;
+            }
+        }
+    }
+
+    /**
+     * Discard any incomplete message, for example when the stream is reconnected.
+     */
+    public void reset()
+    {
+        partialMessageLength = 0;
+        requiredLength = 0;
+    }
+
+    /**
+     * Check whether part of a message has been received but not yet parsed.
+     *
+     * @return true if part of a message has been received but not yet parsed, false otherwise.
+     */
+    public boolean hasPartialMessage()
+    {
+        return partialMessageLength > 0;
+    }
+
+    // Returns the position in the data after the completed message, or UNKNOWN if the data was invalid.
+    private int completePartialMessage(final int offset, final int end)
+    {
+        int position = offset;
+        while (position < end)
+        {
+            final int copyLength = Math.min(end - position, requiredLength - partialMessageLength);
+            appendToPartialMessage(position, copyLength);
+            position += copyLength;
+
+            final int messageLength = frame(partialMessage, 0, partialMessageLength);
+            if (messageLength > 0)
+            {
+                parser.onMessage(partialMessage, 0, messageLength);
+                // Only whole chunks of the required length are copied, so the message always ends the partial data
+                reset();
+                return position;
+            }
+            else if (messageLength == INVALID)
+            {
+                onInvalidData();
+                return UNKNOWN;
+            }
+        }
+
+        return position;
+    }
+
+    // Returns the length of the message, INCOMPLETE having set requiredLength to the number of bytes that framing
+    // the message next needs, or INVALID.
+    private int frame(final AsciiBuffer buffer, final int offset, final int end)
+    {
+        final int available = end - offset;
+        requiredLength = available + 1;
+
+        if (!expectTag(buffer, offset, end, '8'))
+        {
+            return INVALID;
+        }
+        if (available < 2)
+        {
+            return INCOMPLETE;
+        }
+
+        final int endOfBeginString = buffer.scan(offset + 2, end, START_OF_HEADER);
+        if (endOfBeginString == UNKNOWN_INDEX)
+        {
+            return available > MAX_BEGIN_STRING_FIELD_LENGTH ? INVALID : INCOMPLETE;
+        }
+
+        final int startOfBodyLength = endOfBeginString + 1;
+        if (!expectTag(buffer, startOfBodyLength, end, '9'))
+        {
+            return INVALID;
+        }
+
+        final int startOfBodyLengthValue = startOfBodyLength + 2;
+        int bodyLength = 0;
+        int index = startOfBodyLengthValue;
+        for (; index < end; index++)
+        {
+            final byte value = buffer.getByte(index);
+            if (value == START_OF_HEADER)
+            {
+                break;
+            }
+            if (value < '0' || value > '9' || index - startOfBodyLengthValue >= MAX_BODY_LENGTH_DIGITS)
+            {
+                return INVALID;
+            }
+            bodyLength = bodyLength * 10 + value - '0';
+        }
+
+        if (index >= end)
+        {
+            return INCOMPLETE;
+        }
+        if (index == startOfBodyLengthValue)
+        {
+            return INVALID;
+        }
+
+        final int startOfChecksumTag = index + 1 + bodyLength;
+        final int startOfChecksumValue = startOfChecksumTag + CHECKSUM_TAG_LENGTH;
+        if (startOfChecksumValue >= end)
+        {
+            // At least a single digit and the separator are needed after the tag
+            requiredLength = startOfChecksumValue + 2 - offset;
+            return INCOMPLETE;
+        }
+
+        if (buffer.getByte(startOfChecksumTag) != '1' ||
+            buffer.getByte(startOfChecksumTag + 1) != '0' ||
+            buffer.getByte(startOfChecksumTag + 2) != '=')
+        {
+            return INVALID;
+        }
+
+        final int endOfMessage = buffer.scan(startOfChecksumValue, end, START_OF_HEADER);
+        if (endOfMessage == UNKNOWN_INDEX)
+        {
+            return end - startOfChecksumValue > MAX_CHECKSUM_VALUE_LENGTH ? INVALID : INCOMPLETE;
+        }
+
+        return endOfMessage + 1 - offset;
+    }
+
+    // Checks whatever is available of a single digit tag followed by an equals sign
+    private static boolean expectTag(final AsciiBuffer buffer, final int offset, final int end, final char tag)
+    {
+        return (offset >= end || buffer.getByte(offset) == tag) &&
+            (offset + 1 >= end || buffer.getByte(offset + 1) == '=');
+    }
+
+    private void appendToPartialMessage(final int offset, final int length)
+    {
+        final int newLength = partialMessageLength + length;
+        byte[] partialMessageBytes = this.partialMessageBytes;
+        if (newLength > partialMessageBytes.length)
+        {
+            partialMessageBytes = Arrays.copyOf(
+                partialMessageBytes, Math.max(newLength, partialMessageBytes.length * 2));
+            this.partialMessageBytes = partialMessageBytes;
+            partialMessage.wrap(partialMessageBytes);
+        }
+
+        data.getBytes(offset, partialMessageBytes, partialMessageLength, length);
+        partialMessageLength = newLength;
+    }
+
+    private void onInvalidData()
+    {
+        reset();
+        acceptor.onError(PARSE_ERROR, UNKNOWN, UNKNOWN, null);
+    }
+}
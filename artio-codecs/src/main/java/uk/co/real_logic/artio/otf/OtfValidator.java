@@ -15,112 +15,175 @@
  */
 package uk.co.real_logic.artio.otf;
 
-import org.agrona.collections.IntHashSet;
 import uk.co.real_logic.artio.ValidationError;
 import uk.co.real_logic.artio.dictionary.LongDictionary;
+import uk.co.real_logic.artio.dictionary.ValidationAutomaton;
 import uk.co.real_logic.artio.fields.AsciiFieldFlyweight;
 import uk.co.real_logic.artio.util.AsciiBuffer;
 
+import java.util.Arrays;
+
 import static uk.co.real_logic.artio.ValidationError.*;
 import static uk.co.real_logic.artio.dictionary.SessionConstants.MESSAGE_TYPE;
+import static uk.co.real_logic.artio.dictionary.ValidationAutomaton.NO_STATE;
+import static uk.co.real_logic.artio.dictionary.ValidationAutomaton.UNKNOWN_TAG;
 
 /**
- * Acceptor that validates messages according to a dictionary
+ * Acceptor that validates messages according to a dictionary.
+ *
+ * The message and each repeating group entry within it are checked in one pass against the states of a
+ * {@link ValidationAutomaton}: every field must be allowed where it appears, every group entry must start with the
+ * group's first field and every required field must be present.
  */
 public final class OtfValidator implements OtfMessageAcceptor
 {
     private static final int UNKNOWN = -1;
 
-    private final IntHashSet fieldsForMessage = new IntHashSet(1024);
     private final AsciiFieldFlyweight stringField = new AsciiFieldFlyweight();
 
     private final OtfMessageAcceptor delegate;
-    private final LongDictionary allFields;
-    private final LongDictionary requiredFields;
+    private final ValidationAutomaton automaton;
+    private final int wordsPerState;
 
-    private int groupLevel = 0;
+    // The state and seen fields of the message, then of each group that's open within it, indexed by depth.
+    private int[] states;
+    private long[] seenFields;
+    private int depth;
 
+    private boolean awaitingFirstField;
+    private boolean groupEndedEarly;
     private long messageType;
-    private IntHashSet allFieldsForMessageType;
 
+    /**
+     * Create a validator that only validates the top level fields of each message.
+     *
+     * @param delegate the acceptor that valid messages are passed on to.
+     * @param allFields the fields that are allowed in each message type.
+     * @param requiredFields the fields that are required in each message type.
+     * @deprecated use {@link #OtfValidator(OtfMessageAcceptor, ValidationAutomaton)} with an automaton compiled by
+     * {@link ValidationAutomaton#of(uk.co.real_logic.artio.dictionary.ir.Dictionary)}, which also validates
+     * repeating groups.
+     */
+    @Deprecated
     public OtfValidator(
         final OtfMessageAcceptor delegate,
         final LongDictionary allFields,
         final LongDictionary requiredFields)
+    {
+        this(delegate, ValidationAutomaton.of(allFields, requiredFields));
+    }
+
+    public OtfValidator(final OtfMessageAcceptor delegate, final ValidationAutomaton automaton)
     {
         this.delegate = delegate;
-        this.allFields = allFields;
-        this.requiredFields = requiredFields;
+        this.automaton = automaton;
+        wordsPerState = automaton.wordsPerState();
+
+        final int frames = automaton.maxGroupDepth() + 1;
+        states = new int[frames];
+        seenFields = new long[frames * wordsPerState];
+        states[0] = NO_STATE;
+        messageType = UNKNOWN;
     }
 
     public MessageControl onNext()
     {
         delegate.onNext();
-        fieldsForMessage.clear();
+        depth = 0;
+        states[0] = NO_STATE;
+        clearSeenFields();
+        awaitingFirstField = false;
+        groupEndedEarly = false;
         messageType = UNKNOWN;
-        allFieldsForMessageType = null;
         return MessageControl.CONTINUE;
     }
 
     public MessageControl onComplete()
     {
-        final IntHashSet missingFields = requiredFields.values(messageType).difference(fieldsForMessage);
-        if (missingFields == null)
+        popEarlyEndedGroup();
+
+        final int state = states[0];
+        if (state == NO_STATE)
         {
-            return delegate.onComplete();
+            delegate.onError(MISSING_REQUIRED_FIELD, messageType, MESSAGE_TYPE, stringField);
+            return MessageControl.CONTINUE;
         }
-        else
+
+        if (checkRequiredFields(0, state))
         {
-            for (final int value : missingFields)
-            {
-                delegate.onError(MISSING_REQUIRED_FIELD, messageType, value, stringField);
-            }
+            return delegate.onComplete();
         }
         return MessageControl.CONTINUE;
     }
 
     public MessageControl onField(final int tag, final AsciiBuffer buffer, final int offset, final int length)
     {
-        if (groupLevel == 0)
+        popEarlyEndedGroup();
+
+        if (depth == 0 && tag == MESSAGE_TYPE)
         {
-            if (tag == MESSAGE_TYPE)
-            {
-                messageType = buffer.getMessageType(offset, length);
-                allFieldsForMessageType = allFields.values(messageType);
-                if (allFieldsForMessageType == null)
-                {
-                    delegate.onError(UNKNOWN_MESSAGE_TYPE, messageType, UNKNOWN, stringField);
-                    return MessageControl.STOP;
-                }
-            }
-            else if (!allFieldsForMessageType.contains(tag))
+            if (onMessageType(buffer.getMessageType(offset, length)) == MessageControl.STOP)
             {
-                delegate.onError(UNKNOWN_FIELD, messageType, tag, stringField);
                 return MessageControl.STOP;
             }
         }
+        else if (checkField(tag) == MessageControl.STOP)
+        {
+            return MessageControl.STOP;
+        }
 
-        fieldsForMessage.add(tag);
         return delegate.onField(tag, buffer, offset, length);
     }
 
     public MessageControl onGroupHeader(final int tag, final int numInGroup)
     {
-        groupLevel++;
+        popEarlyEndedGroup();
+
+        final MessageControl control = checkField(tag);
+
+        // The parser doesn't begin or end any entries of an empty group, and it begins and ends the entries of a
+        // non-empty group even if this header is invalid.
+        if (numInGroup > 0)
+        {
+            final int state = states[depth];
+            pushGroup(state == NO_STATE || control == MessageControl.STOP ?
+                NO_STATE : automaton.groupState(state, tag));
+        }
+
+        if (control == MessageControl.STOP)
+        {
+            return MessageControl.STOP;
+        }
         return delegate.onGroupHeader(tag, numInGroup);
     }
 
     public MessageControl onGroupBegin(final int tag, final int numInGroup, final int index)
     {
+        if (index > 0)
+        {
+            groupEndedEarly = false;
+        }
+
+        clearSeenFields();
+        awaitingFirstField = true;
         return delegate.onGroupBegin(tag, numInGroup, index);
     }
 
     public MessageControl onGroupEnd(final int tag, final int numInGroup, final int index)
     {
-        final MessageControl control = delegate.onGroupEnd(tag, numInGroup, index);
+        popEarlyEndedGroup();
+
+        final int state = states[depth];
+        final boolean valid = state == NO_STATE || checkRequiredFields(depth, state);
+        final MessageControl control = valid ? delegate.onGroupEnd(tag, numInGroup, index) : MessageControl.STOP;
         if (numInGroup == index + 1)
         {
-            groupLevel--;
+            depth--;
+        }
+        else
+        {
+            // Either another entry of this group begins next or the group has fewer entries than numInGroup.
+            groupEndedEarly = true;
         }
         return control;
     }
@@ -130,4 +193,120 @@ public final class OtfValidator implements OtfMessageAcceptor
     {
         return delegate.onError(error, messageType, tagNumber, value);
     }
+
+    private MessageControl onMessageType(final long messageType)
+    {
+        this.messageType = messageType;
+        final int state = automaton.messageState(messageType);
+        if (state == NO_STATE)
+        {
+            delegate.onError(UNKNOWN_MESSAGE_TYPE, messageType, UNKNOWN, stringField);
+            return MessageControl.STOP;
+        }
+        states[0] = state;
+
+        final int bit = automaton.bit(MESSAGE_TYPE);
+        if (bit != UNKNOWN_TAG)
+        {
+            seenFields[bit >> 6] |= 1L << bit;
+        }
+
+        // Fields before the message type, like BeginString and BodyLength, can only be checked now.
+        for (int word = 0; word < wordsPerState; word++)
+        {
+            final long unknownFields = seenFields[word] & ~automaton.allowedFields(state, word);
+            if (unknownFields != 0)
+            {
+                final int tag = automaton.tag((word << 6) + Long.numberOfTrailingZeros(unknownFields));
+                delegate.onError(UNKNOWN_FIELD, messageType, tag, stringField);
+                return MessageControl.STOP;
+            }
+        }
+
+        return MessageControl.CONTINUE;
+    }
+
+    private MessageControl checkField(final int tag)
+    {
+        final int state = states[depth];
+        final int bit = automaton.bit(tag);
+        final boolean firstField = awaitingFirstField;
+        awaitingFirstField = false;
+
+        if (state == NO_STATE)
+        {
+            if (depth > 0)
+            {
+                // A group that the dictionary doesn't know the entries of.
+                return MessageControl.CONTINUE;
+            }
+
+            if (bit == UNKNOWN_TAG)
+            {
+                delegate.onError(UNKNOWN_FIELD, messageType, tag, stringField);
+                return MessageControl.STOP;
+            }
+        }
+        else
+        {
+            if (!automaton.isAllowed(state, bit))
+            {
+                delegate.onError(UNKNOWN_FIELD, messageType, tag, stringField);
+                return MessageControl.STOP;
+            }
+
+            if (firstField && tag != automaton.firstTag(state))
+            {
+                delegate.onError(REPEATING_GROUP_OUT_OF_ORDER, messageType, tag, stringField);
+                return MessageControl.STOP;
+            }
+        }
+
+        seenFields[depth * wordsPerState + (bit >> 6)] |= 1L << bit;
+        return MessageControl.CONTINUE;
+    }
+
+    private boolean checkRequiredFields(final int depth, final int state)
+    {
+        boolean valid = true;
+        final int seenOffset = depth * wordsPerState;
+        for (int word = 0; word < wordsPerState; word++)
+        {
+            long missingFields = automaton.requiredFields(state, word) & ~seenFields[seenOffset + word];
+            while (missingFields != 0)
+            {
+                final int bit = (word << 6) + Long.numberOfTrailingZeros(missingFields);
+                delegate.onError(MISSING_REQUIRED_FIELD, messageType, automaton.tag(bit), stringField);
+                missingFields &= missingFields - 1;
+                valid = false;
+            }
+        }
+        return valid;
+    }
+
+    private void pushGroup(final int state)
+    {
+        depth++;
+        if (depth == states.length)
+        {
+            // Only groups that the dictionary doesn't know the entries of can nest deeper than the automaton.
+            states = Arrays.copyOf(states, depth + 1);
+            seenFields = Arrays.copyOf(seenFields, (depth + 1) * wordsPerState);
+        }
+        states[depth] = state;
+    }
+
+    private void popEarlyEndedGroup()
+    {
+        if (groupEndedEarly)
+        {
+            groupEndedEarly = false;
+            depth--;
+        }
+    }
+
+    private void clearSeenFields()
+    {
+        Arrays.fill(seenFields, depth * wordsPerState, (depth + 1) * wordsPerState, 0L);
+    }
 }
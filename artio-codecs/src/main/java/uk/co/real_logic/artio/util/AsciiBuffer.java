@@ -69,6 +69,21 @@ public interface AsciiBuffer extends DirectBuffer
 
     DecimalFloat getFloat(DecimalFloat number, int offset, int length);
 
+    /**
+     * Parses a float field into a long with a fixed number of decimal places. This default implementation goes via a
+     * {@link DecimalFloat}, so allocates, {@link MutableAsciiBuffer} parses the field directly.
+     *
+     * @param offset at which the float begins.
+     * @param length of the float in bytes.
+     * @param scale the number of decimal places of the result.
+     * @return the value of the float multiplied by 10 to the power of scale.
+     * @throws ArithmeticException if the field has non-zero digits beyond scale decimal places or overflows a long.
+     */
+    default long getFloatAsScaledLong(final int offset, final int length, final int scale)
+    {
+        return getFloat(new DecimalFloat(), offset, length).toScaledLong(scale);
+    }
+
     int getLocalMktDate(int offset, int length);
 
     long getUtcTimestamp(int offset, int length);
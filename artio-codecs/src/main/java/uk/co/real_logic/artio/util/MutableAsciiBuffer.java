@@ -36,6 +36,12 @@ public final class MutableAsciiBuffer extends UnsafeBuffer implements AsciiBuffe
     private static final byte Y = (byte)'Y';
     private static final byte N = (byte)'N';
 
+    private static final long SCALED_LONG_OVERFLOW_THRESHOLD = Long.MAX_VALUE / 10;
+
+    private static final long CHECKSUM_LANE_MASK = 0x00FF00FF00FF00FFL;
+    // Each long adds at most 2 * 255 to a lane, so 128 longs can be accumulated before a 16 bit lane overflows
+    private static final int CHECKSUM_WORDS_PER_FOLD = 128;
+
     public MutableAsciiBuffer()
     {
         super(0, 0);
@@ -172,6 +178,78 @@ public final class MutableAsciiBuffer extends UnsafeBuffer implements AsciiBuffe
         return DecimalFloatParser.extract(number, AsciiBufferCharReader.INSTANCE, this, offset, length);
     }
 
+    /**
+     * Parses a FIX float field straight into a long with a fixed number of decimal places, eg: "1.5" at a scale of 8
+     * is 150000000. Unlike {@link #getFloat(DecimalFloat, int, int)} this doesn't normalise the value or support
+     * scientific notation or padding spaces.
+     *
+     * @param offset at which the float begins.
+     * @param length of the float in bytes.
+     * @param scale the number of decimal places of the result, from 0 to 18.
+     * @return the value of the float multiplied by 10 to the power of scale.
+     * @throws AsciiNumberFormatException if the field isn't a valid float.
+     * @throws ArithmeticException if the field has non-zero digits beyond scale decimal places or overflows a long.
+     */
+    public long getFloatAsScaledLong(final int offset, final int length, final int scale)
+    {
+        if (scale < 0 || scale > PowerOf10.HIGHEST_POWER_OF_TEN)
+        {
+            throw new ArithmeticException("Out of range: scale: " + scale);
+        }
+
+        final int end = offset + length;
+        final boolean negative = length > 0 && getByte(offset) == '-';
+        int index = negative ? offset + 1 : offset;
+        if (index == end)
+        {
+            throw new AsciiNumberFormatException("Empty float @ " + offset);
+        }
+
+        long value = 0;
+        int decimalPlaces = -1;
+        boolean hasDigits = false;
+        for (; index < end; index++)
+        {
+            final byte character = getByte(index);
+            if (character == DOT && decimalPlaces == -1)
+            {
+                decimalPlaces = 0;
+                continue;
+            }
+
+            final int digit = getDigit(index, character);
+            hasDigits = true;
+            if (decimalPlaces >= 0)
+            {
+                if (decimalPlaces == scale)
+                {
+                    if (digit != 0)
+                    {
+                        throw new ArithmeticException("More than " + scale + " decimal places: " +
+                            getAscii(offset, length));
+                    }
+                    continue;
+                }
+                decimalPlaces++;
+            }
+
+            if (value >= SCALED_LONG_OVERFLOW_THRESHOLD &&
+                (value > SCALED_LONG_OVERFLOW_THRESHOLD || digit > Long.MAX_VALUE % 10))
+            {
+                throw new ArithmeticException("Out of range: " + getAscii(offset, length));
+            }
+            value = value * 10 + digit;
+        }
+
+        if (!hasDigits)
+        {
+            throw new AsciiNumberFormatException("Float without digits @ " + offset);
+        }
+
+        final long scaledValue = Math.multiplyExact(value, PowerOf10.pow10(scale - Math.max(decimalPlaces, 0)));
+        return negative ? -scaledValue : scaledValue;
+    }
+
     public int getLocalMktDate(final int offset, final int length)
     {
         return LocalMktDateDecoder.decode(this, offset, length);
@@ -232,15 +310,41 @@ public final class MutableAsciiBuffer extends UnsafeBuffer implements AsciiBuffe
         return indexValue;
     }
 
+    /**
+     * Compute the FIX checksum of a range of the buffer: the sum of its bytes modulo 256.
+     *
+     * Bytes are summed a long at a time. Alternate bytes of each long are masked into four 16 bit lanes which are
+     * accumulated separately and only folded together every {@link #CHECKSUM_WORDS_PER_FOLD} longs, before a lane
+     * could overflow into its neighbour.
+     *
+     * @param startInclusive the offset of the first byte to sum.
+     * @param endExclusive the offset after the last byte to sum.
+     * @return the checksum of the range, from 0 to 255.
+     */
     public int computeChecksum(final int startInclusive, final int endExclusive)
     {
         int total = 0;
-        for (int index = startInclusive; index < endExclusive; index++)
+        int index = startInclusive;
+        final int wordsEnd = endExclusive - Long.BYTES;
+        while (index <= wordsEnd)
+        {
+            final int foldEnd = Math.min(wordsEnd, index + (CHECKSUM_WORDS_PER_FOLD - 1) * Long.BYTES);
+            long lanes = 0;
+            for (; index <= foldEnd; index += Long.BYTES)
+            {
+                final long word = getLong(index);
+                lanes += (word & CHECKSUM_LANE_MASK) + ((word >>> 8) & CHECKSUM_LANE_MASK);
+            }
+
+            total += (int)((lanes & 0xFFFF) + ((lanes >>> 16) & 0xFFFF) + ((lanes >>> 32) & 0xFFFF) + (lanes >>> 48));
+        }
+
+        for (; index < endExclusive; index++)
         {
-            total += getByte(index);
+            total += getByte(index) & 0xFF;
         }
 
-        return total % 256;
+        return total & 0xFF;
     }
 
     public int putAscii(final int index, final String string)
@@ -0,0 +1,198 @@
+/*
+ * Copyright 2015-2022 Real Logic Limited.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.util;
+
+import org.agrona.DirectBuffer;
+import org.agrona.MutableDirectBuffer;
+import org.agrona.concurrent.UnsafeBuffer;
+
+import static java.nio.ByteOrder.LITTLE_ENDIAN;
+import static org.agrona.BitUtil.SIZE_OF_INT;
+import static uk.co.real_logic.artio.util.AsciiBuffer.SEPARATOR;
+
+/**
+ * A table of the tag, value offset and value length of the leading fields of a FIX message, so that those fields
+ * can be found without scanning the message. The engine can attach one to the messages that it passes on to
+ * libraries.
+ *
+ * The table is a sequence of entries, each of which is three little endian int32 values: the tag, the offset of
+ * the value relative to the start of the message and the length of the value. Encoding stops before the first
+ * length field of a standard data field, as the value of a data field can contain the separator.
+ */
+public final class TagOffsetTable
+{
+    public static final int ENTRY_LENGTH = 3 * SIZE_OF_INT;
+    public static final int MISSING_INDEX = -1;
+
+    private static final int VALUE_OFFSET_OFFSET = SIZE_OF_INT;
+    private static final int VALUE_LENGTH_OFFSET = 2 * SIZE_OF_INT;
+    private static final int MAX_TAG_DIGITS = 9;
+
+    private final UnsafeBuffer buffer = new UnsafeBuffer(new byte[0]);
+    private int size;
+
+    /**
+     * Scan a FIX message and write the table of its leading fields.
+     *
+     * @param message the buffer containing the message.
+     * @param offset the offset of the message within the buffer.
+     * @param length the length of the message.
+     * @param table the buffer to write the table to, must have space for maxFields entries.
+     * @param tableOffset the offset within table to write it at.
+     * @param maxFields the maximum number of fields to put in the table.
+     * @return the length of the table in bytes.
+     */
+    public static int encode(
+        final DirectBuffer message,
+        final int offset,
+        final int length,
+        final MutableDirectBuffer table,
+        final int tableOffset,
+        final int maxFields)
+    {
+        final int end = offset + length;
+        int position = offset;
+        int fields = 0;
+        while (fields < maxFields && position < end)
+        {
+            int tag = 0;
+            int index = position;
+            byte value;
+            while (index < end && (value = message.getByte(index)) != '=')
+            {
+                if (value < '0' || value > '9' || index - position >= MAX_TAG_DIGITS)
+                {
+                    return fields * ENTRY_LENGTH;
+                }
+                tag = tag * 10 + (value - '0');
+                index++;
+            }
+
+            if (index == position || index == end || isDataLengthTag(tag))
+            {
+                break;
+            }
+
+            final int valueOffset = index + 1;
+            int separatorIndex = valueOffset;
+            while (separatorIndex < end && message.getByte(separatorIndex) != SEPARATOR)
+            {
+                separatorIndex++;
+            }
+
+            if (separatorIndex == end)
+            {
+                break;
+            }
+
+            final int entryOffset = tableOffset + fields * ENTRY_LENGTH;
+            table.putInt(entryOffset, tag, LITTLE_ENDIAN);
+            table.putInt(entryOffset + VALUE_OFFSET_OFFSET, valueOffset - offset, LITTLE_ENDIAN);
+            table.putInt(entryOffset + VALUE_LENGTH_OFFSET, separatorIndex - valueOffset, LITTLE_ENDIAN);
+
+            fields++;
+            position = separatorIndex + 1;
+        }
+
+        return fields * ENTRY_LENGTH;
+    }
+
+    private static boolean isDataLengthTag(final int tag)
+    {
+        switch (tag)
+        {
+            case 90: // SecureDataLen
+            case 93: // SignatureLength
+            case 95: // RawDataLength
+            case 212: // XmlDataLen
+                return true;
+
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Wrap a table that has been encoded by {@link #encode(DirectBuffer, int, int, MutableDirectBuffer, int, int)}.
+     *
+     * @param buffer the buffer containing the table.
+     * @param offset the offset of the table within the buffer.
+     * @param length the length of the table in bytes.
+     * @return this
+     */
+    public TagOffsetTable wrap(final DirectBuffer buffer, final int offset, final int length)
+    {
+        this.buffer.wrap(buffer, offset, length);
+        size = length / ENTRY_LENGTH;
+        return this;
+    }
+
+    /**
+     * Empty the table, for a message that doesn't have one.
+     *
+     * @return this
+     */
+    public TagOffsetTable reset()
+    {
+        size = 0;
+        return this;
+    }
+
+    /**
+     * Gets the number of fields in the table, 0 if the message has no table.
+     *
+     * @return the number of fields in the table.
+     */
+    public int size()
+    {
+        return size;
+    }
+
+    public int tag(final int index)
+    {
+        return buffer.getInt(index * ENTRY_LENGTH, LITTLE_ENDIAN);
+    }
+
+    public int valueOffset(final int index)
+    {
+        return buffer.getInt(index * ENTRY_LENGTH + VALUE_OFFSET_OFFSET, LITTLE_ENDIAN);
+    }
+
+    public int valueLength(final int index)
+    {
+        return buffer.getInt(index * ENTRY_LENGTH + VALUE_LENGTH_OFFSET, LITTLE_ENDIAN);
+    }
+
+    /**
+     * Finds the first field in the table with a given tag.
+     *
+     * @param tag the tag to look for.
+     * @return the index of the field or {@link #MISSING_INDEX} if the table doesn't contain the tag.
+     */
+    public int indexOf(final int tag)
+    {
+        final int size = this.size;
+        for (int i = 0; i < size; i++)
+        {
+            if (tag(i) == tag)
+            {
+                return i;
+            }
+        }
+
+        return MISSING_INDEX;
+    }
+}
@@ -0,0 +1,111 @@
+/*
+ * Copyright 2015-2022 Real Logic Limited.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.dictionary;
+
+import org.agrona.IoUtil;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import uk.co.real_logic.artio.builder.Encoder;
+import uk.co.real_logic.artio.dictionary.generation.CodecConfiguration;
+
+import java.io.File;
+import java.io.InputStream;
+import java.nio.file.Files;
+
+import static org.junit.Assert.*;
+
+public class RuntimeCodecLoaderTest
+{
+    private static final String CACHE_DIR = IoUtil.tmpDirName() + "/RuntimeCodecLoaderTest";
+    private static final String PARENT_PACKAGE = "uk.co.real_logic.artio.runtime_codecs";
+
+    private final File cacheDir = new File(CACHE_DIR);
+    private final File dictionaryFile = new File(CACHE_DIR + "-example_dictionary.xml");
+    private final RuntimeCodecLoader loader = new RuntimeCodecLoader(cacheDir);
+
+    @Before
+    public void setUp() throws Exception
+    {
+        IoUtil.delete(cacheDir, true);
+        try (InputStream dictionary = ExampleDictionary.class.getResourceAsStream("example_dictionary.xml"))
+        {
+            Files.copy(dictionary, dictionaryFile.toPath());
+        }
+    }
+
+    @After
+    public void tearDown()
+    {
+        loader.close();
+        IoUtil.delete(cacheDir, true);
+        IoUtil.delete(dictionaryFile, true);
+    }
+
+    @Test
+    public void shouldCompileCodecsOfDictionary() throws Exception
+    {
+        final Class<? extends FixDictionary> fixDictionaryClass = loader.load(PARENT_PACKAGE, dictionaryFile);
+
+        assertEquals(PARENT_PACKAGE + ".FixDictionaryImpl", fixDictionaryClass.getName());
+
+        final FixDictionary fixDictionary = fixDictionaryClass.getConstructor().newInstance();
+        assertNotNull(fixDictionary.makeHeartbeatEncoder());
+
+        final Class<?> encoderClass = fixDictionaryClass.getClassLoader()
+            .loadClass(PARENT_PACKAGE + ".builder.HeartbeatEncoder");
+        assertTrue(Encoder.class.isAssignableFrom(encoderClass));
+    }
+
+    @Test
+    public void shouldLoadCodecsFromCache() throws Exception
+    {
+        try (RuntimeCodecLoader firstLoader = new RuntimeCodecLoader(cacheDir))
+        {
+            firstLoader.load(PARENT_PACKAGE, dictionaryFile);
+        }
+        final String[] cachedDictionaries = cacheDir.list();
+        assertEquals(1, cachedDictionaries.length);
+
+        final File cachedDictionary = new File(cacheDir, cachedDictionaries[0]);
+        final long compiledTime = cachedDictionary.lastModified();
+
+        final Class<? extends FixDictionary> fixDictionaryClass = loader.load(PARENT_PACKAGE, dictionaryFile);
+
+        assertNotNull(fixDictionaryClass.getConstructor().newInstance().makeHeartbeatEncoder());
+        assertArrayEquals(cachedDictionaries, cacheDir.list());
+        assertEquals(compiledTime, cachedDictionary.lastModified());
+    }
+
+    @Test
+    public void shouldCacheDictionariesWithDifferentPackagesSeparately() throws Exception
+    {
+        loader.load(PARENT_PACKAGE, dictionaryFile);
+        loader.load(PARENT_PACKAGE + ".other", dictionaryFile);
+
+        assertEquals(2, cacheDir.list().length);
+    }
+
+    @Test
+    public void shouldCacheDictionariesWithDifferentCodecOptionsSeparately() throws Exception
+    {
+        loader.load(new CodecConfiguration().flyweightsEnabled(false), PARENT_PACKAGE, dictionaryFile);
+        loader.load(new CodecConfiguration().flyweightsEnabled(true), PARENT_PACKAGE, dictionaryFile);
+        loader.load(new CodecConfiguration().flyweightsEnabled(true), PARENT_PACKAGE, dictionaryFile);
+
+        assertEquals(2, cacheDir.list().length);
+    }
+}
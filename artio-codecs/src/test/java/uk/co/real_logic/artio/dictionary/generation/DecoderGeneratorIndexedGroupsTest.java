@@ -0,0 +1,185 @@
+/*
+ * Copyright 2015-2022 Real Logic Limited, Adaptive Financial Consulting Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.dictionary.generation;
+
+import org.agrona.generation.StringWriterOutputManager;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import uk.co.real_logic.artio.builder.Decoder;
+import uk.co.real_logic.artio.util.MutableAsciiBuffer;
+
+import java.lang.reflect.InvocationTargetException;
+import java.util.Iterator;
+import java.util.Map;
+
+import static org.agrona.generation.CompilerUtil.compileInMemory;
+import static org.junit.Assert.*;
+import static uk.co.real_logic.artio.dictionary.ExampleDictionary.*;
+import static uk.co.real_logic.artio.dictionary.generation.Generator.RUNTIME_REJECT_UNKNOWN_ENUM_VALUE_PROPERTY;
+import static uk.co.real_logic.artio.util.Reflection.*;
+
+public class DecoderGeneratorIndexedGroupsTest
+{
+    private static Class<?> heartbeat;
+
+    private final MutableAsciiBuffer buffer = new MutableAsciiBuffer(new byte[8 * 1024]);
+
+    @BeforeClass
+    public static void generate() throws Exception
+    {
+        final StringWriterOutputManager outputManager = new StringWriterOutputManager();
+        new ConstantGenerator(MESSAGE_EXAMPLE, TEST_PACKAGE, null, outputManager).generate();
+        new EnumGenerator(MESSAGE_EXAMPLE, TEST_PARENT_PACKAGE, outputManager).generate();
+        new DecoderGenerator(
+            MESSAGE_EXAMPLE, 1, TEST_PACKAGE, TEST_PARENT_PACKAGE, TEST_PACKAGE,
+            outputManager, ValidationOn.class, RejectUnknownFieldOff.class,
+            RejectUnknownEnumValueOn.class, false, false, "true", true, true).generate();
+        new EncoderGenerator(MESSAGE_EXAMPLE, TEST_PACKAGE,
+            TEST_PARENT_PACKAGE, outputManager, ValidationOn.class, RejectUnknownFieldOn.class,
+            RejectUnknownEnumValueOn.class, RUNTIME_REJECT_UNKNOWN_ENUM_VALUE_PROPERTY, true).generate();
+
+        final Map<String, CharSequence> sources = outputManager.getSources();
+        heartbeat = compileInMemory(HEARTBEAT_DECODER, sources);
+        if (heartbeat == null || AbstractDecoderGeneratorTest.CODEC_LOGGING)
+        {
+            System.out.println(sources);
+        }
+    }
+
+    @Test
+    public void shouldAccessRepeatingGroupEntriesByIndex() throws Exception
+    {
+        final Decoder decoder = decodeHeartbeat(REPEATING_GROUP_MESSAGE);
+
+        assertEquals(2, get(decoder, "egGroupGroupEntryCount"));
+        assertEquals(2, getGroupField(getEgGroup(decoder, 1)));
+        assertEquals(1, getGroupField(getEgGroup(decoder, 0)));
+        assertEquals(2, getGroupField(getEgGroup(decoder, 1)));
+    }
+
+    @Test
+    public void shouldIterateIndexedRepeatingGroups() throws Exception
+    {
+        final Decoder decoder = decodeHeartbeat(REPEATING_GROUP_MESSAGE);
+
+        final Iterator<?> iterator = getEgGroupIterator(decoder);
+        assertTrue(iterator.hasNext());
+        assertEquals(1, getGroupField(iterator.next()));
+        assertTrue(iterator.hasNext());
+        assertEquals(2, getGroupField(iterator.next()));
+        assertFalse(iterator.hasNext());
+    }
+
+    @Test
+    public void shouldResetEntryCountBetweenMessages() throws Exception
+    {
+        Decoder decoder = decodeHeartbeat(REPEATING_GROUP_MESSAGE);
+        assertEquals(2, get(decoder, "egGroupGroupEntryCount"));
+
+        decoder.reset();
+        decoder = decodeHeartbeat(decoder, SINGLE_REPEATING_GROUP_MESSAGE);
+        assertEquals(1, get(decoder, "egGroupGroupEntryCount"));
+        assertEquals(2, getGroupField(getEgGroup(decoder, 0)));
+
+        decoder.reset();
+        decoder = decodeHeartbeat(decoder, ZERO_REPEATING_GROUP_MESSAGE);
+        assertEquals(0, get(decoder, "egGroupGroupEntryCount"));
+        assertFalse(getEgGroupIterator(decoder).hasNext());
+    }
+
+    @Test
+    public void shouldValidateIndexedRepeatingGroups() throws Exception
+    {
+        final Decoder decoder = decodeHeartbeat(REPEATING_GROUP_MESSAGE);
+
+        assertTrue(decoder.validate());
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void shouldRejectOutOfRangeEntryIndex() throws Throwable
+    {
+        final Decoder decoder = decodeHeartbeat(REPEATING_GROUP_MESSAGE);
+
+        try
+        {
+            getEgGroup(decoder, 2);
+        }
+        catch (final InvocationTargetException e)
+        {
+            throw e.getCause();
+        }
+    }
+
+    @Test
+    public void shouldNotAccessEntriesAfterReset() throws Throwable
+    {
+        final Decoder decoder = decodeHeartbeat(REPEATING_GROUP_MESSAGE);
+        decoder.reset();
+
+        assertEquals(0, get(decoder, "egGroupGroupEntryCount"));
+        assertFalse(getEgGroupIterator(decoder).hasNext());
+        try
+        {
+            getEgGroup(decoder, 0);
+            fail("Should have thrown IndexOutOfBoundsException");
+        }
+        catch (final InvocationTargetException e)
+        {
+            assertTrue(e.getCause() instanceof IndexOutOfBoundsException);
+        }
+    }
+
+    @Test
+    public void shouldKeepDecodedEntriesWhenBufferIsReused() throws Exception
+    {
+        final Decoder decoder = decodeHeartbeat(REPEATING_GROUP_MESSAGE);
+        buffer.putAscii(1, SINGLE_REPEATING_GROUP_MESSAGE);
+
+        assertEquals(2, get(decoder, "egGroupGroupEntryCount"));
+        assertEquals(1, getGroupField(getEgGroup(decoder, 0)));
+        assertEquals(2, getGroupField(getEgGroup(decoder, 1)));
+    }
+
+    @Test
+    public void shouldDecodeEntriesIntoOneReusableDecoder() throws Exception
+    {
+        final Decoder decoder = decodeHeartbeat(REPEATING_GROUP_MESSAGE);
+
+        final Object firstEntry = getEgGroup(decoder, 0);
+        assertEquals(1, getGroupField(firstEntry));
+        final Object secondEntry = getEgGroup(decoder, 1);
+        assertSame(firstEntry, secondEntry);
+        assertEquals(2, getGroupField(firstEntry));
+        assertNull(get(secondEntry, "next"));
+    }
+
+    private int getGroupField(final Object group) throws Exception
+    {
+        return (int)get(group, "groupField");
+    }
+
+    private Decoder decodeHeartbeat(final String example) throws Exception
+    {
+        return decodeHeartbeat((Decoder)heartbeat.getConstructor().newInstance(), example);
+    }
+
+    private Decoder decodeHeartbeat(final Decoder decoder, final String example)
+    {
+        buffer.putAscii(1, example);
+        decoder.decode(buffer, 1, example.length());
+        return decoder;
+    }
+}
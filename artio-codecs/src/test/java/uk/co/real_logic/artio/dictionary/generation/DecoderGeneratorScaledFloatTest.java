@@ -0,0 +1,121 @@
+/*
+ * Copyright 2015-2022 Real Logic Limited, Adaptive Financial Consulting Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.dictionary.generation;
+
+import org.agrona.generation.StringWriterOutputManager;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import uk.co.real_logic.artio.builder.Decoder;
+import uk.co.real_logic.artio.util.MutableAsciiBuffer;
+
+import java.lang.reflect.InvocationTargetException;
+import java.util.Map;
+
+import static org.agrona.generation.CompilerUtil.compileInMemory;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static uk.co.real_logic.artio.dictionary.ExampleDictionary.*;
+import static uk.co.real_logic.artio.util.Reflection.get;
+
+public class DecoderGeneratorScaledFloatTest
+{
+    private static final String FLOAT_FIELD_AS_SCALED_LONG = FLOAT_FIELD + "AsScaledLong";
+
+    private static Class<?> heartbeat;
+    private static Class<?> flyweightHeartbeat;
+
+    private final MutableAsciiBuffer buffer = new MutableAsciiBuffer(new byte[8 * 1024]);
+
+    @BeforeClass
+    public static void generate() throws Exception
+    {
+        heartbeat = compileHeartbeat(false);
+        flyweightHeartbeat = compileHeartbeat(true);
+    }
+
+    private static Class<?> compileHeartbeat(final boolean flyweightsEnabled) throws Exception
+    {
+        final StringWriterOutputManager outputManager = new StringWriterOutputManager();
+        new ConstantGenerator(MESSAGE_EXAMPLE, TEST_PACKAGE, null, outputManager).generate();
+        new EnumGenerator(MESSAGE_EXAMPLE, TEST_PARENT_PACKAGE, outputManager).generate();
+        new DecoderGenerator(
+            MESSAGE_EXAMPLE, 1, TEST_PACKAGE, TEST_PARENT_PACKAGE, TEST_PACKAGE,
+            outputManager, ValidationOn.class, RejectUnknownFieldOff.class,
+            RejectUnknownEnumValueOn.class, flyweightsEnabled, false, "true", true, false, true).generate();
+        new EncoderGenerator(MESSAGE_EXAMPLE, TEST_PACKAGE,
+            TEST_PARENT_PACKAGE, outputManager, ValidationOn.class, RejectUnknownFieldOn.class,
+            RejectUnknownEnumValueOn.class, Generator.RUNTIME_REJECT_UNKNOWN_ENUM_VALUE_PROPERTY, true).generate();
+
+        final Map<String, CharSequence> sources = outputManager.getSources();
+        final Class<?> heartbeat = compileInMemory(HEARTBEAT_DECODER, sources);
+        if (heartbeat == null || AbstractDecoderGeneratorTest.CODEC_LOGGING)
+        {
+            System.out.println(sources);
+        }
+        assertNotNull(heartbeat);
+        return heartbeat;
+    }
+
+    @Test
+    public void shouldDecodeFloatFieldAsScaledLong() throws Exception
+    {
+        final Decoder decoder = decodeHeartbeat(heartbeat);
+
+        assertEquals(1100L, get(decoder, FLOAT_FIELD_AS_SCALED_LONG, 3));
+        assertEquals(11L, get(decoder, FLOAT_FIELD_AS_SCALED_LONG, 1));
+    }
+
+    @Test
+    public void shouldDecodeFloatFieldAsScaledLongFromFlyweight() throws Exception
+    {
+        final Decoder decoder = decodeHeartbeat(flyweightHeartbeat);
+
+        assertEquals(1100L, get(decoder, FLOAT_FIELD_AS_SCALED_LONG, 3));
+        assertEquals(11L, get(decoder, FLOAT_FIELD_AS_SCALED_LONG, 1));
+    }
+
+    @Test(expected = ArithmeticException.class)
+    public void shouldRejectScaleWithFewerDecimalPlacesThanField() throws Throwable
+    {
+        invokeUnwrapped(decodeHeartbeat(heartbeat));
+    }
+
+    @Test(expected = ArithmeticException.class)
+    public void shouldRejectScaleWithFewerDecimalPlacesThanFieldFromFlyweight() throws Throwable
+    {
+        invokeUnwrapped(decodeHeartbeat(flyweightHeartbeat));
+    }
+
+    private void invokeUnwrapped(final Decoder decoder) throws Throwable
+    {
+        try
+        {
+            get(decoder, FLOAT_FIELD_AS_SCALED_LONG, 0);
+        }
+        catch (final InvocationTargetException e)
+        {
+            throw e.getCause();
+        }
+    }
+
+    private Decoder decodeHeartbeat(final Class<?> heartbeat) throws Exception
+    {
+        final Decoder decoder = (Decoder)heartbeat.getConstructor().newInstance();
+        buffer.putAscii(1, ENCODED_MESSAGE);
+        decoder.decode(buffer, 1, ENCODED_MESSAGE.length());
+        return decoder;
+    }
+}
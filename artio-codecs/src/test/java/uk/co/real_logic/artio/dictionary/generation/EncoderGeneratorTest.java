@@ -24,6 +24,7 @@ import org.junit.BeforeClass;
 import org.junit.Test;
 import uk.co.real_logic.artio.EncodingException;
 import uk.co.real_logic.artio.builder.Encoder;
+import uk.co.real_logic.artio.builder.SessionHeaderEncoder;
 import uk.co.real_logic.artio.fields.DecimalFloat;
 import uk.co.real_logic.artio.fields.UtcTimestampEncoder;
 import uk.co.real_logic.artio.util.MutableAsciiBuffer;
@@ -50,13 +51,14 @@ public class EncoderGeneratorTest
     private static Class<?> enumTestMessage;
     private static Class<?> otherMessage;
     private static Class<?> heartbeatWithoutValidation;
+    private static Class<?> heartbeatWithScaledFloatAccessors;
 
     private final MutableAsciiBuffer buffer = new MutableAsciiBuffer(new byte[8 * 1024]);
 
     @BeforeClass
     public static void generate() throws Exception
     {
-        sources = generateSources(true);
+        sources = generateSources(true, false);
         if (AbstractDecoderGeneratorTest.CODEC_LOGGING)
         {
             System.out.println(sources);
@@ -70,11 +72,15 @@ public class EncoderGeneratorTest
         enumTestMessage = classLoader.loadClass(ENUM_TEST_MESSAGE_ENCODER);
         otherMessage = classLoader.loadClass(OTHER_MESSAGE_ENCODER);
 
-        final Map<String, CharSequence> sourcesWithoutValidation = generateSources(false);
+        final Map<String, CharSequence> sourcesWithoutValidation = generateSources(false, false);
         heartbeatWithoutValidation = compileInMemory(HEARTBEAT_ENCODER, sourcesWithoutValidation);
+
+        final Map<String, CharSequence> sourcesWithScaledFloatAccessors = generateSources(true, true);
+        heartbeatWithScaledFloatAccessors = compileInMemory(HEARTBEAT_ENCODER, sourcesWithScaledFloatAccessors);
     }
 
-    private static Map<String, CharSequence> generateSources(final boolean validation)
+    private static Map<String, CharSequence> generateSources(
+        final boolean validation, final boolean scaledFloatAccessors)
     {
         final Class<?> validationClass = validation ? ValidationOn.class : ValidationOff.class;
         final Class<?> rejectUnknownField = RejectUnknownFieldOff.class;
@@ -84,7 +90,7 @@ public class EncoderGeneratorTest
         final EncoderGenerator encoderGenerator =
             new EncoderGenerator(MESSAGE_EXAMPLE, TEST_PACKAGE, TEST_PARENT_PACKAGE, outputManager, validationClass,
             rejectUnknownField, rejectUnknownEnumValue, Generator.RUNTIME_REJECT_UNKNOWN_ENUM_VALUE_PROPERTY,
-            true);
+            true, scaledFloatAccessors);
         enumGenerator.generate();
         encoderGenerator.generate();
         return outputManager.getSources();
@@ -416,6 +422,32 @@ public class EncoderGeneratorTest
         assertEncodesTo(encoder, ENCODED_MESSAGE);
     }
 
+    @Test
+    public void encodeDecimalFloatWithScaleWhenScaledFloatAccessorsEnabled() throws Exception
+    {
+        final Encoder encoder = (Encoder)heartbeatWithScaledFloatAccessors.getConstructor().newInstance();
+        setRequiredFields(encoder);
+        setupHeader(encoder);
+        setupTrailer(encoder);
+
+        setFloat(encoder, FLOAT_FIELD, 1100, 3);
+
+        assertThat(encodeToString(encoder), containsString("\001117=1.100\001"));
+    }
+
+    @Test
+    public void normaliseDecimalFloatWithScaleWhenScaledFloatAccessorsDisabled() throws Exception
+    {
+        final Encoder encoder = newHeartbeat();
+        setRequiredFields(encoder);
+        setupHeader(encoder);
+        setupTrailer(encoder);
+
+        setFloat(encoder, FLOAT_FIELD, 1100, 3);
+
+        assertThat(encodeToString(encoder), containsString("\001117=1.1\001"));
+    }
+
     @Test
     public void encodeDecimalFloatWithoutAlteringSentinelValue() throws Exception
     {
@@ -661,6 +693,56 @@ public class EncoderGeneratorTest
         assertEncodesTo(encoder, SINGLE_REPEATING_GROUP_MESSAGE);
     }
 
+    @Test
+    public void shouldEncodeCachedConstantHeaderFields() throws Exception
+    {
+        final Encoder encoder = newHeartbeat();
+        final SessionHeaderEncoder header = encoder.header();
+
+        setRequiredFields(encoder);
+        setupHeader(encoder);
+        header.senderCompID("sender").targetCompID("target").senderSubID("sub");
+        final String expectedValue = encodeToString(encoder);
+
+        header.cacheConstantFields();
+        assertTrue(header.hasCachedConstantFields());
+        assertEncodesTo(encoder, expectedValue);
+
+        header.senderCompID("other");
+        assertFalse(header.hasCachedConstantFields());
+        assertThat(encodeToString(encoder), containsString("\00149=other\001"));
+
+        header.cacheConstantFields();
+        call(header, "resetSenderSubID");
+        assertFalse(header.hasCachedConstantFields());
+        assertThat(encodeToString(encoder), not(containsString("\00150=")));
+    }
+
+    @Test
+    public void shouldKeepCachedConstantHeaderFieldsBetweenMessages() throws Exception
+    {
+        final Encoder encoder = newHeartbeat();
+        final SessionHeaderEncoder header = encoder.header();
+
+        setRequiredFields(encoder);
+        setupHeader(encoder);
+        header.senderCompID("sender").targetCompID("target");
+        header.cacheConstantFields();
+        final String firstMessage = encodeToString(encoder);
+
+        encoder.reset();
+        assertTrue(header.hasCachedConstantFields());
+
+        setRequiredFields(encoder);
+        setupHeader(encoder);
+        final String secondMessage = encodeToString(encoder);
+
+        assertTrue(header.hasCachedConstantFields());
+        assertEquals(firstMessage, secondMessage);
+        assertThat(secondMessage, containsString("\00149=sender\001"));
+        assertThat(secondMessage, containsString("\00156=target\001"));
+    }
+
     @Test
     public void shouldIgnoreUnnecessaryGroupNextCalls() throws Exception
     {
@@ -1082,6 +1164,12 @@ public class EncoderGeneratorTest
         setCharSequence(trailer, "checkSum", "12");
     }
 
+    private String encodeToString(final Encoder encoder)
+    {
+        final long result = encoder.encode(buffer, 1);
+        return buffer.getAscii(Encoder.offset(result), Encoder.length(result));
+    }
+
     private void assertEncodesTo(final Encoder encoder, final String expectedValue)
     {
         final long result = encoder.encode(buffer, 1);
@@ -168,6 +168,45 @@ public class EnumGeneratorTest
         assertEquals(values[values.length - 1], decodeString.invoke(null, unknownRepresentation));
     }
 
+    @Test
+    public void shouldReturnSentinelValueWhenDecodingUnknownPrimitiveRepresentation() throws Exception
+    {
+        final Enum<?>[] egValues = egEnumConstants();
+        final Enum<?>[] otherValues = (Enum<?>[])otherEnumClass.getEnumConstants();
+
+        assertEquals(egValues[egValues.length - 1], decode(egEnumClass).invoke(null, 'z'));
+        assertEquals(egValues[egValues.length - 1], decode(egEnumClass).invoke(null, -1));
+        assertEquals(otherValues[otherValues.length - 1], decode(otherEnumClass).invoke(null, 2));
+        assertEquals(otherValues[otherValues.length - 1], decode(otherEnumClass).invoke(null, Integer.MAX_VALUE));
+    }
+
+    @Test
+    public void shouldValidatePrimitiveRepresentations() throws Exception
+    {
+        final Method isValid = egEnumClass.getMethod("isValid", int.class);
+
+        assertEquals(true, isValid.invoke(null, 'a'));
+        assertEquals(false, isValid.invoke(null, 'z'));
+        assertEquals(false, isValid.invoke(null, -1));
+        assertEquals(false, isValid.invoke(null, ENUM_UNKNOWN_CHAR));
+    }
+
+    @Test
+    public void shouldValidateCharArrayRepresentations() throws Exception
+    {
+        final Method isValid = stringEnumClass.getMethod("isValid", CharArrayWrapper.class);
+        final CharArrayWrapper wrapper = new CharArrayWrapper();
+
+        wrapper.wrap("AA ".toCharArray(), 2);
+        assertEquals(true, isValid.invoke(null, wrapper));
+
+        wrapper.wrap("AB".toCharArray(), 2);
+        assertEquals(false, isValid.invoke(null, wrapper));
+
+        wrapper.wrap("".toCharArray(), 0);
+        assertEquals(false, isValid.invoke(null, wrapper));
+    }
+
     private Method stringDecode(final Class<?> clazz) throws NoSuchMethodException
     {
         return clazz.getMethod("decode", String.class);
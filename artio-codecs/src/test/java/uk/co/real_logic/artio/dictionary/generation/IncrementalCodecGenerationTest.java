@@ -0,0 +1,114 @@
+/*
+ * Copyright 2015-2022 Real Logic Limited.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.dictionary.generation;
+
+import org.agrona.IoUtil;
+import org.junit.After;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Stream;
+
+import static java.util.stream.Collectors.toList;
+import static org.junit.Assert.*;
+import static uk.co.real_logic.artio.dictionary.generation.CodecGenerationWrapper.dictionaryStream;
+
+public class IncrementalCodecGenerationTest
+{
+    private static final String OUTPUT_PATH = IoUtil.tmpDirName() + "/IncrementalCodecGenerationTest";
+    private static final String OTHER_OUTPUT_PATH = OUTPUT_PATH + "-other";
+    private static final String DICTIONARY = "example_dictionary";
+    private static final long OLD_MODIFIED_TIME = 1_000_000_000L;
+
+    @After
+    public void tearDown()
+    {
+        IoUtil.delete(new File(OUTPUT_PATH), true);
+        IoUtil.delete(new File(OTHER_OUTPUT_PATH), true);
+    }
+
+    @Test
+    public void shouldNotRewriteUnchangedSources() throws Exception
+    {
+        generate(OUTPUT_PATH, false, 1);
+        final File source = firstSource(OUTPUT_PATH);
+        assertTrue(source.setLastModified(OLD_MODIFIED_TIME));
+
+        generate(OUTPUT_PATH, false, 1);
+
+        assertEquals(OLD_MODIFIED_TIME, source.lastModified());
+    }
+
+    @Test
+    public void shouldSkipGenerationWhenInputsUnchanged() throws Exception
+    {
+        generate(OUTPUT_PATH, true, 1);
+        assertTrue(new File(OUTPUT_PATH, GenerationFingerprint.FILE_NAME).exists());
+        final File source = firstSource(OUTPUT_PATH);
+        assertTrue(source.delete());
+
+        generate(OUTPUT_PATH, true, 1);
+        assertFalse(source.exists());
+
+        generate(OUTPUT_PATH, false, 1);
+        assertTrue(source.exists());
+    }
+
+    @Test
+    public void shouldGenerateSameSourcesInParallel() throws Exception
+    {
+        generate(OUTPUT_PATH, false, 1);
+        generate(OTHER_OUTPUT_PATH, false, 4);
+
+        final Map<String, String> sources = readSources(OUTPUT_PATH);
+        assertFalse(sources.isEmpty());
+        assertEquals(sources, readSources(OTHER_OUTPUT_PATH));
+    }
+
+    private static void generate(final String outputPath, final boolean skipUnchangedInputs, final int threads)
+        throws Exception
+    {
+        CodecGenerator.generate(new CodecConfiguration()
+            .outputPath(outputPath)
+            .fileStreams(dictionaryStream(DICTIONARY))
+            .skipUnchangedInputs(skipUnchangedInputs)
+            .generationThreads(threads));
+    }
+
+    private static File firstSource(final String outputPath) throws IOException
+    {
+        return new File(outputPath, readSources(outputPath).keySet().iterator().next());
+    }
+
+    private static Map<String, String> readSources(final String outputPath) throws IOException
+    {
+        final Path root = new File(outputPath).toPath();
+        final Map<String, String> sources = new TreeMap<>();
+        try (Stream<Path> paths = Files.walk(root))
+        {
+            for (final Path path : paths.filter((p) -> p.toString().endsWith(".java")).collect(toList()))
+            {
+                sources.put(root.relativize(path).toString(), new String(Files.readAllBytes(path)));
+            }
+        }
+        return sources;
+    }
+}
@@ -27,6 +27,7 @@ import java.util.Map;
 import static org.agrona.generation.CompilerUtil.compileInMemory;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.containsString;
+import static org.junit.Assert.assertEquals;
 import static uk.co.real_logic.artio.dictionary.ExampleDictionary.*;
 import static uk.co.real_logic.artio.dictionary.generation.Generator.RUNTIME_REJECT_UNKNOWN_ENUM_VALUE_PROPERTY;
 
@@ -81,6 +82,22 @@ public class PrinterGeneratorTest
         assertThat(string, containsString(STRING_ENCODED_MESSAGE_EXAMPLE));
     }
 
+    @Test
+    public void shouldAppendMessagesToAReusedBuilder() throws Exception
+    {
+        final Printer printer = printer();
+        buffer.putAscii(1, ENCODED_MESSAGE);
+        final StringBuilder builder = new StringBuilder();
+
+        printer.appendTo(builder, buffer, 1, ENCODED_MESSAGE.length(), HEARTBEAT_TYPE);
+        final String printed = builder.toString();
+        assertEquals(printer.toString(buffer, 1, ENCODED_MESSAGE.length(), HEARTBEAT_TYPE), printed);
+
+        builder.setLength(0);
+        printer.appendTo(builder, buffer, 1, ENCODED_MESSAGE.length(), HEARTBEAT_TYPE);
+        assertEquals(printed, builder.toString());
+    }
+
     private Printer printer()
         throws InstantiationException, IllegalAccessException, NoSuchMethodException, InvocationTargetException
     {
@@ -0,0 +1,96 @@
+/*
+ * Copyright 2015-2022 Real Logic Limited.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.fields;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.junit.runners.Parameterized.Parameters;
+import uk.co.real_logic.artio.util.MutableAsciiBuffer;
+
+import java.util.Arrays;
+
+import static java.nio.charset.StandardCharsets.US_ASCII;
+import static org.junit.Assert.assertEquals;
+
+@RunWith(Parameterized.class)
+public class ScaledLongDecodingTest
+{
+    private static final int SCALE = 8;
+
+    @Parameters(name = "{index}: {0} => {1}")
+    public static Iterable<Object[]> scaledLongData()
+    {
+        return Arrays.asList(new Object[][]
+        {
+            {"55.36", 5536000000L},
+            {"0055.3600", 5536000000L},
+            {".995", 99500000L},
+            {"25", 2500000000L},
+            {"10.", 1000000000L},
+            {"-55.36", -5536000000L},
+            {"-.6", -60000000L},
+            {"0", 0L},
+            {"-0.0", 0L},
+            {"0.00000001", 1L},
+            {"1.00000000", 100000000L},
+            {"1.0000000000", 100000000L},
+            {"6456.00000001", 645600000001L},
+            {"9999999999.99999999", 999999999999999999L},
+            {"-0.92117125", -92117125L},
+        });
+    }
+
+    private final String input;
+    private final long scaledValue;
+
+    public ScaledLongDecodingTest(final String input, final long scaledValue)
+    {
+        this.input = input;
+        this.scaledValue = scaledValue;
+    }
+
+    @Test
+    public void shouldDecodeFromBuffer()
+    {
+        final byte[] bytes = input.getBytes(US_ASCII);
+        final MutableAsciiBuffer buffer = new MutableAsciiBuffer(new byte[bytes.length + 2]);
+        buffer.putBytes(1, bytes);
+
+        assertEquals(scaledValue, buffer.getFloatAsScaledLong(1, bytes.length, SCALE));
+    }
+
+    @Test
+    public void shouldConvertDecimalFloat()
+    {
+        final DecimalFloat price = new DecimalFloat();
+        price.fromString(input);
+
+        assertEquals(scaledValue, price.toScaledLong(SCALE));
+    }
+
+    @Test
+    public void shouldEncodeWithFixedScale()
+    {
+        final MutableAsciiBuffer buffer = new MutableAsciiBuffer(new byte[32]);
+        final DecimalFloat price = new DecimalFloat().setScaled(scaledValue, SCALE);
+
+        final int length = buffer.putFloatAscii(0, price);
+
+        assertEquals(scaledValue, buffer.getFloatAsScaledLong(0, length, SCALE));
+        assertEquals(SCALE, length - buffer.getAscii(0, length).indexOf('.') - 1);
+    }
+}
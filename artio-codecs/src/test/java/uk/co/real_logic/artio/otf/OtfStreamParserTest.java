@@ -0,0 +1,111 @@
+/*
+ * Copyright 2015-2022 Real Logic Limited.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.otf;
+
+import org.junit.Test;
+import uk.co.real_logic.artio.dictionary.LongDictionary;
+import uk.co.real_logic.artio.util.MutableAsciiBuffer;
+
+import static org.mockito.Mockito.*;
+import static uk.co.real_logic.artio.ValidationError.PARSE_ERROR;
+import static uk.co.real_logic.artio.util.TestMessages.EG_MESSAGE;
+import static uk.co.real_logic.artio.util.TestMessages.MSG_LEN;
+
+public class OtfStreamParserTest
+{
+    private static final int MESSAGES = 3;
+
+    private final MutableAsciiBuffer buffer = new MutableAsciiBuffer(new byte[MESSAGES * MSG_LEN]);
+    private OtfMessageAcceptor mockAcceptor;
+    private OtfStreamParser parser;
+
+    public OtfStreamParserTest()
+    {
+        for (int i = 0; i < MESSAGES; i++)
+        {
+            buffer.putBytes(i * MSG_LEN, EG_MESSAGE);
+        }
+    }
+
+    @Test
+    public void parsesMessagesSplitAtAnyPoint()
+    {
+        final int length = buffer.capacity();
+        for (int split = 0; split <= length; split++)
+        {
+            newParser();
+
+            parser.onData(buffer, 0, split);
+            parser.onData(buffer, split, length - split);
+
+            verifyParsedAllMessages();
+        }
+    }
+
+    @Test
+    public void parsesMessagesReceivedOneByteAtATime()
+    {
+        newParser();
+
+        for (int i = 0; i < buffer.capacity(); i++)
+        {
+            parser.onData(buffer, i, 1);
+        }
+
+        verifyParsedAllMessages();
+    }
+
+    @Test
+    public void notifiesAcceptorOfDataThatIsNotAMessage()
+    {
+        newParser();
+        final MutableAsciiBuffer garbage = new MutableAsciiBuffer(new byte[MSG_LEN]);
+        garbage.putStringWithoutLengthAscii(0, "garbage");
+
+        parser.onData(garbage, 0, MSG_LEN);
+
+        verify(mockAcceptor).onError(eq(PARSE_ERROR), anyLong(), anyInt(), isNull());
+        verifyNoMoreInteractions(mockAcceptor);
+    }
+
+    @Test
+    public void notifiesAcceptorOfIncorrectBodyLength()
+    {
+        newParser();
+        final MutableAsciiBuffer message = new MutableAsciiBuffer(new byte[MSG_LEN]);
+        message.putBytes(0, EG_MESSAGE);
+        // 9=146 becomes 9=145
+        message.putByte(14, (byte)'5');
+
+        parser.onData(message, 0, 20);
+        parser.onData(message, 20, MSG_LEN - 20);
+
+        verify(mockAcceptor).onError(eq(PARSE_ERROR), anyLong(), anyInt(), isNull());
+        verify(mockAcceptor, never()).onComplete();
+    }
+
+    private void newParser()
+    {
+        mockAcceptor = mock(OtfMessageAcceptor.class);
+        parser = new OtfStreamParser(mockAcceptor, new LongDictionary());
+    }
+
+    private void verifyParsedAllMessages()
+    {
+        verify(mockAcceptor, times(MESSAGES)).onComplete();
+        verify(mockAcceptor, never()).onError(any(), anyLong(), anyInt(), any());
+    }
+}
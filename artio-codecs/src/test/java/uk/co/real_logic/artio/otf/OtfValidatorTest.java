@@ -16,29 +16,51 @@
 package uk.co.real_logic.artio.otf;
 
 import org.junit.Test;
+import uk.co.real_logic.artio.ValidationError;
 import uk.co.real_logic.artio.dictionary.LongDictionary;
+import uk.co.real_logic.artio.dictionary.ValidationAutomaton;
+import uk.co.real_logic.artio.dictionary.ir.Component;
+import uk.co.real_logic.artio.dictionary.ir.Dictionary;
+import uk.co.real_logic.artio.dictionary.ir.Entry;
+import uk.co.real_logic.artio.dictionary.ir.Field;
+import uk.co.real_logic.artio.dictionary.ir.Field.Type;
+import uk.co.real_logic.artio.dictionary.ir.Group;
+import uk.co.real_logic.artio.dictionary.ir.Message;
 import uk.co.real_logic.artio.fields.AsciiFieldFlyweight;
 import uk.co.real_logic.artio.util.MutableAsciiBuffer;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import static org.mockito.Mockito.*;
 import static uk.co.real_logic.artio.ValidationError.*;
 import static uk.co.real_logic.artio.dictionary.SessionConstants.MESSAGE_TYPE;
 
 public class OtfValidatorTest
 {
+    private static final int CL_ORD_ID = 11;
+    private static final int NO_PARTY_IDS = 453;
+    private static final int PARTY_ID = 448;
+    private static final int PARTY_ID_SOURCE = 447;
+    private static final int PARTY_ROLE = 452;
+
     private final OtfMessageAcceptor acceptor = mock(OtfMessageAcceptor.class);
 
-    private final LongDictionary requiredFields = new LongDictionary();
-    private final LongDictionary allFields = new LongDictionary();
+    private final Component header = new Component("Header");
+    private final Message heartbeat = new Message("Heartbeat", "0", "admin");
+    private final List<Message> messages = new ArrayList<>();
+    private final Field testReqId = new Field(112, "TestReqID", Type.STRING);
     private final MutableAsciiBuffer buffer = new MutableAsciiBuffer(new byte[16 * 1024]);
+    private final LongDictionary allFields = new LongDictionary();
+    private final LongDictionary requiredFields = new LongDictionary();
 
-    private final OtfValidator validator = new OtfValidator(acceptor, allFields, requiredFields);
+    private OtfValidator validator;
 
     @Test
     public void validStartMessageDelegates()
     {
         when:
-        validator.onNext();
+        validator().onNext();
 
         then:
         verify(acceptor).onNext();
@@ -53,7 +75,7 @@ public class OtfValidatorTest
         validateMessageType();
 
         when:
-        validator.onComplete();
+        validator().onComplete();
 
         then:
         verify(acceptor).onComplete();
@@ -128,27 +150,246 @@ public class OtfValidatorTest
 
         when:
         validateMessageType();
-        validator.onComplete();
+        validator().onComplete();
 
         then:
         verifyMissingRequiredField();
     }
 
-    private void testReqIdIsARequiredHeartBeatField()
+    @Test
+    public void validGroupEntriesDelegate()
+    {
+        given:
+        ordersHaveParties();
+        messageIsAnOrder();
+
+        when:
+        validateMessageType();
+        validator().onGroupHeader(NO_PARTY_IDS, 2);
+        validator().onGroupBegin(NO_PARTY_IDS, 2, 0);
+        validateField(PARTY_ID);
+        validateField(PARTY_ID_SOURCE);
+        validateField(PARTY_ROLE);
+        validator().onGroupEnd(NO_PARTY_IDS, 2, 0);
+        validator().onGroupBegin(NO_PARTY_IDS, 2, 1);
+        validateField(PARTY_ID);
+        validateField(PARTY_ID_SOURCE);
+        validator().onGroupEnd(NO_PARTY_IDS, 2, 1);
+        validateField(CL_ORD_ID);
+        validator().onComplete();
+
+        then:
+        verify(acceptor).onGroupHeader(NO_PARTY_IDS, 2);
+        verify(acceptor, times(2)).onField(PARTY_ID, buffer, 0, 1);
+        verify(acceptor).onField(PARTY_ROLE, buffer, 0, 1);
+        verify(acceptor).onField(CL_ORD_ID, buffer, 0, 1);
+        verify(acceptor).onComplete();
+        verify(acceptor, never()).onError(any(), anyLong(), anyInt(), any());
+    }
+
+    @Test
+    public void groupEntryNotStartingWithFirstFieldNotifiesErrorHandler()
+    {
+        given:
+        ordersHaveParties();
+        messageIsAnOrder();
+
+        when:
+        validateMessageType();
+        validator().onGroupHeader(NO_PARTY_IDS, 1);
+        validator().onGroupBegin(NO_PARTY_IDS, 1, 0);
+        validateField(PARTY_ROLE);
+
+        then:
+        verifyAcceptorNotNotifiedOf(PARTY_ROLE);
+        verifyOrderError(REPEATING_GROUP_OUT_OF_ORDER, PARTY_ROLE);
+    }
+
+    @Test
+    public void missingRequiredGroupFieldNotifiesErrorHandler()
+    {
+        given:
+        ordersHaveParties();
+        messageIsAnOrder();
+
+        when:
+        validateMessageType();
+        validator().onGroupHeader(NO_PARTY_IDS, 1);
+        validator().onGroupBegin(NO_PARTY_IDS, 1, 0);
+        validateField(PARTY_ID);
+        validator().onGroupEnd(NO_PARTY_IDS, 1, 0);
+
+        then:
+        verify(acceptor, never()).onGroupEnd(NO_PARTY_IDS, 1, 0);
+        verifyOrderError(MISSING_REQUIRED_FIELD, PARTY_ID_SOURCE);
+    }
+
+    @Test
+    public void groupFieldOutsideOfGroupNotifiesErrorHandler()
+    {
+        given:
+        ordersHaveParties();
+        messageIsAnOrder();
+
+        when:
+        validateMessageType();
+        validator().onGroupHeader(NO_PARTY_IDS, 1);
+        validator().onGroupBegin(NO_PARTY_IDS, 1, 0);
+        validateField(PARTY_ID);
+        validateField(PARTY_ID_SOURCE);
+        validator().onGroupEnd(NO_PARTY_IDS, 1, 0);
+        validateField(PARTY_ROLE);
+
+        then:
+        verifyAcceptorNotNotifiedOf(PARTY_ROLE);
+        verifyOrderError(UNKNOWN_FIELD, PARTY_ROLE);
+    }
+
+    @Test
+    public void fieldAfterEmptyGroupIsValidatedAgainstMessage()
+    {
+        given:
+        ordersHaveParties();
+        messageIsAnOrder();
+
+        when:
+        validateMessageType();
+        validator().onGroupHeader(NO_PARTY_IDS, 0);
+        validateField(CL_ORD_ID);
+        validator().onComplete();
+
+        then:
+        verify(acceptor).onField(CL_ORD_ID, buffer, 0, 1);
+        verify(acceptor).onComplete();
+    }
+
+    @Test
+    public void groupEndingBeforeNumInGroupReturnsToMessage()
+    {
+        given:
+        ordersHaveParties();
+        messageIsAnOrder();
+
+        when:
+        validateMessageType();
+        validator().onGroupHeader(NO_PARTY_IDS, 2);
+        validator().onGroupBegin(NO_PARTY_IDS, 2, 0);
+        validateField(PARTY_ID);
+        validateField(PARTY_ID_SOURCE);
+        validator().onGroupEnd(NO_PARTY_IDS, 2, 0);
+        validateField(CL_ORD_ID);
+        validator().onComplete();
+
+        then:
+        verify(acceptor).onField(CL_ORD_ID, buffer, 0, 1);
+        verify(acceptor).onComplete();
+    }
+
+    @Test
+    public void longDictionaryValidatorNotifiesUnknownField()
+    {
+        given:
+        allFields.putAll('0');
+        validatesAgainstLongDictionaries();
+        messageIsAHeartBeat();
+
+        when:
+        validateMessageType();
+        validateTestReqId();
+
+        then:
+        verifyAcceptorNotNotifiedOf(112);
+        verifyUnknownField();
+    }
+
+    @Test
+    public void longDictionaryValidatorNotifiesMissingRequiredField()
     {
+        given:
+        allFields.put('0', 112);
         requiredFields.put('0', 112);
+        validatesAgainstLongDictionaries();
+        messageIsAHeartBeat();
+
+        when:
+        validateMessageType();
+        validator().onComplete();
+
+        then:
+        verifyMissingRequiredField();
+    }
+
+    @Test
+    public void longDictionaryValidatorDoesNotValidateGroupEntries()
+    {
+        given:
+        allFields.putAll('D', CL_ORD_ID, NO_PARTY_IDS);
+        requiredFields.put('D', CL_ORD_ID);
+        validatesAgainstLongDictionaries();
+        messageIsAnOrder();
+
+        when:
+        validateMessageType();
+        validator().onGroupHeader(NO_PARTY_IDS, 1);
+        validator().onGroupBegin(NO_PARTY_IDS, 1, 0);
+        validateField(PARTY_ROLE);
+        validator().onGroupEnd(NO_PARTY_IDS, 1, 0);
+        validateField(CL_ORD_ID);
+        validator().onComplete();
+
+        then:
+        verify(acceptor).onField(PARTY_ROLE, buffer, 0, 1);
+        verify(acceptor).onComplete();
+        verify(acceptor, never()).onError(any(), anyLong(), anyInt(), any());
+    }
+
+    @SuppressWarnings("deprecation")
+    private void validatesAgainstLongDictionaries()
+    {
+        validator = new OtfValidator(acceptor, allFields, requiredFields);
+    }
+
+    private OtfValidator validator()
+    {
+        if (validator == null)
+        {
+            header.requiredEntry(new Field(MESSAGE_TYPE, "MsgType", Type.STRING));
+            final Dictionary dictionary = new Dictionary(messages, null, null, header, null, "FIX", 4, 4);
+            validator = new OtfValidator(acceptor, ValidationAutomaton.of(dictionary));
+        }
+        return validator;
+    }
+
+    private void testReqIdIsARequiredHeartBeatField()
+    {
+        heartbeat.requiredEntry(testReqId);
     }
 
     private void heartbeatsHaveATestReqId()
     {
         heartBeatsAreKnownMessages();
-        allFields.put('0', 112);
+        heartbeat.optionalEntry(testReqId);
     }
 
     private void heartBeatsAreKnownMessages()
     {
-        requiredFields.put('0', MESSAGE_TYPE);
-        allFields.put('0', MESSAGE_TYPE);
+        messages.add(heartbeat);
+    }
+
+    private void ordersHaveParties()
+    {
+        final Group parties = new Group(
+            "PartiesGroup", Entry.optional(new Field(NO_PARTY_IDS, "NoPartyIDs", Type.NUMINGROUP)));
+        parties
+            .requiredEntry(new Field(PARTY_ID, "PartyID", Type.STRING))
+            .requiredEntry(new Field(PARTY_ID_SOURCE, "PartyIDSource", Type.CHAR))
+            .optionalEntry(new Field(PARTY_ROLE, "PartyRole", Type.INT));
+
+        final Message order = new Message("NewOrderSingle", "D", "app");
+        order
+            .requiredEntry(new Field(CL_ORD_ID, "ClOrdID", Type.STRING))
+            .optionalEntry(parties);
+        messages.add(order);
     }
 
     private void messageIsAHeartBeat()
@@ -156,9 +397,19 @@ public class OtfValidatorTest
         buffer.putAscii(0, "0");
     }
 
+    private void messageIsAnOrder()
+    {
+        buffer.putAscii(0, "D");
+    }
+
     private void validateMessageType()
     {
-        validator.onField(MESSAGE_TYPE, buffer, 0, 1);
+        validator().onField(MESSAGE_TYPE, buffer, 0, 1);
+    }
+
+    private void validateField(final int tag)
+    {
+        validator().onField(tag, buffer, 0, 1);
     }
 
     private void verifyAcceptorReceivesMessageType()
@@ -186,8 +437,13 @@ public class OtfValidatorTest
         verify(acceptor).onError(eq(MISSING_REQUIRED_FIELD), eq((long)'0'), eq(112), any(AsciiFieldFlyweight.class));
     }
 
+    private void verifyOrderError(final ValidationError error, final int tag)
+    {
+        verify(acceptor).onError(eq(error), eq((long)'D'), eq(tag), any(AsciiFieldFlyweight.class));
+    }
+
     private void validateTestReqId()
     {
-        validator.onField(112, buffer, 0, 1);
+        validator().onField(112, buffer, 0, 1);
     }
 }
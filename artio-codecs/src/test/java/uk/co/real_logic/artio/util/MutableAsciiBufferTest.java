@@ -15,6 +15,8 @@
  */
 package uk.co.real_logic.artio.util;
 
+import org.agrona.AsciiNumberFormatException;
+import org.junit.Test;
 import org.junit.experimental.theories.DataPoints;
 import org.junit.experimental.theories.Theories;
 import org.junit.experimental.theories.Theory;
@@ -55,4 +57,75 @@ public class MutableAsciiBufferTest
         assertEquals("Wrong length for " + value, length, MutableAsciiBuffer.lengthInAscii(value));
     }
 
+    @Test
+    public void shouldComputeChecksumAtEveryAlignment()
+    {
+        // Runs of 0xFF fill the lanes as quickly as possible
+        for (int i = 0; i < string.capacity(); i++)
+        {
+            string.putByte(i, (byte)(i % 3 == 0 ? i : 0xFF));
+        }
+
+        for (int offset = 0; offset < Long.BYTES; offset++)
+        {
+            for (int length = 0; length < 3 * 1024; length += 7)
+            {
+                assertEquals("Wrong checksum for offset " + offset + " and length " + length,
+                    byteByByteChecksum(offset, offset + length), string.computeChecksum(offset, offset + length));
+            }
+        }
+    }
+
+    @Test(expected = ArithmeticException.class)
+    public void shouldRejectScaledLongWithTooManyDecimalPlaces()
+    {
+        getFloatAsScaledLong("1.000000001", 8);
+    }
+
+    @Test(expected = ArithmeticException.class)
+    public void shouldRejectScaledLongThatOverflows()
+    {
+        getFloatAsScaledLong("100000000000", 8);
+    }
+
+    @Test(expected = ArithmeticException.class)
+    public void shouldRejectScaledLongWithTooManyDigits()
+    {
+        getFloatAsScaledLong("20000000000000000000", 0);
+    }
+
+    @Test(expected = AsciiNumberFormatException.class)
+    public void shouldRejectScaledLongWithoutDigits()
+    {
+        getFloatAsScaledLong(".", 8);
+    }
+
+    @Test(expected = AsciiNumberFormatException.class)
+    public void shouldRejectScaledLongWithOnlySignAndDot()
+    {
+        getFloatAsScaledLong("-.", 8);
+    }
+
+    @Test(expected = AsciiNumberFormatException.class)
+    public void shouldRejectScaledLongWithInvalidDigit()
+    {
+        getFloatAsScaledLong("1.2.3", 8);
+    }
+
+    private int byteByByteChecksum(final int startInclusive, final int endExclusive)
+    {
+        int total = 0;
+        for (int index = startInclusive; index < endExclusive; index++)
+        {
+            total += string.getByte(index) & 0xFF;
+        }
+        return total % 256;
+    }
+
+    private long getFloatAsScaledLong(final String value, final int scale)
+    {
+        final int length = string.putStringWithoutLengthAscii(0, value);
+        return string.getFloatAsScaledLong(0, length, scale);
+    }
+
 }
@@ -0,0 +1,107 @@
+/*
+ * Copyright 2015-2022 Real Logic Limited.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.util;
+
+import org.agrona.concurrent.UnsafeBuffer;
+import org.junit.Test;
+
+import static java.nio.charset.StandardCharsets.US_ASCII;
+import static org.junit.Assert.assertEquals;
+import static uk.co.real_logic.artio.util.TagOffsetTable.ENTRY_LENGTH;
+import static uk.co.real_logic.artio.util.TagOffsetTable.MISSING_INDEX;
+
+public class TagOffsetTableTest
+{
+    private static final int OFFSET = 3;
+    private static final String MESSAGE = "8=FIX.4.4\0019=12\00135=D\00134=4\00149=ABC\00110=123\001";
+
+    private final MutableAsciiBuffer message = new MutableAsciiBuffer(new byte[128]);
+    private final UnsafeBuffer tableBuffer = new UnsafeBuffer(new byte[16 * ENTRY_LENGTH]);
+    private final TagOffsetTable table = new TagOffsetTable();
+
+    @Test
+    public void shouldIndexFieldsOfMessage()
+    {
+        encode(MESSAGE, 16);
+
+        assertEquals(6, table.size());
+        assertField(0, 8, "FIX.4.4");
+        assertField(2, 35, "D");
+        assertField(4, 49, "ABC");
+        assertField(5, 10, "123");
+    }
+
+    @Test
+    public void shouldLimitNumberOfFields()
+    {
+        encode(MESSAGE, 3);
+
+        assertEquals(3, table.size());
+        assertEquals(2, table.indexOf(35));
+        assertEquals(MISSING_INDEX, table.indexOf(34));
+    }
+
+    @Test
+    public void shouldStopBeforeDataFields()
+    {
+        encode("8=FIX.4.4\00135=A\00195=3\00196=a\001b\001", 16);
+
+        assertEquals(2, table.size());
+        assertEquals(MISSING_INDEX, table.indexOf(95));
+    }
+
+    @Test
+    public void shouldStopAtMalformedField()
+    {
+        encode("8=FIX.4.4\0013x=D\00134=4\001", 16);
+
+        assertEquals(1, table.size());
+    }
+
+    @Test
+    public void shouldOmitUnterminatedField()
+    {
+        encode("8=FIX.4.4\00135=D", 16);
+
+        assertEquals(1, table.size());
+    }
+
+    @Test
+    public void shouldBeEmptyAfterReset()
+    {
+        encode(MESSAGE, 16);
+
+        table.reset();
+
+        assertEquals(0, table.size());
+        assertEquals(MISSING_INDEX, table.indexOf(8));
+    }
+
+    private void encode(final String value, final int maxFields)
+    {
+        final int length = message.putAscii(OFFSET, value);
+        final int tableLength = TagOffsetTable.encode(message, OFFSET, length, tableBuffer, 0, maxFields);
+        table.wrap(tableBuffer, 0, tableLength);
+    }
+
+    private void assertField(final int index, final int tag, final String value)
+    {
+        assertEquals(index, table.indexOf(tag));
+        assertEquals(tag, table.tag(index));
+        assertEquals(value, new String(
+            message.byteArray(), OFFSET + table.valueOffset(index), table.valueLength(index), US_ASCII));
+    }
+}
@@ -123,6 +123,16 @@ public class CommonConfiguration
      * Property name for character to separate debug logging of FIX messages
      */
     public static final String LOGGING_SEPARATOR_PROPERTY = "fix.core.debug.separator";
+
+    /**
+     * Property name for the number of duty cycles between samples of agent profiling counters, 0 disables profiling
+     */
+    public static final String AGENT_PROFILING_SAMPLE_INTERVAL_PROPERTY = "fix.core.agent_profiling_sample_interval";
+
+    /**
+     * Property name for the time after which an agent's duty cycle is considered stalled, 0 disables stall detection
+     */
+    public static final String DUTY_CYCLE_STALL_THRESHOLD_IN_MS_PROPERTY = "fix.core.duty_cycle_stall_threshold";
     public static final int NO_FIXP_MAX_RETRANSMISSION_RANGE = 0;
     public static final ResendRequestController DEFAULT_RESEND_REQUEST_CONTROLLER =
         (session, resendRequest, correctedEndSeqNo, response) -> response.resend();
@@ -266,6 +276,9 @@ public class CommonConfiguration
 
     public static final long DEFAULT_MAX_FIXP_KEEPALIVE_TIMEOUT_IN_MS = MINUTES.toMillis(1);
 
+    public static final int NO_AGENT_PROFILING = 0;
+    public static final long NO_DUTY_CYCLE_STALL_DETECTION = 0;
+
     public static final boolean RUNNING_ON_WINDOWS = System.getProperty("os.name").startsWith("Windows");
 
     private long reasonableTransmissionTimeInMs = DEFAULT_REASONABLE_TRANSMISSION_TIME_IN_MS;
@@ -304,6 +317,10 @@ public class CommonConfiguration
     private ResendRequestController resendRequestController = DEFAULT_RESEND_REQUEST_CONTROLLER;
     private int forcedHeartbeatIntervalInS = NO_FORCED_HEARTBEAT_INTERVAL;
     private boolean disableHeartbeatRepliesToTestRequests = false;
+    private int agentProfilingSampleInterval =
+        getInteger(AGENT_PROFILING_SAMPLE_INTERVAL_PROPERTY, NO_AGENT_PROFILING);
+    private long dutyCycleStallThresholdInMs =
+        Long.getLong(DUTY_CYCLE_STALL_THRESHOLD_IN_MS_PROPERTY, NO_DUTY_CYCLE_STALL_DETECTION);
 
     private final AtomicBoolean isConcluded = new AtomicBoolean(false);
 
@@ -800,6 +817,48 @@ public class CommonConfiguration
         return this;
     }
 
+    /**
+     * Enables profiling counters for Artio's agents, for example the Framer and the Library's duty cycle. These
+     * export the number of duty cycles, the amount of work done, the maximum duty cycle time and an estimate of
+     * the bytes allocated by each agent as Aeron counters, so that allocation or latency regressions on the hot
+     * path can be monitored in production without attaching a profiler. When message timing is enabled duty
+     * cycle times are also recorded into histograms.
+     *
+     * Counters are published, and the thread allocation counter sampled, once every
+     * <code>agentProfilingSampleInterval</code> duty cycles in order to keep the overhead low.
+     *
+     * @param agentProfilingSampleInterval the number of duty cycles between samples, or {@link #NO_AGENT_PROFILING}
+     *                                     to disable profiling. Defaults to disabled.
+     * @return this
+     */
+    public CommonConfiguration agentProfilingSampleInterval(final int agentProfilingSampleInterval)
+    {
+        this.agentProfilingSampleInterval = agentProfilingSampleInterval;
+        return this;
+    }
+
+    /**
+     * Enables detection of stalls in the duty cycle of Artio's agents, for example the Framer, the archiving agent
+     * and the thread that polls a FixLibrary. A stall is a duty cycle that takes longer than the threshold, for
+     * example due to a long GC pause or a blocking <code>AuthenticationStrategy</code>.
+     *
+     * Each agent records the start time of its current duty cycle into a counter. The monitoring thread checks
+     * these and, when a stall is detected, reports an error to the error handler containing the stack trace of
+     * the stalled thread. Only time spent within a duty cycle counts towards a stall, so the time between calls
+     * to <code>FixLibrary.poll()</code> isn't reported as a stall of the library. When message timing is enabled
+     * the durations of stalls are also recorded into a histogram.
+     *
+     * @param dutyCycleStallThresholdInMs the stall threshold in milliseconds, or
+     *                                    {@link #NO_DUTY_CYCLE_STALL_DETECTION} to disable stall detection.
+     *                                    Defaults to disabled.
+     * @return this
+     */
+    public CommonConfiguration dutyCycleStallThresholdInMs(final long dutyCycleStallThresholdInMs)
+    {
+        this.dutyCycleStallThresholdInMs = dutyCycleStallThresholdInMs;
+        return this;
+    }
+
     // ------------------------
     // END SETTERS
     // ------------------------
@@ -963,6 +1022,16 @@ public class CommonConfiguration
         return resendRequestController;
     }
 
+    public int agentProfilingSampleInterval()
+    {
+        return agentProfilingSampleInterval;
+    }
+
+    public long dutyCycleStallThresholdInMs()
+    {
+        return dutyCycleStallThresholdInMs;
+    }
+
     // ------------------------
     // END GETTERS
     // ------------------------
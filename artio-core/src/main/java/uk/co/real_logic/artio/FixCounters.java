@@ -47,7 +47,13 @@ public class FixCounters implements AutoCloseable
         CURRENT_REPLAY_COUNT_TYPE_ID(10_008),
         NEGATIVE_TIMESTAMP_TYPE_ID(10_009),
         FAILED_ADMIN_TYPE_ID(10_010),
-        FAILED_ADMIN_REPLY_TYPE_ID(10_011);
+        FAILED_ADMIN_REPLY_TYPE_ID(10_011),
+        AGENT_DUTY_CYCLES_TYPE_ID(10_012),
+        AGENT_WORK_COUNT_TYPE_ID(10_013),
+        AGENT_MAX_DUTY_CYCLE_TIME_TYPE_ID(10_014),
+        AGENT_ALLOCATED_BYTES_TYPE_ID(10_015),
+        AGENT_DUTY_CYCLE_START_TIME_TYPE_ID(10_016),
+        AGENT_STALLS_TYPE_ID(10_017);
 
         final int id;
 
@@ -179,6 +185,36 @@ public class FixCounters implements AutoCloseable
             FixCountersId.RECV_MSG_SEQ_NO_TYPE_ID.id(), msgSeqNoLabel("Received", connectionId, sessionId));
     }
 
+    public AtomicCounter agentDutyCycles(final String roleName)
+    {
+        return newCounter(AGENT_DUTY_CYCLES_TYPE_ID.id(), "Duty cycles for " + roleName);
+    }
+
+    public AtomicCounter agentWorkCount(final String roleName)
+    {
+        return newCounter(AGENT_WORK_COUNT_TYPE_ID.id(), "Work count for " + roleName);
+    }
+
+    public AtomicCounter agentMaxDutyCycleTime(final String roleName)
+    {
+        return newCounter(AGENT_MAX_DUTY_CYCLE_TIME_TYPE_ID.id(), "Max duty cycle time in ns for " + roleName);
+    }
+
+    public AtomicCounter agentAllocatedBytes(final String roleName)
+    {
+        return newCounter(AGENT_ALLOCATED_BYTES_TYPE_ID.id(), "Estimated allocated bytes for " + roleName);
+    }
+
+    public AtomicCounter agentDutyCycleStartTime(final String roleName)
+    {
+        return newCounter(AGENT_DUTY_CYCLE_START_TIME_TYPE_ID.id(), "Duty cycle start nano time for " + roleName);
+    }
+
+    public AtomicCounter agentStalls(final String roleName)
+    {
+        return newCounter(AGENT_STALLS_TYPE_ID.id(), "Duty cycle stalls for " + roleName);
+    }
+
     private String msgSeqNoLabel(final String type, final long connectionId, final long sessionId)
     {
         final StringBuilder sb = new StringBuilder();
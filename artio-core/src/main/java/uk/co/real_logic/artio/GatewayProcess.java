@@ -24,13 +24,14 @@ import org.agrona.concurrent.AgentInvoker;
 import org.agrona.concurrent.CompositeAgent;
 import org.agrona.concurrent.SystemEpochClock;
 import uk.co.real_logic.artio.engine.FixEngine;
-import uk.co.real_logic.artio.timing.HistogramLogAgent;
-import uk.co.real_logic.artio.timing.Timer;
+import uk.co.real_logic.artio.timing.*;
 
 import java.nio.channels.ClosedByInterruptException;
 import java.util.ArrayList;
 import java.util.List;
 
+import static uk.co.real_logic.artio.CommonConfiguration.NO_AGENT_PROFILING;
+import static uk.co.real_logic.artio.CommonConfiguration.NO_DUTY_CYCLE_STALL_DETECTION;
 import static uk.co.real_logic.artio.CommonConfiguration.TIME_MESSAGES;
 import static uk.co.real_logic.artio.dictionary.generation.Exceptions.closeAll;
 
@@ -49,6 +50,10 @@ public abstract class GatewayProcess implements AutoCloseable
     protected MonitoringAgent monitoringAgent;
     protected Agent monitoringCompositeAgent;
 
+    // Agent timers have ids after the engine or library's own timers
+    private final List<Timer> agentTimers = new ArrayList<>();
+    private final List<DutyCycleTracker> dutyCycleTrackers = new ArrayList<>();
+
     protected void init(final CommonConfiguration configuration, final int libraryId)
     {
         this.configuration = configuration;
@@ -58,6 +63,8 @@ public abstract class GatewayProcess implements AutoCloseable
 
     protected abstract boolean shouldRethrowExceptionInErrorHandler();
 
+    protected abstract int agentTimerId(int index);
+
     protected void initMonitoring(final CommonConfiguration configuration)
     {
         monitoringFile = new MonitoringFile(true, configuration);
@@ -112,8 +119,10 @@ public abstract class GatewayProcess implements AutoCloseable
         final List<Agent> agents = new ArrayList<>();
         if (TIME_MESSAGES)
         {
+            final List<Timer> allTimers = new ArrayList<>(timers);
+            allTimers.addAll(agentTimers);
             agents.add(new HistogramLogAgent(
-                timers,
+                allTimers,
                 configuration.histogramLoggingFile(),
                 configuration.histogramPollPeriodInMs(),
                 errorHandler,
@@ -137,12 +146,97 @@ public abstract class GatewayProcess implements AutoCloseable
             agents.add(agent);
         }
 
+        if (!dutyCycleTrackers.isEmpty())
+        {
+            agents.add(new DutyCycleStallDetector(
+                dutyCycleTrackers,
+                configuration.dutyCycleStallThresholdInMs(),
+                errorHandler,
+                System::nanoTime,
+                configuration.agentNamePrefix()));
+        }
+
         if (!agents.isEmpty())
         {
             this.monitoringCompositeAgent = new CompositeAgent(agents);
         }
     }
 
+    protected boolean isAgentProfilingEnabled()
+    {
+        return configuration.agentProfilingSampleInterval() != NO_AGENT_PROFILING;
+    }
+
+    protected boolean isDutyCycleStallDetectionEnabled()
+    {
+        return configuration.dutyCycleStallThresholdInMs() != NO_DUTY_CYCLE_STALL_DETECTION;
+    }
+
+    /**
+     * Wraps the agent in order to profile its duty cycle and detect stalls in it, if either is enabled. Must be
+     * invoked before {@link #initMonitoringAgent(List, CommonConfiguration, AeronArchive, Agent)} in order for the
+     * agent to be monitored.
+     *
+     * @param agent the agent to instrument, may be null.
+     * @return the instrumented agent, or the original agent if no instrumentation is enabled.
+     */
+    protected Agent instrumentedAgent(final Agent agent)
+    {
+        if (agent == null)
+        {
+            return null;
+        }
+
+        final String roleName = agent.roleName();
+        Agent instrumentedAgent = agent;
+        if (isDutyCycleStallDetectionEnabled())
+        {
+            instrumentedAgent = new StallTrackingAgent(instrumentedAgent, newDutyCycleTracker(roleName));
+        }
+
+        if (isAgentProfilingEnabled())
+        {
+            instrumentedAgent = new ProfilingAgent(instrumentedAgent, newDutyCycleProfiler(roleName));
+        }
+
+        return instrumentedAgent;
+    }
+
+    protected DutyCycleProfiler newDutyCycleProfiler(final String roleName)
+    {
+        return new DutyCycleProfiler(
+            newAgentTimer(roleName + " Duty Cycle"),
+            configuration.agentProfilingSampleInterval(),
+            fixCounters.agentDutyCycles(roleName),
+            fixCounters.agentWorkCount(roleName),
+            fixCounters.agentMaxDutyCycleTime(roleName),
+            fixCounters.agentAllocatedBytes(roleName));
+    }
+
+    protected DutyCycleTracker newDutyCycleTracker(final String roleName)
+    {
+        final DutyCycleTracker tracker = new DutyCycleTracker(
+            roleName,
+            fixCounters.agentDutyCycleStartTime(roleName),
+            fixCounters.agentStalls(roleName),
+            newAgentTimer(roleName + " Stall"));
+        dutyCycleTrackers.add(tracker);
+        return tracker;
+    }
+
+    private Timer newAgentTimer(final String name)
+    {
+        if (!TIME_MESSAGES)
+        {
+            return null;
+        }
+
+        final int timerId = agentTimerId(agentTimers.size());
+        final Timer timer = new Timer(configuration.epochNanoClock(), name, timerId, fixCounters.negativeTimestamps());
+        agentTimers.add(timer);
+        return timer;
+    }
+
     public void close()
     {
         closeAll(
@@ -20,6 +20,7 @@ import io.aeron.archive.client.AeronArchive;
 import org.agrona.CloseHelper;
 import org.agrona.IoUtil;
 import org.agrona.Verify;
+import org.agrona.collections.Int2IntHashMap;
 import org.agrona.collections.IntHashSet;
 import org.agrona.collections.Long2ObjectCache;
 import org.agrona.concurrent.AtomicBuffer;
@@ -35,9 +36,12 @@ import uk.co.real_logic.artio.decoder.AbstractLogonDecoder;
 import uk.co.real_logic.artio.dictionary.FixDictionary;
 import uk.co.real_logic.artio.dictionary.SessionConstants;
 import uk.co.real_logic.artio.engine.framer.DefaultTcpChannelSupplier;
+import uk.co.real_logic.artio.engine.framer.MessageTypeThrottle;
 import uk.co.real_logic.artio.engine.framer.TcpChannelSupplier;
+import uk.co.real_logic.artio.engine.logger.FileSessionMetaDataStore;
 import uk.co.real_logic.artio.engine.logger.FixArchiveScanner;
 import uk.co.real_logic.artio.engine.logger.ReplayIndexDescriptor;
+import uk.co.real_logic.artio.engine.logger.SessionMetaDataStore;
 import uk.co.real_logic.artio.fields.EpochFractionFormat;
 import uk.co.real_logic.artio.fixp.FixPCancelOnDisconnectTimeoutHandler;
 import uk.co.real_logic.artio.fixp.FixPProtocolFactory;
@@ -49,6 +53,8 @@ import uk.co.real_logic.artio.session.ResendRequestController;
 import uk.co.real_logic.artio.session.SessionCustomisationStrategy;
 import uk.co.real_logic.artio.session.SessionIdStrategy;
 import uk.co.real_logic.artio.timing.HistogramHandler;
+import uk.co.real_logic.artio.util.MessageTypeEncoding;
+import uk.co.real_logic.artio.util.TagOffsetTable;
 import uk.co.real_logic.artio.validation.*;
 
 import java.io.File;
@@ -127,6 +133,22 @@ public final class EngineConfiguration extends CommonConfiguration implements Au
      * Property name for the max number of messages to read from libraries.
      */
     public static final String OUTBOUND_LIBRARY_FRAGMENT_LIMIT_PROP = "fix.core.outbound_fragment_limit";
+    /**
+     * Property name to enable polling the outbound messages of each library separately.
+     */
+    public static final String FAIR_OUTBOUND_LIBRARY_POLLING_PROP = "fix.core.fair_outbound_library_polling";
+    /**
+     * Property name to enable touching the pages of memory mapped files when they are mapped.
+     */
+    public static final String PRE_TOUCH_MAPPED_FILES_PROP = "fix.core.pre_touch_mapped_files";
+    /**
+     * Property name for the number of replay index header and segment files to keep ready for new sessions.
+     */
+    public static final String REPLAY_INDEX_FILE_POOL_SIZE_PROP = "fix.core.replay_index_file_pool_size";
+    /**
+     * Property name for the number of headers and segments that a consolidated replay index can hold.
+     */
+    public static final String REPLAY_INDEX_DIRECTORY_CAPACITY_PROP = "fix.core.replay_index_directory_capacity";
     /**
      * Property name for the max number of messages to read from replayer.
      */
@@ -143,6 +165,10 @@ public final class EngineConfiguration extends CommonConfiguration implements Au
      * Property name for the size in bytes of the TCP socket's receive buffer.
      */
     public static final String RECEIVER_SOCKET_BUFFER_SIZE_PROP = "fix.core.receiver_socket_buffer_size";
+    /**
+     * Property name for the number of leading fields of received messages to index for libraries.
+     */
+    public static final String TAG_OFFSET_TABLE_FIELDS_PROP = "fix.core.tag_offset_table_fields";
     /**
      * Property name for the size in bytes of the TCP socket's send buffer.
      */
@@ -175,10 +201,17 @@ public final class EngineConfiguration extends CommonConfiguration implements Au
     public static final int DEFAULT_LOGGER_CACHE_SET_SIZE = 4;
 
     public static final int DEFAULT_OUTBOUND_LIBRARY_FRAGMENT_LIMIT = 20;
+    public static final boolean DEFAULT_FAIR_OUTBOUND_LIBRARY_POLLING = false;
+    public static final int DEFAULT_OUTBOUND_LIBRARY_WEIGHT = 1;
+    public static final boolean DEFAULT_PRE_TOUCH_MAPPED_FILES = false;
+    public static final int DEFAULT_REPLAY_INDEX_FILE_POOL_SIZE = 0;
+    public static final int DEFAULT_REPLAY_INDEX_DIRECTORY_CAPACITY = 0;
     public static final int DEFAULT_REPLAY_FRAGMENT_LIMIT = 5;
     public static final int DEFAULT_INBOUND_BYTES_RECEIVED_LIMIT = 8 * 1024;
     public static final int DEFAULT_RECEIVER_BUFFER_SIZE = 16 * 1024;
     public static final int DEFAULT_RECEIVER_SOCKET_BUFFER_SIZE = 1024 * 1024;
+    public static final int DEFAULT_TAG_OFFSET_TABLE_FIELDS = 0;
+    public static final int MAX_TAG_OFFSET_TABLE_FIELDS = 0xFFFF / TagOffsetTable.ENTRY_LENGTH;
     public static final int DEFAULT_SENDER_SOCKET_BUFFER_SIZE = 1024 * 1024;
     public static final int DEFAULT_SEQUENCE_NUMBER_INDEX_SIZE = 8 * 1024 * 1024;
     public static final int DEFAULT_SESSION_ID_BUFFER_SIZE = 4 * 1024 * 1024;
@@ -260,6 +293,9 @@ public final class EngineConfiguration extends CommonConfiguration implements Au
 
     private int outboundLibraryFragmentLimit =
         getInteger(OUTBOUND_LIBRARY_FRAGMENT_LIMIT_PROP, DEFAULT_OUTBOUND_LIBRARY_FRAGMENT_LIMIT);
+    private boolean fairOutboundLibraryPolling =
+        getBoolean(FAIR_OUTBOUND_LIBRARY_POLLING_PROP, DEFAULT_FAIR_OUTBOUND_LIBRARY_POLLING);
+    private final Int2IntHashMap libraryIdToOutboundWeight = new Int2IntHashMap(DEFAULT_OUTBOUND_LIBRARY_WEIGHT);
     private int replayFragmentLimit =
         getInteger(REPLAY_FRAGMENT_LIMIT_PROP, DEFAULT_REPLAY_FRAGMENT_LIMIT);
     private int inboundBytesReceivedLimit =
@@ -268,6 +304,8 @@ public final class EngineConfiguration extends CommonConfiguration implements Au
         getInteger(RECEIVER_BUFFER_SIZE_PROP, DEFAULT_RECEIVER_BUFFER_SIZE);
     private int receiverSocketBufferSize =
         getInteger(RECEIVER_SOCKET_BUFFER_SIZE_PROP, DEFAULT_RECEIVER_SOCKET_BUFFER_SIZE);
+    private int tagOffsetTableFields =
+        getInteger(TAG_OFFSET_TABLE_FIELDS_PROP, DEFAULT_TAG_OFFSET_TABLE_FIELDS);
     private int senderSocketBufferSize =
         getInteger(SENDER_SOCKET_BUFFER_SIZE_PROP, DEFAULT_SENDER_SOCKET_BUFFER_SIZE);
     private final int sequenceNumberIndexSize =
@@ -279,6 +317,11 @@ public final class EngineConfiguration extends CommonConfiguration implements Au
     private int noLogonDisconnectTimeoutInMs =
         getInteger(NO_LOGON_DISCONNECT_TIMEOUT_PROP, DEFAULT_NO_LOGON_DISCONNECT_TIMEOUT_IN_MS);
     private boolean indexChecksumEnabled = getBoolean(INDEX_CHECKSUM_ENABLED_PROP, DEFAULT_INDEX_CHECKSUM_ENABLED);
+    private boolean preTouchMappedFiles = getBoolean(PRE_TOUCH_MAPPED_FILES_PROP, DEFAULT_PRE_TOUCH_MAPPED_FILES);
+    private int replayIndexFilePoolSize =
+        getInteger(REPLAY_INDEX_FILE_POOL_SIZE_PROP, DEFAULT_REPLAY_INDEX_FILE_POOL_SIZE);
+    private int replayIndexDirectoryCapacity =
+        getInteger(REPLAY_INDEX_DIRECTORY_CAPACITY_PROP, DEFAULT_REPLAY_INDEX_DIRECTORY_CAPACITY);
 
     private String libraryAeronChannel = null;
     private Function<EngineConfiguration, TcpChannelSupplier> channelSupplierFactory = DefaultTcpChannelSupplier::new;
@@ -299,6 +342,7 @@ public final class EngineConfiguration extends CommonConfiguration implements Au
     private AuthenticationStrategy authenticationStrategy = AuthenticationStrategy.none();
     private FixPAuthenticationStrategy fixPAuthenticationStrategy = FixPAuthenticationStrategy.none();
     private long indexFileStateFlushTimeoutInMs = DEFAULT_INDEX_FILE_STATE_FLUSH_TIMEOUT_IN_MS;
+    private SessionMetaDataStore.Factory sessionMetaDataStoreFactory = FileSessionMetaDataStore.FACTORY;
     private FixDictionary acceptorfixDictionary;
     private boolean lookupDefaultAcceptorfixDictionary = true;
     private final Map<String, FixDictionary> acceptorFixDictionaryOverrides = new HashMap<>();
@@ -318,6 +362,7 @@ public final class EngineConfiguration extends CommonConfiguration implements Au
     private FixPCancelOnDisconnectTimeoutHandler fixPCancelOnDisconnectTimeoutHandler = null;
     private int throttleWindowInMs = NO_THROTTLE_WINDOW;
     private int throttleLimitOfMessages = NO_THROTTLE_WINDOW;
+    private final MessageTypeThrottle messageTypeThrottle = new MessageTypeThrottle();
     private long timeIndexReplayFlushIntervalInNs = DEFAULT_TIME_INDEX_FLUSH_INTERVAL_IN_NS;
 
     private EngineReproductionConfiguration reproductionConfiguration;
@@ -416,6 +461,32 @@ public final class EngineConfiguration extends CommonConfiguration implements Au
         return this;
     }
 
+    /**
+     * Sets the number of leading fields of each received message that the engine indexes in a
+     * {@link TagOffsetTable} attached to the message when passing it on to libraries. Libraries can then find those
+     * fields without scanning the message, see {@link uk.co.real_logic.artio.library.OnMessageInfo#tagOffsets()}.
+     * The message is scanned once by the engine rather than once by every subscriber, at the cost of 12 extra bytes
+     * per field in the inbound stream and archive. Messages too large to fit in a single frame aren't indexed.
+     *
+     * Defaults to 0, which doesn't index any fields.
+     *
+     * @param tagOffsetTableFields the number of fields to index.
+     * @return this
+     * @throws IllegalArgumentException if tagOffsetTableFields is negative or &gt; MAX_TAG_OFFSET_TABLE_FIELDS
+     * @see EngineConfiguration#TAG_OFFSET_TABLE_FIELDS_PROP
+     */
+    public EngineConfiguration tagOffsetTableFields(final int tagOffsetTableFields)
+    {
+        if (tagOffsetTableFields < 0 || tagOffsetTableFields > MAX_TAG_OFFSET_TABLE_FIELDS)
+        {
+            throw new IllegalArgumentException("tagOffsetTableFields must be between 0 and " +
+                MAX_TAG_OFFSET_TABLE_FIELDS + " but was: " + tagOffsetTableFields);
+        }
+
+        this.tagOffsetTableFields = tagOffsetTableFields;
+        return this;
+    }
+
     /**
      * Sets the sender socket buffer size.
      *
@@ -610,6 +681,45 @@ public final class EngineConfiguration extends CommonConfiguration implements Au
         return this;
     }
 
+    /**
+     * Enables polling the outbound messages of each library separately. By default all the libraries' outbound
+     * messages are read from the engine's subscription with a single fragment limit, so a library that publishes
+     * a lot of messages can take most of each duty cycle and delay the messages of other libraries. When this is
+     * enabled each library's publication is polled with its own fragment limit of
+     * {@link #outboundLibraryFragmentLimit(int)} multiplied by that library's
+     * {@link #outboundLibraryWeight(int, int) weight}.
+     *
+     * @param fairOutboundLibraryPolling true to poll the outbound messages of each library separately.
+     * @return this
+     * @see EngineConfiguration#FAIR_OUTBOUND_LIBRARY_POLLING_PROP
+     */
+    public EngineConfiguration fairOutboundLibraryPolling(final boolean fairOutboundLibraryPolling)
+    {
+        this.fairOutboundLibraryPolling = fairOutboundLibraryPolling;
+        return this;
+    }
+
+    /**
+     * Sets the weight used for a library's outbound messages when {@link #fairOutboundLibraryPolling(boolean)} is
+     * enabled. Libraries that don't have a configured weight have a weight of
+     * {@link #DEFAULT_OUTBOUND_LIBRARY_WEIGHT}.
+     *
+     * @param libraryId the id of the library, see
+     *                  {@link uk.co.real_logic.artio.library.LibraryConfiguration#libraryId(int)}.
+     * @param weight the multiple of the outbound library fragment limit that the library is polled with.
+     * @return this
+     */
+    public EngineConfiguration outboundLibraryWeight(final int libraryId, final int weight)
+    {
+        if (weight <= 0)
+        {
+            throw new IllegalArgumentException("Outbound library weight must be positive, but was: " + weight);
+        }
+
+        libraryIdToOutboundWeight.put(libraryId, weight);
+        return this;
+    }
+
     /**
      * Sets the fragment limit for the subscription to messages from the replayer.
      *
@@ -906,6 +1016,25 @@ public final class EngineConfiguration extends CommonConfiguration implements Au
         return this;
     }
 
+    /**
+     * Sets the store that session metadata, written using
+     * {@link uk.co.real_logic.artio.library.FixLibrary#writeMetaData}, is persisted into. Writes to the store are
+     * synced to disk at the same time as the sequence number indices, see
+     * {@link #indexFileStateFlushTimeoutInMs(long)}.
+     *
+     * Defaults to {@link FileSessionMetaDataStore}, which stores metadata in the log file directory.
+     *
+     * @param sessionMetaDataStoreFactory the factory that opens the store.
+     * @return this
+     */
+    public EngineConfiguration sessionMetaDataStoreFactory(
+        final SessionMetaDataStore.Factory sessionMetaDataStoreFactory)
+    {
+        Verify.notNull(sessionMetaDataStoreFactory, "sessionMetaDataStoreFactory");
+        this.sessionMetaDataStoreFactory = sessionMetaDataStoreFactory;
+        return this;
+    }
+
     /**
      * Specify a single acceptor FIX Dictionary. If an override for a given FIX version is specified using
      * {@link #overrideAcceptorFixDictionary(Class)} then this FIX Dictionary will be used as a catch-all for any
@@ -1038,6 +1167,50 @@ public final class EngineConfiguration extends CommonConfiguration implements Au
         }
     }
 
+    /**
+     * Enables a throttle for a single message type, for example NewOrderSingle, in addition to any session wide
+     * message throttle. Each throttled message type has its own token bucket that allows a burst of up to
+     * burstLimitOfMessages at once and then refills at a rate of throttleLimitOfMessages per throttleWindowInMs.
+     * Messages over the limit are rejected in the same way as the session wide message throttle. This can be
+     * overriden on a per session basis at runtime using
+     * {@link uk.co.real_logic.artio.session.Session#throttleMessageTypeAt(String, int, int, int)}.
+     *
+     * @param messageType the message type to throttle, eg: "D".
+     * @param throttleWindowInMs the time window over which the limit of messages refills.
+     * @param throttleLimitOfMessages the number of messages that can be received in each time window.
+     * @param burstLimitOfMessages the maximum number of messages that can be received at once.
+     * @throws IllegalArgumentException if any of the numeric parameters is &lt; 1.
+     * @return this
+     */
+    public EngineConfiguration enableMessageTypeThrottle(
+        final String messageType,
+        final int throttleWindowInMs,
+        final int throttleLimitOfMessages,
+        final int burstLimitOfMessages)
+    {
+        validateMessageTypeThrottleOptions(throttleWindowInMs, throttleLimitOfMessages, burstLimitOfMessages);
+
+        messageTypeThrottle.configure(
+            MessageTypeEncoding.packMessageType(messageType),
+            throttleWindowInMs,
+            throttleLimitOfMessages,
+            burstLimitOfMessages);
+        return this;
+    }
+
+    public static void validateMessageTypeThrottleOptions(
+        final int throttleWindowInMs, final int throttleLimitOfMessages, final int burstLimitOfMessages)
+    {
+        validateMessageThrottleOptions(throttleWindowInMs, throttleLimitOfMessages);
+
+        if (burstLimitOfMessages < 1)
+        {
+            throw new IllegalArgumentException(
+                "Unable to configure message throttle, burstLimitOfMessages must be >= 1 but is " +
+                    burstLimitOfMessages);
+        }
+    }
+
     /**
      * Sets the maximum number of resend requests per session that Artio will process concurrently. Once the maximum is
      * hit further FIX resend requests will be ignored and an Exception will be logged noting the event. Note
@@ -1188,6 +1361,67 @@ public final class EngineConfiguration extends CommonConfiguration implements Au
         return this;
     }
 
+    /**
+     * Enables touching every page of memory mapped index and session files when they are mapped, rather than
+     * taking a page fault the first time each page is written to. The files mapped when the configuration is
+     * concluded are touched on the thread that launches the engine. Replay index files for a session are touched
+     * by the archiving agent when they're mapped, and each session's next replay index segment is mapped when
+     * the first record is written into its current segment, so a new segment is ready before it is needed.
+     *
+     * This increases startup time and the memory that is resident in exchange for avoiding latency spikes on the
+     * first messages of a session.
+     *
+     * @param preTouchMappedFiles true to touch the pages of mapped files when they're mapped.
+     * @return this
+     * @see EngineConfiguration#PRE_TOUCH_MAPPED_FILES_PROP
+     */
+    public EngineConfiguration preTouchMappedFiles(final boolean preTouchMappedFiles)
+    {
+        this.preTouchMappedFiles = preTouchMappedFiles;
+        return this;
+    }
+
+    /**
+     * Sets the number of zero filled replay index header files and segment files that are kept ready for new
+     * sessions and segments. Creating and sizing a file for each new session can stall indexing when many
+     * sessions log on at once, with a pool these files are renamed into place instead. The pool is refilled a
+     * file at a time by the archiving agent's duty cycle. 0, the default, disables the pool. The pool can't be used
+     * with a consolidated replay index, see {@link #replayIndexDirectoryCapacity(int)}.
+     *
+     * @param replayIndexFilePoolSize the number of header files and of segment files to keep in the pool.
+     * @return this
+     * @see EngineConfiguration#REPLAY_INDEX_FILE_POOL_SIZE_PROP
+     */
+    public EngineConfiguration replayIndexFilePoolSize(final int replayIndexFilePoolSize)
+    {
+        this.replayIndexFilePoolSize = replayIndexFilePoolSize;
+        return this;
+    }
+
+    /**
+     * Sets the capacity of a consolidated replay index. By default the replay index has a header file and segment
+     * files for every session, so an engine with many sessions has many thousands of small files to create, open and
+     * list at startup. When this is set above 0 the headers and segments of all sessions are instead stored as
+     * regions of one data file per stream, with a directory file that maps sessions to their regions. Queries on
+     * the index behave the same with either layout. This can't be combined with
+     * {@link #replayIndexFilePoolSize(int)}.
+     *
+     * The capacity is the number of headers and segments that can be stored, each session uses one header and up
+     * to {@link #replayIndexFileRecordCapacity()} / {@link #replayIndexSegmentRecordCapacity()} segments. The
+     * capacity of an existing directory isn't changed. The headers and segments of sessions whose sequence numbers
+     * are reset are reused by later sessions once no replay query has them mapped.
+     *
+     * @param replayIndexDirectoryCapacity the number of headers and segments the directory can hold, or 0 to
+     *                                     store the index as files per session.
+     * @return this
+     * @see EngineConfiguration#REPLAY_INDEX_DIRECTORY_CAPACITY_PROP
+     */
+    public EngineConfiguration replayIndexDirectoryCapacity(final int replayIndexDirectoryCapacity)
+    {
+        this.replayIndexDirectoryCapacity = replayIndexDirectoryCapacity;
+        return this;
+    }
+
     /**
      * Sets the message handler for outbound messages to be passed to when reproduction mode is enabled.
      *
@@ -1649,6 +1883,16 @@ public final class EngineConfiguration extends CommonConfiguration implements Au
         return receiverSocketBufferSize;
     }
 
+    /**
+     * See {@link #tagOffsetTableFields(int)} for details.
+     *
+     * @return the number of leading fields of received messages to index
+     */
+    public int tagOffsetTableFields()
+    {
+        return tagOffsetTableFields;
+    }
+
     public int senderSocketBufferSize()
     {
         return senderSocketBufferSize;
@@ -1754,6 +1998,16 @@ public final class EngineConfiguration extends CommonConfiguration implements Au
         return outboundLibraryFragmentLimit;
     }
 
+    public boolean fairOutboundLibraryPolling()
+    {
+        return fairOutboundLibraryPolling;
+    }
+
+    public int outboundLibraryWeight(final int libraryId)
+    {
+        return libraryIdToOutboundWeight.get(libraryId);
+    }
+
     public int replayFragmentLimit()
     {
         return replayFragmentLimit;
@@ -1863,6 +2117,11 @@ public final class EngineConfiguration extends CommonConfiguration implements Au
         return indexFileStateFlushTimeoutInMs;
     }
 
+    public SessionMetaDataStore.Factory sessionMetaDataStoreFactory()
+    {
+        return sessionMetaDataStoreFactory;
+    }
+
     public FixDictionary acceptorfixDictionary()
     {
         return acceptorfixDictionary;
@@ -1988,6 +2247,11 @@ public final class EngineConfiguration extends CommonConfiguration implements Au
         return throttleLimitOfMessages;
     }
 
+    public MessageTypeThrottle messageTypeThrottle()
+    {
+        return messageTypeThrottle;
+    }
+
     public long timeIndexReplayFlushIntervalInNs()
     {
         return timeIndexReplayFlushIntervalInNs;
@@ -1998,6 +2262,21 @@ public final class EngineConfiguration extends CommonConfiguration implements Au
         return indexChecksumEnabled;
     }
 
+    public boolean preTouchMappedFiles()
+    {
+        return preTouchMappedFiles;
+    }
+
+    public int replayIndexFilePoolSize()
+    {
+        return replayIndexFilePoolSize;
+    }
+
+    public int replayIndexDirectoryCapacity()
+    {
+        return replayIndexDirectoryCapacity;
+    }
+
     public EngineReproductionConfiguration reproductionConfiguration()
     {
         return reproductionConfiguration;
@@ -2062,6 +2341,13 @@ public final class EngineConfiguration extends CommonConfiguration implements Au
                 sessionBufferSize()));
         }
 
+        if (replayIndexDirectoryCapacity() > 0 && replayIndexFilePoolSize() > 0)
+        {
+            throw new IllegalArgumentException(
+                "replayIndexFilePoolSize cannot be used with a replayIndexDirectoryCapacity, the consolidated replay " +
+                "index doesn't create files per session");
+        }
+
         if (acceptsFixP() && !logAllMessages())
         {
             throw new IllegalArgumentException("FIXP acceptor is not supported without logging messages");
@@ -2119,7 +2405,12 @@ public final class EngineConfiguration extends CommonConfiguration implements Au
 
     private MappedFile mapFile(final String file, final int size)
     {
-        return MappedFile.map(logFileDir() + File.separator + file, size);
+        final MappedFile mappedFile = MappedFile.map(logFileDir() + File.separator + file, size);
+        if (preTouchMappedFiles)
+        {
+            mappedFile.preTouch();
+        }
+        return mappedFile;
     }
 
     public String libraryAeronChannel()
@@ -119,6 +119,7 @@ public class EngineContext implements AutoCloseable
                 configuration.indexFileStateFlushTimeoutInMs(),
                 epochClock,
                 configuration.logFileDir(),
+                configuration.sessionMetaDataStoreFactory(),
                 connectionIdToFixPSessionId,
                 fixPProtocolType,
                 true, indexChecksumEnabled,
@@ -133,6 +134,7 @@ public class EngineContext implements AutoCloseable
                 configuration.indexFileStateFlushTimeoutInMs(),
                 epochClock,
                 null,
+                configuration.sessionMetaDataStoreFactory(),
                 connectionIdToFixPSessionId,
                 fixPProtocolType,
                 false, indexChecksumEnabled,
@@ -186,13 +188,34 @@ public class EngineContext implements AutoCloseable
         final boolean indexChecksumEnabled,
         final ReplayEvictionHandler evictionHandler)
     {
+        final int replayIndexDirectoryCapacity = configuration.replayIndexDirectoryCapacity();
+        final int replayIndexFilePoolSize = configuration.replayIndexFilePoolSize();
+        final BufferFactory bufferFactory;
+        if (replayIndexDirectoryCapacity > 0)
+        {
+            bufferFactory = new ReplayIndexStore(logFileDir, streamId, replayIndexDirectoryCapacity);
+        }
+        else if (replayIndexFilePoolSize > 0)
+        {
+            bufferFactory = new ReplayIndexFilePool(
+                logFileDir,
+                streamId,
+                ReplayIndexDescriptor.capacityToBytesInt(configuration.replayIndexSegmentRecordCapacity()),
+                replayIndexFilePoolSize,
+                errorHandler);
+        }
+        else
+        {
+            bufferFactory = LoggerUtil::map;
+        }
+
         return new ReplayIndex(
             sequenceNumberExtractor,
             logFileDir,
             streamId,
             configuration.replayIndexFileRecordCapacity(),
             configuration.replayIndexSegmentRecordCapacity(),
-            LoggerUtil::map,
+            bufferFactory,
             ReplayIndexDescriptor.replayPositionBuffer(logFileDir, streamId, configuration.replayPositionBufferSize()),
             errorHandler,
             recordingIdLookup,
@@ -202,7 +225,8 @@ public class EngineContext implements AutoCloseable
             configuration.timeIndexReplayFlushIntervalInNs(),
             streamId == configuration.outboundLibraryStream(),
             indexChecksumEnabled,
-            evictionHandler);
+            evictionHandler,
+            configuration.preTouchMappedFiles());
     }
 
     private ReplayQuery newReplayQuery(final IdleStrategy idleStrategy, final int streamId)
@@ -211,12 +235,14 @@ public class EngineContext implements AutoCloseable
         final int cacheSetSize = configuration.loggerCacheSetSize();
         final int cacheNumSets = configuration.loggerCacheNumSets();
         final int archiveReplayStream = configuration.archiveReplayStream();
+        final ExistingBufferFactory indexBufferFactory = configuration.replayIndexDirectoryCapacity() > 0 ?
+            new ReplayIndexStoreReader(logFileDir, streamId) : LoggerUtil::mapExistingFile;
 
         return new ReplayQuery(
             logFileDir,
             cacheNumSets,
             cacheSetSize,
-            LoggerUtil::mapExistingFile,
+            indexBufferFactory,
             streamId,
             idleStrategy,
             aeronArchive,
@@ -430,8 +456,10 @@ public class EngineContext implements AutoCloseable
 
     public GatewayPublication inboundPublication()
     {
-        return inboundLibraryStreams.gatewayPublication(
+        final GatewayPublication inboundPublication = inboundLibraryStreams.gatewayPublication(
             configuration.framerIdleStrategy(), inboundLibraryStreams.dataPublication("inboundPublication"));
+        inboundPublication.tagOffsetTableFields(configuration.tagOffsetTableFields());
+        return inboundPublication;
     }
 
     public CompletionPosition inboundCompletionPosition()
@@ -20,6 +20,7 @@ import io.aeron.Image;
 import io.aeron.Subscription;
 import io.aeron.archive.client.AeronArchive;
 import org.agrona.collections.Long2LongHashMap;
+import org.agrona.concurrent.Agent;
 import org.agrona.concurrent.AgentInvoker;
 import org.agrona.concurrent.status.ReadablePosition;
 import uk.co.real_logic.artio.*;
@@ -58,6 +59,8 @@ public final class FixEngine extends GatewayProcess
     private final EngineScheduler scheduler;
     private FramerContext framerContext;
     private EngineContext engineContext;
+    private Agent framerAgent;
+    private Agent indexingAgent;
 
     private volatile boolean startingClose = false;
     private volatile boolean isClosed = false;
@@ -316,6 +319,8 @@ public final class FixEngine extends GatewayProcess
                     recordingCoordinator);
                 engineContext.catchupIndices();
                 initFramer(configuration, fixCounters, replayPublication.sessionId());
+                framerAgent = instrumentedAgent(framerContext.framer());
+                indexingAgent = instrumentedAgent(engineContext.indexingAgent());
                 initMonitoringAgent(timers.all(), configuration, aeronArchive, duplicateEngineChecker);
 
                 recordingCoordinator.monitoringAgent(monitoringAgent);
@@ -397,8 +402,8 @@ public final class FixEngine extends GatewayProcess
         scheduler.launch(
             configuration,
             errorHandler,
-            framerContext.framer(),
-            engineContext.indexingAgent(),
+            framerAgent,
+            indexingAgent,
             monitoringCompositeAgent,
             conductorAgent(),
             recordingCoordinator);
@@ -508,6 +513,11 @@ public final class FixEngine extends GatewayProcess
         return false;
     }
 
+    protected int agentTimerId(final int index)
+    {
+        return EngineTimers.agentTimerId(index);
+    }
+
     /**
      * Start a reproduction. In order for this operation to be used then
      * {@link EngineConfiguration#reproduceInbound(long, long)} must be enabled.
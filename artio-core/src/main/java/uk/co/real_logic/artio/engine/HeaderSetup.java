@@ -26,4 +26,17 @@ public final class HeaderSetup
             respHeader.senderSubID(reqHeader.targetSubID(), reqHeader.targetSubIDLength());
         }
     }
+
+    /**
+     * Sets up the response header as per {@link #setup(SessionHeaderDecoder, SessionHeaderEncoder)} and then caches
+     * the encoded identifying fields, for use when many messages are encoded in response to a single request.
+     *
+     * @param reqHeader the header of the request being responded to.
+     * @param respHeader the header of the response encoder.
+     */
+    public static void setupCached(final SessionHeaderDecoder reqHeader, final SessionHeaderEncoder respHeader)
+    {
+        setup(reqHeader, respHeader);
+        respHeader.cacheConstantFields();
+    }
 }
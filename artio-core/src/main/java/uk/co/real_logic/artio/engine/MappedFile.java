@@ -18,6 +18,7 @@ package uk.co.real_logic.artio.engine;
 import org.agrona.CloseHelper;
 import org.agrona.IoUtil;
 import org.agrona.LangUtil;
+import org.agrona.UnsafeAccess;
 import org.agrona.concurrent.AtomicBuffer;
 import org.agrona.concurrent.UnsafeBuffer;
 import uk.co.real_logic.artio.CloseChecker;
@@ -30,6 +31,7 @@ import java.nio.MappedByteBuffer;
 import java.nio.channels.FileChannel;
 
 import static java.nio.channels.FileChannel.MapMode.READ_WRITE;
+import static org.agrona.BitUtil.SIZE_OF_INT;
 import static java.nio.file.StandardOpenOption.WRITE;
 
 public class MappedFile implements AutoCloseable
@@ -86,6 +88,31 @@ public class MappedFile implements AutoCloseable
         return file;
     }
 
+    /**
+     * Touch every page of the mapped file so that its page faults are taken now rather than on the first write.
+     */
+    public void preTouch()
+    {
+        preTouch(buffer);
+    }
+
+    /**
+     * Touch every page of a mapped buffer so that its page faults are taken now rather than on the first write.
+     * This is safe to call on buffers that already contain data as the data isn't changed.
+     *
+     * @param buffer the buffer to touch.
+     */
+    public static void preTouch(final AtomicBuffer buffer)
+    {
+        final int pageSize = UnsafeAccess.UNSAFE.pageSize();
+        final int capacity = buffer.capacity();
+        for (int offset = 0; offset <= capacity - SIZE_OF_INT; offset += pageSize)
+        {
+            // Adding zero is a write, so the page is faulted in as writable, but leaves the value unchanged.
+            buffer.getAndAddInt(offset, 0);
+        }
+    }
+
     public void force()
     {
         force(fileChannel);
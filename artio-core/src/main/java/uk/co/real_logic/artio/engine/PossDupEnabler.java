@@ -53,6 +53,7 @@ public class PossDupEnabler
     private static final byte[] ORIG_SENDING_TIME_PREFIX = ORIG_SENDING_TIME_PREFIX_AS_STR.getBytes(US_ASCII);
 
     private static final int CHECKSUM_VALUE_LENGTH = 3;
+    private static final int CHECKSUM_TAG_LENGTH = "10=".length();
     private static final int FRAGMENTED_MESSAGE_BUFFER_OFFSET = 0;
 
     private final ExpandableArrayBuffer fragmentedMessageBuffer = new ExpandableArrayBuffer();
@@ -158,8 +159,7 @@ public class PossDupEnabler
         {
             final int possDupSrcOffset = possDupFinder.possDupOffset();
             return enablePossDupFlagSameLength(
-                srcBuffer, messageOffset, messageLength, srcOffset, srcLength, possDupSrcOffset, messageType,
-                metaDataAdjustment);
+                srcBuffer, messageOffset, srcOffset, srcLength, possDupSrcOffset, messageType, metaDataAdjustment);
         }
 
         return CONTINUE;
@@ -175,7 +175,6 @@ public class PossDupEnabler
     private Action enablePossDupFlagSameLength(
         final DirectBuffer srcBuffer,
         final int messageOffset,
-        final int messageLength,
         final int srcOffset,
         final int srcLength,
         final int possDupSrcOffset,
@@ -201,10 +200,13 @@ public class PossDupEnabler
 
             updateSendingTime(srcOffset);
 
+            // The checksum is summed again rather than adjusted from the stored value, since the stored value
+            // may never have been validated.
             final int messageClaimOffset = srcToClaim(messageOffset, srcOffset, writeOffset);
-            final int messageEndOffset = messageClaimOffset + messageLength;
-            final int beforeChecksum = srcToClaim(possDupFinder.checkSumOffset(), srcOffset, writeOffset) - 4;
-            updateChecksum(messageClaimOffset, beforeChecksum, messageEndOffset);
+            final int checksumValueClaimOffset = srcToClaim(possDupFinder.checkSumOffset(), srcOffset, writeOffset);
+            final int checksum = mutableAsciiFlyweight.computeChecksum(
+                messageClaimOffset, checksumValueClaimOffset - CHECKSUM_TAG_LENGTH);
+            mutableAsciiFlyweight.putNaturalPaddedIntAscii(checksumValueClaimOffset, CHECKSUM_VALUE_LENGTH, checksum);
 
             return commit(messageType, metaDataAdjustment);
         }
@@ -392,8 +394,10 @@ public class PossDupEnabler
 
         updateFrameBodyLength(messageLength, writeBuffer, writeOffset, totalLengthDelta, metaDataAdjustment);
         final int messageClaimOffset = srcToClaim(messageOffset, srcOffset, writeOffset);
+        // The frame's tagOffsets follow the message, so the message doesn't end at the end of the frame
+        final int messageEndOffset = messageClaimOffset + messageLength + totalLengthDelta;
         updateBodyLengthAndChecksum(
-            srcOffset, messageClaimOffset, writeOffset, newBodyLength, writeOffset + newLength);
+            srcOffset, messageClaimOffset, writeOffset, newBodyLength, messageEndOffset, writeOffset + newLength);
 
         return true;
     }
@@ -428,7 +432,8 @@ public class PossDupEnabler
         final int messageClaimOffset,
         final int claimOffset,
         final int newBodyLength,
-        final int messageEndOffset)
+        final int messageEndOffset,
+        final int frameEndOffset)
     {
         // BEGIN Update body length
         final int bodyLengthClaimOffset = srcToClaim(possDupFinder.bodyLengthOffset(), srcOffset, claimOffset);
@@ -443,7 +448,7 @@ public class PossDupEnabler
                 index,
                 mutableAsciiFlyweight,
                 bodyLengthClaimOffset,
-                messageEndOffset - index);
+                frameEndOffset - index);
         }
         // Max to avoid special casing the prefixing of the field with zeros
         final int lengthOfUpdatedBodyLengthField = Math.max(lengthOfOldBodyLength, lengthOfNewBodyLength);
@@ -87,6 +87,7 @@ class FixEndPointFactory
             receiverFormatters,
             configuration.throttleWindowInMs(),
             configuration.throttleLimitOfMessages(),
+            configuration.messageTypeThrottle(),
             configuration.isReproductionEnabled());
     }
 
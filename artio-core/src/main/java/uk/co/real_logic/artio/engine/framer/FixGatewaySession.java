@@ -201,6 +201,16 @@ class FixGatewaySession extends GatewaySession implements ConnectedSessionInfo,
         return unsupported();
     }
 
+    public Reply<ThrottleConfigurationStatus> messageTypeThrottle(
+        final long sessionId,
+        final long messageType,
+        final int throttleWindowInMs,
+        final int throttleLimitOfMessages,
+        final int burstLimitOfMessages)
+    {
+        return unsupported();
+    }
+
     public long inboundMessagePosition()
     {
         return NO_REQUIRED_POSITION;
@@ -246,7 +256,10 @@ class FixGatewaySession extends GatewaySession implements ConnectedSessionInfo,
             session.setupSession(sessionId, sessionKey, null);
             sessionParser.sessionKey(sessionKey);
             sessionParser.sequenceIndex(context.sequenceIndex());
-            DebugLogger.log(GATEWAY_MESSAGE, "Setup Session As: ", sessionKey.localCompId());
+            if (DebugLogger.isEnabled(GATEWAY_MESSAGE))
+            {
+                DebugLogger.log(GATEWAY_MESSAGE, "Setup Session As: ", sessionKey.localCompId());
+            }
         }
         if (senderEndPoint != null)
         {
@@ -479,6 +492,9 @@ class FixGatewaySession extends GatewaySession implements ConnectedSessionInfo,
     public boolean onThrottleNotification(
         final long messageType,
         final int refSeqNum,
+        final int throttleWindowInMs,
+        final int throttleLimitOfMessages,
+        final int burstLimitOfMessages,
         final AsciiBuffer refIdBuffer,
         final int refIdOffset,
         final int refIdLength)
@@ -488,6 +504,9 @@ class FixGatewaySession extends GatewaySession implements ConnectedSessionInfo,
             return session.onThrottleNotification(
                 messageType,
                 refSeqNum,
+                throttleWindowInMs,
+                throttleLimitOfMessages,
+                burstLimitOfMessages,
                 refIdBuffer,
                 refIdOffset,
                 refIdLength
@@ -507,6 +526,21 @@ class FixGatewaySession extends GatewaySession implements ConnectedSessionInfo,
         return ok;
     }
 
+    public boolean configureMessageTypeThrottle(
+        final long messageType,
+        final int throttleWindowInMs,
+        final int throttleLimitOfMessages,
+        final int burstLimitOfMessages)
+    {
+        final boolean ok = senderEndPoint.canRejectThrottledMessages();
+        if (ok)
+        {
+            receiverEndPoint.messageTypeThrottle().configure(
+                messageType, throttleWindowInMs, throttleLimitOfMessages, burstLimitOfMessages);
+        }
+        return ok;
+    }
+
     public void onSequenceReset(final long resetTimeInNs)
     {
         context.onSequenceReset(resetTimeInNs);
@@ -167,6 +167,16 @@ public class FixPGatewaySession extends GatewaySession implements FixPConnectedS
         return true;
     }
 
+    public boolean configureMessageTypeThrottle(
+        final long messageType,
+        final int throttleWindowInMs,
+        final int throttleLimitOfMessages,
+        final int burstLimitOfMessages)
+    {
+        // FIXP messages are identified by template id rather than FIX message type
+        return false;
+    }
+
     public long startEndOfDay()
     {
         if (receiverEndPoint != null)
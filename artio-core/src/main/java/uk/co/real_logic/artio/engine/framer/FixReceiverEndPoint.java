@@ -43,6 +43,7 @@ import static java.nio.charset.StandardCharsets.US_ASCII;
 import static org.agrona.BitUtil.SIZE_OF_CHAR;
 import static uk.co.real_logic.artio.LogTag.*;
 import static uk.co.real_logic.artio.dictionary.SessionConstants.*;
+import static uk.co.real_logic.artio.engine.framer.FixThrottleRejectBuilder.NO_LIMIT;
 import static uk.co.real_logic.artio.messages.MessageStatus.*;
 import static uk.co.real_logic.artio.session.Session.UNKNOWN;
 import static uk.co.real_logic.artio.util.AsciiBuffer.SEPARATOR;
@@ -155,6 +156,7 @@ class FixReceiverEndPoint extends ReceiverEndPoint
     private final AcceptorFixDictionaryLookup acceptorFixDictionaryLookup;
     private final FixReceiverEndPointFormatters formatters;
     private final boolean reproductionEnabled;
+    private final MessageTypeThrottle messageTypeThrottle;
 
     private FixGatewaySession gatewaySession;
     private long sessionId;
@@ -166,6 +168,9 @@ class FixReceiverEndPoint extends ReceiverEndPoint
     private long lastReadTimestampInNs;
     private String address;
     private boolean requiresProxyCheck = true;
+    // Once the header of an incomplete message has been scanned, the number of bytes of it needed before it's
+    // worth scanning again. Avoids rescanning the header on every read of a message split over many reads.
+    private int incompleteMessageLength;
 
     FixReceiverEndPoint(
         final TcpChannel channel,
@@ -185,6 +190,7 @@ class FixReceiverEndPoint extends ReceiverEndPoint
         final FixReceiverEndPointFormatters formatters,
         final int throttleWindowInMs,
         final int throttleLimitOfMessages,
+        final MessageTypeThrottle messageTypeThrottle,
         final boolean reproductionEnabled)
     {
         super(publication, channel, connectionId, bufferSize, errorHandler, framer, libraryId,
@@ -202,6 +208,7 @@ class FixReceiverEndPoint extends ReceiverEndPoint
         this.clock = clock;
         this.acceptorFixDictionaryLookup = acceptorFixDictionaryLookup;
         this.reproductionEnabled = reproductionEnabled;
+        this.messageTypeThrottle = new MessageTypeThrottle(messageTypeThrottle);
 
         address = channel.remoteAddr();
     }
@@ -398,6 +405,11 @@ class FixReceiverEndPoint extends ReceiverEndPoint
                 break;
             }
 
+            if (usedBufferData < offset + incompleteMessageLength) // Need more data
+            {
+                break;
+            }
+
             try
             {
                 final int startOfBodyLength = scanForBodyLength(offset, readTimestampInNs);
@@ -417,8 +429,10 @@ class FixReceiverEndPoint extends ReceiverEndPoint
                 final int endOfChecksumTag = startOfChecksumTag + MIN_CHECKSUM_SIZE;
                 if (endOfChecksumTag >= usedBufferData)
                 {
+                    incompleteMessageLength = endOfChecksumTag + 1 - offset;
                     break;
                 }
+                incompleteMessageLength = 0;
 
                 if (!validateBodyLength(startOfChecksumTag))
                 {
@@ -814,12 +828,16 @@ class FixReceiverEndPoint extends ReceiverEndPoint
     {
         DirectBuffer buffer = this.buffer;
 
-        if (shouldThrottle(readTimestamp))
+        final MessageTypeThrottle messageTypeThrottle = this.messageTypeThrottle;
+        final boolean messageTypeThrottled = messageTypeThrottle.isThrottled(messageType, readTimestamp);
+        if (messageTypeThrottled || shouldThrottle(readTimestamp))
         {
-            return throttleMessage(messageOffset, messageType, messageLength, buffer);
+            return throttleMessage(messageOffset, messageType, messageLength, buffer, messageTypeThrottled);
         }
         else
         {
+            messageTypeThrottle.onMessage(messageType, readTimestamp);
+
             int offset = messageOffset;
             int length = messageLength;
 
@@ -866,8 +884,28 @@ class FixReceiverEndPoint extends ReceiverEndPoint
     }
 
     private boolean throttleMessage(
-        final int messageOffset, final long messageType, final int messageLength, final DirectBuffer buffer)
+        final int messageOffset,
+        final long messageType,
+        final int messageLength,
+        final DirectBuffer buffer,
+        final boolean messageTypeThrottled)
     {
+        final int throttleWindowInMs;
+        final int throttleLimitOfMessages;
+        final int burstLimitOfMessages;
+        if (messageTypeThrottled)
+        {
+            throttleWindowInMs = messageTypeThrottle.throttleWindowInMs(messageType);
+            throttleLimitOfMessages = messageTypeThrottle.throttleLimitOfMessages(messageType);
+            burstLimitOfMessages = messageTypeThrottle.burstLimitOfMessages(messageType);
+        }
+        else
+        {
+            throttleWindowInMs = throttleWindowInMs();
+            throttleLimitOfMessages = throttleLimitOfMessages();
+            burstLimitOfMessages = NO_LIMIT;
+        }
+
         final BusinessRejectRefIdExtractor businessRejectRefIdExtractor = this.businessRejectRefIdExtractor;
         businessRejectRefIdExtractor.search(messageType, buffer, messageOffset, messageLength);
 
@@ -883,6 +921,9 @@ class FixReceiverEndPoint extends ReceiverEndPoint
             refSeqNum,
             sessionId,
             sequenceIndex,
+            throttleWindowInMs,
+            throttleLimitOfMessages,
+            burstLimitOfMessages,
             refIdBuffer, refIdOffset, refIdLength);
 
         if (position > 0)
@@ -890,6 +931,9 @@ class FixReceiverEndPoint extends ReceiverEndPoint
             return gatewaySession.onThrottleNotification(
                 messageType,
                 refSeqNum,
+                throttleWindowInMs,
+                throttleLimitOfMessages,
+                burstLimitOfMessages,
                 refIdBuffer, refIdOffset, refIdLength);
         }
         else
@@ -993,13 +1037,18 @@ class FixReceiverEndPoint extends ReceiverEndPoint
 
     private void clearBuffer()
     {
+        incompleteMessageLength = 0;
         moveRemainingDataToBufferStart(usedBufferData);
     }
 
     private void moveRemainingDataToBufferStart(final int offset)
     {
         usedBufferData -= offset;
-        buffer.putBytes(0, buffer, offset, usedBufferData);
+        // An incomplete message that is already at the start of the buffer stays where it is as more of it is read
+        if (offset > 0)
+        {
+            buffer.putBytes(0, buffer, offset, usedBufferData);
+        }
         // position set to ensure that back pressure is applied to TCP when read(byteBuffer) called.
         ByteBufferUtil.position(byteBuffer, usedBufferData);
     }
@@ -1067,6 +1116,11 @@ class FixReceiverEndPoint extends ReceiverEndPoint
         return address;
     }
 
+    MessageTypeThrottle messageTypeThrottle()
+    {
+        return messageTypeThrottle;
+    }
+
     public String toString()
     {
         return "ReceiverEndPoint: " + connectionId;
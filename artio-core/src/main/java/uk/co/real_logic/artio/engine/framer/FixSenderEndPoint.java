@@ -162,6 +162,9 @@ class FixSenderEndPoint extends SenderEndPoint
         final long refMsgType,
         final int refSeqNum,
         final int sequenceNumber,
+        final int throttleWindowInMs,
+        final int throttleLimitOfMessages,
+        final int burstLimitOfMessages,
         final DirectBuffer businessRejectRefIDBuffer,
         final int businessRejectRefIDOffset,
         final int businessRejectRefIDLength,
@@ -181,6 +184,9 @@ class FixSenderEndPoint extends SenderEndPoint
             businessRejectRefIDBuffer,
             businessRejectRefIDOffset,
             businessRejectRefIDLength,
+            throttleWindowInMs,
+            throttleLimitOfMessages,
+            burstLimitOfMessages,
             false))
         {
             // failed to build reject due to configuration error
@@ -221,6 +227,11 @@ class FixSenderEndPoint extends SenderEndPoint
         return throttleRejectBuilder().configureThrottle(throttleWindowInMs, throttleLimitOfMessages);
     }
 
+    boolean canRejectThrottledMessages()
+    {
+        return throttleRejectBuilder().canReject();
+    }
+
     private int throttleRejectLength(final int businessRejectRefIDLength)
     {
         return ThrottleRejectDecoder.BLOCK_LENGTH + businessRejectRefIDHeaderLength() + businessRejectRefIDLength;
@@ -98,6 +98,9 @@ class FixSenderEndPoints implements AutoCloseable
         final long refMsgType,
         final int refSeqNum,
         final int sequenceNumber,
+        final int throttleWindowInMs,
+        final int throttleLimitOfMessages,
+        final int burstLimitOfMessages,
         final DirectBuffer businessRejectRefIDBuffer,
         final int businessRejectRefIDOffset,
         final int businessRejectRefIDLength)
@@ -107,6 +110,7 @@ class FixSenderEndPoints implements AutoCloseable
         {
             endPoint.onThrottleReject(
                 libraryId, refMsgType, refSeqNum, sequenceNumber,
+                throttleWindowInMs, throttleLimitOfMessages, burstLimitOfMessages,
                 businessRejectRefIDBuffer, businessRejectRefIDOffset, businessRejectRefIDLength,
                 timeInMs);
         }
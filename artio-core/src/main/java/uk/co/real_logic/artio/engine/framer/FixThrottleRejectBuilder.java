@@ -8,6 +8,7 @@ import uk.co.real_logic.artio.builder.Encoder;
 import uk.co.real_logic.artio.builder.SessionHeaderEncoder;
 import uk.co.real_logic.artio.dictionary.FixDictionary;
 import uk.co.real_logic.artio.fields.UtcTimestampEncoder;
+import uk.co.real_logic.artio.messages.ThrottleRejectDecoder;
 import uk.co.real_logic.artio.util.MessageTypeEncoding;
 import uk.co.real_logic.artio.util.MutableAsciiBuffer;
 
@@ -19,6 +20,12 @@ public class FixThrottleRejectBuilder
 {
     private static final int BUFFER_CAPACITY = 512;
 
+    /**
+     * Value of a throttle limit that wasn't recorded. The burst limit is only recorded for message type throttles
+     * and rejects logged by older engines don't record any limits.
+     */
+    public static final int NO_LIMIT = ThrottleRejectDecoder.burstLimitOfMessagesNullValue();
+
     private final MutableAsciiBuffer businessRejectBuffer;
     private int offset;
     private int length;
@@ -27,6 +34,8 @@ public class FixThrottleRejectBuilder
     private final EpochNanoClock clock;
     private final AbstractBusinessMessageRejectEncoder businessMessageReject;
     private final byte[] refMsgTypeBuffer = new byte[2];
+    private final StringBuilder rejectText = new StringBuilder();
+    private String sessionRejectText;
 
     public FixThrottleRejectBuilder(
         final FixDictionary fixDictionary,
@@ -60,9 +69,9 @@ public class FixThrottleRejectBuilder
     {
         if (businessMessageReject != null)
         {
-            businessMessageReject.text(String.format("Throttle limit exceeded (%s in %sms)",
+            sessionRejectText = String.format("Throttle limit exceeded (%s in %sms)",
                 throttleLimitOfMessages,
-                throttleWindowInMs));
+                throttleWindowInMs);
             return true;
         }
         else
@@ -71,6 +80,11 @@ public class FixThrottleRejectBuilder
         }
     }
 
+    boolean canReject()
+    {
+        return businessMessageReject != null;
+    }
+
     public boolean build(
         final long refMsgType,
         final int refSeqNum,
@@ -78,6 +92,9 @@ public class FixThrottleRejectBuilder
         final DirectBuffer businessRejectRefIDBuffer,
         final int businessRejectRefIDOffset,
         final int businessRejectRefIDLength,
+        final int throttleWindowInMs,
+        final int throttleLimitOfMessages,
+        final int burstLimitOfMessages,
         final boolean possDup)
     {
         final AbstractBusinessMessageRejectEncoder businessMessageReject = this.businessMessageReject;
@@ -103,6 +120,39 @@ public class FixThrottleRejectBuilder
         }
 
         final int refMsgTypeLength = MessageTypeEncoding.unpackMessageType(refMsgType, refMsgTypeBuffer);
+        if (throttleLimitOfMessages == NO_LIMIT)
+        {
+            // Rejects logged by older engines don't record limits and can only come from the session throttle
+            businessMessageReject.text(sessionRejectText);
+        }
+        else
+        {
+            final StringBuilder rejectText = this.rejectText;
+            rejectText.setLength(0);
+            rejectText.append("Throttle limit exceeded ");
+            if (burstLimitOfMessages != NO_LIMIT)
+            {
+                rejectText.append("for MsgType ");
+                for (int i = 0; i < refMsgTypeLength; i++)
+                {
+                    rejectText.append((char)refMsgTypeBuffer[i]);
+                }
+                rejectText.append(' ');
+            }
+            rejectText
+                .append('(')
+                .append(throttleLimitOfMessages)
+                .append(" in ")
+                .append(throttleWindowInMs)
+                .append("ms");
+            if (burstLimitOfMessages != NO_LIMIT)
+            {
+                rejectText.append(", burst of ").append(burstLimitOfMessages);
+            }
+            rejectText.append(')');
+            businessMessageReject.text(rejectText);
+        }
+
         businessMessageReject
             .refMsgType(refMsgTypeBuffer, 0, refMsgTypeLength)
             .refSeqNum(refSeqNum)
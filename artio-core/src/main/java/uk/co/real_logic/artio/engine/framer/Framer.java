@@ -22,6 +22,7 @@ import io.aeron.logbuffer.Header;
 import org.agrona.DeadlineTimerWheel;
 import org.agrona.DirectBuffer;
 import org.agrona.ErrorHandler;
+import org.agrona.collections.Int2IntHashMap;
 import org.agrona.collections.Int2ObjectHashMap;
 import org.agrona.collections.Long2LongHashMap;
 import org.agrona.collections.Long2LongHashMap.KeyIterator;
@@ -165,6 +166,9 @@ class Framer implements Agent, EngineEndPointHandler, ProtocolHandler
     private final SequenceNumberIndexReader receivedSequenceNumberIndex;
     private final int inboundBytesReceivedLimit;
     private final int outboundLibraryFragmentLimit;
+    private final boolean fairOutboundLibraryPolling;
+    private final Int2IntHashMap aeronSessionIdToOutboundFragmentLimit;
+    private final Consumer<Image> pollOutboundImageFunc = this::pollOutboundImage;
     private final int replayFragmentLimit;
     private final GatewaySessions gatewaySessions;
     /**
@@ -200,6 +204,7 @@ class Framer implements Agent, EngineEndPointHandler, ProtocolHandler
     private boolean shouldBind;
 
     private long nextApplicationHeartbeatTimeInNs = 0;
+    private int outboundImageFragmentsRead;
 
     Framer(
         final EpochClock epochClock,
@@ -282,6 +287,8 @@ class Framer implements Agent, EngineEndPointHandler, ProtocolHandler
         receiverEndPoints = new ReceiverEndPoints(errorHandler);
 
         this.outboundLibraryFragmentLimit = configuration.outboundLibraryFragmentLimit();
+        this.fairOutboundLibraryPolling = configuration.fairOutboundLibraryPolling();
+        this.aeronSessionIdToOutboundFragmentLimit = new Int2IntHashMap(outboundLibraryFragmentLimit);
         this.replayFragmentLimit = configuration.replayFragmentLimit();
         this.inboundBytesReceivedLimit = configuration.inboundBytesReceivedLimit();
 
@@ -444,10 +451,30 @@ class Framer implements Agent, EngineEndPointHandler, ProtocolHandler
     private int sendOutboundMessages()
     {
         return fixPSenderEndPoints.reattempt() +
-            librarySubscription.controlledPoll(librarySubscriber, outboundLibraryFragmentLimit) +
+            pollLibrarySubscription() +
             adminEngineSubscription.poll(adminEngineProtocolSubscription, outboundLibraryFragmentLimit);
     }
 
+    private int pollLibrarySubscription()
+    {
+        if (fairOutboundLibraryPolling)
+        {
+            // Each library publishes on its own image, so polling them separately with their own limits stops
+            // a busy library from using up the fragment limit of the whole subscription.
+            outboundImageFragmentsRead = 0;
+            librarySubscription.forEachImage(pollOutboundImageFunc);
+            return outboundImageFragmentsRead;
+        }
+
+        return librarySubscription.controlledPoll(librarySubscriber, outboundLibraryFragmentLimit);
+    }
+
+    private void pollOutboundImage(final Image image)
+    {
+        outboundImageFragmentsRead += image.controlledPoll(
+            librarySubscriber, aeronSessionIdToOutboundFragmentLimit.get(image.sessionId()));
+    }
+
     private int pollLibraries(final long timeInMs)
     {
         int total = 0;
@@ -600,6 +627,7 @@ class Framer implements Agent, EngineEndPointHandler, ProtocolHandler
         }
 
         finalImagePositions.removePosition(library.aeronSessionId());
+        aeronSessionIdToOutboundFragmentLimit.remove(library.aeronSessionId());
     }
 
     private int pollEndPoints()
@@ -932,6 +960,9 @@ class Framer implements Agent, EngineEndPointHandler, ProtocolHandler
         final long refMsgType,
         final int refSeqNum,
         final int sequenceNumber,
+        final int throttleWindowInMs,
+        final int throttleLimitOfMessages,
+        final int burstLimitOfMessages,
         final DirectBuffer businessRejectRefIDBuffer,
         final int businessRejectRefIDOffset,
         final int businessRejectRefIDLength,
@@ -943,6 +974,9 @@ class Framer implements Agent, EngineEndPointHandler, ProtocolHandler
             refMsgType,
             refSeqNum,
             sequenceNumber,
+            throttleWindowInMs,
+            throttleLimitOfMessages,
+            burstLimitOfMessages,
             businessRejectRefIDBuffer,
             businessRejectRefIDOffset,
             businessRejectRefIDLength
@@ -954,7 +988,9 @@ class Framer implements Agent, EngineEndPointHandler, ProtocolHandler
         final long correlationId,
         final long sessionId,
         final int throttleWindowInMs,
-        final int throttleLimitOfMessages)
+        final int throttleLimitOfMessages,
+        final long messageType,
+        final int burstLimitOfMessages)
     {
         final LiveLibraryInfo libraryInfo = idToLibrary.get(libraryId);
         if (libraryInfo == null)
@@ -973,8 +1009,11 @@ class Framer implements Agent, EngineEndPointHandler, ProtocolHandler
             return saveThrottleConfReply(libraryId, correlationId, ThrottleConfigurationStatus.SESSION_NOT_LOGGED_IN);
         }
 
-        final ThrottleConfigurationStatus status =
-            gatewaySession.configureThrottle(throttleWindowInMs, throttleLimitOfMessages) ?
+        final boolean configured = messageType == ThrottleConfigurationDecoder.messageTypeNullValue() ?
+            gatewaySession.configureThrottle(throttleWindowInMs, throttleLimitOfMessages) :
+            gatewaySession.configureMessageTypeThrottle(
+                messageType, throttleWindowInMs, throttleLimitOfMessages, burstLimitOfMessages);
+        final ThrottleConfigurationStatus status = configured ?
             ThrottleConfigurationStatus.OK : ThrottleConfigurationStatus.INVALID_DICTIONARY;
         return saveThrottleConfReply(libraryId, correlationId, status);
     }
@@ -1872,6 +1911,8 @@ class Framer implements Agent, EngineEndPointHandler, ProtocolHandler
                 libraryId, libraryName, livenessDetector, aeronSessionId,
                 gatewaySessions instanceof FixPGatewaySessions);
             idToLibrary.put(libraryId, library);
+            aeronSessionIdToOutboundFragmentLimit.put(
+                aeronSessionId, outboundLibraryFragmentLimit * configuration.outboundLibraryWeight(libraryId));
 
             DebugLogger.log(LIBRARY_MANAGEMENT, libraryConnectedFormatter, libraryId, libraryName);
 
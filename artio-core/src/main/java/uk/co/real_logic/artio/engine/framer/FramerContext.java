@@ -96,7 +96,7 @@ public class FramerContext
 
         sentSequenceNumberIndex = new SequenceNumberIndexReader(
             configuration.sentSequenceNumberBuffer(), errorHandler, recordingCoordinator.framerOutboundLookup(),
-            configuration.logFileDir());
+            configuration.logFileDir(), configuration.sessionMetaDataStoreFactory());
         receivedSequenceNumberIndex = new SequenceNumberIndexReader(
             configuration.receivedSequenceNumberBuffer(), errorHandler, recordingCoordinator.framerInboundLookup(),
             null);
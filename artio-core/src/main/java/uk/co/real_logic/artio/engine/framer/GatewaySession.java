@@ -147,5 +147,8 @@ abstract class GatewaySession implements AbstractConnectedSessionInfo
 
     public abstract boolean configureThrottle(int throttleWindowInMs, int throttleLimitOfMessages);
 
+    public abstract boolean configureMessageTypeThrottle(
+        long messageType, int throttleWindowInMs, int throttleLimitOfMessages, int burstLimitOfMessages);
+
     public abstract long startEndOfDay();
 }
@@ -0,0 +1,169 @@
+/*
+ * Copyright 2015-2022 Real Logic Limited.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.engine.framer;
+
+import uk.co.real_logic.artio.util.MessageTypeEncoding;
+
+import java.util.Arrays;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+/**
+ * Token bucket throttles for individual message types, for example to give NewOrderSingle and OrderCancelRequest
+ * messages separate budgets. Each bucket holds up to its burst limit of messages and refills at a rate of its limit
+ * of messages per time window.
+ *
+ * Buckets are implemented as a generic cell rate algorithm, so each one only stores the time at which it would
+ * next be full and checking a message doesn't allocate.
+ */
+public final class MessageTypeThrottle
+{
+    private static final Bucket[] NO_BUCKETS = new Bucket[0];
+
+    private Bucket[] buckets = NO_BUCKETS;
+
+    public MessageTypeThrottle()
+    {
+    }
+
+    MessageTypeThrottle(final MessageTypeThrottle template)
+    {
+        for (final Bucket bucket : template.buckets)
+        {
+            configure(
+                bucket.messageType,
+                bucket.throttleWindowInMs,
+                bucket.throttleLimitOfMessages,
+                bucket.burstLimitOfMessages);
+        }
+    }
+
+    /**
+     * Add or update the throttle of a message type, an updated throttle keeps its existing state.
+     *
+     * @param messageType the packed message type to throttle, see {@link MessageTypeEncoding#packMessageType(String)}.
+     * @param throttleWindowInMs the time window over which the limit of messages refills.
+     * @param throttleLimitOfMessages the number of messages that can be received in each time window.
+     * @param burstLimitOfMessages the number of messages that can be received at once.
+     */
+    public void configure(
+        final long messageType,
+        final int throttleWindowInMs,
+        final int throttleLimitOfMessages,
+        final int burstLimitOfMessages)
+    {
+        Bucket bucket = bucket(messageType);
+        if (bucket == null)
+        {
+            bucket = new Bucket(messageType);
+            buckets = Arrays.copyOf(buckets, buckets.length + 1);
+            buckets[buckets.length - 1] = bucket;
+        }
+
+        bucket.configure(throttleWindowInMs, throttleLimitOfMessages, burstLimitOfMessages);
+    }
+
+    public boolean hasThrottles()
+    {
+        return buckets.length > 0;
+    }
+
+    // Doesn't take a message from the bucket, so that messages rejected by another throttle aren't counted.
+    boolean isThrottled(final long messageType, final long timestampInNs)
+    {
+        final Bucket bucket = bucket(messageType);
+        return bucket != null && bucket.isThrottled(timestampInNs);
+    }
+
+    void onMessage(final long messageType, final long timestampInNs)
+    {
+        final Bucket bucket = bucket(messageType);
+        if (bucket != null)
+        {
+            bucket.onMessage(timestampInNs);
+        }
+    }
+
+    int throttleWindowInMs(final long messageType)
+    {
+        return bucket(messageType).throttleWindowInMs;
+    }
+
+    int throttleLimitOfMessages(final long messageType)
+    {
+        return bucket(messageType).throttleLimitOfMessages;
+    }
+
+    int burstLimitOfMessages(final long messageType)
+    {
+        return bucket(messageType).burstLimitOfMessages;
+    }
+
+    private Bucket bucket(final long messageType)
+    {
+        for (final Bucket bucket : buckets)
+        {
+            if (bucket.messageType == messageType)
+            {
+                return bucket;
+            }
+        }
+
+        return null;
+    }
+
+    private static final class Bucket
+    {
+        private static final long NO_MESSAGES = Long.MIN_VALUE;
+
+        private final long messageType;
+
+        private int throttleWindowInMs;
+        private int throttleLimitOfMessages;
+        private int burstLimitOfMessages;
+        private long emissionIntervalInNs;
+        private long burstToleranceInNs;
+        private long theoreticalArrivalTimeInNs = NO_MESSAGES;
+
+        Bucket(final long messageType)
+        {
+            this.messageType = messageType;
+        }
+
+        void configure(
+            final int throttleWindowInMs, final int throttleLimitOfMessages, final int burstLimitOfMessages)
+        {
+            this.throttleWindowInMs = throttleWindowInMs;
+            this.throttleLimitOfMessages = throttleLimitOfMessages;
+            this.burstLimitOfMessages = burstLimitOfMessages;
+
+            emissionIntervalInNs = Math.max(1, MILLISECONDS.toNanos(throttleWindowInMs) / throttleLimitOfMessages);
+            burstToleranceInNs = emissionIntervalInNs * (burstLimitOfMessages - 1);
+        }
+
+        boolean isThrottled(final long timestampInNs)
+        {
+            final long theoreticalArrivalTimeInNs = this.theoreticalArrivalTimeInNs;
+            return theoreticalArrivalTimeInNs != NO_MESSAGES &&
+                timestampInNs < theoreticalArrivalTimeInNs - burstToleranceInNs;
+        }
+
+        void onMessage(final long timestampInNs)
+        {
+            theoreticalArrivalTimeInNs = Math.max(theoreticalArrivalTimeInNs, timestampInNs) + emissionIntervalInNs;
+        }
+    }
+}
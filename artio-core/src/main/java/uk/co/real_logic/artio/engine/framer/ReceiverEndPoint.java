@@ -29,6 +29,7 @@ import java.util.Objects;
 
 import static java.nio.channels.SelectionKey.OP_READ;
 import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
 import static uk.co.real_logic.artio.dictionary.generation.CodecUtil.MISSING_INT;
 import static uk.co.real_logic.artio.dictionary.generation.CodecUtil.MISSING_LONG;
 import static uk.co.real_logic.artio.messages.DisconnectReason.*;
@@ -125,6 +126,16 @@ public abstract class ReceiverEndPoint
         }
     }
 
+    final int throttleWindowInMs()
+    {
+        return (int)NANOSECONDS.toMillis(throttleWindowInNs);
+    }
+
+    final int throttleLimitOfMessages()
+    {
+        return throttleLimitOfMessages;
+    }
+
     final boolean shouldThrottle(final long readTimestampInNs)
     {
         final long throttleWindowInNs = this.throttleWindowInNs;
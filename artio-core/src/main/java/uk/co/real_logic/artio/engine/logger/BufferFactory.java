@@ -15,11 +15,60 @@
  */
 package uk.co.real_logic.artio.engine.logger;
 
+import org.agrona.IoUtil;
+
 import java.io.File;
 import java.nio.ByteBuffer;
 
 @FunctionalInterface
-public interface BufferFactory
+public interface BufferFactory extends AutoCloseable
 {
     ByteBuffer map(File file, int size);
+
+    /**
+     * Check whether a file that would be mapped by this factory already exists.
+     *
+     * @param file the file to check.
+     * @return true if the file exists.
+     */
+    default boolean exists(File file)
+    {
+        return file.exists();
+    }
+
+    /**
+     * Delete a file that was mapped by this factory. The file may still be mapped by a {@link ReplayQuery}, so its
+     * storage mustn't be handed out again by a later call to {@link #map(File, int)}.
+     *
+     * @param file the file to delete.
+     * @return true if the file was deleted.
+     */
+    default boolean delete(File file)
+    {
+        return file.delete();
+    }
+
+    /**
+     * Perform any background work, such as preparing files ahead of them being mapped.
+     *
+     * @return the amount of work done.
+     */
+    default int doWork()
+    {
+        return 0;
+    }
+
+    /**
+     * Release a buffer returned by {@link #map(File, int)} once it's no longer used.
+     *
+     * @param buffer the buffer to release.
+     */
+    default void unmap(ByteBuffer buffer)
+    {
+        IoUtil.unmap(buffer);
+    }
+
+    default void close()
+    {
+    }
 }
@@ -0,0 +1,67 @@
+/*
+ * Copyright 2015-2022 Real Logic Limited.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.engine.logger;
+
+import static org.agrona.BitUtil.SIZE_OF_INT;
+import static org.agrona.BitUtil.SIZE_OF_LONG;
+
+/**
+ * Layout of a compressed recording file. As with the other index files, values are in native byte order.
+ * <p>
+ * File Header: magic number, version, stream id, recording id
+ * Series of blocks, each independently deflated, that contain a series of
+ * Message Records: end position within the recording, length, message bytes
+ * Block Index: one entry per block
+ * File Footer: offset of the block index, start position, stop position and block count
+ */
+final class CompressedRecordingDescriptor
+{
+    static final String FILE_SUFFIX = ".compressed-recording";
+
+    static final long MAGIC_NUMBER = 0xC0DEC0DEL;
+    static final int FILE_VERSION = 1;
+
+    static final int MAGIC_NUMBER_OFFSET = 0;
+    static final int VERSION_OFFSET = MAGIC_NUMBER_OFFSET + SIZE_OF_LONG;
+    static final int STREAM_ID_OFFSET = VERSION_OFFSET + SIZE_OF_INT;
+    static final int RECORDING_ID_OFFSET = STREAM_ID_OFFSET + SIZE_OF_INT;
+    static final int FILE_HEADER_LENGTH = RECORDING_ID_OFFSET + SIZE_OF_LONG;
+
+    static final int RECORD_END_POSITION_OFFSET = 0;
+    static final int RECORD_LENGTH_OFFSET = RECORD_END_POSITION_OFFSET + SIZE_OF_LONG;
+    static final int RECORD_HEADER_LENGTH = RECORD_LENGTH_OFFSET + SIZE_OF_INT;
+
+    static final int INDEX_FIRST_END_POSITION_OFFSET = 0;
+    static final int INDEX_LAST_END_POSITION_OFFSET = INDEX_FIRST_END_POSITION_OFFSET + SIZE_OF_LONG;
+    static final int INDEX_FILE_OFFSET_OFFSET = INDEX_LAST_END_POSITION_OFFSET + SIZE_OF_LONG;
+    static final int INDEX_COMPRESSED_LENGTH_OFFSET = INDEX_FILE_OFFSET_OFFSET + SIZE_OF_LONG;
+    static final int INDEX_UNCOMPRESSED_LENGTH_OFFSET = INDEX_COMPRESSED_LENGTH_OFFSET + SIZE_OF_INT;
+    static final int INDEX_ENTRY_LENGTH = INDEX_UNCOMPRESSED_LENGTH_OFFSET + SIZE_OF_INT;
+
+    static final int FOOTER_INDEX_OFFSET_OFFSET = 0;
+    static final int FOOTER_START_POSITION_OFFSET = FOOTER_INDEX_OFFSET_OFFSET + SIZE_OF_LONG;
+    static final int FOOTER_STOP_POSITION_OFFSET = FOOTER_START_POSITION_OFFSET + SIZE_OF_LONG;
+    static final int FOOTER_BLOCK_COUNT_OFFSET = FOOTER_STOP_POSITION_OFFSET + SIZE_OF_LONG;
+    static final int FOOTER_LENGTH = FOOTER_BLOCK_COUNT_OFFSET + SIZE_OF_LONG;
+
+    static final int DEFAULT_BLOCK_SIZE = 64 * 1024;
+    static final int DEFAULT_CACHED_BLOCKS = 16;
+
+    static String fileName(final long recordingId, final long startPosition, final long stopPosition)
+    {
+        return "recording-" + recordingId + "-" + startPosition + "-" + stopPosition + FILE_SUFFIX;
+    }
+}
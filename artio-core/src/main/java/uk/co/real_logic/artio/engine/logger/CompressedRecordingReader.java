@@ -0,0 +1,362 @@
+/*
+ * Copyright 2015-2022 Real Logic Limited.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.engine.logger;
+
+import org.agrona.DirectBuffer;
+import org.agrona.LangUtil;
+import org.agrona.concurrent.UnsafeBuffer;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+import static uk.co.real_logic.artio.engine.logger.CompressedRecordingDescriptor.*;
+
+/**
+ * Reads the messages from a file written by a {@link CompressedRecordingWriter}.
+ *
+ * Keeps a small cache of inflated blocks so that repeatedly reading nearby ranges of the recording only inflates
+ * each block once. Not thread safe.
+ */
+public class CompressedRecordingReader implements AutoCloseable
+{
+    /**
+     * Callback for messages read from a compressed recording.
+     */
+    @FunctionalInterface
+    public interface MessageHandler
+    {
+        /**
+         * Invoked for each message read.
+         *
+         * @param buffer the buffer containing the message, only valid for the duration of the callback.
+         * @param offset the offset of the message within the buffer.
+         * @param length the length of the message.
+         * @param endPosition the position in the recording at the end of the message.
+         */
+        void onMessage(DirectBuffer buffer, int offset, int length, long endPosition);
+    }
+
+    private static final int NO_BLOCK = -1;
+
+    private final Inflater inflater = new Inflater();
+    private final UnsafeBuffer index;
+    private final FileChannel channel;
+    private final int streamId;
+    private final long recordingId;
+    private final long startPosition;
+    private final long stopPosition;
+    private final int blockCount;
+
+    private final int[] cachedBlockIds;
+    private final UnsafeBuffer[] cachedBlocks;
+    private final long[] cachedBlockLastUsed;
+    private long useCount;
+    private long cacheMisses;
+    private byte[] compressed = new byte[0];
+
+    public CompressedRecordingReader(final File file)
+    {
+        this(file, DEFAULT_CACHED_BLOCKS);
+    }
+
+    /**
+     * Open a compressed recording.
+     *
+     * @param file the file to read.
+     * @param cachedBlockCount the number of inflated blocks to cache.
+     */
+    public CompressedRecordingReader(final File file, final int cachedBlockCount)
+    {
+        cachedBlockIds = new int[cachedBlockCount];
+        Arrays.fill(cachedBlockIds, NO_BLOCK);
+        cachedBlocks = new UnsafeBuffer[cachedBlockCount];
+        for (int i = 0; i < cachedBlockCount; i++)
+        {
+            cachedBlocks[i] = new UnsafeBuffer(new byte[0]);
+        }
+        cachedBlockLastUsed = new long[cachedBlockCount];
+
+        FileChannel channel = null;
+        try
+        {
+            channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+
+            final UnsafeBuffer header = read(channel, 0, FILE_HEADER_LENGTH);
+            final long magicNumber = header.getLong(MAGIC_NUMBER_OFFSET);
+            if (magicNumber != MAGIC_NUMBER)
+            {
+                throw new IllegalStateException("Invalid magic number in compressed recording " + file + ": " +
+                    magicNumber);
+            }
+            final int version = header.getInt(VERSION_OFFSET);
+            if (version > FILE_VERSION)
+            {
+                throw new IllegalStateException("Unreadable compressed recording version in " + file + ": " +
+                    version);
+            }
+            streamId = header.getInt(STREAM_ID_OFFSET);
+            recordingId = header.getLong(RECORDING_ID_OFFSET);
+
+            final UnsafeBuffer footer = read(channel, channel.size() - FOOTER_LENGTH, FOOTER_LENGTH);
+            startPosition = footer.getLong(FOOTER_START_POSITION_OFFSET);
+            stopPosition = footer.getLong(FOOTER_STOP_POSITION_OFFSET);
+            blockCount = (int)footer.getLong(FOOTER_BLOCK_COUNT_OFFSET);
+            index = read(channel, footer.getLong(FOOTER_INDEX_OFFSET_OFFSET), blockCount * INDEX_ENTRY_LENGTH);
+        }
+        catch (final IOException | RuntimeException e)
+        {
+            inflater.end();
+            if (channel != null)
+            {
+                try
+                {
+                    channel.close();
+                }
+                catch (final IOException suppressed)
+                {
+                    e.addSuppressed(suppressed);
+                }
+            }
+            LangUtil.rethrowUnchecked(e);
+            throw new IllegalStateException(e);
+        }
+        this.channel = channel;
+    }
+
+    public int streamId()
+    {
+        return streamId;
+    }
+
+    public long recordingId()
+    {
+        return recordingId;
+    }
+
+    /**
+     * Gets the position in the recording that this file starts from.
+     *
+     * @return the position in the recording that this file starts from.
+     */
+    public long startPosition()
+    {
+        return startPosition;
+    }
+
+    /**
+     * Gets the position in the recording of the end of the last message in this file.
+     *
+     * @return the position in the recording of the end of the last message in this file.
+     */
+    public long stopPosition()
+    {
+        return stopPosition;
+    }
+
+    /**
+     * Gets the number of times that a block had to be read from disk and inflated.
+     *
+     * @return the number of times that a block had to be read from disk and inflated.
+     */
+    public long cacheMisses()
+    {
+        return cacheMisses;
+    }
+
+    /**
+     * Read the messages that end after <code>fromPosition</code> and at or before <code>toPosition</code>.
+     *
+     * @param fromPosition the exclusive lower bound of the end positions of messages to read.
+     * @param toPosition the inclusive upper bound of the end positions of messages to read.
+     * @param handler the callback for messages.
+     * @param messageLimit the maximum number of messages to read.
+     * @return the number of messages read.
+     */
+    public int read(
+        final long fromPosition, final long toPosition, final MessageHandler handler, final int messageLimit)
+    {
+        int messageCount = 0;
+        for (int blockId = findBlock(fromPosition); blockId < blockCount; blockId++)
+        {
+            final int entryOffset = blockId * INDEX_ENTRY_LENGTH;
+            if (index.getLong(entryOffset + INDEX_FIRST_END_POSITION_OFFSET) > toPosition)
+            {
+                break;
+            }
+
+            final UnsafeBuffer block = block(blockId);
+            final int blockLength = index.getInt(entryOffset + INDEX_UNCOMPRESSED_LENGTH_OFFSET);
+            int recordOffset = 0;
+            while (recordOffset < blockLength)
+            {
+                final long endPosition = block.getLong(recordOffset + RECORD_END_POSITION_OFFSET);
+                final int length = block.getInt(recordOffset + RECORD_LENGTH_OFFSET);
+                if (endPosition > toPosition)
+                {
+                    return messageCount;
+                }
+
+                if (endPosition > fromPosition)
+                {
+                    handler.onMessage(block, recordOffset + RECORD_HEADER_LENGTH, length, endPosition);
+                    messageCount++;
+                    if (messageCount == messageLimit)
+                    {
+                        return messageCount;
+                    }
+                }
+
+                recordOffset += RECORD_HEADER_LENGTH + length;
+            }
+        }
+
+        return messageCount;
+    }
+
+    // Finds the first block that contains a message ending after the position.
+    private int findBlock(final long position)
+    {
+        int low = 0;
+        int high = blockCount - 1;
+        while (low <= high)
+        {
+            final int mid = (low + high) >>> 1;
+            if (index.getLong(mid * INDEX_ENTRY_LENGTH + INDEX_LAST_END_POSITION_OFFSET) <= position)
+            {
+                low = mid + 1;
+            }
+            else
+            {
+                high = mid - 1;
+            }
+        }
+        return low;
+    }
+
+    private UnsafeBuffer block(final int blockId)
+    {
+        final int[] cachedBlockIds = this.cachedBlockIds;
+        final long useCount = ++this.useCount;
+
+        int leastRecentlyUsed = 0;
+        for (int i = 0; i < cachedBlockIds.length; i++)
+        {
+            if (cachedBlockIds[i] == blockId)
+            {
+                cachedBlockLastUsed[i] = useCount;
+                return cachedBlocks[i];
+            }
+
+            if (cachedBlockLastUsed[i] < cachedBlockLastUsed[leastRecentlyUsed])
+            {
+                leastRecentlyUsed = i;
+            }
+        }
+
+        cacheMisses++;
+        final UnsafeBuffer block = cachedBlocks[leastRecentlyUsed];
+        inflate(blockId, block);
+        cachedBlockIds[leastRecentlyUsed] = blockId;
+        cachedBlockLastUsed[leastRecentlyUsed] = useCount;
+        return block;
+    }
+
+    private void inflate(final int blockId, final UnsafeBuffer block)
+    {
+        final int entryOffset = blockId * INDEX_ENTRY_LENGTH;
+        final long fileOffset = index.getLong(entryOffset + INDEX_FILE_OFFSET_OFFSET);
+        final int compressedLength = index.getInt(entryOffset + INDEX_COMPRESSED_LENGTH_OFFSET);
+        final int uncompressedLength = index.getInt(entryOffset + INDEX_UNCOMPRESSED_LENGTH_OFFSET);
+
+        if (compressed.length < compressedLength)
+        {
+            compressed = new byte[compressedLength];
+        }
+
+        byte[] uncompressed = block.byteArray();
+        if (uncompressed.length < uncompressedLength)
+        {
+            uncompressed = new byte[uncompressedLength];
+            block.wrap(uncompressed);
+        }
+
+        try
+        {
+            readFully(channel, ByteBuffer.wrap(compressed, 0, compressedLength), fileOffset);
+
+            final Inflater inflater = this.inflater;
+            inflater.reset();
+            inflater.setInput(compressed, 0, compressedLength);
+            int inflatedLength = 0;
+            while (inflatedLength < uncompressedLength)
+            {
+                final int inflated = inflater.inflate(
+                    uncompressed, inflatedLength, uncompressedLength - inflatedLength);
+                if (inflated == 0 && (inflater.finished() || inflater.needsInput()))
+                {
+                    throw new IllegalStateException("Truncated block " + blockId + " in compressed recording");
+                }
+                inflatedLength += inflated;
+            }
+        }
+        catch (final IOException | DataFormatException e)
+        {
+            LangUtil.rethrowUnchecked(e);
+        }
+    }
+
+    private static UnsafeBuffer read(final FileChannel channel, final long position, final int length)
+        throws IOException
+    {
+        final ByteBuffer buffer = ByteBuffer.allocate(length);
+        readFully(channel, buffer, position);
+        return new UnsafeBuffer(buffer);
+    }
+
+    private static void readFully(final FileChannel channel, final ByteBuffer buffer, final long position)
+        throws IOException
+    {
+        long readPosition = position;
+        while (buffer.hasRemaining())
+        {
+            final int read = channel.read(buffer, readPosition);
+            if (read < 0)
+            {
+                throw new IOException("Unexpected end of compressed recording at " + readPosition);
+            }
+            readPosition += read;
+        }
+    }
+
+    public void close()
+    {
+        inflater.end();
+        try
+        {
+            channel.close();
+        }
+        catch (final IOException e)
+        {
+            LangUtil.rethrowUnchecked(e);
+        }
+    }
+}
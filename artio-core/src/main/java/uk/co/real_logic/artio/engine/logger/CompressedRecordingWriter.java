@@ -0,0 +1,255 @@
+/*
+ * Copyright 2015-2022 Real Logic Limited.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.engine.logger;
+
+import org.agrona.DirectBuffer;
+import org.agrona.ExpandableArrayBuffer;
+import org.agrona.LangUtil;
+import org.agrona.concurrent.UnsafeBuffer;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.Deflater;
+
+import static uk.co.real_logic.artio.engine.logger.CompressedRecordingDescriptor.*;
+
+/**
+ * Writes the messages of a range of a recording into a compressed recording file. Messages are grouped into
+ * blocks that are deflated independently, so a reader only has to inflate the blocks that overlap the range it
+ * is reading.
+ *
+ * Messages must be written in position order. The file isn't readable until this writer has been closed.
+ *
+ * @see CompressedRecordingReader
+ * @see FixArchiveCompactor
+ */
+public class CompressedRecordingWriter implements AutoCloseable
+{
+    private final ExpandableArrayBuffer block = new ExpandableArrayBuffer();
+    private final ExpandableArrayBuffer index = new ExpandableArrayBuffer();
+    private final UnsafeBuffer headerBuffer = new UnsafeBuffer(ByteBuffer.allocate(FILE_HEADER_LENGTH));
+    private final UnsafeBuffer footerBuffer = new UnsafeBuffer(ByteBuffer.allocate(FOOTER_LENGTH));
+    private final Deflater deflater;
+    private final FileChannel channel;
+    private final int blockSize;
+    private final long startPosition;
+
+    private byte[] compressed = new byte[0];
+    private int blockLength;
+    private int blockCount;
+    private long blockFirstEndPosition;
+    private long lastEndPosition;
+    private long fileOffset = FILE_HEADER_LENGTH;
+
+    public CompressedRecordingWriter(
+        final File file, final int streamId, final long recordingId, final long startPosition)
+    {
+        this(file, streamId, recordingId, startPosition, DEFAULT_BLOCK_SIZE, Deflater.BEST_SPEED);
+    }
+
+    /**
+     * Create a writer.
+     *
+     * @param file the file to write to, overwritten if it exists.
+     * @param streamId the stream id of the recording.
+     * @param recordingId the id of the recording.
+     * @param startPosition the position in the recording that the range written starts from.
+     * @param blockSize the uncompressed size in bytes after which a block is compressed and written.
+     * @param compressionLevel the {@link Deflater} compression level.
+     */
+    public CompressedRecordingWriter(
+        final File file,
+        final int streamId,
+        final long recordingId,
+        final long startPosition,
+        final int blockSize,
+        final int compressionLevel)
+    {
+        this.blockSize = blockSize;
+        this.startPosition = startPosition;
+        this.lastEndPosition = startPosition;
+        deflater = new Deflater(compressionLevel);
+
+        FileChannel channel = null;
+        try
+        {
+            channel = FileChannel.open(
+                file.toPath(),
+                StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+
+            headerBuffer.putLong(MAGIC_NUMBER_OFFSET, MAGIC_NUMBER);
+            headerBuffer.putInt(VERSION_OFFSET, FILE_VERSION);
+            headerBuffer.putInt(STREAM_ID_OFFSET, streamId);
+            headerBuffer.putLong(RECORDING_ID_OFFSET, recordingId);
+            writeFully(channel, headerBuffer.byteBuffer(), FILE_HEADER_LENGTH);
+        }
+        catch (final IOException e)
+        {
+            deflater.end();
+            if (channel != null)
+            {
+                try
+                {
+                    channel.close();
+                }
+                catch (final IOException suppressed)
+                {
+                    e.addSuppressed(suppressed);
+                }
+            }
+            LangUtil.rethrowUnchecked(e);
+        }
+        this.channel = channel;
+    }
+
+    /**
+     * Write a message.
+     *
+     * @param buffer the buffer containing the message.
+     * @param offset the offset of the message within the buffer.
+     * @param length the length of the message.
+     * @param endPosition the position in the recording at the end of the message.
+     */
+    public void onMessage(final DirectBuffer buffer, final int offset, final int length, final long endPosition)
+    {
+        if (endPosition <= lastEndPosition)
+        {
+            throw new IllegalArgumentException(
+                "Messages must be written in position order, " + endPosition + " <= " + lastEndPosition);
+        }
+
+        if (blockLength == 0)
+        {
+            blockFirstEndPosition = endPosition;
+        }
+
+        final ExpandableArrayBuffer block = this.block;
+        final int recordOffset = blockLength;
+        block.putLong(recordOffset + RECORD_END_POSITION_OFFSET, endPosition);
+        block.putInt(recordOffset + RECORD_LENGTH_OFFSET, length);
+        block.putBytes(recordOffset + RECORD_HEADER_LENGTH, buffer, offset, length);
+        blockLength = recordOffset + RECORD_HEADER_LENGTH + length;
+        lastEndPosition = endPosition;
+
+        if (blockLength >= blockSize)
+        {
+            writeBlock();
+        }
+    }
+
+    private void writeBlock()
+    {
+        final int uncompressedLength = blockLength;
+        final Deflater deflater = this.deflater;
+        deflater.reset();
+        deflater.setInput(block.byteArray(), 0, uncompressedLength);
+        deflater.finish();
+
+        byte[] compressed = this.compressed;
+        int compressedLength = 0;
+        while (!deflater.finished())
+        {
+            if (compressedLength == compressed.length)
+            {
+                final byte[] newCompressed = new byte[Math.max(1024, compressed.length * 2)];
+                System.arraycopy(compressed, 0, newCompressed, 0, compressedLength);
+                compressed = newCompressed;
+                this.compressed = compressed;
+            }
+            compressedLength += deflater.deflate(compressed, compressedLength, compressed.length - compressedLength);
+        }
+
+        try
+        {
+            writeFully(channel, ByteBuffer.wrap(compressed, 0, compressedLength), compressedLength);
+        }
+        catch (final IOException e)
+        {
+            LangUtil.rethrowUnchecked(e);
+        }
+
+        final int entryOffset = blockCount * INDEX_ENTRY_LENGTH;
+        final ExpandableArrayBuffer index = this.index;
+        index.putLong(entryOffset + INDEX_FIRST_END_POSITION_OFFSET, blockFirstEndPosition);
+        index.putLong(entryOffset + INDEX_LAST_END_POSITION_OFFSET, lastEndPosition);
+        index.putLong(entryOffset + INDEX_FILE_OFFSET_OFFSET, fileOffset);
+        index.putInt(entryOffset + INDEX_COMPRESSED_LENGTH_OFFSET, compressedLength);
+        index.putInt(entryOffset + INDEX_UNCOMPRESSED_LENGTH_OFFSET, uncompressedLength);
+
+        fileOffset += compressedLength;
+        blockCount++;
+        blockLength = 0;
+    }
+
+    /**
+     * Gets the position of the end of the last message written.
+     *
+     * @return the position of the end of the last message written.
+     */
+    public long stopPosition()
+    {
+        return lastEndPosition;
+    }
+
+    /**
+     * Writes any partially filled block, the block index and the footer then closes the file.
+     */
+    public void close()
+    {
+        try
+        {
+            if (blockLength > 0)
+            {
+                writeBlock();
+            }
+
+            final int indexLength = blockCount * INDEX_ENTRY_LENGTH;
+            writeFully(channel, ByteBuffer.wrap(index.byteArray(), 0, indexLength), indexLength);
+
+            footerBuffer.putLong(FOOTER_INDEX_OFFSET_OFFSET, fileOffset);
+            footerBuffer.putLong(FOOTER_START_POSITION_OFFSET, startPosition);
+            footerBuffer.putLong(FOOTER_STOP_POSITION_OFFSET, lastEndPosition);
+            footerBuffer.putLong(FOOTER_BLOCK_COUNT_OFFSET, blockCount);
+            writeFully(channel, footerBuffer.byteBuffer(), FOOTER_LENGTH);
+
+            channel.force(true);
+            channel.close();
+        }
+        catch (final IOException e)
+        {
+            LangUtil.rethrowUnchecked(e);
+        }
+        finally
+        {
+            deflater.end();
+        }
+    }
+
+    private static void writeFully(final FileChannel channel, final ByteBuffer buffer, final int length)
+        throws IOException
+    {
+        buffer.limit(buffer.position() + length);
+        while (buffer.hasRemaining())
+        {
+            channel.write(buffer);
+        }
+    }
+}
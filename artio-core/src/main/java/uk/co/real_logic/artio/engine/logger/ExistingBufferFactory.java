@@ -15,11 +15,40 @@
  */
 package uk.co.real_logic.artio.engine.logger;
 
+import org.agrona.IoUtil;
+import org.agrona.collections.LongHashSet;
+
 import java.io.File;
 import java.nio.ByteBuffer;
 
 @FunctionalInterface
-public interface ExistingBufferFactory
+public interface ExistingBufferFactory extends AutoCloseable
 {
     ByteBuffer map(File fileName);
+
+    /**
+     * List the ids of the sessions that have a replay index.
+     *
+     * @param logFileDir the directory that the replay index files are in.
+     * @param streamId the stream id of the replay index.
+     * @return the ids of the sessions that have a replay index.
+     */
+    default LongHashSet sessionIds(File logFileDir, int streamId)
+    {
+        return ReplayIndexDescriptor.listReplayIndexSessionIds(logFileDir, streamId);
+    }
+
+    /**
+     * Release a buffer returned by {@link #map(File)} once it's no longer used.
+     *
+     * @param buffer the buffer to release.
+     */
+    default void unmap(ByteBuffer buffer)
+    {
+        IoUtil.unmap(buffer);
+    }
+
+    default void close()
+    {
+    }
 }
@@ -0,0 +1,181 @@
+/*
+ * Copyright 2015-2022 Real Logic Limited.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.engine.logger;
+
+import org.agrona.LangUtil;
+import uk.co.real_logic.artio.dictionary.generation.Exceptions;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.Arrays;
+
+import static uk.co.real_logic.artio.engine.logger.SequenceNumberIndexDescriptor.*;
+
+/**
+ * Default {@link SessionMetaDataStore} that appends slots to the <code>metadata</code> file in the engine's log
+ * file directory. Each slot is a big-endian int capacity followed by its bytes.
+ *
+ * Writes go to the OS page cache as a single write call each and are only forced to disk in batches by
+ * {@link #sync()}.
+ */
+public class FileSessionMetaDataStore implements SessionMetaDataStore
+{
+    public static final Factory FACTORY = FileSessionMetaDataStore::new;
+
+    private final RandomAccessFile file;
+    private byte[] writeBuffer = new byte[0];
+
+    public FileSessionMetaDataStore(final String logFileDir, final boolean writable)
+    {
+        this(metaDataFile(logFileDir), writable);
+    }
+
+    public FileSessionMetaDataStore(final File location, final boolean writable)
+    {
+        file = writable ? openWritable(location) : openReadOnly(location);
+    }
+
+    private static RandomAccessFile openReadOnly(final File location)
+    {
+        try
+        {
+            return new RandomAccessFile(location, "r");
+        }
+        catch (final IOException e)
+        {
+            LangUtil.rethrowUnchecked(e);
+            return null;
+        }
+    }
+
+    private static RandomAccessFile openWritable(final File location)
+    {
+        RandomAccessFile file = null;
+        try
+        {
+            file = new RandomAccessFile(location, "rw");
+            if (file.length() == 0)
+            {
+                writeHeader(file);
+            }
+            else
+            {
+                final long magicNumber = file.readLong();
+                final int fileVersion = file.readInt();
+
+                if (magicNumber != META_DATA_MAGIC_NUMBER)
+                {
+                    throw new IllegalStateException("Invalid magic number in metadata file: " + magicNumber);
+                }
+
+                if (fileVersion < READABLE_META_DATA_FILE_VERSION)
+                {
+                    throw new IllegalStateException("Unreadable metadata file version: " + fileVersion);
+                }
+            }
+            return file;
+        }
+        catch (final IOException | IllegalStateException e)
+        {
+            Exceptions.suppressingClose(file, e);
+            LangUtil.rethrowUnchecked(e);
+        }
+
+        return null;
+    }
+
+    private static void writeHeader(final RandomAccessFile file) throws IOException
+    {
+        file.writeLong(META_DATA_MAGIC_NUMBER);
+        file.writeInt(META_DATA_FILE_VERSION);
+        file.getFD().sync();
+    }
+
+    public int allocate(final int capacity, final byte[] value, final int length) throws IOException
+    {
+        final int slot = (int)file.length();
+        final int slotLength = SIZE_OF_META_DATA_LENGTH + length;
+        final byte[] writeBuffer = writeBuffer(slotLength);
+        writeBuffer[0] = (byte)(capacity >>> 24);
+        writeBuffer[1] = (byte)(capacity >>> 16);
+        writeBuffer[2] = (byte)(capacity >>> 8);
+        writeBuffer[3] = (byte)capacity;
+        System.arraycopy(value, 0, writeBuffer, SIZE_OF_META_DATA_LENGTH, length);
+
+        file.seek(slot);
+        file.write(writeBuffer, 0, slotLength);
+        return slot;
+    }
+
+    public int capacity(final int slot) throws IOException
+    {
+        file.seek(slot);
+        return file.readInt();
+    }
+
+    public void write(
+        final int slot, final int offset, final byte[] value, final int valueOffset, final int length)
+        throws IOException
+    {
+        file.seek(slot + SIZE_OF_META_DATA_LENGTH + offset);
+        file.write(value, valueOffset, length);
+    }
+
+    public void read(
+        final int slot, final int offset, final byte[] value, final int valueOffset, final int length)
+        throws IOException
+    {
+        file.seek(slot + SIZE_OF_META_DATA_LENGTH + offset);
+        file.read(value, valueOffset, length);
+    }
+
+    public void clear(final int slot) throws IOException
+    {
+        final int capacity = capacity(slot);
+        final byte[] writeBuffer = writeBuffer(capacity);
+        Arrays.fill(writeBuffer, 0, capacity, (byte)0);
+        write(slot, 0, writeBuffer, 0, capacity);
+    }
+
+    public void reset() throws IOException
+    {
+        file.seek(0);
+        file.setLength(META_DATA_FILE_HEADER_LENGTH);
+        writeHeader(file);
+    }
+
+    public void sync() throws IOException
+    {
+        file.getFD().sync();
+    }
+
+    public void close() throws IOException
+    {
+        file.close();
+    }
+
+    private byte[] writeBuffer(final int length)
+    {
+        byte[] writeBuffer = this.writeBuffer;
+        if (writeBuffer.length < length)
+        {
+            writeBuffer = new byte[length];
+            this.writeBuffer = writeBuffer;
+        }
+        return writeBuffer;
+    }
+}
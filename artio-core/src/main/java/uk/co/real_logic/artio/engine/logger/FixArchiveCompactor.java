@@ -0,0 +1,139 @@
+/*
+ * Copyright 2015-2022 Real Logic Limited.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.engine.logger;
+
+import io.aeron.FragmentAssembler;
+import io.aeron.Image;
+import io.aeron.Subscription;
+import io.aeron.archive.client.AeronArchive;
+import org.agrona.LangUtil;
+import org.agrona.concurrent.AgentInvoker;
+import org.agrona.concurrent.IdleStrategy;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+
+import static io.aeron.CommonContext.IPC_CHANNEL;
+import static uk.co.real_logic.artio.engine.logger.CompressedRecordingDescriptor.fileName;
+
+/**
+ * Compacts a range of an Aeron Archive recording into a compressed recording file that the
+ * {@link FixArchiveScanner} can read when configured with
+ * {@link FixArchiveScanner.Configuration#compressedArchiveDir(String)}.
+ *
+ * This is intended to be used on old data before it is removed from the archive, for example with
+ * {@link uk.co.real_logic.artio.engine.FixEngine#pruneArchive(io.aeron.archive.client.AeronArchive.Context,
+ * org.agrona.collections.Long2LongHashMap)}, in order to keep a long history of messages without keeping
+ * all of it uncompressed.
+ */
+public final class FixArchiveCompactor
+{
+    private static final int FRAGMENT_LIMIT = 20;
+
+    private FixArchiveCompactor()
+    {
+    }
+
+    /**
+     * Compact a range of a recording. Blocks until the range has been written.
+     *
+     * @param aeronArchive the archive client to replay the recording with.
+     * @param recordingId the id of the recording to compact.
+     * @param startPosition the position in the recording to start from, this must be the start of a message.
+     * @param stopPosition the position in the recording to stop at, this must be the end of a message.
+     * @param directory the directory to write the compressed recording into.
+     * @param replayStreamId the stream id to replay the recording on.
+     * @param idleStrategy the idle strategy to use whilst waiting for the replay.
+     * @return the compressed recording file that was written.
+     */
+    public static File compact(
+        final AeronArchive aeronArchive,
+        final long recordingId,
+        final long startPosition,
+        final long stopPosition,
+        final File directory,
+        final int replayStreamId,
+        final IdleStrategy idleStrategy)
+    {
+        final int[] streamId = new int[1];
+        final int found = aeronArchive.listRecording(recordingId,
+            (controlSessionId, correlationId, ignoreRecordingId, startTimestamp, stopTimestamp,
+            recordingStartPosition, recordingStopPosition, initialTermId, segmentFileLength, termBufferLength,
+            mtuLength, sessionId, recordingStreamId, strippedChannel, originalChannel, sourceIdentity) ->
+            streamId[0] = recordingStreamId);
+        if (found == 0)
+        {
+            throw new IllegalArgumentException("Unknown recording: " + recordingId);
+        }
+
+        final File file = new File(directory, fileName(recordingId, startPosition, stopPosition));
+        final File tempFile = new File(directory, file.getName() + ".tmp");
+        final AgentInvoker aeronInvoker = aeronArchive.context().aeron().conductorAgentInvoker();
+
+        try (CompressedRecordingWriter writer = new CompressedRecordingWriter(
+            tempFile, streamId[0], recordingId, startPosition);
+            Subscription subscription = aeronArchive.replay(
+                recordingId, startPosition, stopPosition - startPosition, IPC_CHANNEL, replayStreamId))
+        {
+            while (subscription.imageCount() != 1)
+            {
+                idle(idleStrategy, aeronInvoker, 0);
+                aeronArchive.checkForErrorResponse();
+            }
+            idleStrategy.reset();
+
+            final Image image = subscription.imageAtIndex(0);
+            final FragmentAssembler assembler = new FragmentAssembler(
+                (buffer, offset, length, header) -> writer.onMessage(buffer, offset, length, header.position()));
+            while (image.position() < stopPosition)
+            {
+                if (image.isClosed())
+                {
+                    throw new IllegalStateException(
+                        "Replay of recording " + recordingId + " closed at " + image.position() +
+                        " before reaching " + stopPosition);
+                }
+
+                idle(idleStrategy, aeronInvoker, image.poll(assembler, FRAGMENT_LIMIT));
+            }
+            idleStrategy.reset();
+        }
+
+        try
+        {
+            Files.move(tempFile.toPath(), file.toPath(), StandardCopyOption.ATOMIC_MOVE);
+        }
+        catch (final IOException e)
+        {
+            LangUtil.rethrowUnchecked(e);
+        }
+
+        return file;
+    }
+
+    private static void idle(final IdleStrategy idleStrategy, final AgentInvoker aeronInvoker, final int workCount)
+    {
+        int totalWork = workCount;
+        if (aeronInvoker != null)
+        {
+            totalWork += aeronInvoker.invoke();
+        }
+
+        idleStrategy.idle(totalWork);
+    }
+}
@@ -19,15 +19,11 @@ import io.aeron.archive.Archive;
 import io.aeron.archive.ArchivingMediaDriver;
 import io.aeron.driver.MediaDriver;
 import org.agrona.CloseHelper;
-import org.agrona.DirectBuffer;
 import org.agrona.collections.IntHashSet;
-import uk.co.real_logic.artio.ArtioLogHeader;
 import uk.co.real_logic.artio.CommonConfiguration;
 import uk.co.real_logic.artio.decoder.SessionHeaderDecoder;
 import uk.co.real_logic.artio.dictionary.FixDictionary;
-import uk.co.real_logic.artio.messages.FixMessageDecoder;
 import uk.co.real_logic.artio.messages.FixPProtocolType;
-import uk.co.real_logic.artio.messages.MessageStatus;
 
 import java.util.function.Predicate;
 
@@ -54,6 +50,7 @@ public final class FixArchivePrinter
 
     private FixPProtocolType fixPProtocolType = FixPProtocolType.ILINK_3;
     private String logFileDir = null;
+    private String compressedArchiveDir = null;
     private final IntHashSet queryStreamIds = new IntHashSet();
     private String aeronDirectoryName = null;
     private String aeronChannel = null;
@@ -64,6 +61,7 @@ public final class FixArchivePrinter
     private boolean fixp = false;
     private Class<? extends FixDictionary> fixDictionaryType = null;
     private Predicate<SessionHeaderDecoder> headerPredicate = null;
+    private FixMessagePrinter.Format outputFormat = FixMessagePrinter.Format.TEXT;
 
     private void scan(final String[] args)
     {
@@ -74,7 +72,8 @@ public final class FixArchivePrinter
         try
         {
             scanArchive(aeronDirectoryName, aeronChannel, queryStreamIds, predicate, follow, headerPredicate,
-                archiveScannerStreamId, fixDictionaryType, fixPProtocolType, logFileDir);
+                archiveScannerStreamId, fixDictionaryType, fixPProtocolType, logFileDir, compressedArchiveDir,
+                outputFormat);
         }
         finally
         {
@@ -178,6 +177,12 @@ public final class FixArchivePrinter
                 case "log-file-dir":
                     logFileDir = optionValue;
                     break;
+                case "compressed-archive-dir":
+                    compressedArchiveDir = optionValue;
+                    break;
+                case "output-format":
+                    outputFormat = outputFormat(optionValue);
+                    break;
             }
         }
     }
@@ -208,6 +213,21 @@ public final class FixArchivePrinter
         }
     }
 
+    private static FixMessagePrinter.Format outputFormat(final String optionValue)
+    {
+        try
+        {
+            return FixMessagePrinter.Format.valueOf(optionValue.toUpperCase());
+        }
+        catch (final IllegalArgumentException e)
+        {
+            System.err.printf("Invalid --output-format argument: %s, must be text or json%n", optionValue);
+            printHelp();
+            System.exit(-1);
+            return null;
+        }
+    }
+
     private static void scanArchive(
         final String aeronDirectoryName,
         final String aeronChannel,
@@ -218,7 +238,9 @@ public final class FixArchivePrinter
         final int archiveScannerStreamId,
         final Class<? extends FixDictionary> fixDictionaryType,
         final FixPProtocolType fixPProtocolType,
-        final String logFileDir)
+        final String logFileDir,
+        final String compressedArchiveDir,
+        final FixMessagePrinter.Format outputFormat)
     {
         final FixDictionary fixDictionary = fixDictionaryType == null ? null : FixDictionary.of(fixDictionaryType);
         FixMessagePredicate predicate = otherPredicate;
@@ -229,7 +251,8 @@ public final class FixArchivePrinter
 
         final FixArchiveScanner.Configuration configuration = new FixArchiveScanner.Configuration()
             .aeronDirectoryName(aeronDirectoryName)
-            .idleStrategy(CommonConfiguration.backoffIdleStrategy());
+            .idleStrategy(CommonConfiguration.backoffIdleStrategy())
+            .compressedArchiveDir(compressedArchiveDir);
 
         if (logFileDir != null)
         {
@@ -242,7 +265,7 @@ public final class FixArchivePrinter
             scanner.scan(
                 aeronChannel,
                 queryStreamIds,
-                filterBy(FixArchivePrinter::print, predicate),
+                filterBy(new FixMessagePrinter(outputFormat, System.out), predicate),
                 new LazyFixPMessagePrinter(DEFAULT_INBOUND_LIBRARY_STREAM, fixPProtocolType),
                 follow,
                 archiveScannerStreamId);
@@ -352,6 +375,16 @@ public final class FixArchivePrinter
             "Specifies a logFileDir option, this should be the same as provided to your EngineConfiguration." +
             "  This can be used to optimize scans that are time based",
             false);
+        printOption(
+            "compressed-archive-dir",
+            "Specifies a directory of compressed recordings written by the FixArchiveCompactor, messages in these" +
+            " are printed as well as those in the archive",
+            false);
+        printOption(
+            "output-format",
+            "Either text or json, json prints each message as an object with its fields as tag and value pairs." +
+            " Defaults to text",
+            false);
     }
 
     private static void printOption(final String name, final String description, final boolean required)
@@ -363,18 +396,4 @@ public final class FixArchivePrinter
     {
         return left == null ? right : left.and(right);
     }
-
-    private static void print(
-        final FixMessageDecoder message,
-        final DirectBuffer buffer,
-        final int offset,
-        final int length,
-        final ArtioLogHeader header)
-    {
-        final MessageStatus status = message.status();
-        final long timestamp = message.timestamp();
-        final String body = message.body();
-        System.out.printf("%1$20s: %2$s (%3$s)%n", timestamp, body, status);
-    }
-
 }
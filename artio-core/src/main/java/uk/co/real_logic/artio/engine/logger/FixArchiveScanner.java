@@ -48,6 +48,7 @@ public class FixArchiveScanner implements AutoCloseable
         public int maximumBufferSize = DEFAULT_MAXIMUM_BUFFER_SIZE;
         private String logFileDir;
         private boolean enableIndexScan;
+        private String compressedArchiveDir;
         private AeronArchive.Context archiveContext;
 
         public Configuration()
@@ -170,6 +171,26 @@ public class FixArchiveScanner implements AutoCloseable
             return enableIndexScan;
         }
 
+        /**
+         * Sets the directory containing compressed recordings written by the {@link FixArchiveCompactor}. This
+         * configuration option isn't required, if it is set then messages from compressed recordings are scanned
+         * as well as those still in the archive, so ranges of recordings can be compacted and then pruned from the
+         * archive without losing the ability to scan them.
+         *
+         * @param compressedArchiveDir the directory containing compressed recordings.
+         * @return this
+         */
+        public Configuration compressedArchiveDir(final String compressedArchiveDir)
+        {
+            this.compressedArchiveDir = compressedArchiveDir;
+            return this;
+        }
+
+        public String compressedArchiveDir()
+        {
+            return compressedArchiveDir;
+        }
+
         /**
          * Sets the context to be used to create the Aeron Archiver that this backs onto.
          *
@@ -227,6 +248,7 @@ public class FixArchiveScanner implements AutoCloseable
             configuration.maximumBufferSize,
             configuration.fragmentLimit,
             logFileDir,
+            configuration.compressedArchiveDir(),
             aeron,
             aeronArchive);
     }
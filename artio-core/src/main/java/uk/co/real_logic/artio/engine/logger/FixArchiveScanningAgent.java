@@ -17,20 +17,27 @@ package uk.co.real_logic.artio.engine.logger;
 
 import io.aeron.*;
 import io.aeron.archive.client.AeronArchive;
+import io.aeron.logbuffer.Header;
+import io.aeron.protocol.DataHeaderFlyweight;
+import org.agrona.DirectBuffer;
 import org.agrona.collections.IntHashSet;
 import org.agrona.collections.Long2ObjectHashMap;
 import org.agrona.concurrent.IdleStrategy;
+import org.agrona.concurrent.UnsafeBuffer;
 import uk.co.real_logic.artio.DebugLogger;
 import uk.co.real_logic.artio.dictionary.generation.Exceptions;
 import uk.co.real_logic.artio.fixp.FixPMessageConsumer;
 
+import java.io.File;
 import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
 
 import static io.aeron.CommonContext.IPC_CHANNEL;
 import static io.aeron.archive.client.AeronArchive.NULL_POSITION;
+import static io.aeron.logbuffer.FrameDescriptor.UNFRAGMENTED;
 import static uk.co.real_logic.artio.LogTag.ARCHIVE_SCAN;
+import static uk.co.real_logic.artio.engine.logger.CompressedRecordingDescriptor.FILE_SUFFIX;
 import static uk.co.real_logic.artio.engine.logger.FixArchiveScanner.DEBUG_LOG_ARCHIVE_SCAN;
 
 // Not part of public API, don't rely on API stability
@@ -43,12 +50,13 @@ public class FixArchiveScanningAgent implements AutoCloseable
     private final int maximumBufferSize;
     private final int fragmentLimit;
     private final String logFileDir;
+    private final String compressedArchiveDir;
 
     private final Long2ObjectHashMap<TimeIndexReader> streamIdToInboundTimeIndex = new Long2ObjectHashMap<>();
 
     private StreamTimestampZipper timestampZipper;
     private Subscription replaySubscription;
-    private RecordingPoller[] pollers;
+    private StreamTimestampZipper.Poller[] pollers;
     private boolean follow;
 
     public FixArchiveScanningAgent(
@@ -59,6 +67,19 @@ public class FixArchiveScanningAgent implements AutoCloseable
         final String logFileDir,
         final Aeron aeron,
         final AeronArchive aeronArchive)
+    {
+        this(idleStrategy, compactionSize, maximumBufferSize, fragmentLimit, logFileDir, null, aeron, aeronArchive);
+    }
+
+    public FixArchiveScanningAgent(
+        final IdleStrategy idleStrategy,
+        final int compactionSize,
+        final int maximumBufferSize,
+        final int fragmentLimit,
+        final String logFileDir,
+        final String compressedArchiveDir,
+        final Aeron aeron,
+        final AeronArchive aeronArchive)
     {
         this.idleStrategy = idleStrategy;
         this.compactionSize = compactionSize;
@@ -67,6 +88,7 @@ public class FixArchiveScanningAgent implements AutoCloseable
         this.aeron = aeron;
         this.aeronArchive = aeronArchive;
         this.logFileDir = logFileDir;
+        this.compressedArchiveDir = compressedArchiveDir;
     }
 
     public void setup(
@@ -117,25 +139,102 @@ public class FixArchiveScanningAgent implements AutoCloseable
         return false;
     }
 
-    private RecordingPoller[] makeRecordingPollers(
+    private StreamTimestampZipper.Poller[] makeRecordingPollers(
         final String aeronChannel,
         final IntHashSet queryStreamIds,
         final boolean follow,
         final Long2ObjectHashMap<PositionRange> recordingIdToPositionRange,
         final Subscription replaySubscription)
     {
-        return queryStreamIds
-            .stream()
-            .flatMap(id ->
-                lookupArchiveLocations(
-                    id, follow, aeronChannel, recordingIdToPositionRange)
-                    .stream()
-                    // filter out empty streams as
-                    // 1) they are empty - we don't need to poll them
-                    // 2) we use empty length later within polling as a test for polling being finished
-                    .filter(archiveLocation -> archiveLocation.length() != 0L)
-                    .map(archiveLocation -> new RecordingPoller(replaySubscription, id, archiveLocation)))
-            .toArray(RecordingPoller[]::new);
+        final List<StreamTimestampZipper.Poller> pollers = new ArrayList<>();
+        final Long2ObjectHashMap<ArchiveLocation> recordingIdToArchiveLocation = new Long2ObjectHashMap<>();
+        for (final int id : queryStreamIds)
+        {
+            final List<ArchiveLocation> archiveLocations = lookupArchiveLocations(
+                id, follow, aeronChannel, recordingIdToPositionRange);
+            for (final ArchiveLocation archiveLocation : archiveLocations)
+            {
+                recordingIdToArchiveLocation.put(archiveLocation.recordingId, archiveLocation);
+
+                // filter out empty streams as
+                // 1) they are empty - we don't need to poll them
+                // 2) we use empty length later within polling as a test for polling being finished
+                if (archiveLocation.length() != 0L)
+                {
+                    pollers.add(new RecordingPoller(replaySubscription, id, archiveLocation));
+                }
+            }
+        }
+
+        pollers.addAll(makeCompressedRecordingPollers(
+            queryStreamIds, recordingIdToPositionRange, recordingIdToArchiveLocation));
+        return pollers.toArray(new StreamTimestampZipper.Poller[0]);
+    }
+
+    private List<CompressedRecordingPoller> makeCompressedRecordingPollers(
+        final IntHashSet queryStreamIds,
+        final Long2ObjectHashMap<PositionRange> recordingIdToPositionRange,
+        final Long2ObjectHashMap<ArchiveLocation> recordingIdToArchiveLocation)
+    {
+        final List<CompressedRecordingPoller> pollers = new ArrayList<>();
+        if (compressedArchiveDir == null)
+        {
+            return pollers;
+        }
+
+        final File[] files = new File(compressedArchiveDir).listFiles((dir, name) -> name.endsWith(FILE_SUFFIX));
+        if (files == null)
+        {
+            return pollers;
+        }
+
+        for (final File file : files)
+        {
+            final CompressedRecordingReader reader = new CompressedRecordingReader(file);
+            final long recordingId = reader.recordingId();
+            long startPosition = reader.startPosition();
+            long stopPosition = reader.stopPosition();
+
+            if (queryStreamIds.contains(reader.streamId()))
+            {
+                // try to narrow down the scan range using the index
+                if (recordingIdToPositionRange != null)
+                {
+                    final PositionRange positionRange = recordingIdToPositionRange.get(recordingId);
+                    if (positionRange == null)
+                    {
+                        stopPosition = startPosition;
+                    }
+                    else
+                    {
+                        startPosition = Math.max(startPosition, positionRange.startPosition());
+                        stopPosition = Math.min(stopPosition, positionRange.endPosition());
+                    }
+                }
+
+                // Don't read messages twice if they haven't been pruned from the archive yet.
+                final ArchiveLocation archiveLocation = recordingIdToArchiveLocation.get(recordingId);
+                if (archiveLocation != null && archiveLocation.startPosition != NULL_POSITION)
+                {
+                    stopPosition = Math.min(stopPosition, archiveLocation.startPosition);
+                }
+            }
+            else
+            {
+                stopPosition = startPosition;
+            }
+
+            if (stopPosition > startPosition)
+            {
+                pollers.add(new CompressedRecordingPoller(reader, startPosition, stopPosition));
+            }
+            else
+            {
+                reader.close();
+            }
+        }
+
+        return pollers;
     }
 
     private Long2ObjectHashMap<PositionRange> scanIndexIfPossible(
@@ -205,9 +304,9 @@ public class FixArchiveScanningAgent implements AutoCloseable
         }
     }
 
-    private boolean checkCompletion(final RecordingPoller[] pollers)
+    private boolean checkCompletion(final StreamTimestampZipper.Poller[] pollers)
     {
-        for (final RecordingPoller poller : pollers)
+        for (final StreamTimestampZipper.Poller poller : pollers)
         {
             if (!poller.isComplete())
             {
@@ -427,4 +526,78 @@ public class FixArchiveScanningAgent implements AutoCloseable
                 '}';
         }
     }
+
+    static class CompressedRecordingPoller
+        implements StreamTimestampZipper.Poller, CompressedRecordingReader.MessageHandler
+    {
+        private final UnsafeBuffer headerBuffer = new UnsafeBuffer(new byte[DataHeaderFlyweight.HEADER_LENGTH]);
+        private final Header header = new Header(0, 0);
+        private final CompressedRecordingReader reader;
+        private final long stopPosition;
+
+        private long position;
+        private FragmentAssembler fragmentAssembler;
+
+        CompressedRecordingPoller(
+            final CompressedRecordingReader reader, final long startPosition, final long stopPosition)
+        {
+            this.reader = reader;
+            this.position = startPosition;
+            this.stopPosition = stopPosition;
+
+            // Messages are stored reassembled, so each one is presented as a single unfragmented frame.
+            headerBuffer.putByte(DataHeaderFlyweight.FLAGS_FIELD_OFFSET, UNFRAGMENTED);
+            header.buffer(headerBuffer);
+            header.offset(0);
+        }
+
+        public int poll(final FragmentAssembler fragmentAssembler, final int fragmentLimit)
+        {
+            if (isComplete())
+            {
+                return 0;
+            }
+
+            this.fragmentAssembler = fragmentAssembler;
+            final int messagesRead = reader.read(position, stopPosition, this, fragmentLimit);
+            if (messagesRead == 0)
+            {
+                // nothing left in range
+                position = stopPosition;
+                return 1;
+            }
+            return messagesRead;
+        }
+
+        public void onMessage(
+            final DirectBuffer buffer, final int offset, final int length, final long endPosition)
+        {
+            position = endPosition;
+            fragmentAssembler.onFragment(buffer, offset, length, header);
+        }
+
+        public int streamId()
+        {
+            return reader.streamId();
+        }
+
+        public void close()
+        {
+            reader.close();
+        }
+
+        public boolean isComplete()
+        {
+            return position >= stopPosition;
+        }
+
+        public String toString()
+        {
+            return "CompressedRecordingPoller{" +
+                "recordingId=" + reader.recordingId() +
+                ", position=" + position +
+                ", stopPosition=" + stopPosition +
+                '}';
+        }
+    }
 }
@@ -18,16 +18,13 @@ package uk.co.real_logic.artio.engine.logger;
 import io.aeron.Aeron;
 import io.aeron.FragmentAssembler;
 import io.aeron.Subscription;
-import org.agrona.DirectBuffer;
 import org.agrona.ExpandableArrayBuffer;
 import org.agrona.LangUtil;
 import org.agrona.Verify;
 import org.agrona.concurrent.Agent;
 import org.agrona.concurrent.AgentRunner;
-import uk.co.real_logic.artio.ArtioLogHeader;
 import uk.co.real_logic.artio.CommonConfiguration;
 import uk.co.real_logic.artio.fixp.FixPMessageConsumer;
-import uk.co.real_logic.artio.messages.FixMessageDecoder;
 
 import static io.aeron.CommonContext.IPC_CHANNEL;
 import static uk.co.real_logic.artio.CommonConfiguration.DEFAULT_INBOUND_LIBRARY_STREAM;
@@ -41,8 +38,9 @@ import static uk.co.real_logic.artio.engine.EngineConfiguration.DEFAULT_OUTBOUND
  * Main method is provided as an example of usage - when integrating into your specific system you should pass in the
  * library aeron channel and stream ids used by your {@link uk.co.real_logic.artio.engine.EngineConfiguration}.
  *
- * Since this class generates Java objects for every message that passes through the system you're recommended to run
- * it in a different process to the normal Artio Engine if you're operating in a latency sensitive environment.
+ * The {@link FixMessagePrinter} used by the main method formats messages without allocating, but you're still
+ * recommended to run this in a different process to the normal Artio Engine if you're operating in a latency
+ * sensitive environment.
  */
 public class FixMessageLogger implements Agent
 {
@@ -297,7 +295,7 @@ public class FixMessageLogger implements Agent
     public static AgentRunner start()
     {
         final Configuration configuration = new Configuration()
-            .fixMessageConsumer(FixMessageLogger::print);
+            .fixMessageConsumer(new FixMessagePrinter(FixMessagePrinter.Format.TEXT, System.out));
         final FixMessageLogger logger = new FixMessageLogger(configuration);
 
         final AgentRunner runner = new AgentRunner(
@@ -311,16 +309,6 @@ public class FixMessageLogger implements Agent
         return runner;
     }
 
-    private static void print(
-        final FixMessageDecoder fixMessageDecoder,
-        final DirectBuffer buffer,
-        final int offset,
-        final int length,
-        final ArtioLogHeader header)
-    {
-        System.out.printf("%s:stream=%s %s%n", fixMessageDecoder.status(), header.streamId(), fixMessageDecoder.body());
-    }
-
     private final StreamTimestampZipper zipper;
     private final Configuration configuration;
     private volatile boolean closed = false;
@@ -246,14 +246,14 @@ public final class FixMessagePredicates
      */
     public static FixMessagePredicate sessionOf(
         final FixDictionary fixDictionary,
-        final String senderCompId,
-        final String targetCompId)
+        final CharSequence senderCompId,
+        final CharSequence targetCompId)
     {
         return whereHeader(fixDictionary,
             senderCompIdOf(senderCompId).and(targetCompIdOf(targetCompId)));
     }
 
-    public static Predicate<SessionHeaderDecoder> senderCompIdOf(final String senderCompId)
+    public static Predicate<SessionHeaderDecoder> senderCompIdOf(final CharSequence senderCompId)
     {
         return headerMatches(
             senderCompId,
@@ -263,7 +263,7 @@ public final class FixMessagePredicates
             true);
     }
 
-    public static Predicate<SessionHeaderDecoder> targetCompIdOf(final String targetCompId)
+    public static Predicate<SessionHeaderDecoder> targetCompIdOf(final CharSequence targetCompId)
     {
         return headerMatches(
             targetCompId,
@@ -273,32 +273,32 @@ public final class FixMessagePredicates
             true);
     }
 
-    public static Predicate<SessionHeaderDecoder> senderSubIdOf(final String senderSubId)
+    public static Predicate<SessionHeaderDecoder> senderSubIdOf(final CharSequence senderSubId)
     {
         return headerMatchesConsistent(
             senderSubId, SessionHeaderDecoder::senderSubID, SessionHeaderDecoder::senderSubIDLength);
     }
 
-    public static Predicate<SessionHeaderDecoder> targetSubIdOf(final String targetSubId)
+    public static Predicate<SessionHeaderDecoder> targetSubIdOf(final CharSequence targetSubId)
     {
         return headerMatchesConsistent(
             targetSubId, SessionHeaderDecoder::targetSubID, SessionHeaderDecoder::targetSubIDLength);
     }
 
-    public static Predicate<SessionHeaderDecoder> senderLocationIdOf(final String senderLocationId)
+    public static Predicate<SessionHeaderDecoder> senderLocationIdOf(final CharSequence senderLocationId)
     {
         return headerMatchesConsistent(
             senderLocationId, SessionHeaderDecoder::senderLocationID, SessionHeaderDecoder::senderLocationIDLength);
     }
 
-    public static Predicate<SessionHeaderDecoder> targetLocationIdOf(final String targetLocationId)
+    public static Predicate<SessionHeaderDecoder> targetLocationIdOf(final CharSequence targetLocationId)
     {
         return headerMatchesConsistent(
             targetLocationId, SessionHeaderDecoder::targetLocationID, SessionHeaderDecoder::targetLocationIDLength);
     }
 
     public static Predicate<SessionHeaderDecoder> headerMatches(
-        final String value,
+        final CharSequence value,
         final Function<SessionHeaderDecoder, char[]> charExtractor,
         final ToIntFunction<SessionHeaderDecoder> lengthExtractor)
     {
@@ -306,7 +306,7 @@ public final class FixMessagePredicates
     }
 
     private static Predicate<SessionHeaderDecoder> headerMatchesConsistent(
-        final String value,
+        final CharSequence value,
         final Function<SessionHeaderDecoder, char[]> charExtractor,
         final ToIntFunction<SessionHeaderDecoder> lengthExtractor)
     {
@@ -314,7 +314,7 @@ public final class FixMessagePredicates
     }
 
     private static Predicate<SessionHeaderDecoder> headerMatches(
-        final String value,
+        final CharSequence value,
         final HeaderField headerField,
         final Function<SessionHeaderDecoder, char[]> charExtractor,
         final ToIntFunction<SessionHeaderDecoder> lengthExtractor,
@@ -411,16 +411,16 @@ public final class FixMessagePredicates
         private final ToIntFunction<SessionHeaderDecoder> lengthExtractor;
 
         HeaderMatches(
-            final String value,
+            final CharSequence value,
             final HeaderField headerField,
             final boolean sessionConsistent,
             final Function<SessionHeaderDecoder, char[]> charExtractor,
             final ToIntFunction<SessionHeaderDecoder> lengthExtractor)
         {
             super(sessionConsistent);
-            expectedChars = value.toCharArray();
+            expectedChars = CodecUtil.toChars(value);
 
-            this.value = value;
+            this.value = value.toString();
             this.headerField = headerField;
             this.charExtractor = charExtractor;
             this.lengthExtractor = lengthExtractor;
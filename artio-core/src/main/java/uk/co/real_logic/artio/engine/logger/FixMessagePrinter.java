@@ -0,0 +1,237 @@
+/*
+ * Copyright 2015-2022 Real Logic Limited, Adaptive Financial Consulting Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.engine.logger;
+
+import org.agrona.DirectBuffer;
+import org.agrona.ExpandableArrayBuffer;
+import org.agrona.LangUtil;
+import uk.co.real_logic.artio.ArtioLogHeader;
+import uk.co.real_logic.artio.messages.FixMessageDecoder;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+import static java.nio.charset.StandardCharsets.US_ASCII;
+import static uk.co.real_logic.artio.messages.FixMessageDecoder.bodyHeaderLength;
+import static uk.co.real_logic.artio.util.AsciiBuffer.SEPARATOR;
+
+/**
+ * Prints out the FIX messages scanned by a {@link FixArchiveScanner} or {@link FixMessageLogger}, one line per
+ * message. Each line is formatted into a reused buffer and written to the output stream as bytes, so no objects are
+ * allocated per message and the printer can be left running for continuous logging.
+ *
+ * The {@link Format#TEXT} format is the timestamp, the message and its status. The {@link Format#JSON} format is an
+ * object with the timestamp, status and stream id of the message and its fields as an array of tag and value pairs,
+ * since fields in repeating groups have repeated tags.
+ *
+ * This printer works on the raw tag=value bytes, so it doesn't need a dictionary and doesn't print field names. To
+ * print messages decoded with their field names, use the generated {@link uk.co.real_logic.artio.builder.Printer}'s
+ * appendTo method with a reused StringBuilder.
+ */
+public final class FixMessagePrinter implements FixMessageConsumer
+{
+    public enum Format
+    {
+        TEXT,
+        JSON
+    }
+
+    private static final int TIMESTAMP_WIDTH = 20;
+    private static final int INITIAL_BUFFER_SIZE = 1024;
+    private static final byte[] HEX_DIGITS = "0123456789abcdef".getBytes(US_ASCII);
+
+    private final ExpandableArrayBuffer buffer = new ExpandableArrayBuffer(INITIAL_BUFFER_SIZE);
+    private final Format format;
+    private final OutputStream out;
+
+    public FixMessagePrinter(final Format format, final OutputStream out)
+    {
+        this.format = format;
+        this.out = out;
+    }
+
+    public void onMessage(
+        final FixMessageDecoder message,
+        final DirectBuffer buffer,
+        final int offset,
+        final int length,
+        final ArtioLogHeader header)
+    {
+        final int lineLength = format(message, header);
+        try
+        {
+            out.write(this.buffer.byteArray(), 0, lineLength);
+        }
+        catch (final IOException e)
+        {
+            LangUtil.rethrowUnchecked(e);
+        }
+    }
+
+    /**
+     * Format a message as a line in {@link #buffer()}, including the trailing newline.
+     *
+     * @param message the message to format, positioned after its meta data as it is given to a
+     *                {@link FixMessageConsumer}.
+     * @param header the header of the message.
+     * @return the length of the line in bytes.
+     */
+    public int format(final FixMessageDecoder message, final ArtioLogHeader header)
+    {
+        final DirectBuffer body = message.buffer();
+        final int bodyLength = message.bodyLength();
+        final int bodyOffset = message.limit() + bodyHeaderLength();
+
+        if (format == Format.JSON)
+        {
+            return formatJson(message, header, body, bodyOffset, bodyLength);
+        }
+        else
+        {
+            return formatText(message, body, bodyOffset, bodyLength);
+        }
+    }
+
+    /**
+     * Gets the buffer that the last message was formatted into.
+     *
+     * @return the buffer that the last message was formatted into.
+     */
+    public DirectBuffer buffer()
+    {
+        return buffer;
+    }
+
+    private int formatText(
+        final FixMessageDecoder message, final DirectBuffer body, final int bodyOffset, final int bodyLength)
+    {
+        final ExpandableArrayBuffer buffer = this.buffer;
+        final long timestamp = message.timestamp();
+
+        int position = 0;
+        for (int padding = TIMESTAMP_WIDTH - asciiLength(timestamp); padding > 0; padding--)
+        {
+            buffer.putByte(position++, (byte)' ');
+        }
+        position += buffer.putLongAscii(position, timestamp);
+        position += buffer.putStringWithoutLengthAscii(position, ": ");
+        buffer.putBytes(position, body, bodyOffset, bodyLength);
+        position += bodyLength;
+        position += buffer.putStringWithoutLengthAscii(position, " (");
+        position += buffer.putStringWithoutLengthAscii(position, message.status().name());
+        position += buffer.putStringWithoutLengthAscii(position, ")\n");
+
+        return position;
+    }
+
+    private int formatJson(
+        final FixMessageDecoder message,
+        final ArtioLogHeader header,
+        final DirectBuffer body,
+        final int bodyOffset,
+        final int bodyLength)
+    {
+        final ExpandableArrayBuffer buffer = this.buffer;
+
+        int position = buffer.putStringWithoutLengthAscii(0, "{\"timestamp\":");
+        position += buffer.putLongAscii(position, message.timestamp());
+        position += buffer.putStringWithoutLengthAscii(position, ",\"status\":\"");
+        position += buffer.putStringWithoutLengthAscii(position, message.status().name());
+        position += buffer.putStringWithoutLengthAscii(position, "\",\"streamId\":");
+        position += buffer.putIntAscii(position, header.streamId());
+        position += buffer.putStringWithoutLengthAscii(position, ",\"fields\":[");
+
+        final int end = bodyOffset + bodyLength;
+        int fieldOffset = bodyOffset;
+        while (fieldOffset < end)
+        {
+            int separatorIndex = fieldOffset;
+            while (separatorIndex < end && body.getByte(separatorIndex) != SEPARATOR)
+            {
+                separatorIndex++;
+            }
+
+            int equalsIndex = fieldOffset;
+            while (equalsIndex < separatorIndex && body.getByte(equalsIndex) != '=')
+            {
+                equalsIndex++;
+            }
+
+            // Anything without an equals sign is printed as a value with an empty tag.
+            final boolean hasTag = equalsIndex < separatorIndex;
+            final int tagEnd = hasTag ? equalsIndex : fieldOffset;
+            final int valueOffset = hasTag ? equalsIndex + 1 : fieldOffset;
+
+            if (fieldOffset != bodyOffset)
+            {
+                buffer.putByte(position++, (byte)',');
+            }
+            buffer.putByte(position++, (byte)'[');
+            position = putJsonString(position, body, fieldOffset, tagEnd);
+            buffer.putByte(position++, (byte)',');
+            position = putJsonString(position, body, valueOffset, separatorIndex);
+            buffer.putByte(position++, (byte)']');
+
+            fieldOffset = separatorIndex + 1;
+        }
+
+        position += buffer.putStringWithoutLengthAscii(position, "]}\n");
+
+        return position;
+    }
+
+    private int putJsonString(final int startPosition, final DirectBuffer src, final int start, final int end)
+    {
+        final ExpandableArrayBuffer buffer = this.buffer;
+        int position = startPosition;
+        buffer.putByte(position++, (byte)'"');
+        for (int i = start; i < end; i++)
+        {
+            final byte value = src.getByte(i);
+            if (value == '"' || value == '\\')
+            {
+                buffer.putByte(position++, (byte)'\\');
+                buffer.putByte(position++, value);
+            }
+            else if (value < ' ' || value == 0x7F)
+            {
+                // Includes bytes >= 0x80, which are negative, they're printed as Latin-1 characters.
+                final int unsigned = value & 0xFF;
+                position += buffer.putStringWithoutLengthAscii(position, "\\u00");
+                buffer.putByte(position++, HEX_DIGITS[unsigned >>> 4]);
+                buffer.putByte(position++, HEX_DIGITS[unsigned & 0xF]);
+            }
+            else
+            {
+                buffer.putByte(position++, value);
+            }
+        }
+        buffer.putByte(position++, (byte)'"');
+        return position;
+    }
+
+    private static int asciiLength(final long value)
+    {
+        int length = value < 0 ? 2 : 1;
+        long remaining = value / 10;
+        while (remaining != 0)
+        {
+            length++;
+            remaining /= 10;
+        }
+        return length;
+    }
+}
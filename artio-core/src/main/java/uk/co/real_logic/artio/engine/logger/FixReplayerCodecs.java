@@ -26,6 +26,7 @@ class FixReplayerCodecs
     private final AbstractResendRequestDecoder resendRequest;
     private final UtcTimestampEncoder timestampEncoder;
     private final EpochNanoClock nanoClock;
+    private final boolean canRejectThrottledMessages;
     private GapFillEncoder gapFillEncoder;
 
     FixReplayerCodecs(
@@ -37,6 +38,7 @@ class FixReplayerCodecs
         this.timestampEncoder = timestampEncoder;
         this.nanoClock = nanoClock;
         resendRequest = dictionary.makeResendRequestDecoder();
+        canRejectThrottledMessages = dictionary.makeBusinessMessageRejectEncoder() != null;
     }
 
     AbstractResendRequestDecoder resendRequest()
@@ -63,4 +65,9 @@ class FixReplayerCodecs
     {
         return dictionary;
     }
+
+    boolean canRejectThrottledMessages()
+    {
+        return canRejectThrottledMessages;
+    }
 }
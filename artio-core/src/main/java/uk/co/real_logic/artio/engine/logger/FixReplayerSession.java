@@ -49,6 +49,7 @@ import static uk.co.real_logic.artio.engine.framer.SenderEndPoint.NOT_LAST_REPLA
 import static uk.co.real_logic.artio.engine.logger.Replayer.MESSAGE_FRAME_BLOCK_LENGTH;
 import static uk.co.real_logic.artio.messages.FixMessageDecoder.metaDataHeaderLength;
 import static uk.co.real_logic.artio.messages.FixMessageDecoder.metaDataSinceVersion;
+import static uk.co.real_logic.artio.messages.FixMessageDecoder.tagOffsetsHeaderLength;
 
 class FixReplayerSession extends ReplayerSession
 {
@@ -211,7 +212,9 @@ class FixReplayerSession extends ReplayerSession
                 metaDataHeaderLength() + FIX_MESSAGE.metaDataLength() : 0;
             final int messageFrameBlockLength = MESSAGE_FRAME_BLOCK_LENGTH + metaDataAdjustment;
             final int messageOffset = srcOffset + messageFrameBlockLength;
-            final int messageLength = srcLength - messageFrameBlockLength;
+            // The frame continues after the body with its tagOffsets
+            FIX_MESSAGE.skipMetaData();
+            final int messageLength = FIX_MESSAGE.bodyLength();
 
             final int msgSeqNum = sequenceNumberExtractor.extract(srcBuffer, messageOffset, messageLength);
             final long messageType = MessageTypeExtractor.getMessageType(FIX_MESSAGE);
@@ -308,6 +311,9 @@ class FixReplayerSession extends ReplayerSession
                 srcBuffer,
                 businessRejectRefIDOffset,
                 THROTTLE_REJECT.businessRejectRefIDLength(),
+                THROTTLE_REJECT.throttleWindowInMs(),
+                THROTTLE_REJECT.throttleLimitOfMessages(),
+                THROTTLE_REJECT.burstLimitOfMessages(),
                 true);
 
             final Action action = sendFixMessage(
@@ -346,7 +352,7 @@ class FixReplayerSession extends ReplayerSession
         final int sequenceNumber)
     {
         if (claimBuffer(
-            MESSAGE_FRAME_BLOCK_LENGTH + fixLength + metaDataHeaderLength(), fixLength))
+            MESSAGE_FRAME_BLOCK_LENGTH + fixLength + metaDataHeaderLength() + tagOffsetsHeaderLength(), fixLength))
         {
             final int destOffset = bufferClaim.offset();
             final MutableDirectBuffer destBuffer = bufferClaim.buffer();
@@ -362,7 +368,8 @@ class FixReplayerSession extends ReplayerSession
                 .sequenceNumber(sequenceNumber)
                 .messageType(messageType)
                 .putMetaData(NO_BYTES, 0, 0)
-                .putBody(fixBuffer, fixOffset, fixLength);
+                .putBody(fixBuffer, fixOffset, fixLength)
+                .putTagOffsets(NO_BYTES, 0, 0);
 
             bufferClaim.commit();
 
@@ -44,7 +44,7 @@ class GapFillEncoder
 
     void setupMessage(final SessionHeaderDecoder requestHeader)
     {
-        HeaderSetup.setup(requestHeader, sequenceResetEncoder.header());
+        HeaderSetup.setupCached(requestHeader, sequenceResetEncoder.header());
     }
 
     MutableAsciiBuffer buffer()
@@ -24,6 +24,8 @@ import io.aeron.logbuffer.FragmentHandler;
 import io.aeron.logbuffer.Header;
 import org.agrona.DirectBuffer;
 import org.agrona.ErrorHandler;
+import org.agrona.collections.Long2ObjectHashMap;
+import org.agrona.collections.LongArrayList;
 import org.agrona.concurrent.Agent;
 import org.agrona.concurrent.AgentInvoker;
 import org.agrona.concurrent.IdleStrategy;
@@ -34,6 +36,7 @@ import uk.co.real_logic.artio.dictionary.generation.Exceptions;
 import uk.co.real_logic.artio.engine.CompletionPosition;
 import uk.co.real_logic.artio.util.CharFormatter;
 
+import java.util.ArrayList;
 import java.util.List;
 
 import static io.aeron.CommonContext.IPC_CHANNEL;
@@ -97,56 +100,27 @@ public class Indexer implements Agent, ControlledFragmentHandler
         final IdleStrategy idleStrategy = CommonConfiguration.backoffIdleStrategy();
         final AgentInvoker aeronInvoker = aeronArchive.context().aeron().conductorAgentInvoker();
 
+        // Indices usually stop at similar positions within the same recordings, so replay each recording once
+        // for all of them rather than once per index.
+        final Long2ObjectHashMap<CatchupRecording> recordings = new Long2ObjectHashMap<>();
         for (int i = 0, size = indices.size(); i < size; i++)
         {
             final Index index = indices.get(i);
 
             index.readLastPosition((aeronSessionId, recordingId, indexStoppedPosition) ->
+                recordings.computeIfAbsent(recordingId, CatchupRecording::new).add(index, indexStoppedPosition));
+        }
+
+        for (final CatchupRecording recording : recordings.values())
+        {
+            try
             {
-                try
-                {
-                    final long recordingStoppedPosition = aeronArchive.getStopPosition(recordingId);
-                    if (recordingStoppedPosition > indexStoppedPosition)
-                    {
-                        DebugLogger.log(
-                            LogTag.INDEX,
-                            catchupFormatter,
-                            index.getName(),
-                            recordingId,
-                            recordingStoppedPosition,
-                            indexStoppedPosition);
-
-                        final long length = recordingStoppedPosition - indexStoppedPosition;
-                        try (Subscription subscription = aeronArchive.replay(
-                            recordingId, indexStoppedPosition, length, IPC_CHANNEL, archiveReplayStream))
-                        {
-                            // Only do 1 replay at a time
-                            while (subscription.imageCount() != 1)
-                            {
-                                idle(idleStrategy, aeronInvoker, 0);
-                                aeronArchive.checkForErrorResponse();
-                            }
-                            idleStrategy.reset();
-
-                            final Image replayImage = subscription.imageAtIndex(0);
-
-                            final FragmentHandler handler = (buffer, offset, srcLength, header) ->
-                                index.onCatchup(buffer, offset, srcLength, header, recordingId);
-
-                            while (replayImage.position() < recordingStoppedPosition)
-                            {
-                                final int workCount = replayImage.poll(handler, LIMIT);
-                                idle(idleStrategy, aeronInvoker, workCount);
-                            }
-                            idleStrategy.reset();
-                        }
-                    }
-                }
-                catch (final ArchiveException ex)
-                {
-                    errorHandler.onError(ex);
-                }
-            });
+                recording.catchup(aeronArchive, idleStrategy, aeronInvoker);
+            }
+            catch (final ArchiveException ex)
+            {
+                errorHandler.onError(ex);
+            }
         }
     }
 
@@ -224,4 +198,79 @@ public class Indexer implements Agent, ControlledFragmentHandler
     {
         return agentNamePrefix + "Indexer";
     }
+
+    private final class CatchupRecording implements FragmentHandler
+    {
+        private final long recordingId;
+        private final List<Index> indices = new ArrayList<>();
+        private final LongArrayList indexStoppedPositions = new LongArrayList();
+        private long minIndexStoppedPosition = Long.MAX_VALUE;
+
+        CatchupRecording(final long recordingId)
+        {
+            this.recordingId = recordingId;
+        }
+
+        void add(final Index index, final long indexStoppedPosition)
+        {
+            indices.add(index);
+            indexStoppedPositions.addLong(indexStoppedPosition);
+            minIndexStoppedPosition = Math.min(minIndexStoppedPosition, indexStoppedPosition);
+        }
+
+        void catchup(final AeronArchive aeronArchive, final IdleStrategy idleStrategy, final AgentInvoker aeronInvoker)
+        {
+            final long recordingStoppedPosition = aeronArchive.getStopPosition(recordingId);
+            if (recordingStoppedPosition <= minIndexStoppedPosition)
+            {
+                return;
+            }
+
+            for (int i = 0, size = indices.size(); i < size; i++)
+            {
+                DebugLogger.log(
+                    LogTag.INDEX,
+                    catchupFormatter,
+                    indices.get(i).getName(),
+                    recordingId,
+                    recordingStoppedPosition,
+                    indexStoppedPositions.getLong(i));
+            }
+
+            final long length = recordingStoppedPosition - minIndexStoppedPosition;
+            try (Subscription subscription = aeronArchive.replay(
+                recordingId, minIndexStoppedPosition, length, IPC_CHANNEL, archiveReplayStream))
+            {
+                // Only do 1 replay at a time
+                while (subscription.imageCount() != 1)
+                {
+                    idle(idleStrategy, aeronInvoker, 0);
+                    aeronArchive.checkForErrorResponse();
+                }
+                idleStrategy.reset();
+
+                final Image replayImage = subscription.imageAtIndex(0);
+
+                while (replayImage.position() < recordingStoppedPosition)
+                {
+                    final int workCount = replayImage.poll(this, LIMIT);
+                    idle(idleStrategy, aeronInvoker, workCount);
+                }
+                idleStrategy.reset();
+            }
+        }
+
+        public void onFragment(final DirectBuffer buffer, final int offset, final int length, final Header header)
+        {
+            final long endPosition = header.position();
+            for (int i = 0, size = indices.size(); i < size; i++)
+            {
+                // Skip fragments that this index had already indexed before it stopped.
+                if (endPosition > indexStoppedPositions.getLong(i))
+                {
+                    indices.get(i).onCatchup(buffer, offset, length, header, recordingId);
+                }
+            }
+        }
+    }
 }
@@ -17,6 +17,7 @@ package uk.co.real_logic.artio.engine.logger;
 
 import io.aeron.logbuffer.Header;
 import org.agrona.BitUtil;
+import org.agrona.CloseHelper;
 import org.agrona.DirectBuffer;
 import org.agrona.ErrorHandler;
 import org.agrona.IoUtil;
@@ -25,6 +26,7 @@ import org.agrona.collections.Long2ObjectHashMap;
 import org.agrona.concurrent.AtomicBuffer;
 import org.agrona.concurrent.UnsafeBuffer;
 import uk.co.real_logic.artio.dictionary.generation.Exceptions;
+import uk.co.real_logic.artio.engine.MappedFile;
 import uk.co.real_logic.artio.engine.SequenceNumberExtractor;
 import uk.co.real_logic.artio.messages.*;
 import uk.co.real_logic.artio.storage.messages.ReplayIndexRecordEncoder;
@@ -88,6 +90,10 @@ public class ReplayIndex implements Index, RedactHandler
     private final RecordingIdLookup recordingIdLookup;
     private final TimeIndexWriter timeIndex;
     private final SessionOwnershipTracker sessTracker;
+    // If true, the pages of index files are touched when they are mapped and each session's next segment is
+    // mapped when the first record is written into its current segment, so neither happens on the write that
+    // first needs them.
+    private final boolean preTouchSegments;
 
     public ReplayIndex(
         final SequenceNumberExtractor sequenceNumberExtractor,
@@ -107,6 +113,46 @@ public class ReplayIndex implements Index, RedactHandler
         final boolean indexChecksumEnabled,
         final ReplayEvictionHandler evictionHandler)
     {
+        this(
+            sequenceNumberExtractor,
+            logFileDir,
+            requiredStreamId,
+            indexFileCapacity,
+            indexSegmentCapacity,
+            bufferFactory,
+            positionBuffer,
+            errorHandler,
+            recordingIdLookup,
+            connectionIdToFixPSessionId,
+            fixPProtocolType,
+            reader,
+            timeIndexReplayFlushIntervalInNs,
+            sent,
+            indexChecksumEnabled,
+            evictionHandler,
+            false);
+    }
+
+    public ReplayIndex(
+        final SequenceNumberExtractor sequenceNumberExtractor,
+        final String logFileDir,
+        final int requiredStreamId,
+        final int indexFileCapacity,
+        final int indexSegmentCapacity,
+        final BufferFactory bufferFactory,
+        final AtomicBuffer positionBuffer,
+        final ErrorHandler errorHandler,
+        final RecordingIdLookup recordingIdLookup,
+        final Long2LongHashMap connectionIdToFixPSessionId,
+        final FixPProtocolType fixPProtocolType,
+        final SequenceNumberIndexReader reader,
+        final long timeIndexReplayFlushIntervalInNs,
+        final boolean sent,
+        final boolean indexChecksumEnabled,
+        final ReplayEvictionHandler evictionHandler,
+        final boolean preTouchSegments)
+    {
+        this.preTouchSegments = preTouchSegments;
         this.sequenceNumberExtractor = sequenceNumberExtractor;
         this.logFileDir = logFileDir;
         this.requiredStreamId = requiredStreamId;
@@ -193,7 +239,7 @@ public class ReplayIndex implements Index, RedactHandler
         {
             // This session isn't in the cache
             final File headerFile = replayIndexHeaderFile(sessionId);
-            if (headerFile.exists())
+            if (bufferFactory.exists(headerFile))
             {
                 final UnsafeBuffer headerBuffer = mapUnsafeBuffer(HEADER_FILE_SIZE, headerFile);
                 try
@@ -206,7 +252,7 @@ public class ReplayIndex implements Index, RedactHandler
                 }
                 finally
                 {
-                    IoUtil.unmap(headerBuffer.byteBuffer());
+                    bufferFactory.unmap(headerBuffer.byteBuffer());
                 }
             }
         }
@@ -446,7 +492,7 @@ public class ReplayIndex implements Index, RedactHandler
             // File might be present but not within the cache.
             evictionHandler.onReset(fixSessionId);
             final File replayIndexFile = replayIndexHeaderFile(fixSessionId);
-            if (replayIndexFile.exists())
+            if (bufferFactory.exists(replayIndexFile))
             {
                 deleteFile(replayIndexFile);
             }
@@ -461,7 +507,7 @@ public class ReplayIndex implements Index, RedactHandler
 
     public int doWork()
     {
-        return positionWriter.checkRecordings() + timeIndex.doWork();
+        return positionWriter.checkRecordings() + timeIndex.doWork() + bufferFactory.doWork();
     }
 
     public void close()
@@ -472,6 +518,7 @@ public class ReplayIndex implements Index, RedactHandler
         fixSessionIdToIndex.values().forEach(SessionIndex::close);
         fixSessionIdToIndex.clear();
         IoUtil.unmap(positionBuffer.byteBuffer());
+        CloseHelper.close(bufferFactory);
     }
 
     public void readLastPosition(final IndexedPositionConsumer consumer)
@@ -506,7 +553,7 @@ public class ReplayIndex implements Index, RedactHandler
             segmentBufferFiles = new File[segmentCount];
 
             headerFile = replayIndexHeaderFile(fixSessionId);
-            final boolean exists = headerFile.exists();
+            final boolean exists = bufferFactory.exists(headerFile);
             this.headerBuffer = mapUnsafeBuffer(HEADER_FILE_SIZE, headerFile);
 
             if (!exists)
@@ -551,6 +598,10 @@ public class ReplayIndex implements Index, RedactHandler
                 beginChangePosition, segmentSizeBitShift, indexFileSize);
             final UnsafeBuffer segmentBuffer = segmentBuffer(segmentIndex);
             final int offset = offsetInSegment(beginChangePosition, segmentSize);
+            if (preTouchSegments && offset == 0)
+            {
+                segmentBuffer((segmentIndex + 1) & (segmentCount - 1));
+            }
 
             replayIndexRecord
                 .wrap(segmentBuffer, offset)
@@ -598,7 +649,14 @@ public class ReplayIndex implements Index, RedactHandler
 
         public void close()
         {
-            ReplayIndexDescriptor.unmapBuffers(headerBuffer, segmentBuffers);
+            bufferFactory.unmap(headerBuffer.byteBuffer());
+            for (final UnsafeBuffer segmentBuffer : segmentBuffers)
+            {
+                if (segmentBuffer != null)
+                {
+                    bufferFactory.unmap(segmentBuffer.byteBuffer());
+                }
+            }
         }
 
         public void checkForNextSession(final boolean forNextSession)
@@ -627,7 +685,7 @@ public class ReplayIndex implements Index, RedactHandler
 
     void deleteFile(final File replayIndexFile)
     {
-        if (!replayIndexFile.delete())
+        if (!bufferFactory.delete(replayIndexFile))
         {
             errorHandler.onError(new IOException("Unable to delete replay index file: " + replayIndexFile));
         }
@@ -635,6 +693,11 @@ public class ReplayIndex implements Index, RedactHandler
 
     private UnsafeBuffer mapUnsafeBuffer(final int size, final File replayIndexFile)
     {
-        return new UnsafeBuffer(bufferFactory.map(replayIndexFile, size));
+        final UnsafeBuffer buffer = new UnsafeBuffer(bufferFactory.map(replayIndexFile, size));
+        if (preTouchSegments)
+        {
+            MappedFile.preTouch(buffer);
+        }
+        return buffer;
     }
 }
@@ -0,0 +1,219 @@
+/*
+ * Copyright 2015-2022 Real Logic Limited.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.engine.logger;
+
+import org.agrona.CloseHelper;
+import org.agrona.ErrorHandler;
+import org.agrona.IoUtil;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+
+import static uk.co.real_logic.artio.engine.logger.ReplayIndexDescriptor.HEADER_FILE_SIZE;
+
+/**
+ * A {@link BufferFactory} for the {@link ReplayIndex} that keeps a pool of zero filled replay index header and
+ * segment files. When a new session or segment needs a file, a pooled file is renamed into place rather than
+ * being created and sized. Files of sessions whose sequence numbers have been reset are deleted rather than returned
+ * to the pool, as a {@link ReplayQuery} may still have them mapped.
+ *
+ * The pool is refilled from {@link #doWork()}, one file at a time, so that creating files is spread across the
+ * duty cycles of the archiving agent rather than done when a message for a new session is indexed.
+ */
+public final class ReplayIndexFilePool implements BufferFactory
+{
+    private static final String POOL_FILE_PREFIX = "replay-index-pool-";
+
+    private final ArrayDeque<File> headerFiles = new ArrayDeque<>();
+    private final ArrayDeque<File> segmentFiles = new ArrayDeque<>();
+    private final ArrayDeque<File> leftoverHeaderFiles = new ArrayDeque<>();
+    private final ArrayDeque<File> leftoverSegmentFiles = new ArrayDeque<>();
+
+    private final File logFileDir;
+    private final String filePrefix;
+    private final int segmentSize;
+    private final int poolSize;
+    private final ErrorHandler errorHandler;
+
+    private long nextFileId;
+
+    /**
+     * Create a pool.
+     *
+     * @param logFileDir the directory that the replay index files are in.
+     * @param streamId the stream id of the replay index.
+     * @param segmentSize the size of a replay index segment file in bytes.
+     * @param poolSize the number of header files and the number of segment files to keep in the pool.
+     * @param errorHandler the handler for errors creating or deleting files.
+     */
+    public ReplayIndexFilePool(
+        final String logFileDir,
+        final int streamId,
+        final int segmentSize,
+        final int poolSize,
+        final ErrorHandler errorHandler)
+    {
+        this.logFileDir = new File(logFileDir);
+        this.filePrefix = POOL_FILE_PREFIX + streamId + "-";
+        this.segmentSize = segmentSize;
+        this.poolSize = poolSize;
+        this.errorHandler = errorHandler;
+
+        IoUtil.ensureDirectoryExists(this.logFileDir, logFileDir);
+        reuseFilesFromPreviousRun();
+    }
+
+    // Files left by a previous run may not have been completely zeroed, so they're zeroed again before being pooled.
+    // Pooled files are never mapped, so nothing else can be reading them.
+    private void reuseFilesFromPreviousRun()
+    {
+        final File[] files = logFileDir.listFiles((dir, name) -> name.startsWith(filePrefix));
+        if (files == null)
+        {
+            return;
+        }
+
+        for (final File file : files)
+        {
+            try
+            {
+                final long fileId = Long.parseLong(file.getName().substring(filePrefix.length()));
+                nextFileId = Math.max(nextFileId, fileId + 1);
+            }
+            catch (final NumberFormatException e)
+            {
+                continue;
+            }
+
+            if (!addLeftoverFile(file))
+            {
+                deleteFile(file);
+            }
+        }
+    }
+
+    public ByteBuffer map(final File file, final int size)
+    {
+        final ArrayDeque<File> pool = pool(size);
+        if (pool != null && !file.exists())
+        {
+            final File pooledFile = pool.pollFirst();
+            if (pooledFile != null)
+            {
+                if (pooledFile.renameTo(file))
+                {
+                    return LoggerUtil.mapExistingFile(file);
+                }
+
+                errorHandler.onError(new IOException(
+                    "Unable to rename pooled replay index file: " + pooledFile + " to " + file));
+            }
+        }
+
+        return LoggerUtil.map(file, size);
+    }
+
+    public int doWork()
+    {
+        File file = leftoverSegmentFiles.pollFirst();
+        if (file != null)
+        {
+            return fillWithZeros(file, segmentSize, segmentFiles);
+        }
+
+        file = leftoverHeaderFiles.pollFirst();
+        if (file != null)
+        {
+            return fillWithZeros(file, HEADER_FILE_SIZE, headerFiles);
+        }
+
+        if (segmentFiles.size() < poolSize)
+        {
+            return fillWithZeros(newPoolFile(), segmentSize, segmentFiles);
+        }
+
+        if (headerFiles.size() < poolSize)
+        {
+            return fillWithZeros(newPoolFile(), HEADER_FILE_SIZE, headerFiles);
+        }
+
+        return 0;
+    }
+
+    int pooledFileCount()
+    {
+        return headerFiles.size() + segmentFiles.size();
+    }
+
+    private boolean addLeftoverFile(final File file)
+    {
+        final long length = file.length();
+        if (length == segmentSize && leftoverSegmentFiles.size() < poolSize)
+        {
+            leftoverSegmentFiles.addLast(file);
+            return true;
+        }
+
+        if (length == HEADER_FILE_SIZE && leftoverHeaderFiles.size() < poolSize)
+        {
+            leftoverHeaderFiles.addLast(file);
+            return true;
+        }
+
+        return false;
+    }
+
+    private ArrayDeque<File> pool(final int size)
+    {
+        if (size == segmentSize)
+        {
+            return segmentFiles;
+        }
+
+        return size == HEADER_FILE_SIZE ? headerFiles : null;
+    }
+
+    private File newPoolFile()
+    {
+        return new File(logFileDir, filePrefix + nextFileId++);
+    }
+
+    private int fillWithZeros(final File file, final int size, final ArrayDeque<File> pool)
+    {
+        try
+        {
+            CloseHelper.close(IoUtil.createEmptyFile(file, size, true));
+            pool.addLast(file);
+        }
+        catch (final RuntimeException e)
+        {
+            errorHandler.onError(e);
+            deleteFile(file);
+        }
+
+        return 1;
+    }
+
+    private void deleteFile(final File file)
+    {
+        if (file.exists() && !file.delete())
+        {
+            errorHandler.onError(new IOException("Unable to delete pooled replay index file: " + file));
+        }
+    }
+}
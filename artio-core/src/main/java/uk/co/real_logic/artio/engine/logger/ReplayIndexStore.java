@@ -0,0 +1,282 @@
+/*
+ * Copyright 2015-2022 Real Logic Limited.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.engine.logger;
+
+import org.agrona.BitUtil;
+import org.agrona.CloseHelper;
+import org.agrona.IoUtil;
+import org.agrona.LangUtil;
+import org.agrona.collections.Int2IntHashMap;
+import org.agrona.collections.Int2ObjectHashMap;
+import org.agrona.collections.IntArrayList;
+import org.agrona.collections.Long2ObjectHashMap;
+import org.agrona.concurrent.UnsafeBuffer;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+
+import static java.nio.file.StandardOpenOption.*;
+import static uk.co.real_logic.artio.engine.logger.ReplayIndexStoreDescriptor.*;
+
+/**
+ * A {@link BufferFactory} for the {@link ReplayIndex} that stores the header and segments of every session's index
+ * as regions of a single data file, rather than as a header file and segment files per session. The regions are
+ * appended to the data file as they're first needed and a fixed capacity directory file maps each session's header
+ * and segments to their region. Use a {@link ReplayIndexStoreReader} to query the index.
+ *
+ * This means that an engine with many sessions has two files per stream rather than thousands, so starting up and
+ * listing the sessions in the index reads the directory rather than the file system. The data file is mapped in a few
+ * large chunks that the regions are sliced from, rather than mapping every region separately.
+ *
+ * When a session's sequence numbers are reset its entries are marked as no longer live and kept on a free list by
+ * region length. A {@link ReplayQuery} may still have their regions mapped, so a free entry is only reused, and its
+ * region zeroed, once no {@link ReplayIndexStoreReader} has it mapped. Until then new regions are appended to the end
+ * of the data file. This keeps the data file's size bounded by the number of regions in use at once, rather than
+ * growing with every reset. Readers of a previous run of the engine are assumed to have gone away when a store is
+ * reopened.
+ */
+public final class ReplayIndexStore implements BufferFactory
+{
+    private final Long2ObjectHashMap<Int2IntHashMap> sessionIdToEntries = new Long2ObjectHashMap<>();
+    private final Int2ObjectHashMap<IntArrayList> lengthToFreeEntries = new Int2ObjectHashMap<>();
+    private final IndexFileName fileName;
+    private final File dataFile;
+    private final FileChannel dataChannel;
+    private final UnsafeBuffer directory;
+    private final MappedChunks chunks;
+    private final int capacity;
+    private final int chunkLength;
+
+    private int entryCount;
+    private long dataLength;
+
+    /**
+     * Create or reopen a store.
+     *
+     * @param logFileDir the directory that the replay index files are in.
+     * @param streamId the stream id of the replay index.
+     * @param directoryCapacity the maximum number of headers and segments that the store can hold, ignored if the
+     *                          store already exists.
+     */
+    public ReplayIndexStore(final String logFileDir, final int streamId, final int directoryCapacity)
+    {
+        fileName = new IndexFileName(streamId);
+        dataFile = ReplayIndexStoreDescriptor.dataFile(logFileDir, streamId);
+        IoUtil.ensureDirectoryExists(dataFile.getParentFile(), logFileDir);
+
+        // The data file is opened first as readers take the directory's existence to mean that the store exists
+        FileChannel dataChannel = null;
+        try
+        {
+            dataChannel = FileChannel.open(dataFile.toPath(), CREATE, READ, WRITE);
+        }
+        catch (final IOException e)
+        {
+            LangUtil.rethrowUnchecked(e);
+        }
+        this.dataChannel = dataChannel;
+
+        final File directoryFile = ReplayIndexStoreDescriptor.directoryFile(logFileDir, streamId);
+        final boolean exists = directoryFile.exists();
+        directory = new UnsafeBuffer(exists ?
+            LoggerUtil.mapExistingFile(directoryFile) :
+            LoggerUtil.mapNewFile(directoryFile, directoryFileSize(directoryCapacity)));
+
+        if (exists)
+        {
+            loadDirectory();
+        }
+        else
+        {
+            ReplayIndexStoreDescriptor.capacity(directory, directoryCapacity);
+            ReplayIndexStoreDescriptor.chunkLength(directory, DEFAULT_CHUNK_LENGTH);
+        }
+        capacity = ReplayIndexStoreDescriptor.capacity(directory);
+        chunkLength = ReplayIndexStoreDescriptor.chunkLength(directory);
+        chunks = new MappedChunks(dataChannel, chunkLength);
+    }
+
+    private void loadDirectory()
+    {
+        final UnsafeBuffer directory = this.directory;
+        final int entryCount = entryCountVolatile(directory);
+        for (int entry = 0; entry < entryCount; entry++)
+        {
+            mappedCount(directory, entry, 0);
+            if (liveVolatile(directory, entry))
+            {
+                putEntryIndex(sessionIdToEntries, fixSessionId(directory, entry), fileIndex(directory, entry), entry);
+            }
+            else
+            {
+                freeEntries(length(directory, entry)).addInt(entry);
+            }
+
+            final int alignedLength = BitUtil.align(length(directory, entry), REGION_ALIGNMENT);
+            dataLength = Math.max(dataLength, dataOffset(directory, entry) + alignedLength);
+        }
+        this.entryCount = entryCount;
+    }
+
+    public ByteBuffer map(final File file, final int size)
+    {
+        if (!fileName.parse(file))
+        {
+            return LoggerUtil.map(file, size);
+        }
+
+        final UnsafeBuffer directory = this.directory;
+        final int entry = entryIndex(sessionIdToEntries, fileName.fixSessionId, fileName.fileIndex);
+        if (entry == MISSING_ENTRY)
+        {
+            return newRegion(file, size);
+        }
+
+        final int length = length(directory, entry);
+        if (length != size)
+        {
+            throw new IllegalArgumentException("Invalid size for " + file + " in replay index store " + dataFile +
+                ": size=" + size + ", length=" + length);
+        }
+
+        return chunks.region(dataOffset(directory, entry), length);
+    }
+
+    private long appendRegion(final int size)
+    {
+        final long dataOffset = regionOffset(dataLength, size, chunkLength);
+        dataLength = dataOffset + BitUtil.align(size, REGION_ALIGNMENT);
+        return dataOffset;
+    }
+
+    private ByteBuffer newRegion(final File file, final int size)
+    {
+        final int freeEntry = takeFreeEntry(size);
+        if (freeEntry != MISSING_ENTRY)
+        {
+            final long dataOffset = dataOffset(directory, freeEntry);
+            final ByteBuffer buffer = chunks.region(dataOffset, size);
+            new UnsafeBuffer(buffer).setMemory(0, size, (byte)0);
+
+            putEntry(directory, freeEntry, fileName.fixSessionId, fileName.fileIndex, size, dataOffset);
+            liveOrdered(directory, freeEntry, true);
+            putEntryIndex(sessionIdToEntries, fileName.fixSessionId, fileName.fileIndex, freeEntry);
+            return buffer;
+        }
+
+        final int entry = entryCount;
+        if (entry == capacity)
+        {
+            throw new IllegalStateException("Unable to add " + file + " to replay index store " + dataFile +
+                ", directory is full: capacity=" + capacity);
+        }
+
+        final long dataOffset = appendRegion(size);
+        final ByteBuffer buffer = chunks.region(dataOffset, size);
+
+        putEntry(directory, entry, fileName.fixSessionId, fileName.fileIndex, size, dataOffset);
+        liveOrdered(directory, entry, true);
+        putEntryIndex(sessionIdToEntries, fileName.fixSessionId, fileName.fileIndex, entry);
+        entryCount = entry + 1;
+        entryCountOrdered(directory, entryCount);
+
+        return buffer;
+    }
+
+    public boolean exists(final File file)
+    {
+        if (!fileName.parse(file))
+        {
+            return file.exists();
+        }
+
+        final int entry = entryIndex(sessionIdToEntries, fileName.fixSessionId, fileName.fileIndex);
+        return entry != MISSING_ENTRY && liveVolatile(directory, entry);
+    }
+
+    public boolean delete(final File file)
+    {
+        if (!fileName.parse(file))
+        {
+            return file.delete();
+        }
+
+        final int entry = entryIndex(sessionIdToEntries, fileName.fixSessionId, fileName.fileIndex);
+        if (entry != MISSING_ENTRY)
+        {
+            removeEntryIndex(sessionIdToEntries, fileName.fixSessionId, fileName.fileIndex);
+            // Volatile so that the entry isn't reused if a reader has mapped it, see ReplayIndexStoreDescriptor
+            putLiveVolatile(directory, entry, false);
+            freeEntries(length(directory, entry)).addInt(entry);
+        }
+        return true;
+    }
+
+    // Returns a free entry of the given length that no reader has mapped, or MISSING_ENTRY if there isn't one.
+    private int takeFreeEntry(final int length)
+    {
+        final IntArrayList freeEntries = lengthToFreeEntries.get(length);
+        if (freeEntries != null)
+        {
+            for (int i = 0, size = freeEntries.size(); i < size; i++)
+            {
+                final int entry = freeEntries.getInt(i);
+                if (mappedCountVolatile(directory, entry) == 0)
+                {
+                    freeEntries.fastUnorderedRemove(i);
+                    return entry;
+                }
+            }
+        }
+
+        return MISSING_ENTRY;
+    }
+
+    private IntArrayList freeEntries(final int length)
+    {
+        IntArrayList freeEntries = lengthToFreeEntries.get(length);
+        if (freeEntries == null)
+        {
+            freeEntries = new IntArrayList();
+            lengthToFreeEntries.put(length, freeEntries);
+        }
+        return freeEntries;
+    }
+
+    public void unmap(final ByteBuffer buffer)
+    {
+        chunks.unmap(buffer);
+    }
+
+    public void close()
+    {
+        chunks.close();
+        CloseHelper.close(dataChannel);
+        IoUtil.unmap(directory.byteBuffer());
+    }
+
+    int entryCount()
+    {
+        return entryCount;
+    }
+
+    long dataLength()
+    {
+        return dataLength;
+    }
+}
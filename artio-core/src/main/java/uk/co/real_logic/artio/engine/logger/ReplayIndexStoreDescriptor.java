@@ -0,0 +1,404 @@
+/*
+ * Copyright 2015-2022 Real Logic Limited.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.engine.logger;
+
+import org.agrona.BitUtil;
+import org.agrona.IoUtil;
+import org.agrona.LangUtil;
+import org.agrona.collections.Int2IntHashMap;
+import org.agrona.collections.Long2ObjectHashMap;
+import org.agrona.concurrent.AtomicBuffer;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+import static java.nio.channels.FileChannel.MapMode.READ_WRITE;
+
+/**
+ * Describes the layout of the consolidated replay index store, see {@link ReplayIndexStore}.
+ *
+ * Directory File Consists of:
+ *
+ * Entry count
+ * Entry capacity
+ * Chunk length
+ * Multiple entries, each of: fix session id, file index, region length, region offset in data file, live flag,
+ * the number of readers that have the region mapped
+ *
+ * The data file is the regions appended one after another, each aligned to {@link #REGION_ALIGNMENT}. The data file is
+ * mapped in chunks of the chunk length and regions are handed out as slices of their chunk, so a region never
+ * straddles two chunks. Regions that are longer than a chunk start at a chunk boundary and are mapped on their own.
+ *
+ * An entry that isn't live and isn't mapped by any reader can be reused, along with its region, for a header or
+ * segment of the same length. A reader increments the mapped count of an entry before checking that the entry is live
+ * and the writer marks an entry as not live before checking its mapped count, so they can't both proceed.
+ */
+final class ReplayIndexStoreDescriptor
+{
+    static final int HEADER_FILE_INDEX = -1;
+    static final int MISSING_ENTRY = -1;
+
+    static final int REGION_ALIGNMENT = BitUtil.CACHE_LINE_LENGTH;
+    static final int DEFAULT_CHUNK_LENGTH = 64 * 1024 * 1024;
+
+    private static final int ENTRY_COUNT_OFFSET = 0;
+    private static final int CAPACITY_OFFSET = ENTRY_COUNT_OFFSET + BitUtil.SIZE_OF_INT;
+    private static final int CHUNK_LENGTH_OFFSET = CAPACITY_OFFSET + BitUtil.SIZE_OF_INT;
+    private static final int DIRECTORY_HEADER_LENGTH = BitUtil.CACHE_LINE_LENGTH;
+
+    private static final int SESSION_ID_OFFSET = 0;
+    private static final int FILE_INDEX_OFFSET = SESSION_ID_OFFSET + BitUtil.SIZE_OF_LONG;
+    private static final int LENGTH_OFFSET = FILE_INDEX_OFFSET + BitUtil.SIZE_OF_INT;
+    private static final int DATA_OFFSET_OFFSET = LENGTH_OFFSET + BitUtil.SIZE_OF_INT;
+    private static final int LIVE_OFFSET = DATA_OFFSET_OFFSET + BitUtil.SIZE_OF_LONG;
+    private static final int MAPPED_COUNT_OFFSET = LIVE_OFFSET + BitUtil.SIZE_OF_INT;
+    private static final int ENTRY_LENGTH = 32;
+
+    // See ReplayIndexDescriptor.replayIndexHeaderFile() and replayIndexSegmentFile()
+    private static final String INDEX_FILE_PREFIX = "replay-index-";
+    private static final String HEADER_FILE_SUFFIX = "header";
+
+    private ReplayIndexStoreDescriptor()
+    {
+    }
+
+    static File dataFile(final String logFileDir, final int streamId)
+    {
+        return new File(logFileDir + File.separator + "replay-index-store-" + streamId);
+    }
+
+    static File directoryFile(final String logFileDir, final int streamId)
+    {
+        return new File(logFileDir + File.separator + "replay-index-store-" + streamId + "-directory");
+    }
+
+    static int directoryFileSize(final int capacity)
+    {
+        return DIRECTORY_HEADER_LENGTH + capacity * ENTRY_LENGTH;
+    }
+
+    static MappedByteBuffer mapRegion(final FileChannel dataChannel, final long offset, final int length)
+    {
+        try
+        {
+            return dataChannel.map(READ_WRITE, offset, length);
+        }
+        catch (final IOException e)
+        {
+            LangUtil.rethrowUnchecked(e);
+            return null;
+        }
+    }
+
+    /**
+     * Find the offset in the data file of a new region, so that it doesn't straddle two chunks.
+     *
+     * @param dataLength the length of the regions that have already been appended to the data file.
+     * @param length the length of the new region.
+     * @param chunkLength the chunk length of the store, 0 if every region is mapped on its own.
+     * @return the offset of the new region.
+     */
+    static long regionOffset(final long dataLength, final int length, final int chunkLength)
+    {
+        if (chunkLength == 0)
+        {
+            return dataLength;
+        }
+
+        final long offsetInChunk = dataLength % chunkLength;
+        if (offsetInChunk == 0 || offsetInChunk + length <= chunkLength)
+        {
+            return dataLength;
+        }
+
+        return dataLength - offsetInChunk + chunkLength;
+    }
+
+    static int entryCountVolatile(final AtomicBuffer directory)
+    {
+        return directory.getIntVolatile(ENTRY_COUNT_OFFSET);
+    }
+
+    static void entryCountOrdered(final AtomicBuffer directory, final int entryCount)
+    {
+        directory.putIntOrdered(ENTRY_COUNT_OFFSET, entryCount);
+    }
+
+    static int capacity(final AtomicBuffer directory)
+    {
+        return directory.getInt(CAPACITY_OFFSET);
+    }
+
+    static void capacity(final AtomicBuffer directory, final int capacity)
+    {
+        directory.putInt(CAPACITY_OFFSET, capacity);
+    }
+
+    static int chunkLength(final AtomicBuffer directory)
+    {
+        return directory.getInt(CHUNK_LENGTH_OFFSET);
+    }
+
+    static void chunkLength(final AtomicBuffer directory, final int chunkLength)
+    {
+        directory.putInt(CHUNK_LENGTH_OFFSET, chunkLength);
+    }
+
+    static void putEntry(
+        final AtomicBuffer directory,
+        final int entry,
+        final long fixSessionId,
+        final int fileIndex,
+        final int length,
+        final long dataOffset)
+    {
+        final int offset = entryOffset(entry);
+        directory.putLong(offset + SESSION_ID_OFFSET, fixSessionId);
+        directory.putInt(offset + FILE_INDEX_OFFSET, fileIndex);
+        directory.putInt(offset + LENGTH_OFFSET, length);
+        directory.putLong(offset + DATA_OFFSET_OFFSET, dataOffset);
+    }
+
+    static long fixSessionId(final AtomicBuffer directory, final int entry)
+    {
+        return directory.getLong(entryOffset(entry) + SESSION_ID_OFFSET);
+    }
+
+    static int fileIndex(final AtomicBuffer directory, final int entry)
+    {
+        return directory.getInt(entryOffset(entry) + FILE_INDEX_OFFSET);
+    }
+
+    static int length(final AtomicBuffer directory, final int entry)
+    {
+        return directory.getInt(entryOffset(entry) + LENGTH_OFFSET);
+    }
+
+    static long dataOffset(final AtomicBuffer directory, final int entry)
+    {
+        return directory.getLong(entryOffset(entry) + DATA_OFFSET_OFFSET);
+    }
+
+    static void dataOffset(final AtomicBuffer directory, final int entry, final long dataOffset)
+    {
+        directory.putLong(entryOffset(entry) + DATA_OFFSET_OFFSET, dataOffset);
+    }
+
+    static boolean liveVolatile(final AtomicBuffer directory, final int entry)
+    {
+        return directory.getIntVolatile(entryOffset(entry) + LIVE_OFFSET) != 0;
+    }
+
+    static void liveOrdered(final AtomicBuffer directory, final int entry, final boolean live)
+    {
+        directory.putIntOrdered(entryOffset(entry) + LIVE_OFFSET, live ? 1 : 0);
+    }
+
+    static void putLiveVolatile(final AtomicBuffer directory, final int entry, final boolean live)
+    {
+        directory.putIntVolatile(entryOffset(entry) + LIVE_OFFSET, live ? 1 : 0);
+    }
+
+    static int mappedCountVolatile(final AtomicBuffer directory, final int entry)
+    {
+        return directory.getIntVolatile(entryOffset(entry) + MAPPED_COUNT_OFFSET);
+    }
+
+    static void mappedCount(final AtomicBuffer directory, final int entry, final int mappedCount)
+    {
+        directory.putInt(entryOffset(entry) + MAPPED_COUNT_OFFSET, mappedCount);
+    }
+
+    static void incrementMappedCount(final AtomicBuffer directory, final int entry)
+    {
+        directory.getAndAddInt(entryOffset(entry) + MAPPED_COUNT_OFFSET, 1);
+    }
+
+    // Doesn't go below 0, as the count is reset when the writer reopens the store
+    static void decrementMappedCount(final AtomicBuffer directory, final int entry)
+    {
+        final int offset = entryOffset(entry) + MAPPED_COUNT_OFFSET;
+        int mappedCount;
+        do
+        {
+            mappedCount = directory.getIntVolatile(offset);
+        }
+        while (mappedCount > 0 && !directory.compareAndSetInt(offset, mappedCount, mappedCount - 1));
+    }
+
+    static boolean isEntryOf(
+        final AtomicBuffer directory, final int entry, final long fixSessionId, final int fileIndex)
+    {
+        return liveVolatile(directory, entry) &&
+            fixSessionId(directory, entry) == fixSessionId &&
+            fileIndex(directory, entry) == fileIndex;
+    }
+
+    static void putEntryIndex(
+        final Long2ObjectHashMap<Int2IntHashMap> sessionIdToEntries,
+        final long fixSessionId,
+        final int fileIndex,
+        final int entry)
+    {
+        Int2IntHashMap fileIndexToEntry = sessionIdToEntries.get(fixSessionId);
+        if (fileIndexToEntry == null)
+        {
+            fileIndexToEntry = new Int2IntHashMap(MISSING_ENTRY);
+            sessionIdToEntries.put(fixSessionId, fileIndexToEntry);
+        }
+        fileIndexToEntry.put(fileIndex, entry);
+    }
+
+    static void removeEntryIndex(
+        final Long2ObjectHashMap<Int2IntHashMap> sessionIdToEntries,
+        final long fixSessionId,
+        final int fileIndex)
+    {
+        final Int2IntHashMap fileIndexToEntry = sessionIdToEntries.get(fixSessionId);
+        if (fileIndexToEntry != null)
+        {
+            fileIndexToEntry.remove(fileIndex);
+            if (fileIndexToEntry.isEmpty())
+            {
+                sessionIdToEntries.remove(fixSessionId);
+            }
+        }
+    }
+
+    static int entryIndex(
+        final Long2ObjectHashMap<Int2IntHashMap> sessionIdToEntries,
+        final long fixSessionId,
+        final int fileIndex)
+    {
+        final Int2IntHashMap fileIndexToEntry = sessionIdToEntries.get(fixSessionId);
+        return fileIndexToEntry == null ? MISSING_ENTRY : fileIndexToEntry.get(fileIndex);
+    }
+
+    private static int entryOffset(final int entry)
+    {
+        return DIRECTORY_HEADER_LENGTH + entry * ENTRY_LENGTH;
+    }
+
+    /**
+     * The chunks of the data file that have been mapped, each chunk is mapped once and shared by all of its regions.
+     */
+    static final class MappedChunks
+    {
+        private final Long2ObjectHashMap<MappedByteBuffer> chunks = new Long2ObjectHashMap<>();
+        private final FileChannel dataChannel;
+        private final int chunkLength;
+
+        MappedChunks(final FileChannel dataChannel, final int chunkLength)
+        {
+            this.dataChannel = dataChannel;
+            this.chunkLength = chunkLength;
+        }
+
+        ByteBuffer region(final long dataOffset, final int length)
+        {
+            if (length > chunkLength)
+            {
+                return mapRegion(dataChannel, dataOffset, length);
+            }
+
+            final long chunkIndex = dataOffset / chunkLength;
+            MappedByteBuffer chunk = chunks.get(chunkIndex);
+            if (chunk == null)
+            {
+                // Mapping past the end of the data file extends it with zeros
+                chunk = mapRegion(dataChannel, chunkIndex * chunkLength, chunkLength);
+                chunks.put(chunkIndex, chunk);
+            }
+
+            final int offsetInChunk = (int)(dataOffset - chunkIndex * chunkLength);
+            final ByteBuffer region = chunk.duplicate();
+            region.limit(offsetInChunk + length);
+            region.position(offsetInChunk);
+            return region.slice();
+        }
+
+        // Slices of a chunk can't be unmapped on their own, their chunk is unmapped when the store is closed
+        void unmap(final ByteBuffer region)
+        {
+            if (region.capacity() > chunkLength)
+            {
+                IoUtil.unmap(region);
+            }
+        }
+
+        void close()
+        {
+            for (final MappedByteBuffer chunk : chunks.values())
+            {
+                IoUtil.unmap(chunk);
+            }
+            chunks.clear();
+        }
+    }
+
+    /**
+     * Parses the names of the files that would be used by the per session layout of the replay index into the
+     * key of their region within the store.
+     */
+    static final class IndexFileName
+    {
+        private final int streamId;
+
+        long fixSessionId;
+        int fileIndex;
+
+        IndexFileName(final int streamId)
+        {
+            this.streamId = streamId;
+        }
+
+        boolean parse(final File file)
+        {
+            final String name = file.getName();
+            if (!name.startsWith(INDEX_FILE_PREFIX))
+            {
+                return false;
+            }
+
+            final int suffixStart = name.lastIndexOf('-');
+            final int streamIdStart = name.lastIndexOf('-', suffixStart - 1);
+            if (streamIdStart <= INDEX_FILE_PREFIX.length())
+            {
+                return false;
+            }
+
+            try
+            {
+                if (Integer.parseInt(name.substring(streamIdStart + 1, suffixStart)) != streamId)
+                {
+                    return false;
+                }
+
+                final String suffix = name.substring(suffixStart + 1);
+                fileIndex = HEADER_FILE_SUFFIX.equals(suffix) ? HEADER_FILE_INDEX : Integer.parseInt(suffix);
+                fixSessionId = Long.parseLong(name.substring(INDEX_FILE_PREFIX.length(), streamIdStart));
+                return true;
+            }
+            catch (final NumberFormatException e)
+            {
+                return false;
+            }
+        }
+    }
+}
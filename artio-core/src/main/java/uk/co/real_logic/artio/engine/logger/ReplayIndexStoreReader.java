@@ -0,0 +1,215 @@
+/*
+ * Copyright 2015-2022 Real Logic Limited.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.engine.logger;
+
+import org.agrona.CloseHelper;
+import org.agrona.IoUtil;
+import org.agrona.LangUtil;
+import org.agrona.collections.Int2IntHashMap;
+import org.agrona.collections.Long2ObjectHashMap;
+import org.agrona.collections.LongHashSet;
+import org.agrona.concurrent.UnsafeBuffer;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.WRITE;
+import static uk.co.real_logic.artio.engine.logger.ReplayIndexStoreDescriptor.*;
+
+/**
+ * An {@link ExistingBufferFactory} for the {@link ReplayQuery} that reads an index written by a
+ * {@link ReplayIndexStore}. The directory is read incrementally as the writer adds to it, so each header or segment
+ * is only looked up once. It's read again in full if an entry has been reused for another header or segment since
+ * it was read.
+ *
+ * Every region mapped by the reader is counted in the directory until it's passed to {@link #unmap(ByteBuffer)}, so
+ * that the writer doesn't reuse it while it may still be read.
+ */
+public final class ReplayIndexStoreReader implements ExistingBufferFactory
+{
+    private final Long2ObjectHashMap<Int2IntHashMap> sessionIdToEntries = new Long2ObjectHashMap<>();
+    private final Map<ByteBuffer, Integer> mappedEntries = new IdentityHashMap<>();
+    private final IndexFileName fileName;
+    private final File dataFile;
+    private final File directoryFile;
+
+    private UnsafeBuffer directory;
+    private FileChannel dataChannel;
+    private MappedChunks chunks;
+    private int readEntryCount;
+
+    /**
+     * Create a reader, the store doesn't need to exist until it is first read.
+     *
+     * @param logFileDir the directory that the replay index files are in.
+     * @param streamId the stream id of the replay index.
+     */
+    public ReplayIndexStoreReader(final String logFileDir, final int streamId)
+    {
+        fileName = new IndexFileName(streamId);
+        dataFile = ReplayIndexStoreDescriptor.dataFile(logFileDir, streamId);
+        directoryFile = ReplayIndexStoreDescriptor.directoryFile(logFileDir, streamId);
+    }
+
+    public ByteBuffer map(final File file)
+    {
+        if (!fileName.parse(file))
+        {
+            return LoggerUtil.mapExistingFile(file);
+        }
+
+        readDirectory();
+
+        int entry = acquireEntry();
+        if (entry == MISSING_ENTRY && directory != null)
+        {
+            // The entry may have been reused by the writer since the directory was read
+            sessionIdToEntries.clear();
+            readEntryCount = 0;
+            readDirectory();
+            entry = acquireEntry();
+        }
+
+        if (entry == MISSING_ENTRY)
+        {
+            throw new IllegalStateException("Missing " + file + " in replay index store " + dataFile);
+        }
+
+        final ByteBuffer region = chunks.region(dataOffset(directory, entry), length(directory, entry));
+        mappedEntries.put(region, entry);
+        return region;
+    }
+
+    // Counts the entry of the parsed file name as mapped, so the writer can't reuse it, if it's still live.
+    private int acquireEntry()
+    {
+        final int entry = entryIndex(sessionIdToEntries, fileName.fixSessionId, fileName.fileIndex);
+        if (entry == MISSING_ENTRY)
+        {
+            return MISSING_ENTRY;
+        }
+
+        final UnsafeBuffer directory = this.directory;
+        incrementMappedCount(directory, entry);
+        if (!isEntryOf(directory, entry, fileName.fixSessionId, fileName.fileIndex))
+        {
+            decrementMappedCount(directory, entry);
+            return MISSING_ENTRY;
+        }
+
+        return entry;
+    }
+
+    public LongHashSet sessionIds(final File logFileDir, final int streamId)
+    {
+        final LongHashSet sessionIds = new LongHashSet();
+        readDirectory();
+
+        final UnsafeBuffer directory = this.directory;
+        final int entryCount = readEntryCount;
+        for (int entry = 0; entry < entryCount; entry++)
+        {
+            if (fileIndex(directory, entry) == HEADER_FILE_INDEX && liveVolatile(directory, entry))
+            {
+                sessionIds.add(fixSessionId(directory, entry));
+            }
+        }
+        return sessionIds;
+    }
+
+    private void readDirectory()
+    {
+        if (directory == null)
+        {
+            if (!directoryFile.exists())
+            {
+                return;
+            }
+
+            open();
+        }
+
+        final UnsafeBuffer directory = this.directory;
+        final int entryCount = entryCountVolatile(directory);
+        for (int entry = readEntryCount; entry < entryCount; entry++)
+        {
+            if (liveVolatile(directory, entry))
+            {
+                putEntryIndex(sessionIdToEntries, fixSessionId(directory, entry), fileIndex(directory, entry), entry);
+            }
+        }
+        readEntryCount = entryCount;
+    }
+
+    private void open()
+    {
+        final UnsafeBuffer directory = new UnsafeBuffer(LoggerUtil.mapExistingFile(directoryFile));
+        try
+        {
+            dataChannel = FileChannel.open(dataFile.toPath(), READ, WRITE);
+        }
+        catch (final IOException e)
+        {
+            IoUtil.unmap(directory.byteBuffer());
+            LangUtil.rethrowUnchecked(e);
+        }
+        this.directory = directory;
+        chunks = new MappedChunks(dataChannel, chunkLength(directory));
+    }
+
+    public void unmap(final ByteBuffer buffer)
+    {
+        final Integer entry = mappedEntries.remove(buffer);
+        if (entry != null)
+        {
+            decrementMappedCount(directory, entry);
+            chunks.unmap(buffer);
+        }
+        else
+        {
+            IoUtil.unmap(buffer);
+        }
+    }
+
+    public void close()
+    {
+        if (directory != null)
+        {
+            for (final Integer entry : mappedEntries.values())
+            {
+                decrementMappedCount(directory, entry);
+            }
+        }
+        mappedEntries.clear();
+
+        if (chunks != null)
+        {
+            chunks.close();
+            chunks = null;
+        }
+        CloseHelper.close(dataChannel);
+        if (directory != null)
+        {
+            IoUtil.unmap(directory.byteBuffer());
+            directory = null;
+        }
+    }
+}
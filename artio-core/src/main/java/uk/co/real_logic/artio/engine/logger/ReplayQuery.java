@@ -19,7 +19,6 @@ import io.aeron.Subscription;
 import io.aeron.archive.client.AeronArchive;
 import org.agrona.CloseHelper;
 import org.agrona.ErrorHandler;
-import org.agrona.IoUtil;
 import org.agrona.collections.Long2LongHashMap;
 import org.agrona.collections.Long2ObjectCache;
 import org.agrona.collections.Long2ObjectHashMap;
@@ -133,7 +132,7 @@ public class ReplayQuery implements AutoCloseable
 
     public void queryStartPositions(final Long2LongHashMap newStartPositions)
     {
-        final LongHashSet allSessionIds = listReplayIndexSessionIds(logFileDirFile, requiredStreamId);
+        final LongHashSet allSessionIds = indexBufferFactory.sessionIds(logFileDirFile, requiredStreamId);
 
         // Run over existing session queries first in order to minimise cache evictions then reloads.
         for (final SessionQuery query : fixSessionToIndex.values())
@@ -161,6 +160,7 @@ public class ReplayQuery implements AutoCloseable
         fixSessionToIndex.clear();
 
         CloseHelper.close(replaySubscription);
+        CloseHelper.close(indexBufferFactory);
     }
 
     public void onReset(final long fixSessionId)
@@ -467,12 +467,12 @@ public class ReplayQuery implements AutoCloseable
 
         public void close()
         {
-            IoUtil.unmap(headerBuffer.byteBuffer());
+            indexBufferFactory.unmap(headerBuffer.byteBuffer());
             for (final UnsafeBuffer segmentBuffer : segmentBuffers)
             {
                 if (segmentBuffer != null)
                 {
-                    IoUtil.unmap(segmentBuffer.byteBuffer());
+                    indexBufferFactory.unmap(segmentBuffer.byteBuffer());
                 }
             }
         }
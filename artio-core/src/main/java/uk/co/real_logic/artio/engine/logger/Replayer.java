@@ -49,7 +49,6 @@ import java.util.Set;
 import static io.aeron.logbuffer.ControlledFragmentHandler.Action.*;
 import static uk.co.real_logic.artio.DebugLogger.IS_REPLAY_LOG_TAG_ENABLED;
 import static uk.co.real_logic.artio.LogTag.REPLAY;
-import static uk.co.real_logic.artio.dictionary.generation.CodecUtil.MISSING_INT;
 import static uk.co.real_logic.artio.messages.MessageHeaderDecoder.ENCODED_LENGTH;
 import static uk.co.real_logic.artio.util.MessageTypeEncoding.packAllMessageTypes;
 
@@ -414,7 +413,9 @@ public class Replayer extends AbstractReplayer
 
         final FixThrottleRejectBuilder throttleRejectBuilder;
 
-        if (configuration.throttleWindowInMs() == MISSING_INT)
+        // Throttles can be configured per session at runtime, so any replay may contain throttle rejects. Their
+        // text is rebuilt from the limits logged with them.
+        if (!sessionCodecs.canRejectThrottledMessages())
         {
             throttleRejectBuilder = null;
         }
@@ -18,7 +18,6 @@ package uk.co.real_logic.artio.engine.logger;
 import org.agrona.CloseHelper;
 import org.agrona.DirectBuffer;
 import org.agrona.ErrorHandler;
-import org.agrona.LangUtil;
 import org.agrona.concurrent.AtomicBuffer;
 import uk.co.real_logic.artio.engine.SectorFramer;
 import uk.co.real_logic.artio.messages.MessageHeaderDecoder;
@@ -26,10 +25,7 @@ import uk.co.real_logic.artio.messages.MetaDataStatus;
 import uk.co.real_logic.artio.storage.messages.LastKnownSequenceNumberDecoder;
 import uk.co.real_logic.artio.storage.messages.LastKnownSequenceNumberEncoder;
 
-import java.io.File;
-import java.io.FileNotFoundException;
 import java.io.IOException;
-import java.io.RandomAccessFile;
 
 import static io.aeron.archive.status.RecordingPos.NULL_RECORDING_ID;
 import static uk.co.real_logic.artio.engine.ConnectedSessionInfo.UNK_SESSION;
@@ -51,13 +47,23 @@ public class SequenceNumberIndexReader implements AutoCloseable
     private final IndexedPositionReader positions;
     private final ErrorHandler errorHandler;
     private final RecordingIdLookup recordingIdLookup;
-    private final RandomAccessFile metaDataFile;
+    private final SessionMetaDataStore metaDataStore;
 
     public SequenceNumberIndexReader(
         final AtomicBuffer inMemoryBuffer,
         final ErrorHandler errorHandler,
         final RecordingIdLookup recordingIdLookup,
         final String metaDataDir)
+    {
+        this(inMemoryBuffer, errorHandler, recordingIdLookup, metaDataDir, FileSessionMetaDataStore.FACTORY);
+    }
+
+    public SequenceNumberIndexReader(
+        final AtomicBuffer inMemoryBuffer,
+        final ErrorHandler errorHandler,
+        final RecordingIdLookup recordingIdLookup,
+        final String metaDataDir,
+        final SessionMetaDataStore.Factory metaDataStoreFactory)
     {
         this.inMemoryBuffer = inMemoryBuffer;
         this.errorHandler = errorHandler;
@@ -66,25 +72,7 @@ public class SequenceNumberIndexReader implements AutoCloseable
         sectorFramer = new SectorFramer(positionTableOffset);
         validateBuffer();
         positions = new IndexedPositionReader(positionsBuffer(inMemoryBuffer, positionTableOffset));
-        metaDataFile = openMetaDataFile(metaDataDir);
-    }
-
-    private RandomAccessFile openMetaDataFile(final String metaDataDir)
-    {
-        if (metaDataDir != null)
-        {
-            final File metaDataFile = metaDataFile(metaDataDir);
-
-            try
-            {
-                return new RandomAccessFile(metaDataFile, "r");
-            }
-            catch (final FileNotFoundException e)
-            {
-                LangUtil.rethrowUnchecked(e);
-            }
-        }
-        return null;
+        metaDataStore = metaDataDir != null ? metaDataStoreFactory.open(metaDataDir, false) : null;
     }
 
     public int lastKnownSequenceNumber(final long sessionId)
@@ -136,7 +124,7 @@ public class SequenceNumberIndexReader implements AutoCloseable
 
     public MetaDataStatus readMetaData(final long sessionId, final DirectBuffer buffer)
     {
-        if (metaDataFile == null)
+        if (metaDataStore == null)
         {
             return MetaDataStatus.FILE_ERROR;
         }
@@ -154,11 +142,10 @@ public class SequenceNumberIndexReader implements AutoCloseable
 
         try
         {
-            metaDataFile.seek(metaDataPosition);
-            final int metaDataLength = metaDataFile.readInt();
+            final int metaDataLength = metaDataStore.capacity(metaDataPosition);
 
             final byte[] metaDataValue = new byte[metaDataLength];
-            metaDataFile.read(metaDataValue);
+            metaDataStore.read(metaDataPosition, 0, metaDataValue, 0, metaDataLength);
 
             buffer.wrap(metaDataValue);
 
@@ -173,7 +160,7 @@ public class SequenceNumberIndexReader implements AutoCloseable
 
     public void close()
     {
-        CloseHelper.close(metaDataFile);
+        CloseHelper.close(metaDataStore);
     }
 
 }
@@ -20,7 +20,6 @@ import io.aeron.protocol.DataHeaderFlyweight;
 import org.agrona.CloseHelper;
 import org.agrona.DirectBuffer;
 import org.agrona.ErrorHandler;
-import org.agrona.LangUtil;
 import org.agrona.collections.CollectionUtil;
 import org.agrona.collections.Long2LongHashMap;
 import org.agrona.collections.Long2ObjectHashMap;
@@ -38,7 +37,6 @@ import uk.co.real_logic.artio.storage.messages.LastKnownSequenceNumberEncoder;
 
 import java.io.File;
 import java.io.IOException;
-import java.io.RandomAccessFile;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.StandardCopyOption;
@@ -87,10 +85,9 @@ public class SequenceNumberIndexWriter implements Index, RedactHandler
     private final Long2LongHashMap recordOffsets = new Long2LongHashMap(MISSING_RECORD);
 
     // Meta data state
-    private final File metaDataLocation;
     private final List<WriteMetaDataResponse> responsesToResend = new ArrayList<>();
     private final Predicate<WriteMetaDataResponse> sendResponseFunc = this::sendResponse;
-    private final RandomAccessFile metaDataFile;
+    private final SessionMetaDataStore metaDataStore;
     private final SequenceNumberIndexReader reader;
     private byte[] metaDataWriteBuffer = new byte[0];
     private final Long2ObjectHashMap<Long2LongHashMap> sessionIdToRedactPositions = new Long2ObjectHashMap<>();
@@ -134,6 +131,41 @@ public class SequenceNumberIndexWriter implements Index, RedactHandler
         final boolean sent,
         final boolean indexChecksumEnabled,
         final boolean logMessages)
+    {
+        this(
+            sequenceNumberExtractor,
+            inMemoryBuffer,
+            indexFile,
+            errorHandler,
+            streamId,
+            recordingIdLookup,
+            indexFileStateFlushTimeoutInMs,
+            clock,
+            metaDataDir,
+            FileSessionMetaDataStore.FACTORY,
+            connectionIdToFixPSessionId,
+            fixPProtocolType,
+            sent,
+            indexChecksumEnabled,
+            logMessages);
+    }
+
+    public SequenceNumberIndexWriter(
+        final SequenceNumberExtractor sequenceNumberExtractor,
+        final AtomicBuffer inMemoryBuffer,
+        final MappedFile indexFile,
+        final ErrorHandler errorHandler,
+        final int streamId,
+        final RecordingIdLookup recordingIdLookup,
+        final long indexFileStateFlushTimeoutInMs,
+        final EpochClock clock,
+        final String metaDataDir,
+        final SessionMetaDataStore.Factory metaDataStoreFactory,
+        final Long2LongHashMap connectionIdToFixPSessionId,
+        final FixPProtocolType fixPProtocolType,
+        final boolean sent,
+        final boolean indexChecksumEnabled,
+        final boolean logMessages)
     {
         this.sequenceNumberExtractor = sequenceNumberExtractor;
         this.inMemoryBuffer = inMemoryBuffer;
@@ -174,16 +206,7 @@ public class SequenceNumberIndexWriter implements Index, RedactHandler
                 positionWriter = null;
             }
 
-            if (metaDataDir != null)
-            {
-                metaDataLocation = metaDataFile(metaDataDir);
-                metaDataFile = openMetaDataFile(metaDataLocation);
-            }
-            else
-            {
-                metaDataLocation = null;
-                metaDataFile = null;
-            }
+            metaDataStore = metaDataDir != null ? metaDataStoreFactory.open(metaDataDir, true) : null;
         }
         catch (final Exception e)
         {
@@ -192,7 +215,8 @@ public class SequenceNumberIndexWriter implements Index, RedactHandler
             throw e;
         }
 
-        reader = new SequenceNumberIndexReader(inMemoryBuffer, errorHandler, recordingIdLookup, metaDataDir);
+        reader = new SequenceNumberIndexReader(
+            inMemoryBuffer, errorHandler, recordingIdLookup, metaDataDir, metaDataStoreFactory);
         fixPSequenceIndexer = new FixPSequenceIndexer(
             connectionIdToFixPSessionId, errorHandler, fixPProtocolType, reader,
             (seqNum, uuid, messageSize, endPosition, aeronSessionId, possRetrans, timestamp, forNextSession) ->
@@ -201,49 +225,6 @@ public class SequenceNumberIndexWriter implements Index, RedactHandler
                 saveRecord(seqNum, uuid, endPosition, NO_REQUIRED_POSITION, possRetrans));
     }
 
-    private RandomAccessFile openMetaDataFile(final File metaDataLocation)
-    {
-        RandomAccessFile file = null;
-        try
-        {
-            file = new RandomAccessFile(metaDataLocation, "rw");
-            if (file.length() == 0)
-            {
-                writeMetaDataFileHeader(file);
-            }
-            else
-            {
-                final long magicNumber = file.readLong();
-                final int fileVersion = file.readInt();
-
-                if (magicNumber != META_DATA_MAGIC_NUMBER)
-                {
-                    throw new IllegalStateException("Invalid magic number in metadata file: " + magicNumber);
-                }
-
-                if (fileVersion < READABLE_META_DATA_FILE_VERSION)
-                {
-                    throw new IllegalStateException("Unreadable metadata file version: " + fileVersion);
-                }
-            }
-            return file;
-        }
-        catch (final IOException | IllegalStateException e)
-        {
-            Exceptions.suppressingClose(file, e);
-            LangUtil.rethrowUnchecked(e);
-        }
-
-        return null;
-    }
-
-    private void writeMetaDataFileHeader(final RandomAccessFile file) throws IOException
-    {
-        file.writeLong(META_DATA_MAGIC_NUMBER);
-        file.writeInt(META_DATA_FILE_VERSION);
-        file.getFD().sync();
-    }
-
     public void onCatchup(
         final DirectBuffer buffer,
         final int offset,
@@ -564,7 +545,7 @@ public class SequenceNumberIndexWriter implements Index, RedactHandler
         final long correlationId = writeMetaData.correlationId();
         final int metaDataOffset = writeMetaData.metaDataOffset();
 
-        if (framerContext == null || metaDataFile == null)
+        if (framerContext == null || metaDataStore == null)
         {
             writeMetaDataResponse(libraryId, correlationId, MetaDataStatus.FILE_ERROR);
 
@@ -608,22 +589,21 @@ public class SequenceNumberIndexWriter implements Index, RedactHandler
             }
             else
             {
-                metaDataFile.seek(oldMetaDataPosition);
-                final int oldMetaDataLength = metaDataFile.readInt();
+                final int oldMetaDataLength = metaDataStore.capacity(oldMetaDataPosition);
                 final int newMetaDataMinLength = metaDataUpdateOffset + metaDataUpdateLength;
                 // Is there space to replace?
                 if (newMetaDataMinLength <= oldMetaDataLength)
                 {
-                    metaDataFile.seek(oldMetaDataPosition + SIZE_OF_META_DATA_LENGTH + metaDataUpdateOffset);
-                    metaDataFile.write(metaDataValue, metaDataUpdateOffset, metaDataUpdateLength);
+                    metaDataStore.write(
+                        oldMetaDataPosition, metaDataUpdateOffset, metaDataValue, metaDataUpdateOffset,
+                        metaDataUpdateLength);
                 }
                 else
                 {
                     // Pickup the old prefix that will be copied if it's an update
                     if (metaDataUpdateOffset > 0)
                     {
-                        // Already at the old metadata position
-                        metaDataFile.read(metaDataValue, 0, metaDataUpdateOffset);
+                        metaDataStore.read(oldMetaDataPosition, 0, metaDataValue, 0, metaDataUpdateOffset);
                     }
 
                     allocateMetaDataSlot(sequenceNumberIndexFilePosition, metaDataValue, newMetaDataMinLength);
@@ -645,20 +625,11 @@ public class SequenceNumberIndexWriter implements Index, RedactHandler
         final byte[] metaDataValue,
         final int metaDataLength) throws IOException
     {
-        final int metaDataFileInitialLength = (int)metaDataFile.length();
-        updateMetaDataFile(metaDataFileInitialLength, metaDataValue, metaDataLength);
-        putMetaDataField(sequenceNumberIndexFilePosition, metaDataFileInitialLength);
+        final int metaDataPosition = metaDataStore.allocate(metaDataValue.length, metaDataValue, metaDataLength);
+        putMetaDataField(sequenceNumberIndexFilePosition, metaDataPosition);
         hasSavedRecordSinceFileUpdate = true;
     }
 
-    private void updateMetaDataFile(
-        final int position, final byte[] metaDataValue, final int metaDataLength) throws IOException
-    {
-        metaDataFile.seek(position);
-        metaDataFile.writeInt(metaDataValue.length);
-        metaDataFile.write(metaDataValue, 0, metaDataLength);
-    }
-
     private void writeMetaDataResponse(final int libraryId, final long correlationId, final MetaDataStatus status)
     {
         final WriteMetaDataResponse response = new WriteMetaDataResponse(libraryId, correlationId, status);
@@ -705,13 +676,11 @@ public class SequenceNumberIndexWriter implements Index, RedactHandler
 
     private void resetMetaDataFile()
     {
-        if (metaDataLocation != null)
+        if (metaDataStore != null)
         {
             try
             {
-                metaDataFile.seek(0);
-                metaDataFile.setLength(META_DATA_FILE_HEADER_LENGTH);
-                writeMetaDataFileHeader(metaDataFile);
+                metaDataStore.reset();
             }
             catch (final IOException e)
             {
@@ -757,11 +726,11 @@ public class SequenceNumberIndexWriter implements Index, RedactHandler
 
     private void syncMetaDataFile()
     {
-        if (metaDataFile != null)
+        if (metaDataStore != null)
         {
             try
             {
-                metaDataFile.getFD().sync();
+                metaDataStore.sync();
             }
             catch (final IOException e)
             {
@@ -833,11 +802,11 @@ public class SequenceNumberIndexWriter implements Index, RedactHandler
         {
             Exceptions.closeAll(indexFile, writableFile, reader, () ->
             {
-                if (metaDataFile != null)
+                if (metaDataStore != null)
                 {
                     try
                     {
-                        metaDataFile.close();
+                        metaDataStore.close();
                     }
                     catch (final IOException e)
                     {
@@ -959,9 +928,7 @@ public class SequenceNumberIndexWriter implements Index, RedactHandler
                     putMetaDataField(recordOffset, NO_META_DATA);
                     try
                     {
-                        metaDataFile.seek(oldMetaDataPosition);
-                        final int metaDataLength = metaDataFile.readInt();
-                        updateMetaDataFile(oldMetaDataPosition, new byte[metaDataLength], metaDataLength);
+                        metaDataStore.clear(oldMetaDataPosition);
                     }
                     catch (final IOException e)
                     {
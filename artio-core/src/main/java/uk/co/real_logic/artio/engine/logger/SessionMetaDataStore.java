@@ -0,0 +1,118 @@
+/*
+ * Copyright 2015-2022 Real Logic Limited.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.engine.logger;
+
+import java.io.IOException;
+
+/**
+ * SPI for storing the metadata that is associated with sessions, for example through
+ * {@link uk.co.real_logic.artio.library.FixLibrary#writeMetaData}.
+ *
+ * The metadata of each session is stored in a slot. Slots are identified by an int that is stored alongside the
+ * session's sequence number in the sequence number index, so the index and the store must be kept together.
+ *
+ * The writable instance is only used from the Indexer's thread and read-only instances are only used from a
+ * single thread each. Writes needn't be durable until {@link #sync()} is invoked, this happens whenever the sequence
+ * number index itself is flushed to disk, so implementations can batch up writes.
+ *
+ * The default implementation is {@link FileSessionMetaDataStore}.
+ */
+public interface SessionMetaDataStore extends AutoCloseable
+{
+    /**
+     * Opens a {@link SessionMetaDataStore}.
+     */
+    @FunctionalInterface
+    interface Factory
+    {
+        /**
+         * Open a store.
+         *
+         * @param logFileDir the directory that the engine stores its state in.
+         * @param writable true if the store is going to be written to, false for a read-only view.
+         * @return the opened store.
+         */
+        SessionMetaDataStore open(String logFileDir, boolean writable);
+    }
+
+    /**
+     * Allocate a new slot.
+     *
+     * @param capacity the capacity of the slot in bytes.
+     * @param value the bytes to initialise the slot with.
+     * @param length the number of bytes from the start of value to initialise the slot with.
+     * @return the new slot.
+     * @throws IOException if the underlying storage fails.
+     */
+    int allocate(int capacity, byte[] value, int length) throws IOException;
+
+    /**
+     * Get the capacity of a slot.
+     *
+     * @param slot the slot as returned from {@link #allocate(int, byte[], int)}.
+     * @return the capacity of the slot in bytes.
+     * @throws IOException if the underlying storage fails.
+     */
+    int capacity(int slot) throws IOException;
+
+    /**
+     * Write bytes into a slot, the write must fit within the slot's capacity.
+     *
+     * @param slot the slot as returned from {@link #allocate(int, byte[], int)}.
+     * @param offset the offset within the slot to write to.
+     * @param value the bytes to write.
+     * @param valueOffset the offset within value to write from.
+     * @param length the number of bytes to write.
+     * @throws IOException if the underlying storage fails.
+     */
+    void write(int slot, int offset, byte[] value, int valueOffset, int length) throws IOException;
+
+    /**
+     * Read bytes from a slot.
+     *
+     * @param slot the slot as returned from {@link #allocate(int, byte[], int)}.
+     * @param offset the offset within the slot to read from.
+     * @param value the array to read into.
+     * @param valueOffset the offset within value to read into.
+     * @param length the number of bytes to read.
+     * @throws IOException if the underlying storage fails.
+     */
+    void read(int slot, int offset, byte[] value, int valueOffset, int length) throws IOException;
+
+    /**
+     * Zero the contents of a slot, for example because the session's sequence numbers have been reset.
+     *
+     * @param slot the slot as returned from {@link #allocate(int, byte[], int)}.
+     * @throws IOException if the underlying storage fails.
+     */
+    void clear(int slot) throws IOException;
+
+    /**
+     * Remove all slots.
+     *
+     * @throws IOException if the underlying storage fails.
+     */
+    void reset() throws IOException;
+
+    /**
+     * Make all previous writes durable.
+     *
+     * @throws IOException if the underlying storage fails.
+     */
+    void sync() throws IOException;
+
+    void close() throws IOException;
+}
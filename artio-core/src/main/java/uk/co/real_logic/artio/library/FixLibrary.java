@@ -32,6 +32,8 @@ import uk.co.real_logic.artio.messages.MetaDataStatus;
 import uk.co.real_logic.artio.messages.SessionReplyStatus;
 import uk.co.real_logic.artio.session.Session;
 import uk.co.real_logic.artio.session.SessionWriter;
+import uk.co.real_logic.artio.timing.DutyCycleProfiler;
+import uk.co.real_logic.artio.timing.DutyCycleTracker;
 import uk.co.real_logic.artio.timing.LibraryTimers;
 
 import java.io.File;
@@ -64,6 +66,10 @@ public class FixLibrary extends GatewayProcess
     private final LibraryConfiguration configuration;
     private final LibraryScheduler scheduler;
     private final LibraryPoller poller;
+    // null if agent profiling is disabled
+    private final DutyCycleProfiler pollProfiler;
+    // null if duty cycle stall detection is disabled
+    private final DutyCycleTracker pollTracker;
     private boolean isPolling = false;
 
     static void setClientConductorThread()
@@ -83,6 +89,9 @@ public class FixLibrary extends GatewayProcess
             init(configuration, configuration.libraryId());
             final LibraryTimers timers = new LibraryTimers(
                 configuration.epochNanoClock(), fixCounters.negativeTimestamps());
+            final String roleName = configuration.agentNamePrefix() + "FixLibrary-" + configuration.libraryId();
+            pollProfiler = isAgentProfilingEnabled() ? newDutyCycleProfiler(roleName) : null;
+            pollTracker = isDutyCycleStallDetectionEnabled() ? newDutyCycleTracker(roleName) : null;
             initMonitoringAgent(timers.all(), configuration, null, null);
 
             final LibraryTransport transport = new LibraryTransport(configuration, fixCounters, aeron);
@@ -154,14 +163,33 @@ public class FixLibrary extends GatewayProcess
      */
     public int poll(final int fragmentLimit)
     {
+        final DutyCycleTracker pollTracker = this.pollTracker;
+        if (pollTracker != null)
+        {
+            pollTracker.onDutyCycleStart();
+        }
+
         isPolling = true;
         try
         {
-            return poller.poll(fragmentLimit);
+            final DutyCycleProfiler pollProfiler = this.pollProfiler;
+            if (pollProfiler == null)
+            {
+                return poller.poll(fragmentLimit);
+            }
+
+            final long startTimeInNs = pollProfiler.onDutyCycleStart();
+            final int workCount = poller.poll(fragmentLimit);
+            pollProfiler.onDutyCycleEnd(startTimeInNs, workCount);
+            return workCount;
         }
         finally
         {
             isPolling = false;
+            if (pollTracker != null)
+            {
+                pollTracker.onDutyCycleEnd();
+            }
         }
     }
 
@@ -535,4 +563,9 @@ public class FixLibrary extends GatewayProcess
         return RETHROW_EXCEPTION.get();
     }
 
+    protected int agentTimerId(final int index)
+    {
+        return LibraryTimers.agentTimerId(index);
+    }
+
 }
@@ -48,6 +48,7 @@ import uk.co.real_logic.artio.util.CharFormatter;
 import uk.co.real_logic.artio.util.EpochFractionClock;
 import uk.co.real_logic.artio.util.EpochFractionClocks;
 import uk.co.real_logic.artio.util.MutableAsciiBuffer;
+import uk.co.real_logic.artio.util.TagOffsetTable;
 import uk.co.real_logic.artio.validation.MessageValidationStrategy;
 
 import java.lang.ref.WeakReference;
@@ -153,6 +154,7 @@ final class LibraryPoller implements LibraryEndPointHandler, ProtocolHandler, Au
     private final FixLibrary fixLibrary;
     private final Runnable onDisconnectFunc = this::onDisconnect;
     private final SessionAcquiredInfo sessionAcquiredInfo = new SessionAcquiredInfo();
+    private final TagOffsetTable tagOffsets = new TagOffsetTable();
 
     private final CharFormatter receivedFormatter = new CharFormatter("(%s) Received %s");
     private final CharFormatter disconnectedFormatter = new CharFormatter("%s: Disconnected from [%s]");
@@ -240,6 +242,8 @@ final class LibraryPoller implements LibraryEndPointHandler, ProtocolHandler, Au
         final ErrorHandler errorHandler)
     {
         this.libraryId = configuration.libraryId();
+        this.outboundSubscription = new ControlledFragmentAssembler(
+            ProtocolSubscription.forLibrary(libraryId, this, tagOffsets, new LibraryProtocolSubscription(this)));
         this.fixCounters = fixCounters;
         this.transport = transport;
         this.fixLibrary = fixLibrary;
@@ -509,8 +513,10 @@ final class LibraryPoller implements LibraryEndPointHandler, ProtocolHandler, Au
     long saveThrottleConfiguration(
         final long correlationId,
         final long sessionId,
+        final long messageType,
         final int throttleWindowInMs,
-        final int throttleLimitOfMessages)
+        final int throttleLimitOfMessages,
+        final int burstLimitOfMessages)
     {
         checkState();
 
@@ -518,8 +524,10 @@ final class LibraryPoller implements LibraryEndPointHandler, ProtocolHandler, Au
             libraryId,
             correlationId,
             sessionId,
+            messageType,
             throttleWindowInMs,
-            throttleLimitOfMessages);
+            throttleLimitOfMessages,
+            burstLimitOfMessages);
     }
 
     void onInitiatorSessionTimeout(final long correlationId, final long connectionId)
@@ -903,8 +911,7 @@ final class LibraryPoller implements LibraryEndPointHandler, ProtocolHandler, Au
     //                     BEGIN EVENT HANDLERS
     // -----------------------------------------------------------------------
 
-    private final ControlledFragmentHandler outboundSubscription = new ControlledFragmentAssembler(
-        ProtocolSubscription.of(this, new LibraryProtocolSubscription(this)));
+    private final ControlledFragmentHandler outboundSubscription;
 
     public Action onManageSession(
         final int libraryId,
@@ -1257,7 +1264,8 @@ final class LibraryPoller implements LibraryEndPointHandler, ProtocolHandler, Au
                     messageType,
                     timestampInNs,
                     status,
-                    header.position());
+                    header.position(),
+                    tagOffsets);
             }
         }
 
@@ -2116,6 +2124,9 @@ final class LibraryPoller implements LibraryEndPointHandler, ProtocolHandler, Au
         final long connectionId,
         final long refMsgType,
         final int refSeqNum,
+        final int throttleWindowInMs,
+        final int throttleLimitOfMessages,
+        final int burstLimitOfMessages,
         final DirectBuffer businessRejectRefIDBuffer,
         final int businessRejectRefIDOffset,
         final int businessRejectRefIDLength,
@@ -2148,6 +2159,9 @@ final class LibraryPoller implements LibraryEndPointHandler, ProtocolHandler, Au
                     final boolean replied = sessionSubscriber.onThrottleNotification(
                         refMsgType,
                         refSeqNum,
+                        throttleWindowInMs,
+                        throttleLimitOfMessages,
+                        burstLimitOfMessages,
                         businessRejectRefIDBuffer,
                         businessRejectRefIDOffset,
                         businessRejectRefIDLength
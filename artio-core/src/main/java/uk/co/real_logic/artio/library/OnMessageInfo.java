@@ -16,11 +16,13 @@
 package uk.co.real_logic.artio.library;
 
 import uk.co.real_logic.artio.messages.MessageStatus;
+import uk.co.real_logic.artio.util.TagOffsetTable;
 
 public class OnMessageInfo
 {
     private MessageStatus status;
     private boolean isValid;
+    private TagOffsetTable tagOffsets = new TagOffsetTable();
 
     public OnMessageInfo status(final MessageStatus status)
     {
@@ -34,6 +36,12 @@ public class OnMessageInfo
         return this;
     }
 
+    public OnMessageInfo tagOffsets(final TagOffsetTable tagOffsets)
+    {
+        this.tagOffsets = tagOffsets;
+        return this;
+    }
+
     public MessageStatus status()
     {
         return status;
@@ -43,4 +51,16 @@ public class OnMessageInfo
     {
         return isValid;
     }
+
+    /**
+     * Gets the offsets of the leading fields of the message, if the engine has been configured to index them with
+     * {@code EngineConfiguration.tagOffsetTableFields(int)}. The table is empty otherwise. Only valid for the
+     * duration of the onMessage callback.
+     *
+     * @return the offsets of the leading fields of the message.
+     */
+    public TagOffsetTable tagOffsets()
+    {
+        return tagOffsets;
+    }
 }
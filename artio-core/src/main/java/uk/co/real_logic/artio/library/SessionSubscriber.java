@@ -28,6 +28,7 @@ import uk.co.real_logic.artio.session.InternalSession;
 import uk.co.real_logic.artio.session.Session;
 import uk.co.real_logic.artio.session.SessionParser;
 import uk.co.real_logic.artio.timing.Timer;
+import uk.co.real_logic.artio.util.TagOffsetTable;
 
 import java.util.function.BooleanSupplier;
 
@@ -82,12 +83,14 @@ class SessionSubscriber implements AutoCloseable, FixSessionOwner
         final long messageType,
         final long timestamp,
         final MessageStatus status,
-        final long position)
+        final long position,
+        final TagOffsetTable tagOffsets)
     {
         final long now = receiveTimer.recordSince(timestamp);
 
         final OnMessageInfo info = this.info;
         info.status(status);
+        info.tagOffsets(tagOffsets);
         // this gets set to false by the Session when a problem is detected.
         info.isValid(true);
 
@@ -255,6 +258,23 @@ class SessionSubscriber implements AutoCloseable, FixSessionOwner
             throttleLimitOfMessages);
     }
 
+    public Reply<ThrottleConfigurationStatus> messageTypeThrottle(
+        final long sessionId,
+        final long messageType,
+        final int throttleWindowInMs,
+        final int throttleLimitOfMessages,
+        final int burstLimitOfMessages)
+    {
+        return new ThrottleConfigurationReply(
+            libraryPoller,
+            libraryPoller.timeInMs() + replyTimeoutInMs,
+            sessionId,
+            messageType,
+            throttleWindowInMs,
+            throttleLimitOfMessages,
+            burstLimitOfMessages);
+    }
+
     public long inboundMessagePosition()
     {
         return lastReceivedPosition;
@@ -299,13 +319,22 @@ class SessionSubscriber implements AutoCloseable, FixSessionOwner
     public boolean onThrottleNotification(
         final long refMsgType,
         final int refSeqNum,
+        final int throttleWindowInMs,
+        final int throttleLimitOfMessages,
+        final int burstLimitOfMessages,
         final DirectBuffer businessRejectRefIDBuffer,
         final int businessRejectRefIDOffset,
         final int businessRejectRefIDLength)
     {
         return session.onThrottleNotification(
-            refMsgType, refSeqNum, businessRejectRefIDBuffer, businessRejectRefIDOffset, businessRejectRefIDLength
-        );
+            refMsgType,
+            refSeqNum,
+            throttleWindowInMs,
+            throttleLimitOfMessages,
+            burstLimitOfMessages,
+            businessRejectRefIDBuffer,
+            businessRejectRefIDOffset,
+            businessRejectRefIDLength);
     }
 
     void onReplayComplete(final long correlationId)
@@ -0,0 +1,223 @@
+/*
+ * Copyright 2015-2022 Real Logic Limited.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.library;
+
+import io.aeron.logbuffer.ControlledFragmentHandler.Action;
+import org.agrona.DirectBuffer;
+import org.agrona.MutableDirectBuffer;
+import org.agrona.concurrent.Agent;
+import org.agrona.concurrent.MessageHandler;
+import org.agrona.concurrent.OneToOneConcurrentArrayQueue;
+import org.agrona.concurrent.UnsafeBuffer;
+import org.agrona.concurrent.ringbuffer.OneToOneRingBuffer;
+import org.agrona.concurrent.ringbuffer.RingBuffer;
+import org.agrona.concurrent.ringbuffer.RingBufferDescriptor;
+import uk.co.real_logic.artio.builder.Encoder;
+import uk.co.real_logic.artio.messages.MessageStatus;
+import uk.co.real_logic.artio.session.Session;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+
+import static io.aeron.logbuffer.ControlledFragmentHandler.Action.ABORT;
+import static io.aeron.logbuffer.ControlledFragmentHandler.Action.CONTINUE;
+import static org.agrona.BitUtil.SIZE_OF_INT;
+import static org.agrona.BitUtil.SIZE_OF_LONG;
+
+/**
+ * A worker thread of a {@link SessionWorkerPool}. Receives the messages of the sessions that hash to it and sends
+ * messages back out through the library's polling thread.
+ *
+ * {@link #trySend(long, Encoder)} must only be called from this worker's thread.
+ */
+public final class SessionWorker implements Agent, MessageHandler
+{
+    private static final int MESSAGE_TYPE_ID = 1;
+
+    private static final int SESSION_ID_OFFSET = 0;
+    private static final int SEQUENCE_INDEX_OFFSET = SESSION_ID_OFFSET + SIZE_OF_LONG;
+    private static final int MESSAGE_TYPE_OFFSET = SEQUENCE_INDEX_OFFSET + SIZE_OF_INT;
+    private static final int TIMESTAMP_OFFSET = MESSAGE_TYPE_OFFSET + SIZE_OF_LONG;
+    private static final int POSITION_OFFSET = TIMESTAMP_OFFSET + SIZE_OF_LONG;
+    private static final int STATUS_OFFSET = POSITION_OFFSET + SIZE_OF_LONG;
+    private static final int IS_VALID_OFFSET = STATUS_OFFSET + SIZE_OF_INT;
+    private static final int HEADER_LENGTH = IS_VALID_OFFSET + SIZE_OF_INT;
+
+    static final class SendRequest
+    {
+        long sessionId;
+        Encoder encoder;
+        long position;
+    }
+
+    private final int workerIndex;
+    private final String agentNamePrefix;
+    private final SessionWorkerHandler handler;
+    private final int fragmentLimit;
+    private final RingBuffer inboundMessages;
+    // Rebuilt from each record, the tag offsets of the message aren't copied so its table is always empty.
+    private final OnMessageInfo messageInfo = new OnMessageInfo();
+
+    // Requests travel from the worker to the polling thread and back again, so are never allocated after startup.
+    private final ArrayDeque<SendRequest> freeSendRequests;
+    private final OneToOneConcurrentArrayQueue<SendRequest> pendingSendRequests;
+    private final OneToOneConcurrentArrayQueue<SendRequest> completedSendRequests;
+
+    SessionWorker(
+        final int workerIndex,
+        final String agentNamePrefix,
+        final SessionWorkerHandler handler,
+        final int inboundBufferCapacity,
+        final int maxPendingSends,
+        final int fragmentLimit)
+    {
+        this.workerIndex = workerIndex;
+        this.agentNamePrefix = agentNamePrefix;
+        this.handler = handler;
+        this.fragmentLimit = fragmentLimit;
+
+        inboundMessages = new OneToOneRingBuffer(new UnsafeBuffer(
+            ByteBuffer.allocateDirect(inboundBufferCapacity + RingBufferDescriptor.TRAILER_LENGTH)));
+
+        freeSendRequests = new ArrayDeque<>(maxPendingSends);
+        for (int i = 0; i < maxPendingSends; i++)
+        {
+            freeSendRequests.add(new SendRequest());
+        }
+        pendingSendRequests = new OneToOneConcurrentArrayQueue<>(maxPendingSends);
+        completedSendRequests = new OneToOneConcurrentArrayQueue<>(maxPendingSends);
+    }
+
+    /**
+     * Try to send a message on a session. The message is sent from the library's polling thread, the
+     * {@link SessionWorkerHandler#onSendComplete(SessionWorker, long, Encoder, long)} callback is invoked on
+     * this worker once it has been. The encoder must not be modified until then.
+     *
+     * @param sessionId the id of the session to send the message on.
+     * @param encoder the encoder of the message to send.
+     * @return true if the message has been queued for sending, false if there are already too many messages
+     * waiting to be sent from this worker and the send should be retried later.
+     */
+    public boolean trySend(final long sessionId, final Encoder encoder)
+    {
+        final SendRequest request = freeSendRequests.poll();
+        if (request == null)
+        {
+            return false;
+        }
+
+        request.sessionId = sessionId;
+        request.encoder = encoder;
+        // Can't fail because the queue's capacity matches the number of requests.
+        pendingSendRequests.offer(request);
+        return true;
+    }
+
+    public int workerIndex()
+    {
+        return workerIndex;
+    }
+
+    public int doWork()
+    {
+        int work = inboundMessages.read(this, fragmentLimit);
+
+        SendRequest request;
+        while ((request = completedSendRequests.poll()) != null)
+        {
+            final Encoder encoder = request.encoder;
+            request.encoder = null;
+            freeSendRequests.add(request);
+
+            handler.onSendComplete(this, request.sessionId, encoder, request.position);
+            work++;
+        }
+
+        return work;
+    }
+
+    public void onMessage(final int msgTypeId, final MutableDirectBuffer buffer, final int index, final int length)
+    {
+        final OnMessageInfo messageInfo = this.messageInfo
+            .status(MessageStatus.get((short)buffer.getInt(index + STATUS_OFFSET)))
+            .isValid(buffer.getInt(index + IS_VALID_OFFSET) != 0);
+
+        handler.onMessage(
+            buffer,
+            index + HEADER_LENGTH,
+            length - HEADER_LENGTH,
+            this,
+            buffer.getLong(index + SESSION_ID_OFFSET),
+            buffer.getInt(index + SEQUENCE_INDEX_OFFSET),
+            buffer.getLong(index + MESSAGE_TYPE_OFFSET),
+            buffer.getLong(index + TIMESTAMP_OFFSET),
+            buffer.getLong(index + POSITION_OFFSET),
+            messageInfo);
+    }
+
+    public String roleName()
+    {
+        return agentNamePrefix + "SessionWorker-" + workerIndex;
+    }
+
+    // Invoked on the library's polling thread
+    Action offer(
+        final DirectBuffer buffer,
+        final int offset,
+        final int length,
+        final Session session,
+        final int sequenceIndex,
+        final long messageType,
+        final long timestampInNs,
+        final long position,
+        final OnMessageInfo messageInfo)
+    {
+        final RingBuffer inboundMessages = this.inboundMessages;
+        final int index = inboundMessages.tryClaim(MESSAGE_TYPE_ID, HEADER_LENGTH + length);
+        if (index <= 0)
+        {
+            // Back-pressure the library's subscription until this worker catches up.
+            return ABORT;
+        }
+
+        final MutableDirectBuffer claimBuffer = inboundMessages.buffer();
+        claimBuffer.putLong(index + SESSION_ID_OFFSET, session.id());
+        claimBuffer.putInt(index + SEQUENCE_INDEX_OFFSET, sequenceIndex);
+        claimBuffer.putLong(index + MESSAGE_TYPE_OFFSET, messageType);
+        claimBuffer.putLong(index + TIMESTAMP_OFFSET, timestampInNs);
+        claimBuffer.putLong(index + POSITION_OFFSET, position);
+        claimBuffer.putInt(index + STATUS_OFFSET, messageInfo.status().value());
+        claimBuffer.putInt(index + IS_VALID_OFFSET, messageInfo.isValid() ? 1 : 0);
+        claimBuffer.putBytes(index + HEADER_LENGTH, buffer, offset, length);
+        inboundMessages.commit(index);
+
+        return CONTINUE;
+    }
+
+    // Invoked on the library's polling thread
+    OneToOneConcurrentArrayQueue<SendRequest> pendingSendRequests()
+    {
+        return pendingSendRequests;
+    }
+
+    // Invoked on the library's polling thread
+    void onSendComplete(final SendRequest request, final long position)
+    {
+        request.position = position;
+        // Can't fail because the queue's capacity matches the number of requests.
+        completedSendRequests.offer(request);
+    }
+}
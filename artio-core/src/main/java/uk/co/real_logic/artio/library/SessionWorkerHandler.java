@@ -0,0 +1,65 @@
+/*
+ * Copyright 2015-2022 Real Logic Limited.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.library;
+
+import org.agrona.DirectBuffer;
+import uk.co.real_logic.artio.builder.Encoder;
+
+/**
+ * Interface to implement to process FIX messages on the worker threads of a {@link SessionWorkerPool}. All
+ * callbacks for a given session are invoked upon the same worker thread, in order.
+ */
+public interface SessionWorkerHandler
+{
+    /**
+     * Event to indicate that a fix message has arrived to process.
+     *
+     * @param buffer the buffer containing the fix message, only valid for the duration of the callback.
+     * @param offset the offset in the buffer where the message starts.
+     * @param length the length of the message within the buffer.
+     * @param worker the worker that is processing this message, use it to send replies.
+     * @param sessionId the id of the session which has received this message.
+     * @param sequenceIndex the sequence index of this message.
+     * @param messageType the FIX msgType field, encoded as an int.
+     * @param timestampInNs the time of the message in nanoseconds.
+     * @param position the position in the Aeron stream at the end of the message.
+     * @param messageInfo additional information about the message, its tag offset table is always empty. Only valid
+     *                    for the duration of the callback.
+     */
+    void onMessage(
+        DirectBuffer buffer,
+        int offset,
+        int length,
+        SessionWorker worker,
+        long sessionId,
+        int sequenceIndex,
+        long messageType,
+        long timestampInNs,
+        long position,
+        OnMessageInfo messageInfo);
+
+    /**
+     * Invoked once a message passed to {@link SessionWorker#trySend(long, Encoder)} has been sent or has failed to
+     * be sent. After this callback the encoder can be reused.
+     *
+     * @param worker the worker that sent the message.
+     * @param sessionId the id of the session the message was sent on.
+     * @param encoder the encoder that was passed to {@link SessionWorker#trySend(long, Encoder)}.
+     * @param position the result of {@link uk.co.real_logic.artio.session.Session#trySend(Encoder)}, or
+     *                 {@link io.aeron.Publication#NOT_CONNECTED} if the session is no longer owned by the library.
+     */
+    void onSendComplete(SessionWorker worker, long sessionId, Encoder encoder, long position);
+}
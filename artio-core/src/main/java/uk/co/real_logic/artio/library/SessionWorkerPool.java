@@ -0,0 +1,263 @@
+/*
+ * Copyright 2015-2022 Real Logic Limited.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.library;
+
+import io.aeron.Publication;
+import io.aeron.logbuffer.ControlledFragmentHandler.Action;
+import org.agrona.DirectBuffer;
+import org.agrona.ErrorHandler;
+import org.agrona.collections.Long2ObjectHashMap;
+import org.agrona.concurrent.AgentRunner;
+import org.agrona.concurrent.IdleStrategy;
+import org.agrona.concurrent.OneToOneConcurrentArrayQueue;
+import uk.co.real_logic.artio.dictionary.generation.Exceptions;
+import uk.co.real_logic.artio.messages.DisconnectReason;
+import uk.co.real_logic.artio.session.Session;
+
+import java.util.concurrent.ThreadFactory;
+import java.util.function.Supplier;
+
+import static org.agrona.concurrent.AgentRunner.startOnThread;
+
+/**
+ * Spreads the processing of application messages for the sessions owned by a single {@link FixLibrary} across a
+ * number of worker threads.
+ *
+ * Sessions are hashed by their id to a {@link SessionWorker}, so all the messages of a session are processed in
+ * order upon the same thread. {@link Session} objects themselves are only ever touched upon the thread that polls
+ * the library: inbound messages are copied to the worker through a per-worker ring buffer and messages sent by a
+ * worker are handed back and sent upon the polling thread when {@link #poll()} is invoked. If a worker falls behind
+ * then the library's subscription is back-pressured.
+ *
+ * To use this wrap the {@link SessionHandler} of each acquired session with {@link #sessionHandler(SessionHandler)}
+ * and call {@link #poll()} after each call to {@link FixLibrary#poll(int)}.
+ */
+public class SessionWorkerPool implements AutoCloseable
+{
+    public static final int DEFAULT_INBOUND_BUFFER_CAPACITY = 1024 * 1024;
+    public static final int DEFAULT_MAX_PENDING_SENDS = 1024;
+    public static final int DEFAULT_FRAGMENT_LIMIT = 10;
+
+    private final SessionWorker[] workers;
+    private final AgentRunner[] runners;
+    // Only accessed upon the library's polling thread
+    private final Long2ObjectHashMap<Session> sessionsById = new Long2ObjectHashMap<>();
+
+    /**
+     * Create a worker pool with default buffer sizes.
+     *
+     * @param workerCount the number of worker threads to process messages on.
+     * @param handler the handler for messages upon the worker threads.
+     * @param idleStrategySupplier supplies the idle strategy for each worker thread.
+     * @param errorHandler the handler for exceptions thrown upon the worker threads.
+     * @param agentNamePrefix the prefix for the role names of the worker threads.
+     */
+    public SessionWorkerPool(
+        final int workerCount,
+        final SessionWorkerHandler handler,
+        final Supplier<IdleStrategy> idleStrategySupplier,
+        final ErrorHandler errorHandler,
+        final String agentNamePrefix)
+    {
+        this(
+            workerCount,
+            handler,
+            idleStrategySupplier,
+            errorHandler,
+            agentNamePrefix,
+            DEFAULT_INBOUND_BUFFER_CAPACITY,
+            DEFAULT_MAX_PENDING_SENDS,
+            DEFAULT_FRAGMENT_LIMIT);
+    }
+
+    /**
+     * Create a worker pool.
+     *
+     * @param workerCount the number of worker threads to process messages on.
+     * @param handler the handler for messages upon the worker threads.
+     * @param idleStrategySupplier supplies the idle strategy for each worker thread.
+     * @param errorHandler the handler for exceptions thrown upon the worker threads.
+     * @param agentNamePrefix the prefix for the role names of the worker threads.
+     * @param inboundBufferCapacity the capacity in bytes of each worker's inbound buffer, must be a power of two
+     *                              and larger than the largest message received.
+     * @param maxPendingSends the maximum number of messages each worker can have waiting to be sent.
+     * @param fragmentLimit the maximum number of messages each worker processes per duty cycle.
+     */
+    public SessionWorkerPool(
+        final int workerCount,
+        final SessionWorkerHandler handler,
+        final Supplier<IdleStrategy> idleStrategySupplier,
+        final ErrorHandler errorHandler,
+        final String agentNamePrefix,
+        final int inboundBufferCapacity,
+        final int maxPendingSends,
+        final int fragmentLimit)
+    {
+        if (workerCount <= 0)
+        {
+            throw new IllegalArgumentException("workerCount must be positive, but was " + workerCount);
+        }
+
+        workers = new SessionWorker[workerCount];
+        runners = new AgentRunner[workerCount];
+        for (int i = 0; i < workerCount; i++)
+        {
+            final SessionWorker worker = new SessionWorker(
+                i, agentNamePrefix, handler, inboundBufferCapacity, maxPendingSends, fragmentLimit);
+            workers[i] = worker;
+            runners[i] = new AgentRunner(idleStrategySupplier.get(), errorHandler, null, worker);
+        }
+    }
+
+    /**
+     * Start the worker threads.
+     *
+     * @param threadFactory the factory to create the worker threads with.
+     * @return this
+     */
+    public SessionWorkerPool start(final ThreadFactory threadFactory)
+    {
+        for (final AgentRunner runner : runners)
+        {
+            startOnThread(runner, threadFactory);
+        }
+        return this;
+    }
+
+    /**
+     * Wrap the session handler of an acquired session so that its application messages are processed by this
+     * pool's workers. Other callbacks are passed to the delegate handler upon the library's polling thread.
+     *
+     * @param delegate the handler to invoke for callbacks other than
+     *                 {@link SessionHandler#onMessage(DirectBuffer, int, int, int, Session, int, long, long, long,
+     *                 OnMessageInfo)}.
+     * @return the session handler to return from a {@link SessionAcquireHandler}.
+     */
+    public SessionHandler sessionHandler(final SessionHandler delegate)
+    {
+        return new DispatchingSessionHandler(delegate);
+    }
+
+    /**
+     * Send the messages that the workers have queued for sending. This must be called upon the thread that polls
+     * the {@link FixLibrary}.
+     *
+     * @return the number of messages sent.
+     */
+    public int poll()
+    {
+        int work = 0;
+        for (final SessionWorker worker : workers)
+        {
+            work += sendPendingRequests(worker);
+        }
+        return work;
+    }
+
+    private int sendPendingRequests(final SessionWorker worker)
+    {
+        final OneToOneConcurrentArrayQueue<SessionWorker.SendRequest> pendingSendRequests =
+            worker.pendingSendRequests();
+
+        int work = 0;
+        SessionWorker.SendRequest request;
+        while ((request = pendingSendRequests.peek()) != null)
+        {
+            final Session session = sessionsById.get(request.sessionId);
+            final long position = session == null ? Publication.NOT_CONNECTED : session.trySend(request.encoder);
+            if (position == Publication.BACK_PRESSURED || position == Publication.ADMIN_ACTION)
+            {
+                // Retry on the next poll, later requests from this worker wait in order to keep them sequenced.
+                break;
+            }
+
+            pendingSendRequests.poll();
+            worker.onSendComplete(request, position);
+            work++;
+        }
+
+        return work;
+    }
+
+    SessionWorker workerFor(final long sessionId)
+    {
+        return workers[(Long.hashCode(sessionId) & Integer.MAX_VALUE) % workers.length];
+    }
+
+    public void close()
+    {
+        Exceptions.closeAll(runners);
+    }
+
+    private final class DispatchingSessionHandler implements SessionHandler
+    {
+        private final SessionHandler delegate;
+
+        DispatchingSessionHandler(final SessionHandler delegate)
+        {
+            this.delegate = delegate;
+        }
+
+        public Action onMessage(
+            final DirectBuffer buffer,
+            final int offset,
+            final int length,
+            final int libraryId,
+            final Session session,
+            final int sequenceIndex,
+            final long messageType,
+            final long timestampInNs,
+            final long position,
+            final OnMessageInfo messageInfo)
+        {
+            final long sessionId = session.id();
+            if (sessionsById.get(sessionId) != session)
+            {
+                sessionsById.put(sessionId, session);
+            }
+
+            return workerFor(sessionId).offer(
+                buffer, offset, length, session, sequenceIndex, messageType, timestampInNs, position, messageInfo);
+        }
+
+        public void onTimeout(final int libraryId, final Session session)
+        {
+            sessionsById.remove(session.id());
+            delegate.onTimeout(libraryId, session);
+        }
+
+        public void onSlowStatus(final int libraryId, final Session session, final boolean hasBecomeSlow)
+        {
+            delegate.onSlowStatus(libraryId, session, hasBecomeSlow);
+        }
+
+        public Action onDisconnect(final int libraryId, final Session session, final DisconnectReason reason)
+        {
+            final Action action = delegate.onDisconnect(libraryId, session, reason);
+            if (action != Action.ABORT)
+            {
+                sessionsById.remove(session.id());
+            }
+            return action;
+        }
+
+        public void onSessionStart(final Session session)
+        {
+            sessionsById.put(session.id(), session);
+            delegate.onSessionStart(session);
+        }
+    }
+}
@@ -15,6 +15,7 @@
  */
 package uk.co.real_logic.artio.library;
 
+import uk.co.real_logic.artio.messages.ThrottleConfigurationEncoder;
 import uk.co.real_logic.artio.messages.ThrottleConfigurationStatus;
 
 /**
@@ -23,8 +24,10 @@ import uk.co.real_logic.artio.messages.ThrottleConfigurationStatus;
 class ThrottleConfigurationReply extends LibraryReply<ThrottleConfigurationStatus>
 {
     private final long sessionId;
+    private final long messageType;
     private final int throttleWindowInMs;
     private final int throttleLimitOfMessages;
+    private final int burstLimitOfMessages;
 
     ThrottleConfigurationReply(
         final LibraryPoller libraryPoller,
@@ -32,11 +35,32 @@ class ThrottleConfigurationReply extends LibraryReply<ThrottleConfigurationStatu
         final long sessionId,
         final int throttleWindowInMs,
         final int throttleLimitOfMessages)
+    {
+        this(
+            libraryPoller,
+            latestReplyArrivalTime,
+            sessionId,
+            ThrottleConfigurationEncoder.messageTypeNullValue(),
+            throttleWindowInMs,
+            throttleLimitOfMessages,
+            ThrottleConfigurationEncoder.burstLimitOfMessagesNullValue());
+    }
+
+    ThrottleConfigurationReply(
+        final LibraryPoller libraryPoller,
+        final long latestReplyArrivalTime,
+        final long sessionId,
+        final long messageType,
+        final int throttleWindowInMs,
+        final int throttleLimitOfMessages,
+        final int burstLimitOfMessages)
     {
         super(libraryPoller, latestReplyArrivalTime);
         this.sessionId = sessionId;
+        this.messageType = messageType;
         this.throttleWindowInMs = throttleWindowInMs;
         this.throttleLimitOfMessages = throttleLimitOfMessages;
+        this.burstLimitOfMessages = burstLimitOfMessages;
         if (libraryPoller.isConnected())
         {
             sendMessage();
@@ -46,7 +70,7 @@ class ThrottleConfigurationReply extends LibraryReply<ThrottleConfigurationStatu
     protected void sendMessage()
     {
         final long position = libraryPoller.saveThrottleConfiguration(
-            correlationId, sessionId, throttleWindowInMs, throttleLimitOfMessages);
+            correlationId, sessionId, messageType, throttleWindowInMs, throttleLimitOfMessages, burstLimitOfMessages);
 
         requiresResend = position < 0;
     }
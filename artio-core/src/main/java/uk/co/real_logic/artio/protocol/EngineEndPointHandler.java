@@ -130,13 +130,22 @@ public interface EngineEndPointHandler
         long refMsgType,
         int refSeqNum,
         int sequenceNumber,
+        int throttleWindowInMs,
+        int throttleLimitOfMessages,
+        int burstLimitOfMessages,
         DirectBuffer businessRejectRefIDBuffer,
         int businessRejectRefIDOffset,
         int businessRejectRefIDLength,
         Header header);
 
     Action onThrottleConfiguration(
-        int libraryId, long correlationId, long session, int throttleWindowInMs, int throttleLimitOfMessages);
+        int libraryId,
+        long correlationId,
+        long session,
+        int throttleWindowInMs,
+        int throttleLimitOfMessages,
+        long messageType,
+        int burstLimitOfMessages);
 
     Action onSeqIndexSync(int libraryId, long sessionId, int sequenceIndex);
 
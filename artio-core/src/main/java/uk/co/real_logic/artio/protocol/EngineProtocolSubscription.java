@@ -158,7 +158,9 @@ public final class EngineProtocolSubscription implements ControlledFragmentHandl
             throttleConfiguration.correlationId(),
             throttleConfiguration.session(),
             throttleConfiguration.throttleWindowInMs(),
-            throttleConfiguration.throttleLimitOfMessages());
+            throttleConfiguration.throttleLimitOfMessages(),
+            throttleConfiguration.messageType(),
+            throttleConfiguration.burstLimitOfMessages());
     }
 
     private Action onThrottleReject(
@@ -176,6 +178,9 @@ public final class EngineProtocolSubscription implements ControlledFragmentHandl
             throttleReject.refMsgType(),
             throttleReject.refSeqNum(),
             throttleReject.sequenceNumber(),
+            throttleReject.throttleWindowInMs(),
+            throttleReject.throttleLimitOfMessages(),
+            throttleReject.burstLimitOfMessages(),
             buffer,
             businessRejectRefIDOffset,
             throttleReject.businessRejectRefIDLength(),
@@ -33,6 +33,7 @@ import uk.co.real_logic.artio.messages.*;
 import uk.co.real_logic.artio.messages.ControlNotificationEncoder.DisconnectedSessionsEncoder;
 import uk.co.real_logic.artio.messages.ControlNotificationEncoder.SessionsEncoder;
 import uk.co.real_logic.artio.util.CharFormatter;
+import uk.co.real_logic.artio.util.TagOffsetTable;
 
 import java.util.List;
 
@@ -47,6 +48,7 @@ import static uk.co.real_logic.artio.LogTag.*;
 import static uk.co.real_logic.artio.messages.ErrorDecoder.messageHeaderLength;
 import static uk.co.real_logic.artio.messages.ErrorEncoder.BLOCK_LENGTH;
 import static uk.co.real_logic.artio.messages.FixMessageEncoder.metaDataHeaderLength;
+import static uk.co.real_logic.artio.messages.FixMessageEncoder.tagOffsetsHeaderLength;
 
 /**
  * A proxy for publishing messages fix related messages
@@ -59,6 +61,8 @@ public class GatewayPublication extends ClaimablePublication
         FixMessageDecoder.bodyHeaderLength();
 
     public static final int FRAMED_MESSAGE_SIZE = MessageHeaderEncoder.ENCODED_LENGTH + FRAME_SIZE;
+    // Every frame has the tagOffsets length after the body, even if it has no table
+    public static final int FRAMED_MESSAGE_TRAILER_SIZE = tagOffsetsHeaderLength();
 
     private static final byte[] NO_BYTES = {};
     private static final DirectBuffer NO_METADATA = new UnsafeBuffer(NO_BYTES);
@@ -181,6 +185,9 @@ public class GatewayPublication extends ClaimablePublication
     private final EpochNanoClock clock;
     private final int maxPayloadLength;
 
+    private int tagOffsetTableFields;
+    private UnsafeBuffer tagOffsetTable;
+
     public GatewayPublication(
         final ExclusivePublication dataPublication,
         final AtomicCounter fails,
@@ -193,6 +200,20 @@ public class GatewayPublication extends ClaimablePublication
         this.maxPayloadLength = dataPublication.maxPayloadLength();
     }
 
+    /**
+     * Attach a {@link TagOffsetTable} of up to tagOffsetTableFields leading fields to each FIX message saved from
+     * now on. Messages that would need to be fragmented are saved with an empty table, and the table is cut short
+     * if the whole table wouldn't fit in an unfragmented frame.
+     *
+     * @param tagOffsetTableFields the maximum number of fields in the table, 0 to not attach tables.
+     */
+    public void tagOffsetTableFields(final int tagOffsetTableFields)
+    {
+        this.tagOffsetTableFields = tagOffsetTableFields;
+        tagOffsetTable = tagOffsetTableFields > 0 ?
+            new UnsafeBuffer(new byte[tagOffsetTableFields * TagOffsetTable.ENTRY_LENGTH]) : null;
+    }
+
     public long saveMessage(
         final DirectBuffer srcBuffer,
         final int srcOffset,
@@ -298,10 +319,13 @@ public class GatewayPublication extends ClaimablePublication
         final int metaDataLength = metaDataBuffer.capacity();
 
         final BufferClaim bufferClaim = this.bufferClaim;
-        final int framedLength = FRAMED_MESSAGE_SIZE + srcLength + metaDataLength;
+        final int framedLength = FRAMED_MESSAGE_SIZE + srcLength + metaDataLength + FRAMED_MESSAGE_TRAILER_SIZE;
         final boolean fragmented = framedLength > maxPayloadLength;
-        final int claimLength = fragmented ? maxPayloadLength : framedLength;
-        int srcFragmentLength = fragmented ? maxPayloadLength - (FRAMED_MESSAGE_SIZE + metaDataLength) : srcLength;
+        final int tagOffsetTableLength = fragmented ? 0 :
+            encodeTagOffsets(srcBuffer, srcOffset, srcLength, maxPayloadLength - framedLength);
+        final int claimLength = fragmented ? maxPayloadLength : framedLength + tagOffsetTableLength;
+        int srcFragmentLength = fragmented ?
+            Math.min(srcLength, maxPayloadLength - (FRAMED_MESSAGE_SIZE + metaDataLength)) : srcLength;
         int srcFragmentOffset = srcOffset;
 
         if (fragmented)
@@ -359,21 +383,38 @@ public class GatewayPublication extends ClaimablePublication
 
         if (!fragmented)
         {
+            if (tagOffsetTableLength > 0)
+            {
+                fixMessage.putTagOffsets(tagOffsetTable, 0, tagOffsetTableLength);
+            }
+            else
+            {
+                fixMessage.putTagOffsets(NO_METADATA, 0, 0);
+            }
+
             bufferClaim.commit();
         }
         else
         {
             putBodyLength(srcLength, offset, metaDataLength, destBuffer);
 
+            // The rest of the claim, if any, is the start of the empty tagOffsets trailer, whose bytes are all zero.
+            final int trailerStart = fixMessage.limit();
+            final int claimEnd = bufferClaim.offset() + claimLength;
+            destBuffer.setMemory(trailerStart, claimEnd - trailerStart, (byte)0);
+            int remainingTrailer = FRAMED_MESSAGE_TRAILER_SIZE - (claimEnd - trailerStart);
+
             bufferClaim.flags((byte)BEGIN_FLAG).commit();
 
             int remaining = srcLength - srcFragmentLength;
-            while (remaining > 0)
+            while (remaining + remainingTrailer > 0)
             {
                 srcFragmentOffset += srcFragmentLength;
                 srcFragmentLength = Math.min(remaining, maxPayloadLength);
+                final int trailerFragmentLength = Math.min(remainingTrailer, maxPayloadLength - srcFragmentLength);
+                final int fragmentLength = srcFragmentLength + trailerFragmentLength;
 
-                position = claim(srcFragmentLength);
+                position = claim(fragmentLength);
                 // NB: if multiple fragments are written but never finished then
                 // the message gets thrown away in re-assembly.
                 if (position < 0)
@@ -382,14 +423,31 @@ public class GatewayPublication extends ClaimablePublication
                 }
 
                 remaining -= srcFragmentLength;
-                bufferClaim.buffer().putBytes(bufferClaim.offset(), srcBuffer, srcFragmentOffset, srcFragmentLength);
-                bufferClaim.flags(remaining > 0 ? MIDDLE_FLAG : (byte)END_FLAG).commit();
+                remainingTrailer -= trailerFragmentLength;
+                final MutableDirectBuffer fragmentBuffer = bufferClaim.buffer();
+                final int fragmentOffset = bufferClaim.offset();
+                fragmentBuffer.putBytes(fragmentOffset, srcBuffer, srcFragmentOffset, srcFragmentLength);
+                fragmentBuffer.setMemory(fragmentOffset + srcFragmentLength, trailerFragmentLength, (byte)0);
+                bufferClaim.flags(remaining + remainingTrailer > 0 ? MIDDLE_FLAG : (byte)END_FLAG).commit();
             }
         }
         DebugLogger.logFixMessage(FIX_MESSAGE_FLOW, messageType, "Enqueued ", srcBuffer, srcOffset, srcLength);
         return position;
     }
 
+    // Only scans as many fields as fit in the space left in the frame, so a message is never scanned for nothing.
+    private int encodeTagOffsets(
+        final DirectBuffer srcBuffer, final int srcOffset, final int srcLength, final int availableLength)
+    {
+        final int maxFields = Math.min(tagOffsetTableFields, availableLength / TagOffsetTable.ENTRY_LENGTH);
+        if (maxFields <= 0)
+        {
+            return 0;
+        }
+
+        return TagOffsetTable.encode(srcBuffer, srcOffset, srcLength, tagOffsetTable, 0, maxFields);
+    }
+
     private void putBodyLength(
         final int srcLength, final int offset, final int metaDataLength, final MutableDirectBuffer destBuffer)
     {
@@ -1575,6 +1633,35 @@ public class GatewayPublication extends ClaimablePublication
         final DirectBuffer businessRejectRefIDBuffer,
         final int businessRejectRefIDOffset,
         final int businessRejectRefIDLength)
+    {
+        return saveThrottleNotification(
+            libraryId,
+            connectionId,
+            refMsgType,
+            refSeqNum,
+            sessionId,
+            sequenceIndex,
+            ThrottleNotificationEncoder.throttleWindowInMsNullValue(),
+            ThrottleNotificationEncoder.throttleLimitOfMessagesNullValue(),
+            ThrottleNotificationEncoder.burstLimitOfMessagesNullValue(),
+            businessRejectRefIDBuffer,
+            businessRejectRefIDOffset,
+            businessRejectRefIDLength);
+    }
+
+    public long saveThrottleNotification(
+        final int libraryId,
+        final long connectionId,
+        final long refMsgType,
+        final int refSeqNum,
+        final long sessionId,
+        final int sequenceIndex,
+        final int throttleWindowInMs,
+        final int throttleLimitOfMessages,
+        final int burstLimitOfMessages,
+        final DirectBuffer businessRejectRefIDBuffer,
+        final int businessRejectRefIDOffset,
+        final int businessRejectRefIDLength)
     {
         final long position = claim(THROTTLE_NOTIFICATION_LENGTH + businessRejectRefIDLength);
         if (position < 0)
@@ -1593,6 +1680,9 @@ public class GatewayPublication extends ClaimablePublication
             .refSeqNum(refSeqNum)
             .session(sessionId)
             .sequenceIndex(sequenceIndex)
+            .throttleWindowInMs(throttleWindowInMs)
+            .throttleLimitOfMessages(throttleLimitOfMessages)
+            .burstLimitOfMessages(burstLimitOfMessages)
             .putBusinessRejectRefID(businessRejectRefIDBuffer, businessRejectRefIDOffset, businessRejectRefIDLength);
 
         bufferClaim.commit();
@@ -1610,6 +1700,9 @@ public class GatewayPublication extends ClaimablePublication
         final int sequenceNumber,
         final long sessionId,
         final int sequenceIndex,
+        final int throttleWindowInMs,
+        final int throttleLimitOfMessages,
+        final int burstLimitOfMessages,
         final DirectBuffer businessRejectRefIDBuffer,
         final int businessRejectRefIDOffset,
         final int businessRejectRefIDLength)
@@ -1632,6 +1725,9 @@ public class GatewayPublication extends ClaimablePublication
             .sequenceNumber(sequenceNumber)
             .session(sessionId)
             .sequenceIndex(sequenceIndex)
+            .throttleWindowInMs(throttleWindowInMs)
+            .throttleLimitOfMessages(throttleLimitOfMessages)
+            .burstLimitOfMessages(burstLimitOfMessages)
             .putBusinessRejectRefID(businessRejectRefIDBuffer, businessRejectRefIDOffset, businessRejectRefIDLength);
 
         bufferClaim.commit();
@@ -1647,6 +1743,25 @@ public class GatewayPublication extends ClaimablePublication
         final long sessionId,
         final int throttleWindowInMs,
         final int throttleLimitOfMessages)
+    {
+        return saveThrottleConfiguration(
+            libraryId,
+            correlationId,
+            sessionId,
+            ThrottleConfigurationEncoder.messageTypeNullValue(),
+            throttleWindowInMs,
+            throttleLimitOfMessages,
+            ThrottleConfigurationEncoder.burstLimitOfMessagesNullValue());
+    }
+
+    public long saveThrottleConfiguration(
+        final int libraryId,
+        final long correlationId,
+        final long sessionId,
+        final long messageType,
+        final int throttleWindowInMs,
+        final int throttleLimitOfMessages,
+        final int burstLimitOfMessages)
     {
         final long position = claim(THROTTLE_CONFIGURATION_LENGTH);
         if (position < 0)
@@ -1663,7 +1778,9 @@ public class GatewayPublication extends ClaimablePublication
             .correlationId(correlationId)
             .session(sessionId)
             .throttleWindowInMs(throttleWindowInMs)
-            .throttleLimitOfMessages(throttleLimitOfMessages);
+            .throttleLimitOfMessages(throttleLimitOfMessages)
+            .messageType(messageType)
+            .burstLimitOfMessages(burstLimitOfMessages);
 
         bufferClaim.commit();
 
@@ -142,6 +142,9 @@ public interface LibraryEndPointHandler
         long connection,
         long refMsgType,
         int refSeqNum,
+        int throttleWindowInMs,
+        int throttleLimitOfMessages,
+        int burstLimitOfMessages,
         DirectBuffer businessRejectRefIDBuffer, int businessRejectRefIDOffset, int businessRejectRefIDLength,
         long position);
 
@@ -173,6 +173,9 @@ public final class LibraryProtocolSubscription implements ControlledFragmentHand
             throttleNotification.connection(),
             throttleNotification.refMsgType(),
             throttleNotification.refSeqNum(),
+            throttleNotification.throttleWindowInMs(),
+            throttleNotification.throttleLimitOfMessages(),
+            throttleNotification.burstLimitOfMessages(),
             buffer,
             businessRejectRefIDOffset,
             throttleNotification.businessRejectRefIDLength(),
@@ -22,9 +22,12 @@ import uk.co.real_logic.artio.DebugLogger;
 import uk.co.real_logic.artio.engine.framer.MessageTypeExtractor;
 import uk.co.real_logic.artio.messages.*;
 import uk.co.real_logic.artio.util.CharFormatter;
+import uk.co.real_logic.artio.util.TagOffsetTable;
 
 import static io.aeron.logbuffer.ControlledFragmentHandler.Action.CONTINUE;
+import static java.nio.ByteOrder.LITTLE_ENDIAN;
 import static uk.co.real_logic.artio.LogTag.FIX_CONNECTION;
+import static uk.co.real_logic.artio.messages.FixMessageDecoder.tagOffsetsHeaderLength;
 import static uk.co.real_logic.artio.protocol.GatewayPublication.FRAME_SIZE;
 
 public final class ProtocolSubscription implements ControlledFragmentHandler
@@ -40,16 +43,48 @@ public final class ProtocolSubscription implements ControlledFragmentHandler
 
     private final ProtocolHandler protocolHandler;
     private final Action defaultAction;
+    private final boolean filterByLibraryId;
+    private final int libraryId;
+    private final TagOffsetTable tagOffsets;
 
     public static ProtocolSubscription of(final ProtocolHandler protocolHandler)
     {
-        return new ProtocolSubscription(protocolHandler, CONTINUE);
+        return new ProtocolSubscription(protocolHandler, CONTINUE, false, 0, null);
     }
 
     public static ControlledFragmentHandler of(
         final ProtocolHandler protocolHandler, final ControlledFragmentHandler other)
     {
-        final ProtocolSubscription subscription = new ProtocolSubscription(protocolHandler, UNKNOWN_TEMPLATE);
+        return withOther(new ProtocolSubscription(protocolHandler, UNKNOWN_TEMPLATE, false, 0, null), other);
+    }
+
+    /**
+     * Create a subscription for a library. All libraries read the same inbound stream, so FIX messages that are
+     * for other libraries are skipped before their frame is decoded rather than being handed to the protocol
+     * handler to be filtered out.
+     *
+     * The tag offset table of each FIX message is wrapped by tagOffsets before the message is passed to the protocol
+     * handler, or tagOffsets is reset if the message doesn't have one.
+     *
+     * @param libraryId the id of the library that is subscribing.
+     * @param protocolHandler the handler for messages to this library.
+     * @param tagOffsets the table to wrap the tag offset table of each FIX message with.
+     * @param other the handler for other message templates.
+     * @return the fragment handler.
+     */
+    public static ControlledFragmentHandler forLibrary(
+        final int libraryId,
+        final ProtocolHandler protocolHandler,
+        final TagOffsetTable tagOffsets,
+        final ControlledFragmentHandler other)
+    {
+        return withOther(
+            new ProtocolSubscription(protocolHandler, UNKNOWN_TEMPLATE, true, libraryId, tagOffsets), other);
+    }
+
+    private static ControlledFragmentHandler withOther(
+        final ProtocolSubscription subscription, final ControlledFragmentHandler other)
+    {
         return (buffer, offset, length, header) ->
         {
             final Action action = subscription.onFragment(buffer, offset, length, header);
@@ -63,10 +98,18 @@ public final class ProtocolSubscription implements ControlledFragmentHandler
         };
     }
 
-    private ProtocolSubscription(final ProtocolHandler protocolHandler, final Action defaultAction)
+    private ProtocolSubscription(
+        final ProtocolHandler protocolHandler,
+        final Action defaultAction,
+        final boolean filterByLibraryId,
+        final int libraryId,
+        final TagOffsetTable tagOffsets)
     {
         this.protocolHandler = protocolHandler;
         this.defaultAction = defaultAction;
+        this.filterByLibraryId = filterByLibraryId;
+        this.libraryId = libraryId;
+        this.tagOffsets = tagOffsets;
     }
 
     public Action onFragment(
@@ -137,15 +180,28 @@ public final class ProtocolSubscription implements ControlledFragmentHandler
         final Header header)
     {
         messageFrame.wrap(buffer, offset, blockLength, version);
+        final int libraryId = messageFrame.libraryId();
+        if (filterByLibraryId && libraryId != this.libraryId)
+        {
+            return CONTINUE;
+        }
+
         final int metaDataLength = messageFrame.skipMetaData();
 
         final int messageLength = messageFrame.bodyLength();
+        final int messageOffset = offset + FRAME_SIZE + metaDataLength;
+        final TagOffsetTable tagOffsets = this.tagOffsets;
+        if (tagOffsets != null)
+        {
+            wrapTagOffsets(tagOffsets, buffer, messageOffset + messageLength, version);
+        }
+
         final long messageType = MessageTypeExtractor.getMessageType(messageFrame);
         return protocolHandler.onMessage(
             buffer,
-            offset + FRAME_SIZE + metaDataLength,
+            messageOffset,
             messageLength,
-            messageFrame.libraryId(),
+            libraryId,
             messageFrame.connection(),
             messageFrame.session(),
             messageFrame.sequenceIndex(),
@@ -156,4 +212,21 @@ public final class ProtocolSubscription implements ControlledFragmentHandler
             header,
             metaDataLength);
     }
+
+    private static void wrapTagOffsets(
+        final TagOffsetTable tagOffsets,
+        final DirectBuffer buffer,
+        final int bodyEnd,
+        final int version)
+    {
+        if (version >= FixMessageDecoder.tagOffsetsSinceVersion())
+        {
+            final int tableLength = buffer.getShort(bodyEnd, LITTLE_ENDIAN) & 0xFFFF;
+            tagOffsets.wrap(buffer, bodyEnd + tagOffsetsHeaderLength(), tableLength);
+        }
+        else
+        {
+            tagOffsets.reset();
+        }
+    }
 }
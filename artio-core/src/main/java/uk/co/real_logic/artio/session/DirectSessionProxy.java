@@ -164,6 +164,7 @@ public class DirectSessionProxy implements SessionProxy
         {
             sessionIdStrategy.setupSession(sessionKey, header);
             customisationStrategy.configureHeader(header, sessionId);
+            header.cacheConstantFields();
         }
     }
 
@@ -43,5 +43,12 @@ public interface FixSessionOwner
     Reply<ThrottleConfigurationStatus> messageThrottle(
         long sessionId, int throttleWindowInMs, int throttleLimitOfMessages);
 
+    Reply<ThrottleConfigurationStatus> messageTypeThrottle(
+        long sessionId,
+        long messageType,
+        int throttleWindowInMs,
+        int throttleLimitOfMessages,
+        int burstLimitOfMessages);
+
     long inboundMessagePosition();
 }
@@ -0,0 +1,260 @@
+/*
+ * Copyright 2015-2022 Real Logic Limited.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.session;
+
+import org.agrona.DirectBuffer;
+import org.agrona.ExpandableArrayBuffer;
+import org.agrona.MutableDirectBuffer;
+
+import java.util.Arrays;
+
+/**
+ * A set of changes to the fields of a message that is being forwarded with
+ * {@link Session#tryForward(DirectBuffer, int, int, long, ForwardingEdits)}. Each edit either replaces the value of
+ * a field, removes it or removes a repeating group. Fields are only edited if they're present in the forwarded
+ * message, edits don't add new fields. If a tag occurs more than once in a message, for example within a repeating
+ * group, then every occurrence is edited. Editing a data field, for example RawData, also updates the field that
+ * gives its length.
+ *
+ * Edits are kept in arrays and scanned linearly, so they're intended for a small number of fields. Instances can be
+ * reused after calling {@link #clear()} and don't allocate once their arrays have grown to fit.
+ *
+ * The session level header fields, for example the comp ids, MsgSeqNum and SendingTime, are always set by the
+ * forwarding session and can't be edited.
+ */
+public final class ForwardingEdits
+{
+    private static final int INITIAL_CAPACITY = 8;
+    static final int NOT_EDITED = -1;
+
+    private static final int REMOVED = -1;
+
+    private final ExpandableArrayBuffer values = new ExpandableArrayBuffer(INITIAL_CAPACITY * 16);
+    private int[] tags = new int[INITIAL_CAPACITY];
+    private int[] valueOffsets = new int[INITIAL_CAPACITY];
+    private int[] valueLengths = new int[INITIAL_CAPACITY];
+    private int[] groupTagOffsets = new int[INITIAL_CAPACITY];
+    private int[] groupTagCounts = new int[INITIAL_CAPACITY];
+    private int[] groupTags = new int[INITIAL_CAPACITY];
+    private int size;
+    private int valuesLength;
+    private int groupTagsLength;
+
+    /**
+     * Replace the value of a field.
+     *
+     * @param tag the tag of the field to replace.
+     * @param value the new value of the field in ASCII.
+     * @return this
+     * @throws IllegalArgumentException if the tag is invalid, a session level header field or the length of a data
+     *                                  field.
+     */
+    public ForwardingEdits replace(final int tag, final CharSequence value)
+    {
+        final int index = add(tag);
+        final int length = value.length();
+        final int offset = valuesLength;
+        for (int i = 0; i < length; i++)
+        {
+            values.putByte(offset + i, (byte)value.charAt(i));
+        }
+        setValue(index, offset, length);
+        return this;
+    }
+
+    /**
+     * Replace the value of a field.
+     *
+     * @param tag the tag of the field to replace.
+     * @param value the buffer containing the new value of the field.
+     * @param offset the offset of the value within the buffer.
+     * @param length the length of the value.
+     * @return this
+     * @throws IllegalArgumentException if the tag is invalid, a session level header field or the length of a data
+     *                                  field.
+     */
+    public ForwardingEdits replace(final int tag, final DirectBuffer value, final int offset, final int length)
+    {
+        final int index = add(tag);
+        final int valueOffset = valuesLength;
+        values.putBytes(valueOffset, value, offset, length);
+        setValue(index, valueOffset, length);
+        return this;
+    }
+
+    /**
+     * Remove a field. Use {@link #removeGroup(int, int...)} to remove the NoXXX field of a repeating group, so that
+     * its entries are removed as well.
+     *
+     * @param tag the tag of the field to remove.
+     * @return this
+     * @throws IllegalArgumentException if the tag is invalid, a session level header field or the length of a data
+     *                                  field.
+     */
+    public ForwardingEdits remove(final int tag)
+    {
+        final int index = add(tag);
+        valueOffsets[index] = 0;
+        valueLengths[index] = REMOVED;
+        return this;
+    }
+
+    /**
+     * Remove a repeating group, both its NoXXX field and all of its entries. Forwarded messages aren't decoded with a
+     * dictionary, so the tags of the fields that can occur within the group's entries, including those of any nested
+     * groups, need to be provided. The group ends at the first field after the NoXXX field whose tag isn't one of them.
+     *
+     * @param numInGroupTag the tag of the NoXXX field that gives the number of entries in the group.
+     * @param groupTags the tags of the fields that can occur within the entries of the group.
+     * @return this
+     * @throws IllegalArgumentException if the tag is invalid, a session level header field or the length of a data
+     *                                  field.
+     */
+    public ForwardingEdits removeGroup(final int numInGroupTag, final int... groupTags)
+    {
+        final int index = add(numInGroupTag);
+        valueOffsets[index] = 0;
+        valueLengths[index] = REMOVED;
+
+        final int offset = groupTagsLength;
+        final int count = groupTags.length;
+        if (offset + count > this.groupTags.length)
+        {
+            this.groupTags = Arrays.copyOf(this.groupTags, Math.max(offset + count, this.groupTags.length * 2));
+        }
+        System.arraycopy(groupTags, 0, this.groupTags, offset, count);
+        groupTagOffsets[index] = offset;
+        groupTagCounts[index] = count;
+        groupTagsLength = offset + count;
+        return this;
+    }
+
+    /**
+     * Remove all edits.
+     *
+     * @return this
+     */
+    public ForwardingEdits clear()
+    {
+        size = 0;
+        valuesLength = 0;
+        groupTagsLength = 0;
+        return this;
+    }
+
+    /**
+     * Check whether there are any edits.
+     *
+     * @return true if there are no edits, false otherwise.
+     */
+    public boolean isEmpty()
+    {
+        return size == 0;
+    }
+
+    int indexOf(final int tag)
+    {
+        final int[] tags = this.tags;
+        for (int i = 0, size = this.size; i < size; i++)
+        {
+            if (tags[i] == tag)
+            {
+                return i;
+            }
+        }
+
+        return NOT_EDITED;
+    }
+
+    boolean isRemoved(final int index)
+    {
+        return valueLengths[index] == REMOVED;
+    }
+
+    int valueLength(final int index)
+    {
+        return valueLengths[index];
+    }
+
+    int putValue(final int index, final MutableDirectBuffer buffer, final int offset)
+    {
+        final int length = valueLengths[index];
+        buffer.putBytes(offset, values, valueOffsets[index], length);
+        return length;
+    }
+
+    boolean isGroup(final int index)
+    {
+        return groupTagCounts[index] > 0;
+    }
+
+    boolean isGroupTag(final int index, final int tag)
+    {
+        final int[] groupTags = this.groupTags;
+        for (int i = groupTagOffsets[index], end = i + groupTagCounts[index]; i < end; i++)
+        {
+            if (groupTags[i] == tag)
+            {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    private int add(final int tag)
+    {
+        if (tag <= 0 || MessageForwarder.isSessionHeaderTag(tag))
+        {
+            throw new IllegalArgumentException("Unable to edit tag " + tag + " of a forwarded message");
+        }
+
+        if (MessageForwarder.isDataLengthTag(tag))
+        {
+            throw new IllegalArgumentException(
+                "Unable to edit tag " + tag + " of a forwarded message, it's updated along with its data field");
+        }
+
+        final int existingIndex = indexOf(tag);
+        if (existingIndex != NOT_EDITED)
+        {
+            groupTagCounts[existingIndex] = 0;
+            return existingIndex;
+        }
+
+        final int index = size;
+        if (index == tags.length)
+        {
+            final int newCapacity = index * 2;
+            tags = Arrays.copyOf(tags, newCapacity);
+            valueOffsets = Arrays.copyOf(valueOffsets, newCapacity);
+            valueLengths = Arrays.copyOf(valueLengths, newCapacity);
+            groupTagOffsets = Arrays.copyOf(groupTagOffsets, newCapacity);
+            groupTagCounts = Arrays.copyOf(groupTagCounts, newCapacity);
+        }
+        tags[index] = tag;
+        groupTagCounts[index] = 0;
+        size = index + 1;
+        return index;
+    }
+
+    private void setValue(final int index, final int offset, final int length)
+    {
+        valueOffsets[index] = offset;
+        valueLengths[index] = length;
+        valuesLength = offset + length;
+    }
+}
@@ -321,6 +321,9 @@ public class InternalSession extends Session implements AutoCloseable
     public boolean onThrottleNotification(
         final long refMsgType,
         final int refSeqNum,
+        final int throttleWindowInMs,
+        final int throttleLimitOfMessages,
+        final int burstLimitOfMessages,
         final DirectBuffer businessRejectRefIDBuffer,
         final int businessRejectRefIDOffset,
         final int businessRejectRefIDLength)
@@ -340,6 +343,9 @@ public class InternalSession extends Session implements AutoCloseable
             sequenceNumber,
             id(),
             sequenceIndex(),
+            throttleWindowInMs,
+            throttleLimitOfMessages,
+            burstLimitOfMessages,
             businessRejectRefIDBuffer,
             businessRejectRefIDOffset,
             businessRejectRefIDLength);
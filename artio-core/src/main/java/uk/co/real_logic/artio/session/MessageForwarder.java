@@ -0,0 +1,326 @@
+/*
+ * Copyright 2015-2022 Real Logic Limited.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.session;
+
+import org.agrona.DirectBuffer;
+import uk.co.real_logic.artio.builder.Encoder;
+import uk.co.real_logic.artio.builder.SessionHeaderEncoder;
+import uk.co.real_logic.artio.dictionary.FixDictionary;
+import uk.co.real_logic.artio.util.MutableAsciiBuffer;
+
+import static java.nio.charset.StandardCharsets.US_ASCII;
+import static uk.co.real_logic.artio.dictionary.SessionConstants.*;
+import static uk.co.real_logic.artio.util.AsciiBuffer.SEPARATOR;
+import static uk.co.real_logic.artio.util.AsciiBuffer.UNKNOWN_INDEX;
+
+/**
+ * Re-frames a message received on one session so that it can be sent on another without decoding and re-encoding
+ * its body. The session level header fields are written by the forwarding session's header encoder, the rest of the
+ * message is copied across in as few runs as possible, only breaking a run where a field is dropped or edited. The
+ * BodyLength and CheckSum are then computed for the new message.
+ *
+ * Fields are found by scanning for separators, apart from the standard data fields (RawData, XmlData, SecureData and
+ * Signature) whose length is given by the field before them, so they're skipped over using that length. Replacing one
+ * of these data fields also updates its length field.
+ */
+final class MessageForwarder
+{
+    private static final byte[] BEGIN_STRING_TAG = "8=".getBytes(US_ASCII);
+    private static final byte[] BODY_LENGTH_TAG = "9=".getBytes(US_ASCII);
+    private static final byte[] CHECKSUM_TAG = "10=".getBytes(US_ASCII);
+    private static final int BEGIN_STRING = 8;
+    private static final int CHECKSUM_VALUE_LENGTH = 3;
+    private static final int MAX_TAG_DIGITS = 9;
+    private static final int NO_TAG = -1;
+
+    private static final int SECURE_DATA_LEN = 90;
+    private static final int SECURE_DATA = 91;
+    private static final int SIGNATURE_LENGTH = 93;
+    private static final int SIGNATURE = 89;
+    private static final int RAW_DATA_LENGTH = 95;
+    private static final int RAW_DATA = 96;
+    private static final int XML_DATA_LEN = 212;
+    private static final int XML_DATA = 213;
+
+    private final MutableAsciiBuffer message = new MutableAsciiBuffer();
+    private final Session session;
+
+    private FixDictionary fixDictionary;
+    private SessionHeaderEncoder header;
+    private byte[] beginString;
+    private int sentSeqNum;
+
+    MessageForwarder(final Session session)
+    {
+        this.session = session;
+    }
+
+    static boolean isSessionHeaderTag(final int tag)
+    {
+        switch (tag)
+        {
+            case BEGIN_STRING:
+            case BODY_LENGTH:
+            case MESSAGE_TYPE:
+            case SENDER_COMP_ID:
+            case TARGET_COMP_ID:
+            case SENDER_SUB_ID:
+            case TARGET_SUB_ID:
+            case SENDER_LOCATION_ID:
+            case TARGET_LOCATION_ID:
+            case MSG_SEQ_NO:
+            case SENDING_TIME:
+            case POSS_DUP_FLAG:
+            case POSS_RESEND:
+            case ORIG_SENDING_TIME:
+            case LAST_MSG_SEQ_NUM_PROCESSED:
+            case CHECKSUM:
+                return true;
+
+            default:
+                return false;
+        }
+    }
+
+    static boolean isDataLengthTag(final int tag)
+    {
+        return dataTagOf(tag) != NO_TAG;
+    }
+
+    private static int dataTagOf(final int lengthTag)
+    {
+        switch (lengthTag)
+        {
+            case SECURE_DATA_LEN:
+                return SECURE_DATA;
+            case SIGNATURE_LENGTH:
+                return SIGNATURE;
+            case RAW_DATA_LENGTH:
+                return RAW_DATA;
+            case XML_DATA_LEN:
+                return XML_DATA;
+            default:
+                return NO_TAG;
+        }
+    }
+
+    /**
+     * Write a forwarded copy of a message into a buffer, allocating it the next sent sequence number of the session.
+     *
+     * @param buffer the buffer containing the message to forward.
+     * @param offset the offset of the message within the buffer.
+     * @param length the length of the message.
+     * @param edits the edits to apply to the fields of the message, or null for no edits.
+     * @param out the buffer to write the forwarded message into.
+     * @return the offset and length of the forwarded message in out, see {@link Encoder#result(int, int)}.
+     * @throws IllegalArgumentException if the message isn't a complete FIX message or a data field doesn't have the
+     *                                  length given by its length field.
+     */
+    long encode(
+        final DirectBuffer buffer,
+        final int offset,
+        final int length,
+        final ForwardingEdits edits,
+        final MutableAsciiBuffer out)
+    {
+        final MutableAsciiBuffer message = this.message;
+        message.wrap(buffer);
+        final SessionHeaderEncoder header = header();
+        final boolean hasEdits = edits != null && !edits.isEmpty();
+
+        final int end = offset + length;
+        int bodyStart = UNKNOWN_INDEX;
+        int position = 0;
+        int runStart = offset;
+        int fieldStart = offset;
+        int dataTag = NO_TAG;
+        int dataLength = 0;
+        int removedGroupIndex = ForwardingEdits.NOT_EDITED;
+        while (fieldStart < end)
+        {
+            final int valueOffset = valueOffset(fieldStart, end);
+            final int tag = valueOffset == NO_TAG ? NO_TAG : message.getNatural(fieldStart, valueOffset - 1);
+
+            final int separatorIndex;
+            if (tag != NO_TAG && tag == dataTag)
+            {
+                separatorIndex = valueOffset + dataLength;
+                if (separatorIndex >= end || message.getByte(separatorIndex) != SEPARATOR)
+                {
+                    throw new IllegalArgumentException(
+                        "Data field " + tag + " doesn't have the length given by its length field: " + dataLength);
+                }
+            }
+            else
+            {
+                separatorIndex = message.scan(fieldStart, end, SEPARATOR);
+                if (separatorIndex == UNKNOWN_INDEX)
+                {
+                    throw new IllegalArgumentException("Message doesn't end with a separator");
+                }
+            }
+
+            final int fieldEnd = separatorIndex + 1;
+            dataTag = dataTagOf(tag);
+            if (dataTag != NO_TAG)
+            {
+                dataLength = message.getNatural(valueOffset, separatorIndex);
+            }
+
+            if (bodyStart == UNKNOWN_INDEX)
+            {
+                if (tag == MESSAGE_TYPE)
+                {
+                    header.reset();
+                    header.msgType(buffer, valueOffset, separatorIndex - valueOffset);
+                    sentSeqNum = session.prepare(header);
+                    final long result = header.startMessage(out, 0);
+                    bodyStart = Encoder.offset(result);
+                    position = bodyStart + Encoder.length(result);
+                    runStart = fieldEnd;
+                }
+                else if (tag != BEGIN_STRING && tag != BODY_LENGTH)
+                {
+                    throw new IllegalArgumentException("Message doesn't start with a standard header");
+                }
+            }
+            else if (tag != NO_TAG)
+            {
+                if (removedGroupIndex != ForwardingEdits.NOT_EDITED && !edits.isGroupTag(removedGroupIndex, tag))
+                {
+                    removedGroupIndex = ForwardingEdits.NOT_EDITED;
+                }
+
+                final boolean inRemovedGroup = removedGroupIndex != ForwardingEdits.NOT_EDITED;
+                final int editIndex = hasEdits && !inRemovedGroup ?
+                    edits.indexOf(dataTag != NO_TAG ? dataTag : tag) : ForwardingEdits.NOT_EDITED;
+                if (inRemovedGroup || editIndex != ForwardingEdits.NOT_EDITED || isSessionHeaderTag(tag))
+                {
+                    out.putBytes(position, buffer, runStart, fieldStart - runStart);
+                    position += fieldStart - runStart;
+                    runStart = fieldEnd;
+
+                    if (editIndex != ForwardingEdits.NOT_EDITED)
+                    {
+                        if (edits.isRemoved(editIndex))
+                        {
+                            if (dataTag == NO_TAG && edits.isGroup(editIndex))
+                            {
+                                removedGroupIndex = editIndex;
+                            }
+                        }
+                        else
+                        {
+                            final int tagLength = valueOffset - fieldStart;
+                            out.putBytes(position, buffer, fieldStart, tagLength);
+                            position += tagLength;
+                            if (dataTag != NO_TAG)
+                            {
+                                position += out.putNaturalIntAscii(position, edits.valueLength(editIndex));
+                            }
+                            else
+                            {
+                                position += edits.putValue(editIndex, out, position);
+                            }
+                            out.putSeparator(position);
+                            position++;
+                        }
+                    }
+                }
+            }
+
+            fieldStart = fieldEnd;
+        }
+
+        if (bodyStart == UNKNOWN_INDEX)
+        {
+            throw new IllegalArgumentException("Message is missing a MsgType field");
+        }
+
+        out.putBytes(position, buffer, runStart, end - runStart);
+        position += end - runStart;
+
+        final int messageStart = putBeginStringAndBodyLength(out, bodyStart, position - bodyStart);
+
+        final int checksum = out.computeChecksum(messageStart, position);
+        out.putBytes(position, CHECKSUM_TAG);
+        position += CHECKSUM_TAG.length;
+        out.putNaturalPaddedIntAscii(position, CHECKSUM_VALUE_LENGTH, checksum);
+        position += CHECKSUM_VALUE_LENGTH;
+        out.putSeparator(position);
+        position++;
+
+        return Encoder.result(position - messageStart, messageStart);
+    }
+
+    int sentSeqNum()
+    {
+        return sentSeqNum;
+    }
+
+    private int putBeginStringAndBodyLength(final MutableAsciiBuffer out, final int bodyStart, final int bodyLength)
+    {
+        int position = bodyStart - 1;
+        out.putSeparator(position);
+        position = out.putNaturalIntAsciiFromEnd(bodyLength, position);
+        position -= BODY_LENGTH_TAG.length;
+        out.putBytes(position, BODY_LENGTH_TAG);
+
+        position--;
+        out.putSeparator(position);
+        position -= beginString.length;
+        out.putBytes(position, beginString);
+        position -= BEGIN_STRING_TAG.length;
+        out.putBytes(position, BEGIN_STRING_TAG);
+
+        return position;
+    }
+
+    // Returns NO_TAG if the field doesn't start with a tag, which can happen within a data field.
+    private int valueOffset(final int fieldStart, final int end)
+    {
+        final MutableAsciiBuffer message = this.message;
+        final int tagEnd = Math.min(end, fieldStart + MAX_TAG_DIGITS + 1);
+        for (int index = fieldStart; index < tagEnd; index++)
+        {
+            final byte value = message.getByte(index);
+            if (value == '=')
+            {
+                return index == fieldStart ? NO_TAG : index + 1;
+            }
+
+            if (value < '0' || value > '9')
+            {
+                return NO_TAG;
+            }
+        }
+
+        return NO_TAG;
+    }
+
+    private SessionHeaderEncoder header()
+    {
+        final FixDictionary fixDictionary = session.fixDictionary();
+        if (fixDictionary != this.fixDictionary)
+        {
+            this.fixDictionary = fixDictionary;
+            header = fixDictionary.makeHeaderEncoder();
+            beginString = fixDictionary.beginString().getBytes(US_ASCII);
+        }
+
+        return header;
+    }
+}
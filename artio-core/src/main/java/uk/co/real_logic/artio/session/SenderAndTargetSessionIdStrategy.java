@@ -17,6 +17,7 @@ package uk.co.real_logic.artio.session;
 
 import org.agrona.DirectBuffer;
 import org.agrona.MutableDirectBuffer;
+import org.agrona.concurrent.UnsafeBuffer;
 import uk.co.real_logic.artio.builder.SessionHeaderEncoder;
 import uk.co.real_logic.artio.decoder.SessionHeaderDecoder;
 import uk.co.real_logic.artio.dictionary.generation.CodecUtil;
@@ -42,6 +43,7 @@ class SenderAndTargetSessionIdStrategy implements SessionIdStrategy
     private final SenderAndTargetCompositeKeyDecoder keyDecoder = new SenderAndTargetCompositeKeyDecoder();
     private final int actingBlockLength = keyDecoder.sbeBlockLength();
     private final int actingVersion = keyDecoder.sbeSchemaVersion();
+    private final UnsafeBuffer compIdBuffer = new UnsafeBuffer(new byte[0]);
 
     SenderAndTargetSessionIdStrategy()
     {
@@ -96,18 +98,21 @@ class SenderAndTargetSessionIdStrategy implements SessionIdStrategy
         requireNonNull(compositeKey, "compositeKey");
         requireNonNull(buffer, "buffer");
 
-        final String localCompId = compositeKey.localCompId();
-        final String remoteCompId = compositeKey.remoteCompId();
+        final CompositeKeyImpl key = (CompositeKeyImpl)compositeKey;
+        final char[] localCompId = key.localCompID;
+        final char[] remoteCompId = key.remoteCompID;
 
-        final int length = localCompId.length() + remoteCompId.length() + BLOCK_AND_LENGTH_FIELDS_LENGTH;
+        final int length = localCompId.length + remoteCompId.length + BLOCK_AND_LENGTH_FIELDS_LENGTH;
         if (buffer.capacity() < offset + length)
         {
             return INSUFFICIENT_SPACE;
         }
 
         keyEncoder.wrap(buffer, offset);
-        keyEncoder.localCompId(localCompId);
-        keyEncoder.remoteCompId(remoteCompId);
+        CodecUtil.toBytes(localCompId, compIdBuffer, localCompId.length);
+        keyEncoder.putLocalCompId(compIdBuffer, 0, localCompId.length);
+        CodecUtil.toBytes(remoteCompId, compIdBuffer, remoteCompId.length);
+        keyEncoder.putRemoteCompId(compIdBuffer, 0, remoteCompId.length);
 
         return length;
     }
@@ -17,6 +17,7 @@ package uk.co.real_logic.artio.session;
 
 import org.agrona.DirectBuffer;
 import org.agrona.MutableDirectBuffer;
+import org.agrona.concurrent.UnsafeBuffer;
 import uk.co.real_logic.artio.builder.SessionHeaderEncoder;
 import uk.co.real_logic.artio.decoder.SessionHeaderDecoder;
 import uk.co.real_logic.artio.dictionary.generation.CodecUtil;
@@ -41,6 +42,7 @@ class SenderTargetAndSubSessionIdStrategy implements SessionIdStrategy
     private final SenderTargetAndSubCompositeKeyDecoder keyDecoder = new SenderTargetAndSubCompositeKeyDecoder();
     private final int actingBlockLength = keyDecoder.sbeBlockLength();
     private final int actingVersion = keyDecoder.sbeSchemaVersion();
+    private final UnsafeBuffer compIdBuffer = new UnsafeBuffer(new byte[0]);
 
     SenderTargetAndSubSessionIdStrategy()
     {
@@ -95,12 +97,13 @@ class SenderTargetAndSubSessionIdStrategy implements SessionIdStrategy
 
     public int save(final CompositeKey compositeKey, final MutableDirectBuffer buffer, final int offset)
     {
-        final String localCompID = compositeKey.localCompId();
-        final String localSubID = compositeKey.localSubId();
-        final String remoteCompID = compositeKey.remoteCompId();
+        final CompositeKeyImpl key = (CompositeKeyImpl)compositeKey;
+        final char[] localCompID = key.localCompID;
+        final char[] localSubID = key.localSubID;
+        final char[] remoteCompID = key.remoteCompID;
 
         final int length =
-            localCompID.length() + localSubID.length() + remoteCompID.length() + BLOCK_AND_LENGTH_FIELDS_LENGTH;
+            localCompID.length + localSubID.length + remoteCompID.length + BLOCK_AND_LENGTH_FIELDS_LENGTH;
 
         if (buffer.capacity() < offset + length)
         {
@@ -108,9 +111,12 @@ class SenderTargetAndSubSessionIdStrategy implements SessionIdStrategy
         }
 
         keyEncoder.wrap(buffer, offset);
-        keyEncoder.localCompId(localCompID);
-        keyEncoder.localSubId(localSubID);
-        keyEncoder.remoteCompId(remoteCompID);
+        CodecUtil.toBytes(localCompID, compIdBuffer, localCompID.length);
+        keyEncoder.putLocalCompId(compIdBuffer, 0, localCompID.length);
+        CodecUtil.toBytes(localSubID, compIdBuffer, localSubID.length);
+        keyEncoder.putLocalSubId(compIdBuffer, 0, localSubID.length);
+        CodecUtil.toBytes(remoteCompID, compIdBuffer, remoteCompID.length);
+        keyEncoder.putRemoteCompId(compIdBuffer, 0, remoteCompID.length);
 
         return length;
     }
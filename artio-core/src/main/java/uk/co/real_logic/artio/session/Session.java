@@ -40,6 +40,7 @@ import uk.co.real_logic.artio.protocol.GatewayPublication;
 import uk.co.real_logic.artio.protocol.NotConnectedException;
 import uk.co.real_logic.artio.util.AsciiBuffer;
 import uk.co.real_logic.artio.util.EpochFractionClock;
+import uk.co.real_logic.artio.util.MessageTypeEncoding;
 import uk.co.real_logic.artio.util.MutableAsciiBuffer;
 
 import java.lang.ref.WeakReference;
@@ -62,6 +63,7 @@ import static uk.co.real_logic.artio.dictionary.generation.CodecUtil.MISSING_INT
 import static uk.co.real_logic.artio.dictionary.generation.CodecUtil.MISSING_LONG;
 import static uk.co.real_logic.artio.engine.EngineConfiguration.MAX_COD_TIMEOUT_IN_NS;
 import static uk.co.real_logic.artio.engine.EngineConfiguration.validateMessageThrottleOptions;
+import static uk.co.real_logic.artio.engine.EngineConfiguration.validateMessageTypeThrottleOptions;
 import static uk.co.real_logic.artio.engine.SessionInfo.UNKNOWN_SEQUENCE_INDEX;
 import static uk.co.real_logic.artio.engine.logger.SequenceNumberIndexWriter.NO_REQUIRED_POSITION;
 import static uk.co.real_logic.artio.fields.RejectReason.*;
@@ -191,6 +193,7 @@ public class Session
 
     private int logoutRejectReason = NO_LOGOUT_REJECT_REASON;
     private FixDictionary fixDictionary;
+    private MessageForwarder messageForwarder;
 
     private long cancelOnDisconnectTimeoutWindowInNs = MISSING_LONG;
     private boolean isSlowConsumer;
@@ -577,6 +580,34 @@ public class Session
             id, throttleWindowInMs, throttleLimitOfMessages);
     }
 
+    /**
+     * Add or override a throttle for a single message type for a given session. Throttles for other message types
+     * and the session wide message throttle are unaffected.
+     *
+     * @param messageType the message type to throttle, eg: "D".
+     * @param throttleWindowInMs the time window over which the limit of messages refills.
+     * @param throttleLimitOfMessages the number of messages that can be received in each time window.
+     * @param burstLimitOfMessages the maximum number of messages that can be received at once.
+     * @return a reply object that represents the state of the operation.
+     * @throws IllegalArgumentException if any of the numeric parameters is &lt; 1.
+     * @see uk.co.real_logic.artio.engine.EngineConfiguration#enableMessageTypeThrottle(String, int, int, int)
+     */
+    public Reply<ThrottleConfigurationStatus> throttleMessageTypeAt(
+        final String messageType,
+        final int throttleWindowInMs,
+        final int throttleLimitOfMessages,
+        final int burstLimitOfMessages)
+    {
+        validateMessageTypeThrottleOptions(throttleWindowInMs, throttleLimitOfMessages, burstLimitOfMessages);
+
+        return fixSessionOwner.messageTypeThrottle(
+            id,
+            MessageTypeEncoding.packMessageType(messageType),
+            throttleWindowInMs,
+            throttleLimitOfMessages,
+            burstLimitOfMessages);
+    }
+
     /**
      * Send a logout message and immediately disconnect the session. You should normally use
      * the <code>startLogout</code> method and not this one.
@@ -762,6 +793,70 @@ public class Session
         return position;
     }
 
+    /**
+     * Tries to forward a message received on another session, for example from
+     * {@link uk.co.real_logic.artio.library.SessionHandler#onMessage}, to the counter-party of this session.
+     * See {{@link #trySend(Encoder)}} for scenarios where this could fail.
+     *
+     * The message isn't decoded or re-encoded. Its session level header fields, such as the comp ids, MsgSeqNum,
+     * SendingTime and PossDupFlag, are replaced with this session's, exactly as {@link #prepare(SessionHeaderEncoder)}
+     * would set them, and the rest of the message is copied across unchanged. BodyLength and CheckSum are
+     * recalculated.
+     *
+     * @param messageBuffer the buffer with the FIX message in to forward
+     * @param offset        the offset within the messageBuffer where the message starts
+     * @param length        the length of the message within the messageBuffer
+     * @param messageType   the long encoded message type.
+     * @return the position in the stream that corresponds to the end of this message or a negative
+     * number indicating an error status.
+     * @throws IllegalArgumentException if the message isn't a complete FIX message.
+     * @throws IndexOutOfBoundsException if the forwarded message is too large, if this happens consider
+     *                                   increasing {@link CommonConfiguration#sessionBufferSize(int)}
+     * @throws NotConnectedException if the underlying Publication to the FixEngine has been closed or its max position
+     *                               exceeded.
+     */
+    public long tryForward(
+        final DirectBuffer messageBuffer, final int offset, final int length, final long messageType)
+    {
+        return tryForward(messageBuffer, offset, length, messageType, null);
+    }
+
+    /**
+     * Tries to forward a message received on another session to the counter-party of this session, changing some of
+     * its fields on the way. See {{@link #tryForward(DirectBuffer, int, int, long)}} for details.
+     *
+     * @param messageBuffer the buffer with the FIX message in to forward
+     * @param offset        the offset within the messageBuffer where the message starts
+     * @param length        the length of the message within the messageBuffer
+     * @param messageType   the long encoded message type.
+     * @param edits         the fields to replace or remove, or null to forward the fields unchanged.
+     * @return the position in the stream that corresponds to the end of this message or a negative
+     * number indicating an error status.
+     * @throws IllegalArgumentException if the message isn't a complete FIX message.
+     * @throws IndexOutOfBoundsException if the forwarded message is too large, if this happens consider
+     *                                   increasing {@link CommonConfiguration#sessionBufferSize(int)}
+     * @throws NotConnectedException if the underlying Publication to the FixEngine has been closed or its max position
+     *                               exceeded.
+     */
+    public long tryForward(
+        final DirectBuffer messageBuffer,
+        final int offset,
+        final int length,
+        final long messageType,
+        final ForwardingEdits edits)
+    {
+        MessageForwarder messageForwarder = this.messageForwarder;
+        if (messageForwarder == null)
+        {
+            messageForwarder = new MessageForwarder(this);
+            this.messageForwarder = messageForwarder;
+        }
+
+        final long result = messageForwarder.encode(messageBuffer, offset, length, edits, asciiBuffer);
+        return trySend(
+            asciiBuffer, Encoder.offset(result), Encoder.length(result), messageForwarder.sentSeqNum(), messageType);
+    }
+
     /**
      * Deprecated, uses should be removed. This method will be removed in a future version.
      *
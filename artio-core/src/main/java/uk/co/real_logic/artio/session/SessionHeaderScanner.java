@@ -0,0 +1,478 @@
+/*
+ * Copyright 2015-2022 Real Logic Limited.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.session;
+
+import uk.co.real_logic.artio.decoder.SessionHeaderDecoder;
+import uk.co.real_logic.artio.util.AsciiBuffer;
+import uk.co.real_logic.artio.util.TagOffsetTable;
+
+import java.util.Arrays;
+
+import static uk.co.real_logic.artio.util.AsciiBuffer.SEPARATOR;
+import static uk.co.real_logic.artio.util.AsciiBuffer.UNKNOWN_INDEX;
+
+/**
+ * Extracts the fields of the standard header that the {@link SessionParser} needs in order to process an
+ * application message without running the full {@link SessionHeaderDecoder}. Scanning stops at the first tag that
+ * isn't a standard header tag.
+ *
+ * Anything unusual, for example a repeated or empty field, a malformed sequence number or a missing required field,
+ * results in {@link #scan(AsciiBuffer, int, int)} returning false, the caller should then fall back to a full
+ * decode in order to handle the message the same way it always has.
+ *
+ * Also caches the identifying fields of the last header that passed full validation so that subsequent messages
+ * with the same identifying fields needn't be validated again.
+ */
+final class SessionHeaderScanner
+{
+    static final int BEGIN_STRING = 0;
+    static final int SENDER_COMP_ID = 1;
+    static final int TARGET_COMP_ID = 2;
+    static final int SENDER_SUB_ID = 3;
+    static final int SENDER_LOCATION_ID = 4;
+    static final int TARGET_SUB_ID = 5;
+    static final int TARGET_LOCATION_ID = 6;
+    static final int IDENTIFYING_FIELD_COUNT = 7;
+
+    private static final int MAX_TAG_DIGITS = 9;
+    private static final int MAX_MSG_SEQ_NUM_DIGITS = 9;
+    private static final int INITIAL_FIELD_CAPACITY = 16;
+
+    private static final int SEEN_MSG_TYPE = 1 << IDENTIFYING_FIELD_COUNT;
+    private static final int SEEN_MSG_SEQ_NUM = SEEN_MSG_TYPE << 1;
+    private static final int SEEN_SENDING_TIME = SEEN_MSG_SEQ_NUM << 1;
+    private static final int SEEN_ORIG_SENDING_TIME = SEEN_SENDING_TIME << 1;
+    private static final int SEEN_POSS_DUP = SEEN_ORIG_SENDING_TIME << 1;
+    private static final int SEEN_POSS_RESEND = SEEN_POSS_DUP << 1;
+    private static final int SEEN_BODY_LENGTH = SEEN_POSS_RESEND << 1;
+    private static final int REQUIRED_FIELDS = SEEN_MSG_TYPE | SEEN_MSG_SEQ_NUM | SEEN_SENDING_TIME;
+    private static final int INVALID_FIELD = -1;
+    private static final int START_OF_BODY = -2;
+
+    private final int[] fieldOffsets = new int[IDENTIFYING_FIELD_COUNT];
+    private final int[] fieldLengths = new int[IDENTIFYING_FIELD_COUNT];
+
+    private final byte[][] validatedFields = new byte[IDENTIFYING_FIELD_COUNT][INITIAL_FIELD_CAPACITY];
+    private final int[] validatedFieldLengths = new int[IDENTIFYING_FIELD_COUNT];
+    private boolean hasValidatedFields;
+
+    private char[] msgType = new char[INITIAL_FIELD_CAPACITY];
+    private int msgTypeLength;
+    private int msgSeqNum;
+    private boolean possDup;
+    private boolean possResend;
+    private int sendingTimeOffset;
+    private int sendingTimeLength;
+    private int origSendingTimeOffset;
+    private int origSendingTimeLength;
+
+    /**
+     * Scan the header of a message.
+     *
+     * @param buffer the buffer containing the message.
+     * @param offset the offset of the message within the buffer.
+     * @param length the length of the message.
+     * @return true if the header was scanned successfully, false if the message should be fully decoded.
+     */
+    boolean scan(final AsciiBuffer buffer, final int offset, final int length)
+    {
+        reset();
+        return scanFrom(buffer, offset, offset + length, 0);
+    }
+
+    /**
+     * Scan the header of a message, looking up its leading fields in a table of their offsets rather than scanning
+     * the message for them. Any header fields after the last field in the table are scanned as normal.
+     *
+     * @param buffer the buffer containing the message.
+     * @param offset the offset of the message within the buffer.
+     * @param length the length of the message.
+     * @param tagOffsets the offsets of the leading fields of the message.
+     * @return true if the header was scanned successfully, false if the message should be fully decoded.
+     */
+    boolean scan(final AsciiBuffer buffer, final int offset, final int length, final TagOffsetTable tagOffsets)
+    {
+        reset();
+
+        int seenFields = 0;
+        int position = offset;
+        final int size = tagOffsets.size();
+        for (int i = 0; i < size; i++)
+        {
+            final int valueOffset = offset + tagOffsets.valueOffset(i);
+            final int valueLength = tagOffsets.valueLength(i);
+            final int seenField = onField(buffer, tagOffsets.tag(i), valueOffset, valueLength);
+            if (seenField == START_OF_BODY)
+            {
+                return hasRequiredFields(seenFields);
+            }
+
+            if (seenField == INVALID_FIELD || (seenFields & seenField) != 0)
+            {
+                return false;
+            }
+            seenFields |= seenField;
+
+            position = valueOffset + valueLength + 1;
+        }
+
+        return scanFrom(buffer, position, offset + length, seenFields);
+    }
+
+    private void reset()
+    {
+        Arrays.fill(fieldLengths, 0);
+        msgTypeLength = 0;
+        possDup = false;
+        possResend = false;
+        origSendingTimeLength = 0;
+    }
+
+    private boolean scanFrom(final AsciiBuffer buffer, final int offset, final int end, final int alreadySeenFields)
+    {
+        int seenFields = alreadySeenFields;
+        int position = offset;
+        while (position < end)
+        {
+            int tag = 0;
+            int index = position;
+            byte value;
+            while (index < end && (value = buffer.getByte(index)) != '=')
+            {
+                if (value < '0' || value > '9' || index - position >= MAX_TAG_DIGITS)
+                {
+                    return false;
+                }
+                tag = tag * 10 + (value - '0');
+                index++;
+            }
+
+            if (index == position || index == end)
+            {
+                return false;
+            }
+
+            final int valueOffset = index + 1;
+            final int separatorIndex = buffer.scan(valueOffset, end, SEPARATOR);
+            if (separatorIndex == UNKNOWN_INDEX)
+            {
+                return false;
+            }
+
+            final int seenField = onField(buffer, tag, valueOffset, separatorIndex - valueOffset);
+            if (seenField == START_OF_BODY)
+            {
+                return hasRequiredFields(seenFields);
+            }
+
+            if (seenField == INVALID_FIELD || (seenFields & seenField) != 0)
+            {
+                return false;
+            }
+            seenFields |= seenField;
+
+            position = separatorIndex + 1;
+        }
+
+        return hasRequiredFields(seenFields);
+    }
+
+    private static boolean hasRequiredFields(final int seenFields)
+    {
+        return (seenFields & REQUIRED_FIELDS) == REQUIRED_FIELDS;
+    }
+
+    // Returns the bit of the field in the seen fields, 0 for a header field that isn't needed, START_OF_BODY for a
+    // field that isn't a header field or INVALID_FIELD if the message should be fully decoded.
+    private int onField(final AsciiBuffer buffer, final int tag, final int valueOffset, final int valueLength)
+    {
+        if (valueLength == 0)
+        {
+            return INVALID_FIELD;
+        }
+
+        switch (tag)
+        {
+            case 8:
+                return identifyingField(BEGIN_STRING, valueOffset, valueLength);
+
+            case 9:
+                return SEEN_BODY_LENGTH;
+
+            case 35:
+                copyMsgType(buffer, valueOffset, valueLength);
+                return SEEN_MSG_TYPE;
+
+            case 34:
+                return parseMsgSeqNum(buffer, valueOffset, valueLength) ? SEEN_MSG_SEQ_NUM : INVALID_FIELD;
+
+            case 52:
+                sendingTimeOffset = valueOffset;
+                sendingTimeLength = valueLength;
+                return SEEN_SENDING_TIME;
+
+            case 122:
+                origSendingTimeOffset = valueOffset;
+                origSendingTimeLength = valueLength;
+                return SEEN_ORIG_SENDING_TIME;
+
+            case 43:
+                if (valueLength != 1 || !isBoolean(buffer.getByte(valueOffset)))
+                {
+                    return INVALID_FIELD;
+                }
+                possDup = buffer.getByte(valueOffset) == 'Y';
+                return SEEN_POSS_DUP;
+
+            case 97:
+                if (valueLength != 1 || !isBoolean(buffer.getByte(valueOffset)))
+                {
+                    return INVALID_FIELD;
+                }
+                possResend = buffer.getByte(valueOffset) == 'Y';
+                return SEEN_POSS_RESEND;
+
+            case 49:
+                return identifyingField(SENDER_COMP_ID, valueOffset, valueLength);
+
+            case 56:
+                return identifyingField(TARGET_COMP_ID, valueOffset, valueLength);
+
+            case 50:
+                return identifyingField(SENDER_SUB_ID, valueOffset, valueLength);
+
+            case 142:
+                return identifyingField(SENDER_LOCATION_ID, valueOffset, valueLength);
+
+            case 57:
+                return identifyingField(TARGET_SUB_ID, valueOffset, valueLength);
+
+            case 143:
+                return identifyingField(TARGET_LOCATION_ID, valueOffset, valueLength);
+
+            // Header fields that aren't needed by the session
+            case 115: // OnBehalfOfCompID
+            case 128: // DeliverToCompID
+            case 116: // OnBehalfOfSubID
+            case 144: // OnBehalfOfLocationID
+            case 129: // DeliverToSubID
+            case 145: // DeliverToLocationID
+            case 347: // MessageEncoding
+            case 369: // LastMsgSeqNumProcessed
+            case 1128: // ApplVerID
+            case 1129: // CstmApplVerID
+            case 1156: // ApplExtID
+                return 0;
+
+            // Data fields can contain the separator and the hops group repeats tags, leave them to the decoder
+            case 90:
+            case 91:
+            case 212:
+            case 213:
+            case 627:
+            case 628:
+            case 629:
+            case 630:
+                return INVALID_FIELD;
+
+            default:
+                // The start of the message body.
+                return START_OF_BODY;
+        }
+    }
+
+    private int identifyingField(final int field, final int valueOffset, final int valueLength)
+    {
+        fieldOffsets[field] = valueOffset;
+        fieldLengths[field] = valueLength;
+        return 1 << field;
+    }
+
+    private void copyMsgType(final AsciiBuffer buffer, final int valueOffset, final int valueLength)
+    {
+        char[] msgType = this.msgType;
+        if (msgType.length < valueLength)
+        {
+            msgType = new char[valueLength];
+            this.msgType = msgType;
+        }
+
+        for (int i = 0; i < valueLength; i++)
+        {
+            msgType[i] = (char)buffer.getByte(valueOffset + i);
+        }
+        msgTypeLength = valueLength;
+    }
+
+    private boolean parseMsgSeqNum(final AsciiBuffer buffer, final int valueOffset, final int valueLength)
+    {
+        if (valueLength > MAX_MSG_SEQ_NUM_DIGITS)
+        {
+            return false;
+        }
+
+        int msgSeqNum = 0;
+        for (int i = 0; i < valueLength; i++)
+        {
+            final byte value = buffer.getByte(valueOffset + i);
+            if (value < '0' || value > '9')
+            {
+                return false;
+            }
+            msgSeqNum = msgSeqNum * 10 + (value - '0');
+        }
+        this.msgSeqNum = msgSeqNum;
+        return true;
+    }
+
+    private static boolean isBoolean(final byte value)
+    {
+        return value == 'Y' || value == 'N';
+    }
+
+    /**
+     * Checks that the identifying fields scanned from the last message are the same as those fully decoded into
+     * the header. If they aren't then there's a header field before them that this scanner doesn't know about.
+     *
+     * @param header the fully decoded header of the last scanned message.
+     * @return true if the scanned fields are consistent with the decoded header.
+     */
+    boolean isConsistentWith(final SessionHeaderDecoder header)
+    {
+        final int[] fieldLengths = this.fieldLengths;
+        return fieldLengths[BEGIN_STRING] == header.beginStringLength() &&
+            fieldLengths[SENDER_COMP_ID] == header.senderCompIDLength() &&
+            fieldLengths[TARGET_COMP_ID] == header.targetCompIDLength() &&
+            fieldLengths[SENDER_SUB_ID] == (header.hasSenderSubID() ? header.senderSubIDLength() : 0) &&
+            fieldLengths[SENDER_LOCATION_ID] ==
+            (header.hasSenderLocationID() ? header.senderLocationIDLength() : 0) &&
+            fieldLengths[TARGET_SUB_ID] == (header.hasTargetSubID() ? header.targetSubIDLength() : 0) &&
+            fieldLengths[TARGET_LOCATION_ID] ==
+            (header.hasTargetLocationID() ? header.targetLocationIDLength() : 0);
+    }
+
+    /**
+     * Remember the identifying fields of the last scanned message, which has passed full validation.
+     *
+     * @param buffer the buffer containing the last scanned message.
+     */
+    void onHeaderValidated(final AsciiBuffer buffer)
+    {
+        for (int field = 0; field < IDENTIFYING_FIELD_COUNT; field++)
+        {
+            final int length = fieldLengths[field];
+            byte[] validatedField = validatedFields[field];
+            if (validatedField.length < length)
+            {
+                validatedField = new byte[length];
+                validatedFields[field] = validatedField;
+            }
+            buffer.getBytes(fieldOffsets[field], validatedField, 0, length);
+            validatedFieldLengths[field] = length;
+        }
+        hasValidatedFields = true;
+    }
+
+    /**
+     * Checks whether the last scanned message has the same identifying fields as the last validated message.
+     *
+     * @param buffer the buffer containing the last scanned message.
+     * @return true if the identifying fields are the same.
+     */
+    boolean matchesValidatedHeader(final AsciiBuffer buffer)
+    {
+        if (!hasValidatedFields)
+        {
+            return false;
+        }
+
+        for (int field = 0; field < IDENTIFYING_FIELD_COUNT; field++)
+        {
+            final int length = fieldLengths[field];
+            if (length != validatedFieldLengths[field])
+            {
+                return false;
+            }
+
+            final byte[] validatedField = validatedFields[field];
+            final int offset = fieldOffsets[field];
+            for (int i = 0; i < length; i++)
+            {
+                if (buffer.getByte(offset + i) != validatedField[i])
+                {
+                    return false;
+                }
+            }
+        }
+
+        return true;
+    }
+
+    void resetValidatedHeader()
+    {
+        hasValidatedFields = false;
+    }
+
+    char[] msgType()
+    {
+        return msgType;
+    }
+
+    int msgTypeLength()
+    {
+        return msgTypeLength;
+    }
+
+    int msgSeqNum()
+    {
+        return msgSeqNum;
+    }
+
+    boolean possDup()
+    {
+        return possDup;
+    }
+
+    boolean possResend()
+    {
+        return possResend;
+    }
+
+    int sendingTimeOffset()
+    {
+        return sendingTimeOffset;
+    }
+
+    int sendingTimeLength()
+    {
+        return sendingTimeLength;
+    }
+
+    boolean hasOrigSendingTime()
+    {
+        return origSendingTimeLength > 0;
+    }
+
+    int origSendingTimeOffset()
+    {
+        return origSendingTimeOffset;
+    }
+
+    int origSendingTimeLength()
+    {
+        return origSendingTimeLength;
+    }
+}
@@ -31,6 +31,7 @@ import uk.co.real_logic.artio.messages.CancelOnDisconnectOption;
 import uk.co.real_logic.artio.messages.SessionState;
 import uk.co.real_logic.artio.util.AsciiBuffer;
 import uk.co.real_logic.artio.util.MutableAsciiBuffer;
+import uk.co.real_logic.artio.util.TagOffsetTable;
 import uk.co.real_logic.artio.validation.MessageValidationStrategy;
 
 import static io.aeron.logbuffer.ControlledFragmentHandler.Action.ABORT;
@@ -48,7 +49,9 @@ import static uk.co.real_logic.artio.session.Session.UNKNOWN;
 public class SessionParser
 {
     private final AsciiBuffer asciiBuffer = new MutableAsciiBuffer();
+    private final SessionHeaderScanner headerScanner = new SessionHeaderScanner();
     private final UtcTimestampDecoder timestampDecoder;
+    private final boolean validateTimeStrictly;
 
     private AbstractLogonDecoder logon;
     private AbstractLogoutDecoder logout;
@@ -83,6 +86,7 @@ public class SessionParser
         this.validateCompIdsOnEveryMessage = validateCompIdsOnEveryMessage;
         this.messageInfo = messageInfo;
         this.sessionIdStrategy = sessionIdStrategy;
+        this.validateTimeStrictly = validateTimeStrictly;
         this.timestampDecoder = new UtcTimestampDecoder(validateTimeStrictly);
     }
 
@@ -96,6 +100,7 @@ public class SessionParser
         sequenceReset = fixDictionary.makeSequenceResetDecoder();
         heartbeat = fixDictionary.makeHeartbeatDecoder();
         resendRequest = fixDictionary.makeResendRequestDecoder();
+        headerScanner.resetValidatedHeader();
     }
 
     public static String username(final AbstractLogonDecoder logon)
@@ -318,8 +323,33 @@ public class SessionParser
         }
     }
 
+    private long decodeTimestampInMs(final int offset, final int length, final int refTagId)
+    {
+        try
+        {
+            return CODEC_VALIDATION_ENABLED ?
+                UtcTimestampDecoder.decode(asciiBuffer, offset, length, validateTimeStrictly) :
+                MISSING_LONG;
+        }
+        catch (final Exception e)
+        {
+            throw new MalformedTagFormatException(refTagId, e);
+        }
+    }
+
     private Action onAnyOtherMessage(final int offset, final int length, final long position)
     {
+        // Application messages only need a handful of header fields, so try to avoid fully decoding the header.
+        final SessionHeaderScanner headerScanner = this.headerScanner;
+        final TagOffsetTable tagOffsets = messageInfo.tagOffsets();
+        final boolean scanned = tagOffsets.size() > 0 ?
+            headerScanner.scan(asciiBuffer, offset, length, tagOffsets) :
+            headerScanner.scan(asciiBuffer, offset, length);
+        if (scanned && canSkipHeaderValidation(headerScanner))
+        {
+            return onScannedMessage(headerScanner, position);
+        }
+
         final SessionHeaderDecoder header = this.header;
         header.reset();
         header.decode(asciiBuffer, offset, length);
@@ -340,12 +370,48 @@ public class SessionParser
         }
         else
         {
+            if (CODEC_VALIDATION_ENABLED && scanned && headerScanner.isConsistentWith(header))
+            {
+                headerScanner.onHeaderValidated(asciiBuffer);
+            }
+
             return onMessage(header, position);
         }
 
         return CONTINUE;
     }
 
+    private boolean canSkipHeaderValidation(final SessionHeaderScanner headerScanner)
+    {
+        if (!CODEC_VALIDATION_ENABLED)
+        {
+            return true;
+        }
+
+        return validationStrategy.validatesCompIdsOnly() &&
+            isValidMsgType(headerScanner.msgType(), headerScanner.msgTypeLength()) &&
+            headerScanner.matchesValidatedHeader(asciiBuffer);
+    }
+
+    private Action onScannedMessage(final SessionHeaderScanner headerScanner, final long position)
+    {
+        final long origSendingTime = headerScanner.hasOrigSendingTime() ? decodeTimestampInMs(
+            headerScanner.origSendingTimeOffset(), headerScanner.origSendingTimeLength(), ORIG_SENDING_TIME) :
+            UNKNOWN;
+        final long sendingTime = decodeTimestampInMs(
+            headerScanner.sendingTimeOffset(), headerScanner.sendingTimeLength(), SENDING_TIME);
+        final boolean possDup = headerScanner.possDup();
+        return session.onMessage(
+            headerScanner.msgSeqNum(),
+            headerScanner.msgType(),
+            headerScanner.msgTypeLength(),
+            sendingTime,
+            origSendingTime,
+            possDup || headerScanner.possResend(),
+            possDup,
+            position);
+    }
+
     private Action onMessage(final SessionHeaderDecoder header, final long position)
     {
         final long origSendingTime = origSendingTimeInMs(header);
@@ -513,6 +579,7 @@ public class SessionParser
         final AbstractLogonDecoder logon = this.logon;
         final Session session = this.session;
 
+        headerScanner.resetValidatedHeader();
         logon.reset();
         logon.decode(asciiBuffer, offset, length);
         final SessionHeaderDecoder header = logon.header();
@@ -710,5 +777,6 @@ public class SessionParser
     public void sessionKey(final CompositeKey sessionKey)
     {
         this.compositeKey = sessionKey;
+        headerScanner.resetValidatedHeader();
     }
 }
@@ -0,0 +1,182 @@
+/*
+ * Copyright 2015-2022 Real Logic Limited.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.timing;
+
+import org.agrona.concurrent.status.AtomicCounter;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+/**
+ * Records the number of duty cycles, the work done, the maximum duty cycle time and an estimate of the bytes
+ * allocated by a single agent and publishes them to counters every <code>sampleInterval</code> duty cycles.
+ *
+ * Allocation is measured with the per-thread allocation counter of the JVM, only around sampled duty cycles, so
+ * the published value is an estimate scaled up by the sample interval. It is left at zero if the JVM doesn't
+ * support per-thread allocation counters.
+ *
+ * Not thread safe: the duty cycle must only be run from one thread at a time.
+ */
+public class DutyCycleProfiler
+{
+    private static final long NOT_SAMPLING = -1;
+
+    private final Timer timer;
+    private final int sampleInterval;
+    private final AtomicCounter dutyCycles;
+    private final AtomicCounter workCount;
+    private final AtomicCounter maxDutyCycleTime;
+    private final AtomicCounter allocatedBytes;
+    private final com.sun.management.ThreadMXBean threadBean;
+    // The bytes allocated by querying the thread allocation counter itself.
+    private final long allocationOverhead;
+
+    private long totalDutyCycles;
+    private long totalWorkCount;
+    private long maxDutyCycleTimeInNs;
+    private long totalAllocatedBytes;
+    private int cyclesUntilSample;
+    private long allocatedBytesAtStart = NOT_SAMPLING;
+
+    /**
+     * Create the profiler.
+     *
+     * @param timer the timer to record the duration of each duty cycle that did some work into, or null if duty
+     *              cycle histograms shouldn't be recorded.
+     * @param sampleInterval the number of duty cycles between samples, must be positive.
+     * @param dutyCycles the counter for the number of duty cycles.
+     * @param workCount the counter for the sum of the work count returned by each duty cycle.
+     * @param maxDutyCycleTime the counter for the maximum duty cycle time in nanoseconds.
+     * @param allocatedBytes the counter for the estimated bytes allocated within duty cycles.
+     */
+    public DutyCycleProfiler(
+        final Timer timer,
+        final int sampleInterval,
+        final AtomicCounter dutyCycles,
+        final AtomicCounter workCount,
+        final AtomicCounter maxDutyCycleTime,
+        final AtomicCounter allocatedBytes)
+    {
+        if (sampleInterval <= 0)
+        {
+            throw new IllegalArgumentException("sampleInterval must be positive, but was " + sampleInterval);
+        }
+
+        this.timer = timer;
+        this.sampleInterval = sampleInterval;
+        this.dutyCycles = dutyCycles;
+        this.workCount = workCount;
+        this.maxDutyCycleTime = maxDutyCycleTime;
+        this.allocatedBytes = allocatedBytes;
+        this.threadBean = allocationThreadBean();
+        this.allocationOverhead = threadBean == null ? 0 : measureAllocationOverhead(threadBean);
+        this.cyclesUntilSample = sampleInterval;
+    }
+
+    /**
+     * Invoke at the start of each duty cycle.
+     *
+     * @return the start time of the duty cycle to pass to {@link #onDutyCycleEnd(long, int)}.
+     */
+    public long onDutyCycleStart()
+    {
+        if (cyclesUntilSample == 1 && threadBean != null)
+        {
+            allocatedBytesAtStart = threadBean.getThreadAllocatedBytes(Thread.currentThread().getId());
+        }
+
+        return System.nanoTime();
+    }
+
+    /**
+     * Invoke at the end of each duty cycle.
+     *
+     * @param startTimeInNs the value returned from {@link #onDutyCycleStart()}.
+     * @param workCount the work count returned by the duty cycle.
+     */
+    public void onDutyCycleEnd(final long startTimeInNs, final int workCount)
+    {
+        final long durationInNs = System.nanoTime() - startTimeInNs;
+
+        totalDutyCycles++;
+        totalWorkCount += workCount;
+        if (durationInNs > maxDutyCycleTimeInNs)
+        {
+            maxDutyCycleTimeInNs = durationInNs;
+        }
+
+        // Idle duty cycles would otherwise swamp the histogram
+        if (timer != null && workCount > 0 && durationInNs > 0)
+        {
+            timer.recordValue(durationInNs);
+        }
+
+        if (--cyclesUntilSample <= 0)
+        {
+            sample();
+        }
+    }
+
+    private void sample()
+    {
+        cyclesUntilSample = sampleInterval;
+
+        if (allocatedBytesAtStart != NOT_SAMPLING)
+        {
+            final long allocatedBytesAtEnd = threadBean.getThreadAllocatedBytes(Thread.currentThread().getId());
+            final long sampledBytes = allocatedBytesAtEnd - allocatedBytesAtStart - allocationOverhead;
+            if (sampledBytes > 0)
+            {
+                totalAllocatedBytes += sampledBytes * sampleInterval;
+            }
+            allocatedBytesAtStart = NOT_SAMPLING;
+        }
+
+        dutyCycles.setOrdered(totalDutyCycles);
+        workCount.setOrdered(totalWorkCount);
+        maxDutyCycleTime.setOrdered(maxDutyCycleTimeInNs);
+        allocatedBytes.setOrdered(totalAllocatedBytes);
+    }
+
+    private static com.sun.management.ThreadMXBean allocationThreadBean()
+    {
+        final ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+        if (threadBean instanceof com.sun.management.ThreadMXBean)
+        {
+            final com.sun.management.ThreadMXBean allocationThreadBean = (com.sun.management.ThreadMXBean)threadBean;
+            if (allocationThreadBean.isThreadAllocatedMemorySupported() &&
+                allocationThreadBean.isThreadAllocatedMemoryEnabled())
+            {
+                return allocationThreadBean;
+            }
+        }
+
+        return null;
+    }
+
+    private static long measureAllocationOverhead(final com.sun.management.ThreadMXBean threadBean)
+    {
+        final long threadId = Thread.currentThread().getId();
+        long overhead = Long.MAX_VALUE;
+        for (int i = 0; i < 10; i++)
+        {
+            final long start = threadBean.getThreadAllocatedBytes(threadId);
+            final long end = threadBean.getThreadAllocatedBytes(threadId);
+            overhead = Math.min(overhead, end - start);
+        }
+        return Math.max(0, overhead);
+    }
+}
@@ -0,0 +1,78 @@
+/*
+ * Copyright 2015-2022 Real Logic Limited.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.timing;
+
+import org.agrona.ErrorHandler;
+import org.agrona.concurrent.Agent;
+import org.agrona.concurrent.NanoClock;
+
+import java.util.List;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+/**
+ * Runs on the monitoring thread and checks the {@link DutyCycleTracker}s of other agents for stalls.
+ */
+public class DutyCycleStallDetector implements Agent
+{
+    private final List<DutyCycleTracker> trackers;
+    private final long stallThresholdInNs;
+    private final long checkIntervalInNs;
+    private final ErrorHandler errorHandler;
+    private final NanoClock clock;
+    private final String agentNamePrefix;
+
+    private long nextCheckTimeInNs = 0;
+
+    public DutyCycleStallDetector(
+        final List<DutyCycleTracker> trackers,
+        final long stallThresholdInMs,
+        final ErrorHandler errorHandler,
+        final NanoClock clock,
+        final String agentNamePrefix)
+    {
+        this.trackers = trackers;
+        this.stallThresholdInNs = MILLISECONDS.toNanos(stallThresholdInMs);
+        this.checkIntervalInNs = Math.max(1, stallThresholdInNs / 4);
+        this.errorHandler = errorHandler;
+        this.clock = clock;
+        this.agentNamePrefix = agentNamePrefix;
+    }
+
+    public int doWork()
+    {
+        final long timeInNs = clock.nanoTime();
+        if (timeInNs - nextCheckTimeInNs < 0)
+        {
+            return 0;
+        }
+
+        nextCheckTimeInNs = timeInNs + checkIntervalInNs;
+
+        int work = 0;
+        final List<DutyCycleTracker> trackers = this.trackers;
+        for (int i = 0, size = trackers.size(); i < size; i++)
+        {
+            work += trackers.get(i).checkStall(timeInNs, stallThresholdInNs, errorHandler);
+        }
+        return work;
+    }
+
+    public String roleName()
+    {
+        return agentNamePrefix + "DutyCycleStallDetector";
+    }
+}
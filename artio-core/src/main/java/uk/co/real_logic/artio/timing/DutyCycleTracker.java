@@ -0,0 +1,133 @@
+/*
+ * Copyright 2015-2022 Real Logic Limited.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.timing;
+
+import org.agrona.ErrorHandler;
+import org.agrona.concurrent.status.AtomicCounter;
+import uk.co.real_logic.artio.FixGatewayException;
+
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+/**
+ * Tracks the start time of the duty cycle that an agent is currently in so that a {@link DutyCycleStallDetector} can
+ * detect stalls from another thread. Time spent between duty cycles, for example idling or, for a library, the
+ * time between calls to poll it, isn't counted as a stall.
+ *
+ * {@link #onDutyCycleStart()} and {@link #onDutyCycleEnd()} are invoked on the agent's thread,
+ * {@link #checkStall(long, long, ErrorHandler)} on the monitoring thread.
+ */
+public class DutyCycleTracker
+{
+    private static final long NOT_IN_DUTY_CYCLE = Long.MIN_VALUE;
+    private static final long NO_STALL = Long.MIN_VALUE;
+
+    private final String roleName;
+    private final AtomicCounter dutyCycleStartTime;
+    private final AtomicCounter stalls;
+    private final Timer stallTimer;
+
+    private volatile Thread thread;
+
+    // Only accessed upon the monitoring thread
+    private long stallStartTimeInNs = NO_STALL;
+
+    /**
+     * Create the tracker.
+     *
+     * @param roleName the role name of the tracked agent.
+     * @param dutyCycleStartTime the counter to record the {@link System#nanoTime()} that the current duty cycle
+     *                           started at into.
+     * @param stalls the counter for the number of stalls detected.
+     * @param stallTimer the timer to record the duration of stalls into, or null if they shouldn't be recorded.
+     */
+    public DutyCycleTracker(
+        final String roleName,
+        final AtomicCounter dutyCycleStartTime,
+        final AtomicCounter stalls,
+        final Timer stallTimer)
+    {
+        this.roleName = roleName;
+        this.dutyCycleStartTime = dutyCycleStartTime;
+        this.stalls = stalls;
+        this.stallTimer = stallTimer;
+
+        dutyCycleStartTime.setOrdered(NOT_IN_DUTY_CYCLE);
+    }
+
+    /**
+     * Invoke at the start of every duty cycle, from the thread running it.
+     */
+    public void onDutyCycleStart()
+    {
+        final Thread currentThread = Thread.currentThread();
+        if (thread != currentThread)
+        {
+            thread = currentThread;
+        }
+
+        dutyCycleStartTime.setOrdered(System.nanoTime());
+    }
+
+    /**
+     * Invoke at the end of every duty cycle, from the thread running it, including when it throws an exception.
+     */
+    public void onDutyCycleEnd()
+    {
+        dutyCycleStartTime.setOrdered(NOT_IN_DUTY_CYCLE);
+    }
+
+    int checkStall(final long timeInNs, final long stallThresholdInNs, final ErrorHandler errorHandler)
+    {
+        final long dutyCycleStartTimeInNs = dutyCycleStartTime.get();
+        if (stallStartTimeInNs != NO_STALL)
+        {
+            if (dutyCycleStartTimeInNs != stallStartTimeInNs)
+            {
+                // The stalled duty cycle ended at some point since the last check
+                if (stallTimer != null)
+                {
+                    stallTimer.recordValue(timeInNs - stallStartTimeInNs);
+                }
+                stallStartTimeInNs = NO_STALL;
+                return 1;
+            }
+
+            return 0;
+        }
+
+        if (dutyCycleStartTimeInNs == NOT_IN_DUTY_CYCLE)
+        {
+            return 0;
+        }
+
+        final long stalledForInNs = timeInNs - dutyCycleStartTimeInNs;
+        if (stalledForInNs > stallThresholdInNs)
+        {
+            final Thread thread = this.thread;
+            stallStartTimeInNs = dutyCycleStartTimeInNs;
+            stalls.increment();
+
+            final FixGatewayException stall = new FixGatewayException(
+                roleName + " duty cycle stalled for " + NANOSECONDS.toMillis(stalledForInNs) + "ms on thread " +
+                thread.getName() + ", stack trace is that of the stalled thread");
+            stall.setStackTrace(thread.getStackTrace());
+            errorHandler.onError(stall);
+            return 1;
+        }
+
+        return 0;
+    }
+}
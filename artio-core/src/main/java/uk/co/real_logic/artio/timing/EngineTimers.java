@@ -21,16 +21,23 @@ import org.agrona.concurrent.status.AtomicCounter;
 import java.util.Arrays;
 import java.util.List;
 
+/**
+ * Timers of the engine, which have positive ids in order to distinguish them from those of a library.
+ */
 public class EngineTimers
 {
+    public static final int OUTBOUND_TIMER_ID = 1;
+    public static final int SEND_TIMER_ID = 2;
+    public static final int FIRST_AGENT_TIMER_ID = 3;
+
     private final Timer outboundTimer;
     private final Timer sendTimer;
     private final List<Timer> timers;
 
     public EngineTimers(final EpochNanoClock clock, final AtomicCounter negativeTimestamps)
     {
-        outboundTimer = new Timer(clock, "Outbound", 1, negativeTimestamps);
-        sendTimer = new Timer(clock, "Send", 2, negativeTimestamps);
+        outboundTimer = new Timer(clock, "Outbound", OUTBOUND_TIMER_ID, negativeTimestamps);
+        sendTimer = new Timer(clock, "Send", SEND_TIMER_ID, negativeTimestamps);
         timers = Arrays.asList(outboundTimer, sendTimer);
     }
 
@@ -48,4 +55,9 @@ public class EngineTimers
     {
         return timers;
     }
+
+    public static int agentTimerId(final int index)
+    {
+        return FIRST_AGENT_TIMER_ID + index;
+    }
 }
@@ -21,16 +21,23 @@ import org.agrona.concurrent.status.AtomicCounter;
 import java.util.Arrays;
 import java.util.List;
 
+/**
+ * Timers of a library, which have negative ids in order to distinguish them from those of the engine.
+ */
 public class LibraryTimers
 {
+    public static final int SESSION_TIMER_ID = -1;
+    public static final int RECEIVE_TIMER_ID = -2;
+    public static final int FIRST_AGENT_TIMER_ID = -3;
+
     private final Timer sessionTimer;
     private final Timer receiveTimer;
     private final List<Timer> timers;
 
     public LibraryTimers(final EpochNanoClock clock, final AtomicCounter negativeTimestamps)
     {
-        sessionTimer = new Timer(clock, "Session", -1, negativeTimestamps);
-        receiveTimer = new Timer(clock, "Receive", -2, negativeTimestamps);
+        sessionTimer = new Timer(clock, "Session", SESSION_TIMER_ID, negativeTimestamps);
+        receiveTimer = new Timer(clock, "Receive", RECEIVE_TIMER_ID, negativeTimestamps);
         timers = Arrays.asList(sessionTimer, receiveTimer);
     }
 
@@ -48,4 +55,9 @@ public class LibraryTimers
     {
         return timers;
     }
+
+    public static int agentTimerId(final int index)
+    {
+        return FIRST_AGENT_TIMER_ID - index;
+    }
 }
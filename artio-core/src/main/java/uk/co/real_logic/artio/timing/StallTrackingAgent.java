@@ -0,0 +1,61 @@
+/*
+ * Copyright 2015-2022 Real Logic Limited.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.timing;
+
+import org.agrona.concurrent.Agent;
+
+/**
+ * Decorates an agent in order to track its duty cycle with a {@link DutyCycleTracker}.
+ */
+public class StallTrackingAgent implements Agent
+{
+    private final Agent delegate;
+    private final DutyCycleTracker tracker;
+
+    public StallTrackingAgent(final Agent delegate, final DutyCycleTracker tracker)
+    {
+        this.delegate = delegate;
+        this.tracker = tracker;
+    }
+
+    public void onStart()
+    {
+        delegate.onStart();
+    }
+
+    public int doWork() throws Exception
+    {
+        tracker.onDutyCycleStart();
+        try
+        {
+            return delegate.doWork();
+        }
+        finally
+        {
+            tracker.onDutyCycleEnd();
+        }
+    }
+
+    public void onClose()
+    {
+        delegate.onClose();
+    }
+
+    public String roleName()
+    {
+        return delegate.roleName();
+    }
+}
@@ -31,12 +31,12 @@ public interface MessageValidationStrategy
         return new NoMessageValidationStrategy();
     }
 
-    static MessageValidationStrategy senderCompId(final Collection<String> validSenderIds)
+    static MessageValidationStrategy senderCompId(final Collection<? extends CharSequence> validSenderIds)
     {
         return new SenderCompIdValidationStrategy(validSenderIds);
     }
 
-    static MessageValidationStrategy targetCompId(final String gatewayCompId)
+    static MessageValidationStrategy targetCompId(final CharSequence gatewayCompId)
     {
         return new TargetCompIdValidationStrategy(gatewayCompId);
     }
@@ -63,6 +63,19 @@ public interface MessageValidationStrategy
      */
     int rejectReason();
 
+    /**
+     * Returns true if the result of {@link #validate(SessionHeaderDecoder)} only depends upon the BeginString and
+     * comp id fields of the header (SenderCompID, TargetCompID and their sub and location ids). If it does then
+     * validation can be skipped for a message whose fields are the same as the last message validated upon the same
+     * session.
+     *
+     * @return true if validation only depends upon the comp id fields of the header.
+     */
+    default boolean validatesCompIdsOnly()
+    {
+        return false;
+    }
+
     /**
      * Compose two message validation strategies together to form a new message validation strategy where you
      * need to pass both strategies for a message to be valid.
@@ -113,6 +126,11 @@ public interface MessageValidationStrategy
             {
                 return rejectReason;
             }
+
+            public boolean validatesCompIdsOnly()
+            {
+                return left.validatesCompIdsOnly() && right.validatesCompIdsOnly();
+            }
         };
     }
 }
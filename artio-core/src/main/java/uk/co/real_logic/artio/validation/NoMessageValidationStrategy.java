@@ -46,4 +46,9 @@ class NoMessageValidationStrategy implements MessageValidationStrategy
         throw new UnsupportedOperationException(
             "NoMessageValidationStrategy never fails, invoking me is a breach of the contract");
     }
+
+    public boolean validatesCompIdsOnly()
+    {
+        return true;
+    }
 }
@@ -30,7 +30,7 @@ class SenderCompIdValidationStrategy implements MessageValidationStrategy
 {
     private final CharArraySet validSenderIds;
 
-    SenderCompIdValidationStrategy(final Collection<String> validSenderIds)
+    SenderCompIdValidationStrategy(final Collection<? extends CharSequence> validSenderIds)
     {
         this.validSenderIds = new CharArraySet(validSenderIds);
     }
@@ -52,4 +52,9 @@ class SenderCompIdValidationStrategy implements MessageValidationStrategy
     {
         return COMPID_PROBLEM.representation();
     }
+
+    public boolean validatesCompIdsOnly()
+    {
+        return true;
+    }
 }
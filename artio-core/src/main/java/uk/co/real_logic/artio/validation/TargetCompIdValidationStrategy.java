@@ -28,9 +28,9 @@ final class TargetCompIdValidationStrategy implements MessageValidationStrategy
 {
     private final char[] gatewayCompId;
 
-    TargetCompIdValidationStrategy(final String gatewayCompId)
+    TargetCompIdValidationStrategy(final CharSequence gatewayCompId)
     {
-        this.gatewayCompId = gatewayCompId.toCharArray();
+        this.gatewayCompId = CodecUtil.toChars(gatewayCompId);
     }
 
     public boolean validate(final SessionHeaderDecoder header)
@@ -47,4 +47,9 @@ final class TargetCompIdValidationStrategy implements MessageValidationStrategy
     {
         return COMPID_PROBLEM.representation();
     }
+
+    public boolean validatesCompIdsOnly()
+    {
+        return true;
+    }
 }
@@ -0,0 +1,61 @@
+/*
+ * Copyright 2015-2022 Real Logic Limited.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.engine;
+
+import org.agrona.IoUtil;
+import org.agrona.concurrent.AtomicBuffer;
+import org.junit.After;
+import org.junit.Test;
+
+import java.io.File;
+
+import static org.junit.Assert.assertEquals;
+
+public class MappedFileTest
+{
+    private static final File FILE = new File(IoUtil.tmpDirName() + "/MappedFileTest");
+    private static final int SIZE = 64 * 1024;
+
+    @After
+    public void tearDown()
+    {
+        IoUtil.delete(FILE, true);
+    }
+
+    @Test
+    public void shouldNotChangeDataWhenPreTouching()
+    {
+        try (MappedFile mappedFile = MappedFile.map(FILE, SIZE))
+        {
+            final AtomicBuffer buffer = mappedFile.buffer();
+            for (int offset = 0; offset < SIZE; offset += 1024)
+            {
+                buffer.putInt(offset, offset + 1);
+            }
+        }
+
+        try (MappedFile mappedFile = MappedFile.map(FILE, SIZE))
+        {
+            mappedFile.preTouch();
+
+            final AtomicBuffer buffer = mappedFile.buffer();
+            for (int offset = 0; offset < SIZE; offset += 1024)
+            {
+                assertEquals(offset + 1, buffer.getInt(offset));
+            }
+        }
+    }
+}
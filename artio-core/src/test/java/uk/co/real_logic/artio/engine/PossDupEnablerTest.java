@@ -0,0 +1,153 @@
+/*
+ * Copyright 2015-2022 Real Logic Limited.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.engine;
+
+import io.aeron.logbuffer.BufferClaim;
+import org.agrona.ErrorHandler;
+import org.agrona.concurrent.UnsafeBuffer;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import uk.co.real_logic.artio.fields.UtcTimestampEncoder;
+import uk.co.real_logic.artio.util.MutableAsciiBuffer;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import static io.aeron.logbuffer.ControlledFragmentHandler.Action.CONTINUE;
+import static java.nio.charset.StandardCharsets.US_ASCII;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Mockito.*;
+import static uk.co.real_logic.artio.engine.framer.CatchupReplayer.FRAME_LENGTH;
+import static uk.co.real_logic.artio.protocol.GatewayPublication.FRAMED_MESSAGE_TRAILER_SIZE;
+
+public class PossDupEnablerTest
+{
+    private static final long MESSAGE_TYPE = 'D';
+    private static final long RESEND_TIME = TimeUnit.MILLISECONDS.toNanos(1_500_000_000_123L);
+
+    private final UnsafeBuffer srcBuffer = new UnsafeBuffer(new byte[1024]);
+    private final MutableAsciiBuffer claimBuffer = new MutableAsciiBuffer(new byte[1024]);
+    private final BufferClaim bufferClaim = mock(BufferClaim.class);
+    private final PossDupEnabler.PreCommit onPreCommit = mock(PossDupEnabler.PreCommit.class);
+    @SuppressWarnings("unchecked")
+    private final Consumer<String> onIllegalState = mock(Consumer.class);
+    private final ErrorHandler errorHandler = mock(ErrorHandler.class);
+
+    private int claimedLength;
+
+    private final PossDupEnabler possDupEnabler = new PossDupEnabler(
+        new UtcTimestampEncoder(),
+        bufferClaim,
+        (totalLength, messageLength) ->
+        {
+            claimedLength = totalLength;
+            return true;
+        },
+        onPreCommit,
+        onIllegalState,
+        errorHandler,
+        () -> RESEND_TIME,
+        1024);
+
+    @Before
+    public void setUp()
+    {
+        when(bufferClaim.buffer()).thenReturn(claimBuffer);
+        when(bufferClaim.offset()).thenReturn(0);
+    }
+
+    @After
+    public void shouldHaveNoErrors()
+    {
+        verifyNoInteractions(onIllegalState, errorHandler);
+    }
+
+    @Test
+    public void shouldRecomputeInvalidStoredChecksumWhenFlagIsPresent()
+    {
+        enablePossDup("35=D\00149=initiator\00156=acceptor\00134=2\00143=N\00152=20161206-11:04:51.461\001" +
+            "122=20161206-11:04:51.461\00111=A\001", "10=000\001");
+
+        assertThat(claimedMessage(), containsString("43=Y\001"));
+        assertValidChecksum();
+    }
+
+    @Test
+    public void shouldRecomputeChecksumWhenFlagIsAlreadySet()
+    {
+        enablePossDup("35=D\00149=initiator\00156=acceptor\00134=2\00143=Y\00152=20161206-11:04:51.461\001" +
+            "122=20161206-11:04:51.461\00111=A\001", "10=255\001");
+
+        assertValidChecksum();
+    }
+
+    @Test
+    public void shouldComputeChecksumWhenInsertingFields()
+    {
+        enablePossDup("35=D\00149=initiator\00156=acceptor\00134=2\00152=20161206-11:04:51.461\00111=A\001",
+            "10=000\001");
+
+        assertThat(claimedMessage(), containsString("43=Y\001"));
+        assertThat(claimedMessage(), containsString("122=20161206-11:04:51.461\001"));
+        assertValidChecksum();
+    }
+
+    private void enablePossDup(final String body, final String trailer)
+    {
+        final String message = "8=FIX.4.4\0019=" + body.length() + "\001" + body + trailer;
+        final byte[] messageBytes = message.getBytes(US_ASCII);
+        srcBuffer.putBytes(FRAME_LENGTH, messageBytes);
+        final int frameLength = FRAME_LENGTH + messageBytes.length + FRAMED_MESSAGE_TRAILER_SIZE;
+        srcBuffer.setMemory(FRAME_LENGTH + messageBytes.length, FRAMED_MESSAGE_TRAILER_SIZE, (byte)0);
+        claimBuffer.setMemory(0, claimBuffer.capacity(), (byte)'X');
+
+        assertEquals(CONTINUE, possDupEnabler.enablePossDupFlag(
+            srcBuffer, FRAME_LENGTH, messageBytes.length, 0, frameLength, 0, MESSAGE_TYPE));
+        when(bufferClaim.length()).thenReturn(claimedLength);
+    }
+
+    private String claimedMessage()
+    {
+        return claimBuffer.getAscii(FRAME_LENGTH, claimedLength - FRAME_LENGTH - FRAMED_MESSAGE_TRAILER_SIZE);
+    }
+
+    private void assertValidChecksum()
+    {
+        final String message = claimedMessage();
+        final int checksumFieldOffset = message.lastIndexOf("\00110=") + 1;
+        final int checksum = Integer.parseInt(message.substring(checksumFieldOffset + 3, checksumFieldOffset + 6));
+
+        assertEquals(message, byteByByteChecksum(FRAME_LENGTH, FRAME_LENGTH + checksumFieldOffset), checksum);
+        assertEquals(message, checksumFieldOffset + "10=000\001".length(), message.length());
+        for (int i = claimedLength - FRAMED_MESSAGE_TRAILER_SIZE; i < claimedLength; i++)
+        {
+            assertEquals(0, claimBuffer.getByte(i));
+        }
+    }
+
+    private int byteByByteChecksum(final int startInclusive, final int endExclusive)
+    {
+        int total = 0;
+        for (int index = startInclusive; index < endExclusive; index++)
+        {
+            total += claimBuffer.getByte(index) & 0xFF;
+        }
+        return total % 256;
+    }
+}
@@ -0,0 +1,92 @@
+/*
+ * Copyright 2015-2022 Real Logic Limited.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.engine.framer;
+
+import org.agrona.ErrorHandler;
+import org.agrona.concurrent.SystemEpochNanoClock;
+import org.agrona.concurrent.UnsafeBuffer;
+import org.junit.Before;
+import org.junit.Test;
+import uk.co.real_logic.artio.dictionary.FixDictionary;
+import uk.co.real_logic.artio.fields.UtcTimestampEncoder;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static uk.co.real_logic.artio.engine.framer.FixThrottleRejectBuilder.NO_LIMIT;
+import static uk.co.real_logic.artio.util.MessageTypeEncoding.packMessageType;
+
+public class FixThrottleRejectBuilderTest
+{
+    private static final long NEW_ORDER_SINGLE = packMessageType("D");
+
+    private final FixThrottleRejectBuilder builder = new FixThrottleRejectBuilder(
+        FixDictionary.of(FixDictionary.findDefault()),
+        mock(ErrorHandler.class),
+        1,
+        2,
+        new UtcTimestampEncoder(),
+        new SystemEpochNanoClock(),
+        1000,
+        5);
+
+    @Before
+    public void setUp()
+    {
+        builder.header().senderCompID("sender").targetCompID("target");
+    }
+
+    @Test
+    public void shouldRejectWithLimitsOfSessionThrottle()
+    {
+        assertRejectText(100, 10, NO_LIMIT, "\u000158=Throttle limit exceeded (10 in 100ms)\u0001");
+    }
+
+    @Test
+    public void shouldRejectWithLimitsOfMessageTypeThrottle()
+    {
+        assertRejectText(100, 10, 3,
+            "\u000158=Throttle limit exceeded for MsgType D (10 in 100ms, burst of 3)\u0001");
+    }
+
+    @Test
+    public void shouldRejectWithConfiguredSessionThrottleWhenNoLimitsWereLogged()
+    {
+        assertRejectText(NO_LIMIT, NO_LIMIT, NO_LIMIT, "\u000158=Throttle limit exceeded (5 in 1000ms)\u0001");
+    }
+
+    private void assertRejectText(
+        final int throttleWindowInMs,
+        final int throttleLimitOfMessages,
+        final int burstLimitOfMessages,
+        final String expectedText)
+    {
+        assertTrue(builder.build(
+            NEW_ORDER_SINGLE,
+            2,
+            3,
+            new UnsafeBuffer(new byte[0]),
+            0,
+            0,
+            throttleWindowInMs,
+            throttleLimitOfMessages,
+            burstLimitOfMessages,
+            false));
+
+        assertThat(builder.buffer().getAscii(builder.offset(), builder.length()), containsString(expectedText));
+    }
+}
@@ -56,6 +56,7 @@ import java.nio.channels.SocketChannel;
 import java.util.Collection;
 import java.util.List;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 
 import static io.aeron.CommonContext.IPC_CHANNEL;
 import static io.aeron.Publication.BACK_PRESSURED;
@@ -92,6 +93,10 @@ public class FramerTest
     private static final int AERON_SESSION_ID = 234;
     private static final long SESSION_ID = 123;
     private static final String LIBRARY_NAME = "library";
+    private static final int OTHER_LIBRARY_ID = 4;
+    private static final int OTHER_AERON_SESSION_ID = 235;
+    private static final int OTHER_LIBRARY_WEIGHT = 3;
+    private static final int UNKNOWN_AERON_SESSION_ID = 236;
 
     private ServerSocketChannel server;
 
@@ -167,7 +172,23 @@ public class FramerTest
         when(session.lastLogonTimeInNs()).thenReturn(-1L);
         when(session.compositeKey()).thenReturn(sessionKey);
 
-        framer = new Framer(
+        framer = newFramer();
+
+        when(fixContexts.onLogon(any(), any(fixDictionary.getClass()))).thenReturn(new SessionContext(
+            sessionKey,
+            SESSION_ID,
+            SessionInfo.UNKNOWN_SEQUENCE_INDEX,
+            Session.UNKNOWN_TIME,
+            System.currentTimeMillis(),
+            fixContexts,
+            0,
+            EngineConfiguration.DEFAULT_INITIAL_SEQUENCE_INDEX,
+            fixDictionary, false));
+    }
+
+    private Framer newFramer()
+    {
+        return new Framer(
             mockClock,
             mock(Timer.class),
             mock(Timer.class),
@@ -199,17 +220,6 @@ public class FramerTest
             mock(SenderSequenceNumbers.class),
             mock(AgentInvoker.class),
             null);
-
-        when(fixContexts.onLogon(any(), any(fixDictionary.getClass()))).thenReturn(new SessionContext(
-            sessionKey,
-            SESSION_ID,
-            SessionInfo.UNKNOWN_SEQUENCE_INDEX,
-            Session.UNKNOWN_TIME,
-            System.currentTimeMillis(),
-            fixContexts,
-            0,
-            EngineConfiguration.DEFAULT_INITIAL_SEQUENCE_INDEX,
-            fixDictionary, false));
     }
 
     @After
@@ -412,6 +422,123 @@ public class FramerTest
         verify(finalImagePositions).removePosition(anyInt());
     }
 
+    @Test
+    public void shouldNotLetABusyLibraryUseUpAnotherLibrarysFragmentLimit()
+    {
+        pollOutboundLibrariesFairly();
+        final int fragmentLimit = engineConfiguration.outboundLibraryFragmentLimit();
+
+        final Image busyImage = libraryImage(AERON_SESSION_ID);
+        final Image otherImage = libraryImage(OTHER_AERON_SESSION_ID);
+        when(busyImage.controlledPoll(any(), anyInt())).then(inv -> inv.getArgument(1));
+        librarySubscriptionHasImages(busyImage, otherImage);
+
+        assertEquals(CONTINUE, onLibraryConnect());
+        assertEquals(CONTINUE, onOtherLibraryConnect());
+
+        framer.doWork();
+
+        verify(busyImage).controlledPoll(any(), eq(fragmentLimit));
+        verify(otherImage).controlledPoll(any(), eq(fragmentLimit * OTHER_LIBRARY_WEIGHT));
+    }
+
+    @Test
+    public void shouldScaleEachLibrarysFragmentLimitByItsWeight()
+    {
+        pollOutboundLibrariesFairly();
+        final int fragmentLimit = engineConfiguration.outboundLibraryFragmentLimit();
+
+        final Image image = libraryImage(AERON_SESSION_ID);
+        final Image otherImage = libraryImage(OTHER_AERON_SESSION_ID);
+        librarySubscriptionHasImages(image, otherImage);
+
+        assertEquals(CONTINUE, onLibraryConnect());
+        assertEquals(CONTINUE, onOtherLibraryConnect());
+
+        framer.doWork();
+
+        verify(image).controlledPoll(any(), eq(fragmentLimit));
+        verify(otherImage).controlledPoll(any(), eq(fragmentLimit * OTHER_LIBRARY_WEIGHT));
+    }
+
+    @Test
+    public void shouldPollUnknownLibraryImagesWithTheDefaultFragmentLimit()
+    {
+        pollOutboundLibrariesFairly();
+
+        final Image unknownImage = libraryImage(UNKNOWN_AERON_SESSION_ID);
+        librarySubscriptionHasImages(unknownImage);
+
+        assertEquals(CONTINUE, onOtherLibraryConnect());
+
+        framer.doWork();
+
+        verify(unknownImage).controlledPoll(any(), eq(engineConfiguration.outboundLibraryFragmentLimit()));
+    }
+
+    @Test
+    public void shouldRemoveLibrarysFragmentLimitWhenLibraryDisconnects()
+    {
+        pollOutboundLibrariesFairly();
+        final int fragmentLimit = engineConfiguration.outboundLibraryFragmentLimit();
+
+        final Image otherImage = libraryImage(OTHER_AERON_SESSION_ID);
+        librarySubscriptionHasImages(otherImage);
+
+        assertEquals(CONTINUE, onOtherLibraryConnect());
+
+        framer.doWork();
+
+        verify(otherImage).controlledPoll(any(), eq(fragmentLimit * OTHER_LIBRARY_WEIGHT));
+
+        timeoutLibrary();
+
+        framer.doWork();
+
+        verify(inboundPublication).saveLibraryTimeout(OTHER_LIBRARY_ID, 0);
+
+        clearInvocations(otherImage);
+
+        framer.doWork();
+
+        verify(otherImage).controlledPoll(any(), eq(fragmentLimit));
+        verify(otherImage, never()).controlledPoll(any(), eq(fragmentLimit * OTHER_LIBRARY_WEIGHT));
+    }
+
+    private void pollOutboundLibrariesFairly()
+    {
+        framer.onClose();
+        engineConfiguration
+            .fairOutboundLibraryPolling(true)
+            .outboundLibraryWeight(OTHER_LIBRARY_ID, OTHER_LIBRARY_WEIGHT);
+        framer = newFramer();
+    }
+
+    private Image libraryImage(final int aeronSessionId)
+    {
+        final Image image = mock(Image.class);
+        when(image.sessionId()).thenReturn(aeronSessionId);
+        return image;
+    }
+
+    private void librarySubscriptionHasImages(final Image... images)
+    {
+        doAnswer(inv ->
+        {
+            final Consumer<Image> imageHandler = inv.getArgument(0);
+            for (final Image image : images)
+            {
+                imageHandler.accept(image);
+            }
+            return null;
+        }).when(outboundLibrarySubscription).forEachImage(any());
+    }
+
+    private Action onOtherLibraryConnect()
+    {
+        return framer.onLibraryConnect(OTHER_LIBRARY_ID, LIBRARY_NAME, CORR_ID, OTHER_AERON_SESSION_ID);
+    }
+
     @Test
     public void shouldRetryNotifyingLibraryOfInitiateWhenBackPressured() throws Exception
     {
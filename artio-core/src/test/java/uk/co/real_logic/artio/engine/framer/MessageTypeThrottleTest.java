@@ -0,0 +1,116 @@
+/*
+ * Copyright 2015-2022 Real Logic Limited.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.engine.framer;
+
+import org.junit.Test;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.junit.Assert.*;
+import static uk.co.real_logic.artio.util.MessageTypeEncoding.packMessageType;
+
+public class MessageTypeThrottleTest
+{
+    private static final long NEW_ORDER_SINGLE = packMessageType("D");
+    private static final long ORDER_CANCEL_REQUEST = packMessageType("F");
+    private static final long START_TIME_IN_NS = -MILLISECONDS.toNanos(1);
+
+    // 10 messages per 100ms refills a message every 10ms
+    private static final int WINDOW_IN_MS = 100;
+    private static final int LIMIT = 10;
+    private static final int BURST = 3;
+
+    private final MessageTypeThrottle throttle = new MessageTypeThrottle();
+
+    @Test
+    public void shouldAllowBurstThenRefillAtLimit()
+    {
+        throttle.configure(NEW_ORDER_SINGLE, WINDOW_IN_MS, LIMIT, BURST);
+
+        assertAllowed(NEW_ORDER_SINGLE, BURST, START_TIME_IN_NS);
+        assertTrue(shouldThrottle(NEW_ORDER_SINGLE, START_TIME_IN_NS));
+
+        final long refilledTimeInNs = START_TIME_IN_NS + MILLISECONDS.toNanos(10);
+        assertFalse(shouldThrottle(NEW_ORDER_SINGLE, refilledTimeInNs));
+        assertTrue(shouldThrottle(NEW_ORDER_SINGLE, refilledTimeInNs));
+
+        assertAllowed(NEW_ORDER_SINGLE, BURST, refilledTimeInNs + MILLISECONDS.toNanos(WINDOW_IN_MS));
+    }
+
+    @Test
+    public void shouldThrottleMessageTypesIndependently()
+    {
+        throttle.configure(NEW_ORDER_SINGLE, WINDOW_IN_MS, LIMIT, 1);
+        throttle.configure(ORDER_CANCEL_REQUEST, WINDOW_IN_MS, LIMIT, BURST);
+
+        assertFalse(shouldThrottle(NEW_ORDER_SINGLE, START_TIME_IN_NS));
+        assertTrue(shouldThrottle(NEW_ORDER_SINGLE, START_TIME_IN_NS));
+
+        assertAllowed(ORDER_CANCEL_REQUEST, BURST, START_TIME_IN_NS);
+        assertAllowed(packMessageType("G"), LIMIT * 2, START_TIME_IN_NS);
+    }
+
+    @Test
+    public void shouldProvideLimitsOfThrottledMessageTypes()
+    {
+        throttle.configure(NEW_ORDER_SINGLE, WINDOW_IN_MS, LIMIT, BURST);
+
+        assertTrue(throttle.hasThrottles());
+        assertEquals(WINDOW_IN_MS, throttle.throttleWindowInMs(NEW_ORDER_SINGLE));
+        assertEquals(LIMIT, throttle.throttleLimitOfMessages(NEW_ORDER_SINGLE));
+        assertEquals(BURST, throttle.burstLimitOfMessages(NEW_ORDER_SINGLE));
+    }
+
+    @Test
+    public void shouldNotTakeMessageFromBucketWhenCheckingThrottle()
+    {
+        throttle.configure(NEW_ORDER_SINGLE, WINDOW_IN_MS, LIMIT, 1);
+
+        assertFalse(throttle.isThrottled(NEW_ORDER_SINGLE, START_TIME_IN_NS));
+        assertFalse(throttle.isThrottled(NEW_ORDER_SINGLE, START_TIME_IN_NS));
+
+        throttle.onMessage(NEW_ORDER_SINGLE, START_TIME_IN_NS);
+        assertTrue(throttle.isThrottled(NEW_ORDER_SINGLE, START_TIME_IN_NS));
+    }
+
+    @Test
+    public void shouldCopyConfigurationButNotStateFromTemplate()
+    {
+        throttle.configure(NEW_ORDER_SINGLE, WINDOW_IN_MS, LIMIT, BURST);
+        assertAllowed(NEW_ORDER_SINGLE, BURST, START_TIME_IN_NS);
+
+        final MessageTypeThrottle copy = new MessageTypeThrottle(throttle);
+        assertFalse(copy.isThrottled(NEW_ORDER_SINGLE, START_TIME_IN_NS));
+    }
+
+    private boolean shouldThrottle(final long messageType, final long timestampInNs)
+    {
+        if (throttle.isThrottled(messageType, timestampInNs))
+        {
+            return true;
+        }
+
+        throttle.onMessage(messageType, timestampInNs);
+        return false;
+    }
+
+    private void assertAllowed(final long messageType, final int count, final long timestampInNs)
+    {
+        for (int i = 0; i < count; i++)
+        {
+            assertFalse("Throttled message " + i, shouldThrottle(messageType, timestampInNs));
+        }
+    }
+}
@@ -156,6 +156,7 @@ public class ReceiverEndPointTest
             new FixReceiverEndPoint.FixReceiverEndPointFormatters(),
             NO_THROTTLE_WINDOW,
             NO_THROTTLE_WINDOW,
+            new MessageTypeThrottle(),
             false);
         endPoint.gatewaySession(gatewaySession);
     }
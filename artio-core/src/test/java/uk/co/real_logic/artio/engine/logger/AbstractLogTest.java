@@ -39,6 +39,7 @@ import static uk.co.real_logic.artio.TestFixtures.MESSAGE_BUFFER_SIZE_IN_BYTES;
 import static uk.co.real_logic.artio.engine.logger.Replayer.SIZE_OF_LENGTH_FIELD;
 import static uk.co.real_logic.artio.engine.logger.Replayer.START_REPLAY_LENGTH;
 import static uk.co.real_logic.artio.messages.FixMessageDecoder.metaDataHeaderLength;
+import static uk.co.real_logic.artio.protocol.GatewayPublication.FRAMED_MESSAGE_TRAILER_SIZE;
 
 public class AbstractLogTest
 {
@@ -170,7 +171,8 @@ public class AbstractLogTest
             .libraryId(LIBRARY_ID)
             .messageType(messageType)
             .putMetaData(new byte[0], 0, 0)
-            .putBody(asciiBuffer, 0, logEntryLength);
+            .putBody(asciiBuffer, 0, logEntryLength)
+            .putTagOffsets(new byte[0], 0, 0);
 
         offset += PREFIX_LENGTH;
     }
@@ -182,7 +184,7 @@ public class AbstractLogTest
 
     protected int endPosition()
     {
-        return offset + logEntryLength;
+        return offset + logEntryLength + FRAMED_MESSAGE_TRAILER_SIZE;
     }
 
     protected int alignedEndPosition()
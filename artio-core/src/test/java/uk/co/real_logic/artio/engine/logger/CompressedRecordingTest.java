@@ -0,0 +1,146 @@
+/*
+ * Copyright 2015-2022 Real Logic Limited.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.engine.logger;
+
+import org.agrona.IoUtil;
+import org.agrona.collections.LongArrayList;
+import org.agrona.concurrent.UnsafeBuffer;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.Deflater;
+
+import static java.nio.charset.StandardCharsets.US_ASCII;
+import static org.junit.Assert.assertEquals;
+
+public class CompressedRecordingTest
+{
+    private static final File LOCATION = new File(IoUtil.tmpDirName() + "/CompressedRecordingTest");
+    private static final File FILE = new File(LOCATION, CompressedRecordingDescriptor.fileName(1, 0, 1000));
+    private static final int STREAM_ID = 7;
+    private static final int RECORDING_ID = 1;
+    private static final int MESSAGE_COUNT = 100;
+    private static final int MESSAGE_SPACING = 64;
+
+    private final LongArrayList endPositions = new LongArrayList();
+    private final List<String> messages = new ArrayList<>();
+    private final CompressedRecordingReader.MessageHandler handler = (buffer, offset, length, endPosition) ->
+    {
+        endPositions.addLong(endPosition);
+        messages.add(buffer.getStringWithoutLengthAscii(offset, length));
+    };
+
+    @Before
+    public void setUp()
+    {
+        IoUtil.ensureDirectoryExists(LOCATION, "compressed recording test");
+
+        // small block size so that messages span many blocks
+        try (CompressedRecordingWriter writer = new CompressedRecordingWriter(
+            FILE, STREAM_ID, RECORDING_ID, 0, 256, Deflater.BEST_SPEED))
+        {
+            for (int i = 1; i <= MESSAGE_COUNT; i++)
+            {
+                final byte[] message = message(i).getBytes(US_ASCII);
+                writer.onMessage(new UnsafeBuffer(message), 0, message.length, endPosition(i));
+            }
+        }
+    }
+
+    @After
+    public void tearDown()
+    {
+        IoUtil.delete(LOCATION, true);
+    }
+
+    @Test
+    public void shouldReadBackAllMessages()
+    {
+        try (CompressedRecordingReader reader = new CompressedRecordingReader(FILE))
+        {
+            assertEquals(STREAM_ID, reader.streamId());
+            assertEquals(RECORDING_ID, reader.recordingId());
+            assertEquals(0, reader.startPosition());
+            assertEquals(endPosition(MESSAGE_COUNT), reader.stopPosition());
+
+            assertEquals(MESSAGE_COUNT, reader.read(0, reader.stopPosition(), handler, Integer.MAX_VALUE));
+        }
+
+        assertMessages(1, MESSAGE_COUNT);
+    }
+
+    @Test
+    public void shouldReadRangeOfMessages()
+    {
+        try (CompressedRecordingReader reader = new CompressedRecordingReader(FILE))
+        {
+            assertEquals(11, reader.read(endPosition(39), endPosition(50), handler, Integer.MAX_VALUE));
+        }
+
+        assertMessages(40, 50);
+    }
+
+    @Test
+    public void shouldLimitNumberOfMessagesRead()
+    {
+        try (CompressedRecordingReader reader = new CompressedRecordingReader(FILE))
+        {
+            assertEquals(5, reader.read(endPosition(9), reader.stopPosition(), handler, 5));
+            assertEquals(5, reader.read(endPositions.getLong(4), reader.stopPosition(), handler, 5));
+        }
+
+        assertMessages(10, 19);
+    }
+
+    @Test
+    public void shouldOnlyInflateBlocksOnceWhenRereadingNearbyRanges()
+    {
+        try (CompressedRecordingReader reader = new CompressedRecordingReader(FILE))
+        {
+            reader.read(endPosition(20), endPosition(30), handler, Integer.MAX_VALUE);
+            final long cacheMisses = reader.cacheMisses();
+
+            reader.read(endPosition(20), endPosition(30), handler, Integer.MAX_VALUE);
+            reader.read(endPosition(25), endPosition(28), handler, Integer.MAX_VALUE);
+
+            assertEquals(cacheMisses, reader.cacheMisses());
+        }
+    }
+
+    private void assertMessages(final int from, final int to)
+    {
+        assertEquals(to - from + 1, messages.size());
+        for (int i = from; i <= to; i++)
+        {
+            assertEquals(message(i), messages.get(i - from));
+            assertEquals(endPosition(i), endPositions.getLong(i - from));
+        }
+    }
+
+    private static long endPosition(final int i)
+    {
+        return (long)i * MESSAGE_SPACING;
+    }
+
+    private static String message(final int i)
+    {
+        return "8=FIX.4.4\0019=5\00135=0\00134=" + i + "\00110=000\001";
+    }
+}
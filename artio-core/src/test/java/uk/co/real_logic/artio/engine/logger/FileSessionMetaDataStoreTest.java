@@ -0,0 +1,102 @@
+/*
+ * Copyright 2015-2022 Real Logic Limited.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.engine.logger;
+
+import org.agrona.CloseHelper;
+import org.agrona.IoUtil;
+import org.junit.After;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+
+import static java.nio.charset.StandardCharsets.US_ASCII;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+
+public class FileSessionMetaDataStoreTest
+{
+    private static final File LOCATION = new File(IoUtil.tmpDirName() + "/FileSessionMetaDataStoreTest");
+
+    private FileSessionMetaDataStore writer = newStore(true);
+
+    @After
+    public void tearDown()
+    {
+        CloseHelper.close(writer);
+        IoUtil.delete(LOCATION, true);
+    }
+
+    @Test
+    public void shouldReadSlotsAfterReopening() throws IOException
+    {
+        final int firstSlot = writer.allocate(8, bytes("abc"), 3);
+        final int secondSlot = writer.allocate(5, bytes("defgh"), 5);
+        assertNotEquals(firstSlot, secondSlot);
+
+        writer.write(firstSlot, 3, bytes("xyz"), 0, 3);
+        writer.sync();
+        writer.close();
+
+        writer = newStore(true);
+        try (FileSessionMetaDataStore reader = newStore(false))
+        {
+            assertEquals(8, reader.capacity(firstSlot));
+            assertSlotContains(reader, firstSlot, "abcxyz");
+            assertSlotContains(reader, secondSlot, "defgh");
+        }
+    }
+
+    @Test
+    public void shouldClearSlot() throws IOException
+    {
+        final int slot = writer.allocate(3, bytes("abc"), 3);
+
+        writer.clear(slot);
+
+        assertSlotContains(writer, slot, "\0\0\0");
+    }
+
+    @Test
+    public void shouldAllocateFromStartAfterReset() throws IOException
+    {
+        final int slot = writer.allocate(3, bytes("abc"), 3);
+        writer.allocate(3, bytes("def"), 3);
+
+        writer.reset();
+
+        assertEquals(slot, writer.allocate(3, bytes("ghi"), 3));
+    }
+
+    private void assertSlotContains(final FileSessionMetaDataStore store, final int slot, final String expected)
+        throws IOException
+    {
+        final byte[] value = new byte[expected.length()];
+        store.read(slot, 0, value, 0, value.length);
+        assertArrayEquals(bytes(expected), value);
+    }
+
+    private static FileSessionMetaDataStore newStore(final boolean writable)
+    {
+        return new FileSessionMetaDataStore(LOCATION, writable);
+    }
+
+    private static byte[] bytes(final String value)
+    {
+        return value.getBytes(US_ASCII);
+    }
+}
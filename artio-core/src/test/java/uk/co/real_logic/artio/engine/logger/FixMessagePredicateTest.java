@@ -15,6 +15,7 @@
  */
 package uk.co.real_logic.artio.engine.logger;
 
+import org.agrona.AsciiSequenceView;
 import org.agrona.concurrent.UnsafeBuffer;
 import org.junit.Test;
 import uk.co.real_logic.artio.dictionary.FixDictionary;
@@ -23,6 +24,7 @@ import uk.co.real_logic.artio.messages.FixMessageEncoder;
 
 import java.util.regex.Pattern;
 
+import static java.nio.charset.StandardCharsets.US_ASCII;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 import static uk.co.real_logic.artio.engine.logger.FixMessagePredicates.targetCompIdOf;
@@ -79,7 +81,17 @@ public class FixMessagePredicateTest
         assertTargetCompId("acceptor2", false);
     }
 
-    private void assertTargetCompId(final String targetCompIdOf, final boolean expected)
+    @Test
+    public void shouldMatchHeaderAgainstCharSequence()
+    {
+        encoder.body(HEADER_EG);
+
+        final UnsafeBuffer compIdBuffer = new UnsafeBuffer("xxacceptorxx".getBytes(US_ASCII));
+        assertTargetCompId(new AsciiSequenceView(compIdBuffer, 2, 8), true);
+        assertTargetCompId(new AsciiSequenceView(compIdBuffer, 2, 9), false);
+    }
+
+    private void assertTargetCompId(final CharSequence targetCompIdOf, final boolean expected)
     {
         final FixMessagePredicate predicate =
             whereHeader(FixDictionary.of(FixDictionary.findDefault()), targetCompIdOf(targetCompIdOf));
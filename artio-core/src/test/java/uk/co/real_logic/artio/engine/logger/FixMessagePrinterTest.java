@@ -0,0 +1,124 @@
+/*
+ * Copyright 2015-2022 Real Logic Limited, Adaptive Financial Consulting Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.engine.logger;
+
+import org.agrona.concurrent.UnsafeBuffer;
+import org.junit.Test;
+import uk.co.real_logic.artio.ArtioLogHeader;
+import uk.co.real_logic.artio.messages.FixMessageDecoder;
+import uk.co.real_logic.artio.messages.FixMessageEncoder;
+import uk.co.real_logic.artio.messages.MessageStatus;
+
+import java.io.ByteArrayOutputStream;
+
+import static java.nio.charset.StandardCharsets.ISO_8859_1;
+import static java.nio.charset.StandardCharsets.US_ASCII;
+import static org.junit.Assert.assertEquals;
+import static uk.co.real_logic.artio.engine.logger.FixMessagePrinter.Format.JSON;
+import static uk.co.real_logic.artio.engine.logger.FixMessagePrinter.Format.TEXT;
+
+public class FixMessagePrinterTest
+{
+    private static final long TIMESTAMP = 1631715715490000000L;
+    private static final String MESSAGE = "8=FIX.4.4\0019=5\00135=0\00110=123\001";
+
+    private final UnsafeBuffer buffer = new UnsafeBuffer(new byte[1024]);
+    private final FixMessageEncoder encoder = new FixMessageEncoder();
+    private final FixMessageDecoder decoder = new FixMessageDecoder();
+    private final ArtioLogHeader header = new ArtioLogHeader(2);
+    private final ByteArrayOutputStream out = new ByteArrayOutputStream();
+    private final FixMessagePrinter textPrinter = new FixMessagePrinter(TEXT, out);
+    private final FixMessagePrinter jsonPrinter = new FixMessagePrinter(JSON, out);
+
+    @Test
+    public void shouldPrintText()
+    {
+        print(textPrinter, MESSAGE);
+        print(textPrinter, MESSAGE);
+
+        final String line = " 1631715715490000000: " + MESSAGE + " (OK)\n";
+        assertEquals(line + line, printed());
+    }
+
+    @Test
+    public void shouldReusePrinterForMessagesOfDifferentLengths()
+    {
+        final String longMessage = "8=FIX.4.4\0019=25\00135=D\00111=ORDER1\00155=MSFT\00110=123\001";
+        print(textPrinter, longMessage);
+        print(textPrinter, MESSAGE);
+        print(jsonPrinter, longMessage);
+        print(jsonPrinter, MESSAGE);
+
+        assertEquals(
+            " 1631715715490000000: " + longMessage + " (OK)\n" +
+            " 1631715715490000000: " + MESSAGE + " (OK)\n" +
+            "{\"timestamp\":1631715715490000000,\"status\":\"OK\",\"streamId\":2,\"fields\":[" +
+            "[\"8\",\"FIX.4.4\"],[\"9\",\"25\"],[\"35\",\"D\"],[\"11\",\"ORDER1\"],[\"55\",\"MSFT\"]," +
+            "[\"10\",\"123\"]]}\n" +
+            "{\"timestamp\":1631715715490000000,\"status\":\"OK\",\"streamId\":2,\"fields\":[" +
+            "[\"8\",\"FIX.4.4\"],[\"9\",\"5\"],[\"35\",\"0\"],[\"10\",\"123\"]]}\n",
+            printed());
+    }
+
+    @Test
+    public void shouldPrintJson()
+    {
+        print(jsonPrinter, MESSAGE);
+
+        assertEquals("{\"timestamp\":1631715715490000000,\"status\":\"OK\",\"streamId\":2,\"fields\":[" +
+            "[\"8\",\"FIX.4.4\"],[\"9\",\"5\"],[\"35\",\"0\"],[\"10\",\"123\"]]}\n", printed());
+    }
+
+    @Test
+    public void shouldEscapeJsonStrings()
+    {
+        print(jsonPrinter, "58=a \"b\\c\"\00195=2\00196=\n\377");
+
+        assertEquals("{\"timestamp\":1631715715490000000,\"status\":\"OK\",\"streamId\":2,\"fields\":[" +
+            "[\"58\",\"a \\\"b\\\\c\\\"\"],[\"95\",\"2\"],[\"96\",\"\\u000a\\u00ff\"]]}\n", printed());
+    }
+
+    @Test
+    public void shouldPrintInvalidMessageAsJson()
+    {
+        print(jsonPrinter, "garbage\001=x");
+
+        assertEquals("{\"timestamp\":1631715715490000000,\"status\":\"OK\",\"streamId\":2,\"fields\":[" +
+            "[\"\",\"garbage\"],[\"\",\"x\"]]}\n", printed());
+    }
+
+    private void print(final FixMessagePrinter printer, final String body)
+    {
+        final byte[] bodyBytes = body.getBytes(ISO_8859_1);
+        encoder
+            .wrap(buffer, 0)
+            .timestamp(TIMESTAMP)
+            .status(MessageStatus.OK)
+            .putMetaData(new byte[0], 0, 0)
+            .putBody(bodyBytes, 0, bodyBytes.length)
+            .putTagOffsets(new byte[0], 0, 0);
+
+        decoder.wrap(buffer, 0, encoder.sbeBlockLength(), encoder.sbeSchemaVersion());
+        decoder.skipMetaData();
+
+        printer.onMessage(decoder, buffer, 0, 0, header);
+    }
+
+    private String printed()
+    {
+        return new String(out.toByteArray(), US_ASCII);
+    }
+}
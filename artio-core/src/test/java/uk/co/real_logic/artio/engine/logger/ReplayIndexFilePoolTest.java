@@ -0,0 +1,137 @@
+/*
+ * Copyright 2015-2022 Real Logic Limited.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.engine.logger;
+
+import org.agrona.ErrorHandler;
+import org.agrona.IoUtil;
+import org.agrona.concurrent.UnsafeBuffer;
+import org.junit.After;
+import org.junit.Test;
+
+import java.io.File;
+import java.nio.ByteBuffer;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static uk.co.real_logic.artio.engine.logger.ReplayIndexDescriptor.HEADER_FILE_SIZE;
+
+public class ReplayIndexFilePoolTest
+{
+    private static final String LOG_FILE_DIR = IoUtil.tmpDirName() + "/ReplayIndexFilePoolTest";
+    private static final int STREAM_ID = 1;
+    private static final int SEGMENT_SIZE = 4096;
+    private static final int POOL_SIZE = 2;
+
+    private final ErrorHandler errorHandler = mock(ErrorHandler.class);
+    private final ReplayIndexFilePool pool = newPool();
+
+    @After
+    public void tearDown()
+    {
+        IoUtil.delete(new File(LOG_FILE_DIR), true);
+    }
+
+    @Test
+    public void shouldFillPoolFromDutyCycle()
+    {
+        fillPool(pool);
+
+        assertEquals(2 * POOL_SIZE, pool.pooledFileCount());
+        assertEquals(0, pool.doWork());
+        verifyNoInteractions(errorHandler);
+    }
+
+    @Test
+    public void shouldMapNewFilesFromPool()
+    {
+        fillPool(pool);
+
+        final File segmentFile = ReplayIndexDescriptor.replayIndexSegmentFile(LOG_FILE_DIR, 1, STREAM_ID, 0);
+        final File headerFile = ReplayIndexDescriptor.replayIndexHeaderFile(LOG_FILE_DIR, 1, STREAM_ID);
+        IoUtil.unmap(pool.map(segmentFile, SEGMENT_SIZE));
+        IoUtil.unmap(pool.map(headerFile, HEADER_FILE_SIZE));
+
+        assertEquals(SEGMENT_SIZE, segmentFile.length());
+        assertEquals(HEADER_FILE_SIZE, headerFile.length());
+        assertEquals(2 * POOL_SIZE - 2, pool.pooledFileCount());
+        verifyNoInteractions(errorHandler);
+    }
+
+    @Test
+    public void shouldDeleteFilesRatherThanReturnThemToPool()
+    {
+        fillPool(pool);
+        final File segmentFile = ReplayIndexDescriptor.replayIndexSegmentFile(LOG_FILE_DIR, 1, STREAM_ID, 0);
+        IoUtil.unmap(pool.map(segmentFile, SEGMENT_SIZE));
+
+        assertTrue(pool.delete(segmentFile));
+        assertFalse(segmentFile.exists());
+        assertEquals(2 * POOL_SIZE - 1, pool.pooledFileCount());
+        assertEquals(2 * POOL_SIZE - 1, new File(LOG_FILE_DIR).list().length);
+    }
+
+    @Test
+    public void shouldZeroFilesLeftByPreviousRunBeforeReuse()
+    {
+        final File leftoverFile = new File(LOG_FILE_DIR, "replay-index-pool-" + STREAM_ID + "-0");
+        final ByteBuffer mapped = LoggerUtil.map(leftoverFile, SEGMENT_SIZE);
+        new UnsafeBuffer(mapped).setMemory(0, SEGMENT_SIZE, (byte)1);
+        IoUtil.unmap(mapped);
+
+        final ReplayIndexFilePool restartedPool = newPool();
+        fillPool(restartedPool);
+
+        final File segmentFile = ReplayIndexDescriptor.replayIndexSegmentFile(LOG_FILE_DIR, 1, STREAM_ID, 0);
+        final ByteBuffer reused = restartedPool.map(segmentFile, SEGMENT_SIZE);
+        assertFalse(leftoverFile.exists());
+        final UnsafeBuffer buffer = new UnsafeBuffer(reused);
+        for (int i = 0; i < SEGMENT_SIZE; i++)
+        {
+            assertEquals(0, buffer.getByte(i));
+        }
+        IoUtil.unmap(reused);
+        verifyNoInteractions(errorHandler);
+    }
+
+    @Test
+    public void shouldReusePooledFilesAfterRestart()
+    {
+        fillPool(pool);
+
+        final ReplayIndexFilePool restartedPool = newPool();
+        assertEquals(0, restartedPool.pooledFileCount());
+        fillPool(restartedPool);
+
+        assertEquals(2 * POOL_SIZE, restartedPool.pooledFileCount());
+        assertEquals(2 * POOL_SIZE, new File(LOG_FILE_DIR).list().length);
+    }
+
+    private static void fillPool(final ReplayIndexFilePool pool)
+    {
+        int work;
+        do
+        {
+            work = pool.doWork();
+        }
+        while (work > 0);
+    }
+
+    private ReplayIndexFilePool newPool()
+    {
+        return new ReplayIndexFilePool(LOG_FILE_DIR, STREAM_ID, SEGMENT_SIZE, POOL_SIZE, errorHandler);
+    }
+}
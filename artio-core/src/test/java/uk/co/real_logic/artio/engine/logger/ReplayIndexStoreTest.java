@@ -0,0 +1,215 @@
+/*
+ * Copyright 2015-2022 Real Logic Limited.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.engine.logger;
+
+import org.agrona.IoUtil;
+import org.agrona.collections.LongHashSet;
+import org.agrona.concurrent.UnsafeBuffer;
+import org.junit.After;
+import org.junit.Test;
+
+import java.io.File;
+import java.nio.ByteBuffer;
+
+import static org.junit.Assert.*;
+import static uk.co.real_logic.artio.engine.logger.ReplayIndexDescriptor.*;
+import static uk.co.real_logic.artio.engine.logger.ReplayIndexStoreDescriptor.regionOffset;
+
+public class ReplayIndexStoreTest
+{
+    private static final String LOG_FILE_DIR = IoUtil.tmpDirName() + "/ReplayIndexStoreTest";
+    private static final File LOG_FILE_DIR_FILE = new File(LOG_FILE_DIR);
+    private static final int STREAM_ID = 1;
+    private static final int SEGMENT_SIZE = 4096;
+    private static final int CAPACITY = 4;
+
+    private final File headerFile = replayIndexHeaderFile(LOG_FILE_DIR, 1, STREAM_ID);
+    private final File segmentFile = replayIndexSegmentFile(LOG_FILE_DIR, 1, STREAM_ID, 0);
+    private final File otherHeaderFile = replayIndexHeaderFile(LOG_FILE_DIR, 2, STREAM_ID);
+
+    private ReplayIndexStore store = new ReplayIndexStore(LOG_FILE_DIR, STREAM_ID, CAPACITY);
+    private final ReplayIndexStoreReader reader = new ReplayIndexStoreReader(LOG_FILE_DIR, STREAM_ID);
+
+    @After
+    public void tearDown()
+    {
+        store.close();
+        reader.close();
+        IoUtil.delete(LOG_FILE_DIR_FILE, true);
+    }
+
+    @Test
+    public void shouldStoreAllSessionsInTwoFiles()
+    {
+        assertFalse(store.exists(headerFile));
+
+        write(store.map(headerFile, HEADER_FILE_SIZE), 1);
+        write(store.map(segmentFile, SEGMENT_SIZE), 2);
+        write(store.map(otherHeaderFile, HEADER_FILE_SIZE), 3);
+
+        assertTrue(store.exists(headerFile));
+        assertFalse(headerFile.exists());
+        assertEquals(2, LOG_FILE_DIR_FILE.list().length);
+
+        assertSessionIds(1, 2);
+        assertRead(reader.map(headerFile), HEADER_FILE_SIZE, 1);
+        assertRead(reader.map(segmentFile), SEGMENT_SIZE, 2);
+        assertRead(reader.map(otherHeaderFile), HEADER_FILE_SIZE, 3);
+    }
+
+    @Test
+    public void shouldNotReuseDeletedRegionsThatMayStillBeMapped()
+    {
+        write(store.map(headerFile, HEADER_FILE_SIZE), 1);
+        write(store.map(segmentFile, SEGMENT_SIZE), 2);
+        final ByteBuffer readerSegment = reader.map(segmentFile);
+
+        assertTrue(store.delete(headerFile));
+        assertTrue(store.delete(segmentFile));
+        assertFalse(store.exists(headerFile));
+        assertSessionIds();
+
+        write(store.map(segmentFile, SEGMENT_SIZE), 4);
+        assertRead(readerSegment, SEGMENT_SIZE, 2);
+        assertRead(reader.map(segmentFile), SEGMENT_SIZE, 4);
+        assertEquals(3, store.entryCount());
+    }
+
+    @Test
+    public void shouldReuseDeletedRegionsOnceUnmappedByReaders()
+    {
+        write(store.map(segmentFile, SEGMENT_SIZE), 2);
+        final ByteBuffer readerSegment = reader.map(segmentFile);
+        assertTrue(store.delete(segmentFile));
+        reader.unmap(readerSegment);
+        final long dataLength = store.dataLength();
+
+        final ByteBuffer reusedSegment = store.map(segmentFile, SEGMENT_SIZE);
+        assertRead(reusedSegment, SEGMENT_SIZE, 0);
+        write(reusedSegment, 4);
+
+        assertRead(reader.map(segmentFile), SEGMENT_SIZE, 4);
+        assertEquals(1, store.entryCount());
+        assertEquals(dataLength, store.dataLength());
+    }
+
+    @Test
+    public void shouldKeepDataFileBoundedAcrossRepeatedResets()
+    {
+        long dataLength = 0;
+        for (int reset = 0; reset < 10; reset++)
+        {
+            write(store.map(headerFile, HEADER_FILE_SIZE), 1);
+            write(store.map(segmentFile, SEGMENT_SIZE), 2);
+
+            final ByteBuffer readerHeader = reader.map(headerFile);
+            final ByteBuffer readerSegment = reader.map(segmentFile);
+            assertRead(readerSegment, SEGMENT_SIZE, 2);
+
+            assertTrue(store.delete(headerFile));
+            assertTrue(store.delete(segmentFile));
+            reader.unmap(readerHeader);
+            reader.unmap(readerSegment);
+
+            if (reset == 0)
+            {
+                dataLength = store.dataLength();
+            }
+            assertEquals(dataLength, store.dataLength());
+            assertEquals(2, store.entryCount());
+        }
+    }
+
+    @Test
+    public void shouldReuseDeletedRegionsAfterRestart()
+    {
+        write(store.map(segmentFile, SEGMENT_SIZE), 2);
+        reader.map(segmentFile);
+        assertTrue(store.delete(segmentFile));
+        store.close();
+
+        store = new ReplayIndexStore(LOG_FILE_DIR, STREAM_ID, CAPACITY);
+        write(store.map(segmentFile, SEGMENT_SIZE), 4);
+
+        assertEquals(1, store.entryCount());
+    }
+
+    @Test
+    public void shouldReloadDirectoryOnRestart()
+    {
+        write(store.map(headerFile, HEADER_FILE_SIZE), 1);
+        write(store.map(segmentFile, SEGMENT_SIZE), 2);
+        store.close();
+
+        store = new ReplayIndexStore(LOG_FILE_DIR, STREAM_ID, CAPACITY);
+
+        assertEquals(2, store.entryCount());
+        assertTrue(store.exists(headerFile));
+        assertRead(store.map(segmentFile, SEGMENT_SIZE), SEGMENT_SIZE, 2);
+
+        write(store.map(otherHeaderFile, HEADER_FILE_SIZE), 3);
+        assertRead(reader.map(headerFile), HEADER_FILE_SIZE, 1);
+        assertRead(reader.map(otherHeaderFile), HEADER_FILE_SIZE, 3);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void shouldRejectRegionsOnceDirectoryIsFull()
+    {
+        for (int segmentIndex = 0; segmentIndex <= CAPACITY; segmentIndex++)
+        {
+            store.unmap(store.map(replayIndexSegmentFile(LOG_FILE_DIR, 1, STREAM_ID, segmentIndex), SEGMENT_SIZE));
+        }
+    }
+
+    @Test
+    public void shouldNotPlaceRegionsAcrossChunks()
+    {
+        final int chunkLength = 8192;
+
+        assertEquals(0, regionOffset(0, SEGMENT_SIZE, chunkLength));
+        assertEquals(4096, regionOffset(4096, SEGMENT_SIZE, chunkLength));
+        assertEquals(8192, regionOffset(4160, SEGMENT_SIZE, chunkLength));
+        assertEquals(16384, regionOffset(8256, 3 * chunkLength, chunkLength));
+        assertEquals(4160, regionOffset(4160, SEGMENT_SIZE, 0));
+    }
+
+    private void assertSessionIds(final long... expectedSessionIds)
+    {
+        final LongHashSet sessionIds = reader.sessionIds(LOG_FILE_DIR_FILE, STREAM_ID);
+        assertEquals(expectedSessionIds.length, sessionIds.size());
+        for (final long sessionId : expectedSessionIds)
+        {
+            assertTrue(sessionIds.contains(sessionId));
+        }
+    }
+
+    private void write(final ByteBuffer mapped, final int value)
+    {
+        new UnsafeBuffer(mapped).setMemory(0, mapped.capacity(), (byte)value);
+        store.unmap(mapped);
+    }
+
+    // Regions are slices of the store's chunks, which are unmapped when the store and reader are closed
+    private static void assertRead(final ByteBuffer mapped, final int size, final int value)
+    {
+        final UnsafeBuffer buffer = new UnsafeBuffer(mapped);
+        assertEquals(size, buffer.capacity());
+        for (int i = 0; i < size; i++)
+        {
+            assertEquals(value, buffer.getByte(i));
+        }
+    }
+}
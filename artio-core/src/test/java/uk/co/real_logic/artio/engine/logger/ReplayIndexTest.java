@@ -495,7 +495,7 @@ public class ReplayIndexTest extends AbstractLogTest
     private long publishBuffer(final ExclusivePublication publication)
     {
         long position;
-        while ((position = publication.offer(buffer, START, logEntryLength + PREFIX_LENGTH)) <= 0)
+        while ((position = publication.offer(buffer, START, fragmentLength())) <= 0)
         {
             Thread.yield();
         }
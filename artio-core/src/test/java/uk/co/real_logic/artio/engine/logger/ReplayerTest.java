@@ -69,6 +69,7 @@ import static uk.co.real_logic.artio.engine.PossDupEnabler.ORIG_SENDING_TIME_PRE
 import static uk.co.real_logic.artio.engine.logger.Replayer.MESSAGE_FRAME_BLOCK_LENGTH;
 import static uk.co.real_logic.artio.engine.logger.Replayer.START_REPLAY_LENGTH;
 import static uk.co.real_logic.artio.messages.FixMessageDecoder.metaDataHeaderLength;
+import static uk.co.real_logic.artio.protocol.GatewayPublication.FRAMED_MESSAGE_TRAILER_SIZE;
 import static uk.co.real_logic.artio.util.CustomMatchers.sequenceEqualsAscii;
 
 public class ReplayerTest extends AbstractLogTest
@@ -717,7 +718,7 @@ public class ReplayerTest extends AbstractLogTest
     {
         final int messageFrameBlockLength = MESSAGE_FRAME_BLOCK_LENGTH + metaDataHeaderLength();
         final int offset = offset() + messageFrameBlockLength;
-        final int length = claimedLength - messageFrameBlockLength;
+        final int length = claimedLength - messageFrameBlockLength - FRAMED_MESSAGE_TRAILER_SIZE;
         final String message = resultAsciiBuffer.getAscii(offset, length);
         final SequenceResetDecoder sequenceReset = new SequenceResetDecoder();
         sequenceReset.decode(resultAsciiBuffer, offset, length);
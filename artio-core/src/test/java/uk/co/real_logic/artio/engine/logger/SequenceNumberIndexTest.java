@@ -62,6 +62,7 @@ import static uk.co.real_logic.artio.engine.EngineConfiguration.DEFAULT_INDEX_CH
 import static uk.co.real_logic.artio.engine.EngineConfiguration.DEFAULT_INDEX_FILE_STATE_FLUSH_TIMEOUT_IN_MS;
 import static uk.co.real_logic.artio.engine.SectorFramer.SECTOR_SIZE;
 import static uk.co.real_logic.artio.engine.SessionInfo.UNK_SESSION;
+import static uk.co.real_logic.artio.engine.framer.FixThrottleRejectBuilder.NO_LIMIT;
 import static uk.co.real_logic.artio.engine.logger.ErrorHandlerVerifier.verify;
 import static uk.co.real_logic.artio.engine.logger.SequenceNumberIndexDescriptor.*;
 import static uk.co.real_logic.artio.engine.logger.SequenceNumberIndexWriter.SEQUENCE_NUMBER_OFFSET;
@@ -155,6 +156,9 @@ public class SequenceNumberIndexTest extends AbstractLogTest
                 SEQUENCE_NUMBER,
                 SESSION_ID,
                 SEQUENCE_INDEX,
+                100,
+                10,
+                NO_LIMIT,
                 new UnsafeBuffer(new byte[0]), 0, 0);
 
             Thread.yield();
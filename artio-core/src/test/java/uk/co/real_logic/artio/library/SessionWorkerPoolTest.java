@@ -0,0 +1,183 @@
+/*
+ * Copyright 2015-2022 Real Logic Limited.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.library;
+
+import io.aeron.Publication;
+import io.aeron.logbuffer.ControlledFragmentHandler.Action;
+import org.agrona.DirectBuffer;
+import org.agrona.ErrorHandler;
+import org.agrona.concurrent.NoOpIdleStrategy;
+import org.agrona.concurrent.UnsafeBuffer;
+import org.junit.After;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import uk.co.real_logic.artio.builder.Encoder;
+import uk.co.real_logic.artio.messages.DisconnectReason;
+import uk.co.real_logic.artio.messages.MessageStatus;
+import uk.co.real_logic.artio.session.Session;
+
+import java.nio.charset.StandardCharsets;
+
+import static io.aeron.logbuffer.ControlledFragmentHandler.Action.ABORT;
+import static io.aeron.logbuffer.ControlledFragmentHandler.Action.CONTINUE;
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+public class SessionWorkerPoolTest
+{
+    private static final int LIBRARY_ID = 2;
+    private static final long SESSION_ID = 1;
+    private static final long OTHER_SESSION_ID = 2;
+    private static final int SEQUENCE_INDEX = 3;
+    private static final long MESSAGE_TYPE = 'D';
+    private static final long TIMESTAMP = 4;
+    private static final long POSITION = 5;
+    private static final byte[] MESSAGE = "8=FIX.4.4\0019=5\00135=D\00110=000\001".getBytes(StandardCharsets.US_ASCII);
+
+    private final SessionWorkerHandler workerHandler = mock(SessionWorkerHandler.class);
+    private final SessionHandler delegate = mock(SessionHandler.class);
+    private final Session session = mock(Session.class);
+    private final Session otherSession = mock(Session.class);
+    private final Encoder encoder = mock(Encoder.class);
+    private final UnsafeBuffer buffer = new UnsafeBuffer(MESSAGE);
+    private final OnMessageInfo messageInfo = new OnMessageInfo().status(MessageStatus.CATCHUP_REPLAY).isValid(false);
+
+    private final SessionWorkerPool pool = new SessionWorkerPool(
+        2, workerHandler, NoOpIdleStrategy::new, mock(ErrorHandler.class), "", 1024, 2, 10);
+    private final SessionHandler sessionHandler = pool.sessionHandler(delegate);
+
+    {
+        when(session.id()).thenReturn(SESSION_ID);
+        when(otherSession.id()).thenReturn(OTHER_SESSION_ID);
+    }
+
+    @After
+    public void tearDown()
+    {
+        pool.close();
+    }
+
+    @Test
+    public void shouldDispatchMessagesToSessionsWorker()
+    {
+        assertEquals(CONTINUE, onMessage(session));
+
+        final SessionWorker worker = pool.workerFor(SESSION_ID);
+        assertEquals(1, worker.doWork());
+
+        final ArgumentCaptor<DirectBuffer> bufferCaptor = ArgumentCaptor.forClass(DirectBuffer.class);
+        final ArgumentCaptor<Integer> offsetCaptor = ArgumentCaptor.forClass(Integer.class);
+        final ArgumentCaptor<OnMessageInfo> messageInfoCaptor = ArgumentCaptor.forClass(OnMessageInfo.class);
+        verify(workerHandler).onMessage(
+            bufferCaptor.capture(), offsetCaptor.capture(), eq(MESSAGE.length), eq(worker),
+            eq(SESSION_ID), eq(SEQUENCE_INDEX), eq(MESSAGE_TYPE), eq(TIMESTAMP), eq(POSITION),
+            messageInfoCaptor.capture());
+        final byte[] received = new byte[MESSAGE.length];
+        bufferCaptor.getValue().getBytes(offsetCaptor.getValue(), received);
+        assertEquals(new String(MESSAGE, StandardCharsets.US_ASCII), new String(received, StandardCharsets.US_ASCII));
+        final OnMessageInfo receivedMessageInfo = messageInfoCaptor.getValue();
+        assertEquals(MessageStatus.CATCHUP_REPLAY, receivedMessageInfo.status());
+        assertFalse(receivedMessageInfo.isValid());
+        verifyNoInteractions(delegate);
+    }
+
+    @Test
+    public void shouldHashSessionsAcrossWorkers()
+    {
+        assertSame(pool.workerFor(SESSION_ID), pool.workerFor(SESSION_ID));
+        assertNotSame(pool.workerFor(SESSION_ID), pool.workerFor(OTHER_SESSION_ID));
+    }
+
+    @Test
+    public void shouldBackPressureWhenWorkerFallsBehind()
+    {
+        Action action;
+        int messages = 0;
+        while ((action = onMessage(session)) == CONTINUE)
+        {
+            messages++;
+        }
+
+        assertEquals(ABORT, action);
+        assertTrue(messages > 0);
+
+        pool.workerFor(SESSION_ID).doWork();
+        assertEquals(CONTINUE, onMessage(session));
+    }
+
+    @Test
+    public void shouldSendMessagesFromWorkerOnPollingThread()
+    {
+        when(session.trySend(encoder)).thenReturn(100L);
+        onMessage(session);
+        final SessionWorker worker = pool.workerFor(SESSION_ID);
+        worker.doWork();
+
+        assertTrue(worker.trySend(SESSION_ID, encoder));
+        verify(session, never()).trySend(any(Encoder.class));
+
+        assertEquals(1, pool.poll());
+        verify(session).trySend(encoder);
+
+        assertEquals(1, worker.doWork());
+        verify(workerHandler).onSendComplete(worker, SESSION_ID, encoder, 100L);
+    }
+
+    @Test
+    public void shouldRetryBackPressuredSendsInOrder()
+    {
+        final Encoder secondEncoder = mock(Encoder.class);
+        when(session.trySend(encoder)).thenReturn(Publication.BACK_PRESSURED, 100L);
+        when(session.trySend(secondEncoder)).thenReturn(200L);
+        onMessage(session);
+        final SessionWorker worker = pool.workerFor(SESSION_ID);
+
+        assertTrue(worker.trySend(SESSION_ID, encoder));
+        assertTrue(worker.trySend(SESSION_ID, secondEncoder));
+        assertFalse("Should be limited by max pending sends", worker.trySend(SESSION_ID, encoder));
+
+        assertEquals(0, pool.poll());
+        verify(session, never()).trySend(secondEncoder);
+
+        assertEquals(2, pool.poll());
+        worker.doWork();
+        verify(workerHandler).onSendComplete(worker, SESSION_ID, encoder, 100L);
+        verify(workerHandler).onSendComplete(worker, SESSION_ID, secondEncoder, 200L);
+    }
+
+    @Test
+    public void shouldFailSendsToDisconnectedSessions()
+    {
+        onMessage(session);
+        sessionHandler.onDisconnect(LIBRARY_ID, session, DisconnectReason.REMOTE_DISCONNECT);
+        verify(delegate).onDisconnect(LIBRARY_ID, session, DisconnectReason.REMOTE_DISCONNECT);
+
+        final SessionWorker worker = pool.workerFor(SESSION_ID);
+        assertTrue(worker.trySend(SESSION_ID, encoder));
+        assertEquals(1, pool.poll());
+        worker.doWork();
+
+        verify(session, never()).trySend(any(Encoder.class));
+        verify(workerHandler).onSendComplete(worker, SESSION_ID, encoder, Publication.NOT_CONNECTED);
+    }
+
+    private Action onMessage(final Session session)
+    {
+        return sessionHandler.onMessage(
+            buffer, 0, MESSAGE.length, LIBRARY_ID, session, SEQUENCE_INDEX, MESSAGE_TYPE, TIMESTAMP, POSITION,
+            messageInfo);
+    }
+}
@@ -727,6 +727,84 @@ public abstract class AbstractSessionTest
         sendTestRequest(100);
     }
 
+    @Test
+    public void shouldForwardMessageWithOwnSessionHeader()
+    {
+        givenActive();
+        final int expectedSeqNum = session().lastSentMsgSeqNum() + 1;
+        final MutableAsciiBuffer received = new MutableAsciiBuffer(new byte[256]);
+        final int length = received.putStringWithoutLengthAscii(1,
+            "8=FIX.4.4\0019=99\00135=D\00149=CLIENT\00156=HUB\00134=57\00152=20220101-00:00:00.000\00143=Y\001" +
+            "128=VENUE\00111=ORDER1\00155=MSFT\00138=100\00110=123\001");
+        final ForwardingEdits edits = new ForwardingEdits().replace(11, "ORDER2").remove(55);
+
+        assertEquals(POSITION, session().tryForward(received, 1, length, 'D', edits));
+
+        final String forwarded = getSentMessage();
+        assertThat(forwarded, containsString("\00135=D\001"));
+        assertThat(forwarded, containsString("49=senderCompID\00156=targetCompID\00134=" + expectedSeqNum + "\001"));
+        assertThat(forwarded, containsString("\001128=VENUE\00111=ORDER2\00138=100\001"));
+        assertFalse(forwarded, forwarded.contains("CLIENT"));
+        assertFalse(forwarded, forwarded.contains("\00155="));
+        assertFalse(forwarded, forwarded.contains("\00143="));
+        assertEquals(expectedSeqNum, session().lastSentMsgSeqNum());
+
+        final MutableAsciiBuffer sent = (MutableAsciiBuffer)bufferCaptor.getValue();
+        final int sentOffset = offsetCaptor.getValue();
+        final int sentEnd = sentOffset + lengthCaptor.getValue();
+        final int checksumStart = sentEnd - "10=000\001".length();
+        final int bodyLengthStart = sentOffset + forwarded.indexOf("\0019=") + 3;
+        final int bodyStart = sent.scan(bodyLengthStart, sentEnd, '\001') + 1;
+        assertEquals(checksumStart - bodyStart, sent.getNatural(bodyLengthStart, bodyStart - 1));
+        assertEquals(sent.computeChecksum(sentOffset, checksumStart), sent.getNatural(checksumStart + 3, sentEnd - 1));
+    }
+
+    @Test
+    public void shouldForwardDataFieldContainingSeparatorsUsingItsLengthField()
+    {
+        givenActive();
+        final MutableAsciiBuffer received = new MutableAsciiBuffer(new byte[256]);
+        final int length = received.putStringWithoutLengthAscii(1,
+            "8=FIX.4.4\0019=99\00135=D\00149=CLIENT\00156=HUB\00134=57\00152=20220101-00:00:00.000\001" +
+            "95=6\00196=A\00155=B\00111=ORDER1\00155=MSFT\00110=123\001");
+
+        session().tryForward(received, 1, length, 'D', new ForwardingEdits().remove(55));
+        assertThat(getSentMessage(), containsString("\00195=6\00196=A\00155=B\00111=ORDER1\00110="));
+
+        session().tryForward(received, 1, length, 'D', new ForwardingEdits().replace(96, "REPLACED"));
+        assertThat(getSentMessage(), containsString("\00195=8\00196=REPLACED\00111=ORDER1\00155=MSFT\001"));
+
+        session().tryForward(received, 1, length, 'D', new ForwardingEdits().remove(96));
+        final String forwarded = getSentMessage();
+        assertThat(forwarded, containsString("\00134=" + session().lastSentMsgSeqNum() + "\00152="));
+        assertThat(forwarded, containsString("\00111=ORDER1\00155=MSFT\001"));
+        assertFalse(forwarded, forwarded.contains("\00195="));
+        assertFalse(forwarded, forwarded.contains("\00196="));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldNotAllowEditsToDataLengthFields()
+    {
+        new ForwardingEdits().replace(95, "3");
+    }
+
+    @Test
+    public void shouldForwardMessageWithRepeatingGroupRemoved()
+    {
+        givenActive();
+        final MutableAsciiBuffer received = new MutableAsciiBuffer(new byte[256]);
+        final int length = received.putStringWithoutLengthAscii(1,
+            "8=FIX.4.4\0019=99\00135=D\00149=CLIENT\00156=HUB\00134=57\00152=20220101-00:00:00.000\001" +
+            "11=ORDER1\001453=2\001448=A\001447=D\001452=1\001448=B\001447=D\001452=3\00155=MSFT\00110=123\001");
+        final ForwardingEdits edits = new ForwardingEdits().removeGroup(453, 448, 447, 452);
+
+        session().tryForward(received, 1, length, 'D', edits);
+
+        final String forwarded = getSentMessage();
+        assertThat(forwarded, containsString("\00111=ORDER1\00155=MSFT\001"));
+        assertFalse(forwarded, forwarded.contains("\001448="));
+    }
+
     @Test
     public void shouldResendRequestShorterThanResendRequestChunkSizeWhenClosedResendInterval()
     {
@@ -24,6 +24,7 @@ import uk.co.real_logic.artio.dictionary.FixDictionary;
 import uk.co.real_logic.artio.fields.RejectReason;
 import uk.co.real_logic.artio.library.OnMessageInfo;
 import uk.co.real_logic.artio.messages.SessionState;
+import uk.co.real_logic.artio.util.TagOffsetTable;
 import uk.co.real_logic.artio.validation.AuthenticationStrategy;
 import uk.co.real_logic.artio.validation.MessageValidationStrategy;
 
@@ -39,6 +40,8 @@ public class SessionParserTest
     private final AuthenticationStrategy mockAuthenticationStrategy = mock(AuthenticationStrategy.class);
     private final MessageValidationStrategy validationStrategy = MessageValidationStrategy.targetCompId("das");
     private final OnMessageInfo messageInfo = mock(OnMessageInfo.class);
+    private final TagOffsetTable tagOffsets = new TagOffsetTable();
+    private final UnsafeBuffer tagOffsetsBuffer = new UnsafeBuffer(new byte[32 * TagOffsetTable.ENTRY_LENGTH]);
 
     private final SessionParser parser = new SessionParser(
         mockSession, validationStrategy, LangUtil::rethrowUnchecked,
@@ -51,6 +54,7 @@ public class SessionParserTest
 
         when(mockAuthenticationStrategy.authenticate(any(LogonDecoder.class))).thenReturn(true);
         when(mockSession.onBeginString(any(), anyInt(), anyBoolean())).thenReturn(true);
+        when(messageInfo.tagOffsets()).thenReturn(tagOffsets);
     }
 
     @Test
@@ -99,6 +103,84 @@ public class SessionParserTest
         verify(mockSession, never()).onInvalidMessageType(anyInt(), any(), anyInt(), eq(POSITION));
     }
 
+    @Test
+    public void shouldOnlyValidateHeaderWhenCompIdsChange()
+    {
+        final MessageValidationStrategy validationStrategy = mock(MessageValidationStrategy.class);
+        when(validationStrategy.validatesCompIdsOnly()).thenReturn(true);
+        when(validationStrategy.validate(any())).thenReturn(true);
+        final SessionParser parser = new SessionParser(
+            mockSession, validationStrategy, LangUtil::rethrowUnchecked, false, true, messageInfo, null);
+        parser.fixDictionary(FixDictionary.of(FixDictionary.findDefault()));
+
+        onNewOrderSingle(parser, 2, "das", "");
+        onNewOrderSingle(parser, 3, "das", "43=Y\001122=20090323-15:40:28\001");
+        verify(validationStrategy, times(1)).validate(any());
+
+        onNewOrderSingle(parser, 4, "other", "");
+        verify(validationStrategy, times(2)).validate(any());
+
+        verify(mockSession).onMessage(
+            eq(2), any(char[].class), eq(1), anyLong(), eq(Session.UNKNOWN), eq(false), eq(false), eq(POSITION));
+        verify(mockSession).onMessage(
+            eq(3), any(char[].class), eq(1), eq(1237822829000L), eq(1237822828000L), eq(true), eq(true),
+            eq(POSITION));
+        verify(mockSession).onMessage(
+            eq(4), any(char[].class), eq(1), anyLong(), eq(Session.UNKNOWN), eq(false), eq(false), eq(POSITION));
+    }
+
+    @Test
+    public void shouldScanHeaderUsingTagOffsetTable()
+    {
+        final MessageValidationStrategy validationStrategy = mock(MessageValidationStrategy.class);
+        when(validationStrategy.validatesCompIdsOnly()).thenReturn(true);
+        when(validationStrategy.validate(any())).thenReturn(true);
+        final SessionParser parser = new SessionParser(
+            mockSession, validationStrategy, LangUtil::rethrowUnchecked, false, true, messageInfo, null);
+        parser.fixDictionary(FixDictionary.of(FixDictionary.findDefault()));
+
+        // The first table ends part way through the header, so the rest of the header gets scanned.
+        onNewOrderSingle(parser, 2, "das", "", 4);
+        onNewOrderSingle(parser, 3, "das", "43=Y\001122=20090323-15:40:28\001", 32);
+        verify(validationStrategy, times(1)).validate(any());
+
+        onNewOrderSingle(parser, 4, "other", "", 32);
+        verify(validationStrategy, times(2)).validate(any());
+
+        verify(mockSession).onMessage(
+            eq(2), any(char[].class), eq(1), anyLong(), eq(Session.UNKNOWN), eq(false), eq(false), eq(POSITION));
+        verify(mockSession).onMessage(
+            eq(3), any(char[].class), eq(1), eq(1237822829000L), eq(1237822828000L), eq(true), eq(true),
+            eq(POSITION));
+        verify(mockSession).onMessage(
+            eq(4), any(char[].class), eq(1), anyLong(), eq(Session.UNKNOWN), eq(false), eq(false), eq(POSITION));
+    }
+
+    private void onNewOrderSingle(
+        final SessionParser parser, final int msgSeqNum, final String targetCompId, final String extraHeaderFields)
+    {
+        onNewOrderSingle(parser, msgSeqNum, targetCompId, extraHeaderFields, 0);
+    }
+
+    private void onNewOrderSingle(
+        final SessionParser parser,
+        final int msgSeqNum,
+        final String targetCompId,
+        final String extraHeaderFields,
+        final int tagOffsetTableFields)
+    {
+        final UnsafeBuffer buffer = bufferOf(
+            "8=FIX.4.4\0019=146\00135=D\00134=" + msgSeqNum + "\00149=abc\00152=20090323-15:40:29\001" +
+            extraHeaderFields + "56=" + targetCompId + "\00111=NF 0542/03232009\00154=1\00138=100\001" +
+            "55=CVS\00140=1\00159=0\00147=A\00160=20090323-15:40:29\00121=1\001207=N\00110=195\001");
+
+        final int tableLength = TagOffsetTable.encode(
+            buffer, 0, buffer.capacity(), tagOffsetsBuffer, 0, tagOffsetTableFields);
+        tagOffsets.wrap(tagOffsetsBuffer, 0, tableLength);
+
+        parser.onMessage(buffer, 0, buffer.capacity(), 'D', POSITION);
+    }
+
     private UnsafeBuffer bufferOf(final String str)
     {
         return new UnsafeBuffer(str.getBytes(US_ASCII));
@@ -0,0 +1,117 @@
+/*
+ * Copyright 2015-2022 Real Logic Limited.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.timing;
+
+import org.agrona.ErrorHandler;
+import org.agrona.concurrent.UnsafeBuffer;
+import org.agrona.concurrent.status.AtomicCounter;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.util.Collections;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.mockito.Mockito.*;
+
+public class DutyCycleStallDetectorTest
+{
+    private static final long STALL_THRESHOLD_IN_MS = 100;
+    private static final long STALL_THRESHOLD_IN_NS = MILLISECONDS.toNanos(STALL_THRESHOLD_IN_MS);
+
+    private final ErrorHandler errorHandler = mock(ErrorHandler.class);
+    private final AtomicCounter dutyCycleStartTime = new AtomicCounter(new UnsafeBuffer(new byte[128]), 0);
+    private final AtomicCounter stalls = new AtomicCounter(new UnsafeBuffer(new byte[128]), 0);
+    private final DutyCycleTracker tracker = new DutyCycleTracker("Framer", dutyCycleStartTime, stalls, null);
+
+    private long timeInNs = System.nanoTime();
+    private final DutyCycleStallDetector detector = new DutyCycleStallDetector(
+        Collections.singletonList(tracker), STALL_THRESHOLD_IN_MS, errorHandler, () -> timeInNs, "");
+
+    @Test
+    public void shouldNotReportStallsBeforeFirstDutyCycle()
+    {
+        timeInNs += 2 * STALL_THRESHOLD_IN_NS;
+
+        assertEquals(0, detector.doWork());
+        verifyNoInteractions(errorHandler);
+    }
+
+    @Test
+    public void shouldNotReportDutyCyclesWithinThreshold()
+    {
+        tracker.onDutyCycleStart();
+        timeInNs = dutyCycleStartTime.get() + STALL_THRESHOLD_IN_NS / 2;
+
+        assertEquals(0, detector.doWork());
+        verifyNoInteractions(errorHandler);
+        assertEquals(0, stalls.get());
+    }
+
+    @Test
+    public void shouldNotReportTimeBetweenDutyCyclesAsStall()
+    {
+        tracker.onDutyCycleStart();
+        timeInNs = dutyCycleStartTime.get();
+        tracker.onDutyCycleEnd();
+        timeInNs += 2 * STALL_THRESHOLD_IN_NS;
+
+        assertEquals(0, detector.doWork());
+        verifyNoInteractions(errorHandler);
+        assertEquals(0, stalls.get());
+    }
+
+    @Test
+    public void shouldReportStallOnceWithStackTraceOfStalledThread()
+    {
+        tracker.onDutyCycleStart();
+        timeInNs = dutyCycleStartTime.get() + 2 * STALL_THRESHOLD_IN_NS;
+
+        assertEquals(1, detector.doWork());
+
+        final ArgumentCaptor<Throwable> error = ArgumentCaptor.forClass(Throwable.class);
+        verify(errorHandler).onError(error.capture());
+        assertThat(error.getValue().getMessage(), containsString("Framer duty cycle stalled for 200ms"));
+        assertNotEquals(0, error.getValue().getStackTrace().length);
+        assertEquals(1, stalls.get());
+
+        timeInNs += STALL_THRESHOLD_IN_NS;
+        assertEquals(0, detector.doWork());
+        verifyNoMoreInteractions(errorHandler);
+        assertEquals(1, stalls.get());
+    }
+
+    @Test
+    public void shouldDetectNewStallAfterDutyCycleCompletes()
+    {
+        tracker.onDutyCycleStart();
+        timeInNs = dutyCycleStartTime.get() + 2 * STALL_THRESHOLD_IN_NS;
+        assertEquals(1, detector.doWork());
+
+        tracker.onDutyCycleEnd();
+        tracker.onDutyCycleStart();
+        timeInNs = dutyCycleStartTime.get() + STALL_THRESHOLD_IN_NS;
+        assertEquals(1, detector.doWork());
+
+        timeInNs += 2 * STALL_THRESHOLD_IN_NS;
+        assertEquals(1, detector.doWork());
+        verify(errorHandler, times(2)).onError(any());
+        assertEquals(2, stalls.get());
+    }
+}
@@ -0,0 +1,75 @@
+/*
+ * Copyright 2015-2022 Real Logic Limited.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.timing;
+
+import org.agrona.concurrent.Agent;
+import org.agrona.concurrent.status.AtomicCounter;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+public class ProfilingAgentTest
+{
+    private static final int SAMPLE_INTERVAL = 2;
+
+    private final Agent delegate = mock(Agent.class);
+    private final AtomicCounter dutyCycles = mock(AtomicCounter.class);
+    private final AtomicCounter workCount = mock(AtomicCounter.class);
+    private final AtomicCounter maxDutyCycleTime = mock(AtomicCounter.class);
+    private final AtomicCounter allocatedBytes = mock(AtomicCounter.class);
+
+    private final ProfilingAgent agent = new ProfilingAgent(delegate, new DutyCycleProfiler(
+        null, SAMPLE_INTERVAL, dutyCycles, workCount, maxDutyCycleTime, allocatedBytes));
+
+    @Test
+    public void shouldPublishCountersEverySampleInterval() throws Exception
+    {
+        when(delegate.doWork()).thenReturn(3, 0, 5);
+
+        assertEquals(3, agent.doWork());
+        verifyNoInteractions(dutyCycles, workCount, maxDutyCycleTime, allocatedBytes);
+
+        assertEquals(0, agent.doWork());
+        verify(dutyCycles).setOrdered(2);
+        verify(workCount).setOrdered(3);
+        verify(maxDutyCycleTime).setOrdered(anyLong());
+        verify(allocatedBytes).setOrdered(anyLong());
+
+        assertEquals(5, agent.doWork());
+        verifyNoMoreInteractions(dutyCycles, workCount);
+    }
+
+    @Test
+    public void shouldDelegateLifecycle()
+    {
+        when(delegate.roleName()).thenReturn("Framer");
+
+        agent.onStart();
+        agent.onClose();
+
+        assertEquals("Framer", agent.roleName());
+        verify(delegate).onStart();
+        verify(delegate).onClose();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldRejectNonPositiveSampleInterval()
+    {
+        new DutyCycleProfiler(null, 0, dutyCycles, workCount, maxDutyCycleTime, allocatedBytes);
+    }
+}
@@ -0,0 +1,60 @@
+/*
+ * Copyright 2014-2021 Real Logic Limited.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio;
+
+import org.openjdk.jmh.annotations.*;
+import uk.co.real_logic.artio.util.MutableAsciiBuffer;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark for the {@link uk.co.real_logic.artio.util.MutableAsciiBuffer#computeChecksum(int, int)} method.
+ */
+@Fork(1)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@State(Scope.Benchmark)
+public class ChecksumBenchmark
+{
+    @Param({ "1", "7" })
+    private int offset;
+    @Param({ "64", "256", "1024", "8192" })
+    private int length;
+
+    private final MutableAsciiBuffer buffer = new MutableAsciiBuffer(new byte[16 * 1024]);
+
+    @Setup
+    public void setup()
+    {
+        for (int i = 0; i < buffer.capacity(); i++)
+        {
+            buffer.putByte(i, (byte)('0' + i % 10));
+        }
+    }
+
+    /**
+     * Benchmark {@link uk.co.real_logic.artio.util.MutableAsciiBuffer#computeChecksum(int, int)} method
+     *
+     * @return the checksum of the range.
+     */
+    @Benchmark
+    public int benchmark()
+    {
+        return buffer.computeChecksum(offset, offset + length);
+    }
+}
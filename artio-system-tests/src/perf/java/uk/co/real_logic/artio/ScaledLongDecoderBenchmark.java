@@ -0,0 +1,77 @@
+/*
+ * Copyright 2014-2021 Real Logic Limited.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio;
+
+import org.openjdk.jmh.annotations.*;
+import uk.co.real_logic.artio.fields.DecimalFloat;
+import uk.co.real_logic.artio.util.MutableAsciiBuffer;
+
+import java.util.concurrent.TimeUnit;
+
+import static java.nio.charset.StandardCharsets.US_ASCII;
+
+/**
+ * Compares decoding a price into a fixed scale long with
+ * {@link uk.co.real_logic.artio.util.MutableAsciiBuffer#getFloatAsScaledLong(int, int, int)} against decoding it into
+ * a {@link DecimalFloat} and converting it.
+ */
+@Fork(1)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@State(Scope.Benchmark)
+public class ScaledLongDecoderBenchmark
+{
+    private static final int SCALE = 8;
+
+    @Param({ "0", "55.36", "-0.92117125", "6456.00000001", "9999999999.99999999" })
+    private String value;
+
+    private final MutableAsciiBuffer buffer = new MutableAsciiBuffer(new byte[64]);
+    private final DecimalFloat decimalFloat = new DecimalFloat();
+    private int length;
+
+    @Setup
+    public void setup()
+    {
+        final byte[] bytes = value.getBytes(US_ASCII);
+        buffer.putBytes(0, bytes);
+        length = bytes.length;
+    }
+
+    /**
+     * Benchmark {@link uk.co.real_logic.artio.util.MutableAsciiBuffer#getFloatAsScaledLong(int, int, int)}.
+     *
+     * @return the decoded value at a scale of 8.
+     */
+    @Benchmark
+    public long scaledLong()
+    {
+        return buffer.getFloatAsScaledLong(0, length, SCALE);
+    }
+
+    /**
+     * Benchmark decoding into a {@link DecimalFloat} and then converting it to a scale of 8.
+     *
+     * @return the decoded value at a scale of 8.
+     */
+    @Benchmark
+    public long decimalFloat()
+    {
+        return buffer.getFloat(decimalFloat, 0, length).toScaledLong(SCALE);
+    }
+}